@@ -1,17 +1,85 @@
-import axios from 'axios';
+import axios, { AxiosError, InternalAxiosRequestConfig } from 'axios';
+
+const baseURL = 'http://localhost:9191/api'; // Spring Boot runs on port 9191 as per application.properties
+
+// Refresh the access token when it has less than this left
+const REFRESH_MARGIN_MS = 30000;
+
+// Tokens returned by signin and refresh
+export interface SessionTokens {
+  token: string;
+  refreshToken?: string;
+  expiresIn?: number;
+}
+
+// Store the tokens of a new session or of a refresh
+export const storeSession = (tokens: SessionTokens) => {
+  localStorage.setItem('token', tokens.token);
+  if (tokens.refreshToken) {
+    localStorage.setItem('refreshToken', tokens.refreshToken);
+  }
+  if (tokens.expiresIn) {
+    localStorage.setItem('tokenExpiresAt', String(Date.now() + tokens.expiresIn * 1000));
+  }
+};
+
+// Forget the session stored in the browser
+export const clearSession = () => {
+  localStorage.removeItem('token');
+  localStorage.removeItem('refreshToken');
+  localStorage.removeItem('tokenExpiresAt');
+  localStorage.removeItem('user');
+};
 
 // Create an axios instance with default config
 const api = axios.create({
-  baseURL: 'http://localhost:9191/api', // Spring Boot runs on port 9191 as per application.properties
+  baseURL,
   headers: {
     'Content-Type': 'application/json',
   },
   withCredentials: true, // Important for cookies/sessions
 });
 
+// The refresh in progress, shared by every request that needs a new token
+let refreshing: Promise<string> | null = null;
+
+// Exchange the refresh token for new tokens, one refresh at a time
+const refreshAccessToken = (): Promise<string> => {
+  if (!refreshing) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    // A plain axios call, so a failed refresh does not go through the interceptors again
+    refreshing = (refreshToken
+      ? axios.post<SessionTokens>(`${baseURL}/auth/refresh`, { refreshToken }, { withCredentials: true })
+          .then((response) => {
+            storeSession(response.data);
+            return response.data.token;
+          })
+      : Promise.reject(new Error('No refresh token')))
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+};
+
+const isAuthRequest = (config?: InternalAxiosRequestConfig) =>
+  !!config?.url && config.url.startsWith('/auth/') && config.url !== '/auth/logout';
+
+const expiresSoon = () => {
+  const expiresAt = Number(localStorage.getItem('tokenExpiresAt'));
+  return !!expiresAt && expiresAt - Date.now() < REFRESH_MARGIN_MS;
+};
+
 // Add a request interceptor to add the auth token to every request
 api.interceptors.request.use(
-  (config) => {
+  async (config) => {
+    if (!isAuthRequest(config) && localStorage.getItem('refreshToken') && expiresSoon()) {
+      try {
+        await refreshAccessToken();
+      } catch (error) {
+        // Send the request with the old token; a 401 signs the user out
+      }
+    }
     const token = localStorage.getItem('token');
     if (token) {
       config.headers.Authorization = `Bearer ${token}`;
@@ -28,14 +96,25 @@ api.interceptors.response.use(
   (response) => {
     return response;
   },
-  (error) => {
+  async (error: AxiosError) => {
+    const config = error.config as (InternalAxiosRequestConfig & { _retried?: boolean }) | undefined;
     // Handle 401 Unauthorized errors (token expired, etc.)
     if (error.response && error.response.status === 401) {
-      localStorage.removeItem('token');
+      if (config && !config._retried && !isAuthRequest(config) && localStorage.getItem('refreshToken')) {
+        config._retried = true;
+        try {
+          const token = await refreshAccessToken();
+          config.headers.Authorization = `Bearer ${token}`;
+          return api(config);
+        } catch (refreshError) {
+          // The refresh token expired or was revoked; sign in again
+        }
+      }
+      clearSession();
       window.location.href = '/login';
     }
     return Promise.reject(error);
   }
 );
 
-export default api;
\ No newline at end of file
+export default api;
@@ -1,4 +1,4 @@
-import api from './api';
+import api, { clearSession, storeSession } from './api';
 
 // Types
 export interface LoginRequest {
@@ -26,6 +26,8 @@ export interface AuthResponse {
   username: string;
   email: string;
   roles: string[];
+  refreshToken: string;
+  expiresIn: number;
 }
 
 // Authentication service
@@ -34,8 +36,9 @@ const authService = {
   login: async (loginRequest: LoginRequest) => {
     const response = await api.post<AuthResponse>('/auth/signin', loginRequest);
     if (response.data.token) {
-      localStorage.setItem('token', response.data.token);
-      localStorage.setItem('user', JSON.stringify(response.data));
+      const { token, refreshToken, expiresIn, ...user } = response.data;
+      storeSession({ token, refreshToken, expiresIn });
+      localStorage.setItem('user', JSON.stringify(user));
     }
     return response.data;
   },
@@ -50,10 +53,18 @@ const authService = {
     return await api.post('/auth/forgot-password', forgotPasswordRequest);
   },
 
-  // Logout user
-  logout: () => {
-    localStorage.removeItem('token');
-    localStorage.removeItem('user');
+  // Logout user, revoking the access token and the refresh token family on the server
+  logout: async () => {
+    const refreshToken = localStorage.getItem('refreshToken');
+    try {
+      if (localStorage.getItem('token')) {
+        await api.post('/auth/logout', refreshToken ? { refreshToken } : {});
+      }
+    } catch (error) {
+      // Signed out locally even if the server cannot be reached
+    } finally {
+      clearSession();
+    }
   },
 
   // Get current user
@@ -84,9 +95,8 @@ const authService = {
       await api.get('/forms');
       return true;
     } catch (error) {
-      // If the request fails, the token is invalid or expired
-      localStorage.removeItem('token');
-      localStorage.removeItem('user');
+      // If the request fails, the token is invalid or expired and could not be refreshed
+      clearSession();
       return false;
     }
   }
@@ -0,0 +1,52 @@
+package com.FeedBackCollectionForm.assignment.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the ID sequences of forms, form versions, questions and options
+ * past the IDs already in their tables. These tables used identity columns
+ * before, so in an existing database their sequences start behind the
+ * stored rows. Runs once the schema is updated and before the application
+ * takes requests.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceAligner {
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    // Must match the allocationSize of the entities' @SequenceGenerator
+    private static final long ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "forms", "forms_seq",
+            "form_versions", "form_versions_seq",
+            "questions", "questions_seq",
+            "options", "options_seq");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void align() {
+        SEQUENCES.forEach((table, sequence) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            Long next = jdbcTemplate.queryForObject(
+                    "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                    Long.class, sequence.toUpperCase());
+            // The pooled optimizer hands out the ALLOCATION_SIZE IDs up to each value it reads
+            long restart = maxId + ALLOCATION_SIZE;
+            if (maxId > 0 && next != null && next < restart) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart);
+                logger.info("Moved sequence {} past the {} IDs of {}", sequence, maxId, table);
+            }
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.FeedBackCollectionForm.assignment.config;
+
+import com.FeedBackCollectionForm.assignment.model.QuestionStatKind;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drops the check constraint on question_stats.kind when it does not allow
+ * every {@link QuestionStatKind}. Hibernate derives the constraint from the
+ * enum when it creates the table but never updates it, so kinds added later
+ * would be rejected in an existing database. Runs once the schema is updated
+ * and before the application takes requests.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class QuestionStatKindAligner {
+    private static final Logger logger = LoggerFactory.getLogger(QuestionStatKindAligner.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void align() {
+        List<Map<String, Object>> checks = jdbcTemplate.queryForList(
+                "SELECT cc.CONSTRAINT_NAME, cc.CHECK_CLAUSE FROM INFORMATION_SCHEMA.CHECK_CONSTRAINTS cc " +
+                "JOIN INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc " +
+                "ON tc.CONSTRAINT_SCHEMA = cc.CONSTRAINT_SCHEMA AND tc.CONSTRAINT_NAME = cc.CONSTRAINT_NAME " +
+                "WHERE tc.TABLE_NAME = 'QUESTION_STATS' AND cc.CHECK_CLAUSE LIKE '%\"KIND\"%'");
+        for (Map<String, Object> check : checks) {
+            String clause = (String) check.get("CHECK_CLAUSE");
+            boolean stale = Arrays.stream(QuestionStatKind.values())
+                    .anyMatch(kind -> !clause.contains("'" + kind.name() + "'"));
+            if (stale) {
+                jdbcTemplate.execute("ALTER TABLE question_stats DROP CONSTRAINT \"" + check.get("CONSTRAINT_NAME") + "\"");
+                logger.info("Dropped outdated check constraint on question_stats.kind: {}", clause);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.FeedBackCollectionForm.assignment.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the periodic jobs that persist in-memory analytics state.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,115 @@
+package com.FeedBackCollectionForm.assignment.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that keeps one in N events of chatty logger
+ * categories, such as the per-request lines of the JWT filter. Turbo filters
+ * run before the event is created, so dropped events cost neither message
+ * formatting nor a trip through the appenders. Events at or above maxLevel
+ * (WARN by default) are always kept.
+ *
+ * <p>Between {@link #beginRequest()} and {@link #endRequest()} the sample is
+ * taken by request instead of by event: a category keeps every line of one
+ * in N requests and none of the others, so a kept request can be followed
+ * from start to end. Events outside a request are sampled one by one.
+ *
+ * <p>Configured in logback-spring.xml with one {@code <category>} element
+ * per logger, as {@code logger.name=N}; a category also covers its child
+ * loggers.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private final List<Category> categories = new ArrayList<>();
+    private final Map<String, Category> byLogger = new ConcurrentHashMap<>();
+    private Level maxLevel = Level.WARN;
+
+    // Marks loggers outside every category in byLogger, which cannot hold nulls
+    private static final Category NONE = new Category("", 1);
+
+    /** MDC key holding the sequence number of the request the thread is serving. */
+    public static final String REQUEST_KEY = "sampledRequest";
+
+    private static final AtomicLong requests = new AtomicLong();
+
+    /**
+     * Starts sampling the events of the current thread as one request. Must
+     * be paired with {@link #endRequest()} in a finally block.
+     */
+    public static void beginRequest() {
+        MDC.put(REQUEST_KEY, Long.toString(requests.getAndIncrement()));
+    }
+
+    /** Ends the request started by {@link #beginRequest()} on this thread. */
+    public static void endRequest() {
+        MDC.remove(REQUEST_KEY);
+    }
+
+    public void addCategory(String spec) {
+        int separator = spec.lastIndexOf('=');
+        if (separator <= 0) {
+            addError("Sampling category must be logger.name=N: " + spec);
+            return;
+        }
+        try {
+            long rate = Long.parseLong(spec.substring(separator + 1).trim());
+            categories.add(new Category(spec.substring(0, separator).trim(), Math.max(1, rate)));
+        } catch (NumberFormatException e) {
+            addError("Invalid sampling rate in " + spec);
+        }
+    }
+
+    public void setMaxLevel(String level) {
+        this.maxLevel = Level.toLevel(level, Level.WARN);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || level == null || level.isGreaterOrEqual(maxLevel)) {
+            return FilterReply.NEUTRAL;
+        }
+        Category category = byLogger.computeIfAbsent(logger.getName(), this::categoryOf);
+        if (category == NONE || category.rate == 1) {
+            return FilterReply.NEUTRAL;
+        }
+        // isInfoEnabled() and similar checks pass no format; answer them without consuming a sample
+        if (format == null) {
+            return FilterReply.NEUTRAL;
+        }
+        String request = MDC.get(REQUEST_KEY);
+        long sample = request != null ? Long.parseLong(request) : category.counter.getAndIncrement();
+        return sample % category.rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Category categoryOf(String loggerName) {
+        Category match = NONE;
+        for (Category category : categories) {
+            boolean covers = loggerName.equals(category.name) || loggerName.startsWith(category.name + ".");
+            if (covers && category.name.length() > match.name.length()) {
+                match = category;
+            }
+        }
+        return match;
+    }
+
+    private static class Category {
+        private final String name;
+        private final long rate;
+        private final AtomicLong counter = new AtomicLong();
+
+        Category(String name, long rate) {
+            this.name = name;
+            this.rate = rate;
+        }
+    }
+}
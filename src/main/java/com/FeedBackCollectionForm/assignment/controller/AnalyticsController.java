@@ -0,0 +1,177 @@
+package com.FeedBackCollectionForm.assignment.controller;
+
+import com.FeedBackCollectionForm.assignment.payload.response.CrosstabResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.FormAnalyticsResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.SubmissionSeriesResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.TermFrequencyResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.UniqueRespondentsResponse;
+import com.FeedBackCollectionForm.assignment.security.services.UserDetailsImpl;
+import com.FeedBackCollectionForm.assignment.service.FormAnalyticsService;
+import com.FeedBackCollectionForm.assignment.service.LiveUpdateService;
+import com.FeedBackCollectionForm.assignment.service.RespondentSketchService;
+import com.FeedBackCollectionForm.assignment.service.SubmissionSeriesService;
+import com.FeedBackCollectionForm.assignment.service.analytics.AnalyticsMode;
+import com.FeedBackCollectionForm.assignment.service.analytics.SeriesResolution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Controller for form analytics served from precomputed rollups.
+ */
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175", 
+                      "http://127.0.0.1:5173", "http://127.0.0.1:5174", "http://127.0.0.1:5175"}, 
+           maxAge = 3600, allowCredentials = "true")
+@RestController
+@RequestMapping("/api")
+public class AnalyticsController {
+
+    @Autowired
+    private FormAnalyticsService formAnalyticsService;
+
+    @Autowired
+    private SubmissionSeriesService submissionSeriesService;
+
+    @Autowired
+    private RespondentSketchService respondentSketchService;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    /**
+     * Gets per-question analytics for a form.
+     * 
+     * @param formId The ID of the form
+     * @param userDetails The authenticated user details
+     * @return Option distributions and rating summaries for every question, and the
+     *         estimated number of unique respondents
+     */
+    @GetMapping("/forms/{formId}/analytics")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<FormAnalyticsResponse> getFormAnalytics(
+            @PathVariable Long formId,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        FormAnalyticsResponse analytics = formAnalyticsService.getFormAnalytics(formId, userDetails.getUsername());
+        return ResponseEntity.ok(analytics);
+    }
+
+    /**
+     * Streams live results of a form as Server-Sent Events: a "submissions"
+     * event with the responses received since the previous update and a
+     * "snapshot" event with the same body as the analytics endpoint. Updates
+     * are coalesced to a few per second. The stream needs the usual bearer
+     * token, so browsers have to read it with fetch rather than EventSource.
+     * 
+     * @param formId The ID of the form
+     * @param userDetails The authenticated user details
+     * @return The event stream
+     */
+    @GetMapping(value = "/forms/{formId}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public SseEmitter streamLiveResults(
+            @PathVariable Long formId,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        return liveUpdateService.subscribe(formId, userDetails.getUsername());
+    }
+
+    /**
+     * Gets the most mentioned terms and word pairs of a text question.
+     * Counts are the number of answers mentioning a term; they may
+     * overestimate by at most the reported error bound.
+     * 
+     * @param formId The ID of the form
+     * @param questionId The ID of the text question
+     * @param limit The maximum number of terms and of bigrams, defaults to 20
+     * @param userDetails The authenticated user details
+     * @return The top terms and bigrams
+     */
+    @GetMapping("/forms/{formId}/questions/{questionId}/terms")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<TermFrequencyResponse> getTermFrequencies(
+            @PathVariable Long formId,
+            @PathVariable Long questionId,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        TermFrequencyResponse terms = formAnalyticsService.getTermFrequencies(formId, questionId,
+                userDetails.getUsername(), limit);
+        return ResponseEntity.ok(terms);
+    }
+
+    /**
+     * Cross-tabulates two choice or rating questions, e.g. satisfaction
+     * rating by department. Multi-select answers count once for every
+     * selected option. On forms above app.sampling.exact-max-responses the
+     * table is estimated from a random sample unless mode=exact is given.
+     * 
+     * @param formId The ID of the form
+     * @param rows The ID of the question whose answers form the rows
+     * @param cols The ID of the question whose answers form the columns
+     * @param mode exact, approximate or auto, defaults to auto
+     * @param userDetails The authenticated user details
+     * @return The number of responses for every pair of answers, with totals
+     */
+    @GetMapping("/forms/{formId}/analytics/crosstab")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<CrosstabResponse> getCrosstab(
+            @PathVariable Long formId,
+            @RequestParam Long rows,
+            @RequestParam Long cols,
+            @RequestParam(required = false) String mode,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        CrosstabResponse crosstab = formAnalyticsService.getCrosstab(formId, rows, cols,
+                AnalyticsMode.fromParam(mode), userDetails.getUsername());
+        return ResponseEntity.ok(crosstab);
+    }
+
+    /**
+     * Gets the number of submissions per minute, hour or day for a time range.
+     * Minute and hour buckets cover a rolling retention window (24 hours and
+     * 14 days by default); day buckets cover any range.
+     * 
+     * @param formId The ID of the form
+     * @param resolution minute, hour (default) or day
+     * @param from The start of the range (ISO date-time), optional
+     * @param to The end of the range (ISO date-time), defaults to now
+     * @param userDetails The authenticated user details
+     * @return The submission counts per bucket
+     */
+    @GetMapping("/forms/{formId}/analytics/submissions")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<SubmissionSeriesResponse> getSubmissionSeries(
+            @PathVariable Long formId,
+            @RequestParam(required = false) String resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        SubmissionSeriesResponse series = submissionSeriesService.getSeries(formId, userDetails.getUsername(),
+                SeriesResolution.fromParam(resolution), from, to);
+        return ResponseEntity.ok(series);
+    }
+
+    /**
+     * Estimates the number of distinct respondents across the user's forms,
+     * counting people who answered several forms once. The estimate has a
+     * relative standard error of about 0.81%.
+     * 
+     * @param formIds The forms to include, defaults to all forms of the user
+     * @param userDetails The authenticated user details
+     * @return The merged unique-respondent estimate
+     */
+    @GetMapping("/analytics/respondents")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<UniqueRespondentsResponse> getUniqueRespondents(
+            @RequestParam(required = false) List<Long> formIds,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        UniqueRespondentsResponse respondents = respondentSketchService.estimateForOwner(
+                userDetails.getUsername(), formIds);
+        return ResponseEntity.ok(respondents);
+    }
+}
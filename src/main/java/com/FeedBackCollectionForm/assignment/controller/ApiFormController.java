@@ -1,11 +1,15 @@
 package com.FeedBackCollectionForm.assignment.controller;
 
+import com.FeedBackCollectionForm.assignment.payload.request.FormPatchRequest;
 import com.FeedBackCollectionForm.assignment.payload.request.FormRequest;
 import com.FeedBackCollectionForm.assignment.payload.response.FormResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.FormVersionResponse;
 import com.FeedBackCollectionForm.assignment.payload.response.MessageResponse;
 import com.FeedBackCollectionForm.assignment.security.services.UserDetailsImpl;
 import com.FeedBackCollectionForm.assignment.service.FormService;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -23,6 +27,7 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/forms")
 public class ApiFormController {
+    private static final Logger logger = LoggerFactory.getLogger(ApiFormController.class);
 
     @Autowired
     private FormService formService;
@@ -42,8 +47,7 @@ public class ApiFormController {
             FormResponse form = formService.createForm(formRequest, userDetails.getUsername());
             return ResponseEntity.ok(form);
         } catch (Exception e) {
-            System.err.println("Error creating form: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error creating form: {}", e.getMessage(), e);
             return ResponseEntity.ok(new MessageResponse("Failed to create form. Please try again later."));
         }
     }
@@ -61,8 +65,7 @@ public class ApiFormController {
             List<FormResponse> forms = formService.getAllFormsByUser(userDetails.getUsername());
             return ResponseEntity.ok(forms);
         } catch (Exception e) {
-            System.err.println("Error getting all forms: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error getting all forms: {}", e.getMessage(), e);
             return ResponseEntity.ok(List.of()); // Return empty list instead of error
         }
     }
@@ -82,12 +85,74 @@ public class ApiFormController {
             FormResponse form = formService.getFormById(id, userDetails.getUsername());
             return ResponseEntity.ok(form);
         } catch (Exception e) {
-            System.err.println("Error getting form by ID: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error getting form by ID: {}", e.getMessage(), e);
             return ResponseEntity.ok(new MessageResponse("Failed to load form. Please try again later."));
         }
     }
 
+    /**
+     * Lists the published versions of a form, newest first.
+     * 
+     * @param id The form ID
+     * @param userDetails The authenticated user details
+     * @return A response entity with the versions, without their structure
+     */
+    @GetMapping("/{id}/versions")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<?> getFormVersions(@PathVariable Long id,
+                                             @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        try {
+            List<FormVersionResponse> versions = formService.getFormVersions(id, userDetails.getUsername());
+            return ResponseEntity.ok(versions);
+        } catch (Exception e) {
+            logger.error("Error getting form versions: {}", e.getMessage(), e);
+            return ResponseEntity.ok(new MessageResponse("Failed to load form versions. Please try again later."));
+        }
+    }
+
+    /**
+     * Gets one published version of a form, including its structure.
+     * 
+     * @param id The form ID
+     * @param version The version number
+     * @param userDetails The authenticated user details
+     * @return A response entity with the version
+     */
+    @GetMapping("/{id}/versions/{version}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<?> getFormVersion(@PathVariable Long id, @PathVariable Integer version,
+                                            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        try {
+            FormVersionResponse formVersion = formService.getFormVersion(id, version, userDetails.getUsername());
+            return ResponseEntity.ok(formVersion);
+        } catch (Exception e) {
+            logger.error("Error getting form version: {}", e.getMessage(), e);
+            return ResponseEntity.ok(new MessageResponse("Failed to load form version. Please try again later."));
+        }
+    }
+
+    /**
+     * Edits a form with a structural diff, writing only what changed and
+     * publishing a new version.
+     * 
+     * @param id The form ID
+     * @param patchRequest The changes to the form
+     * @param userDetails The authenticated user details
+     * @return A response entity with the edited form
+     */
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<?> updateForm(@PathVariable Long id, @Valid @RequestBody FormPatchRequest patchRequest,
+                                        @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        try {
+            FormResponse form = formService.updateForm(id, patchRequest, userDetails.getUsername());
+            return ResponseEntity.ok(form);
+        } catch (Exception e) {
+            logger.error("Error updating form: {}", e.getMessage(), e);
+            return ResponseEntity.ok(new MessageResponse("Failed to update form. Please try again later."));
+        }
+    }
+
     /**
      * Deletes a form by its ID.
      * 
@@ -103,8 +168,7 @@ public class ApiFormController {
             formService.deleteForm(id, userDetails.getUsername());
             return ResponseEntity.ok(new MessageResponse("Form deleted successfully"));
         } catch (Exception e) {
-            System.err.println("Error deleting form: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error deleting form: {}", e.getMessage(), e);
             return ResponseEntity.ok(new MessageResponse("Failed to delete form. Please try again later."));
         }
     }
@@ -121,8 +185,7 @@ public class ApiFormController {
             FormResponse form = formService.getFormByPublicUrl(publicUrl);
             return ResponseEntity.ok(form);
         } catch (Exception e) {
-            System.err.println("Error getting form by public URL: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error getting form by public URL: {}", e.getMessage(), e);
             return ResponseEntity.ok(new MessageResponse("Failed to load form. Please try again later."));
         }
     }
@@ -1,21 +1,30 @@
 package com.FeedBackCollectionForm.assignment.controller;
 
-import com.FeedBackCollectionForm.assignment.exception.RoleNotFoundException;
-import com.FeedBackCollectionForm.assignment.model.ERole;
-import com.FeedBackCollectionForm.assignment.model.Role;
+import com.FeedBackCollectionForm.assignment.exception.TokenRefreshException;
 import com.FeedBackCollectionForm.assignment.model.User;
 import com.FeedBackCollectionForm.assignment.payload.request.ForgotPasswordRequest;
 import com.FeedBackCollectionForm.assignment.payload.request.LoginRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.RefreshTokenRequest;
 import com.FeedBackCollectionForm.assignment.payload.request.SignupRequest;
 import com.FeedBackCollectionForm.assignment.payload.response.JwtResponse;
 import com.FeedBackCollectionForm.assignment.payload.response.MessageResponse;
-import com.FeedBackCollectionForm.assignment.repository.RoleRepository;
 import com.FeedBackCollectionForm.assignment.repository.UserRepository;
 import com.FeedBackCollectionForm.assignment.security.jwt.JwtUtils;
+import com.FeedBackCollectionForm.assignment.security.services.PasswordWorkerPool;
+import com.FeedBackCollectionForm.assignment.security.services.RefreshTokenService;
+import com.FeedBackCollectionForm.assignment.security.services.RoleCache;
+import com.FeedBackCollectionForm.assignment.security.services.TokenRevocationService;
+import com.FeedBackCollectionForm.assignment.security.services.UserConflict;
 import com.FeedBackCollectionForm.assignment.security.services.UserDetailsImpl;
+import com.FeedBackCollectionForm.assignment.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mail.SimpleMailMessage;
@@ -23,15 +32,15 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.SecureRandom;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175", 
@@ -40,6 +49,8 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     AuthenticationManager authenticationManager;
 
@@ -47,7 +58,7 @@ public class AuthController {
     UserRepository userRepository;
 
     @Autowired
-    RoleRepository roleRepository;
+    RoleCache roleCache;
 
     @Autowired
     PasswordEncoder encoder;
@@ -55,341 +66,263 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    PasswordWorkerPool passwordWorkerPool;
+
+    @Autowired
+    TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
     @Autowired
     private JavaMailSender emailSender;
 
+    @Value("${app.jwt.header}")
+    private String headerName;
+
+    @Value("${app.jwt.prefix}")
+    private String headerPrefix;
+
     @Value("${spring.mail.enabled:true}")
     private boolean mailEnabled;
 
+    /**
+     * Signs a user in. The password check runs on the bounded password worker
+     * pool so the request thread is released while BCrypt runs; when the pool
+     * is saturated the sign-in is rejected with 503.
+     * 
+     * @param loginRequest The username and password
+     * @return A token and the user's details, or an error message
+     */
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        System.out.println("Signin request received for username: " + loginRequest.getUsername());
-        System.out.println("Request details: " + loginRequest);
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return passwordWorkerPool.submit(() -> signIn(loginRequest));
+    }
+
+    private ResponseEntity<?> signIn(LoginRequest loginRequest) {
+        logger.info("Signin request received for username: {}", loginRequest.getUsername());
+        logger.debug("Request details: {}", loginRequest);
 
         try {
             // Check if the user exists first
             try {
                 boolean userExists = userRepository.existsByUsername(loginRequest.getUsername());
-                System.out.println("User exists check result: " + userExists);
+                logger.debug("User exists check result: {}", userExists);
 
                 if (!userExists) {
-                    System.out.println("User not found: " + loginRequest.getUsername());
+                    logger.info("User not found: {}", loginRequest.getUsername());
                     return ResponseEntity.ok(new MessageResponse("Error: Username not found. Please check your credentials."));
                 }
             } catch (Exception userCheckError) {
-                System.err.println("Error checking if user exists: " + userCheckError.getMessage());
-                userCheckError.printStackTrace();
+                logger.error("Error checking if user exists: {}", userCheckError.getMessage(), userCheckError);
                 // Continue with authentication attempt even if user check fails
-                System.out.println("Continuing with authentication attempt despite user check error");
+                logger.warn("Continuing with authentication attempt despite user check error");
             }
 
             try {
-                System.out.println("Attempting to authenticate user: " + loginRequest.getUsername());
+                logger.debug("Attempting to authenticate user: {}", loginRequest.getUsername());
                 Authentication authentication = authenticationManager.authenticate(
                         new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
 
-                System.out.println("Setting authentication in SecurityContext");
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-
-                System.out.println("Generating JWT token");
+                logger.debug("Generating JWT token");
                 String jwt = jwtUtils.generateJwtToken(authentication);
 
-                System.out.println("Getting user details from authentication");
+                logger.debug("Getting user details from authentication");
                 UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
                 List<String> roles = userDetails.getAuthorities().stream()
                         .map(item -> item.getAuthority())
                         .collect(Collectors.toList());
 
-                System.out.println("Authentication successful for user: " + loginRequest.getUsername() + ", roles: " + roles);
-                return ResponseEntity.ok(new JwtResponse(jwt,
+                logger.info("Authentication successful for user: {}, roles: {}", loginRequest.getUsername(), roles);
+                JwtResponse jwtResponse = new JwtResponse(jwt,
                         userDetails.getId(),
                         userDetails.getUsername(),
                         userDetails.getEmail(),
-                        roles));
+                        roles);
+                jwtResponse.setRefreshToken(refreshTokenService.issue(userDetails.getId(), userDetails.getUsername()));
+                jwtResponse.setExpiresIn(jwtUtils.getJwtExpirationMs() / 1000);
+                return ResponseEntity.ok(jwtResponse);
             } catch (Exception authError) {
                 // Log the authentication exception
-                System.err.println("Authentication error for user " + loginRequest.getUsername() + ": " + authError.getMessage());
-                authError.printStackTrace();
+                logger.warn("Authentication error for user {}: {}", loginRequest.getUsername(), authError.getMessage());
 
                 // Return a meaningful error message but with 200 OK status to avoid frontend issues
                 return ResponseEntity.ok(new MessageResponse("Error: Login failed. Please check your credentials."));
             }
         } catch (Exception e) {
             // Log the exception for server-side troubleshooting
-            System.err.println("Unexpected error during authentication: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Unexpected error during authentication: {}", e.getMessage(), e);
 
             // Return a meaningful error message but with 200 OK status to avoid frontend issues
             return ResponseEntity.ok(new MessageResponse("Error: An unexpected error occurred. Please try again later."));
         }
     }
 
+    /**
+     * Registers a user with a single insert. Duplicate usernames and emails
+     * are detected by the unique constraints of the users table rather than
+     * by querying first. Like sign-in, it runs on the password worker pool,
+     * which hashes the password, and is rejected with 503 when the pool is
+     * saturated.
+     * 
+     * @param signUpRequest The new user's details
+     * @return A message confirming the registration, or an error message
+     */
     @PostMapping("/signup")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
-        System.out.println("Signup request received for username: " + signUpRequest.getUsername());
-        System.out.println("Request details: " + signUpRequest);
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+        return passwordWorkerPool.submit(() -> register(signUpRequest));
+    }
 
-        try {
-            // Validate username uniqueness
-            try {
-                boolean usernameExists = userRepository.existsByUsername(signUpRequest.getUsername());
-                System.out.println("Username exists check result: " + usernameExists);
+    private ResponseEntity<?> register(SignupRequest signUpRequest) {
+        logger.info("Signup request received for username: {}", signUpRequest.getUsername());
+        logger.debug("Request details: {}", signUpRequest);
 
-                if (usernameExists) {
-                    System.out.println("Username already taken: " + signUpRequest.getUsername());
-                    return ResponseEntity.ok(new MessageResponse("Error: Username is already taken!"));
-                }
-            } catch (Exception usernameCheckError) {
-                System.err.println("Error checking if username exists: " + usernameCheckError.getMessage());
-                usernameCheckError.printStackTrace();
-                // Continue with registration attempt even if username check fails
-                System.out.println("Continuing with registration attempt despite username check error");
-            }
+        try {
+            String encodedPassword = encoder.encode(signUpRequest.getPassword());
+            User user = new User(signUpRequest.getUsername(),
+                    signUpRequest.getEmail(),
+                    signUpRequest.getFullName(),
+                    signUpRequest.getPhoneNo(),
+                    encodedPassword);
+            user.setRoles(roleCache.forRequest(signUpRequest.getRoles()));
 
-            // Validate email uniqueness
             try {
-                boolean emailExists = userRepository.existsByEmail(signUpRequest.getEmail());
-                System.out.println("Email exists check result: " + emailExists);
-
-                if (emailExists) {
-                    System.out.println("Email already in use: " + signUpRequest.getEmail());
-                    return ResponseEntity.ok(new MessageResponse("Error: Email is already in use!"));
-                }
-            } catch (Exception emailCheckError) {
-                System.err.println("Error checking if email exists: " + emailCheckError.getMessage());
-                emailCheckError.printStackTrace();
-                // Continue with registration attempt even if email check fails
-                System.out.println("Continuing with registration attempt despite email check error");
-            }
-
-            System.out.println("Creating new user account for: " + signUpRequest.getUsername());
+                User savedUser = userRepository.save(user);
+                logger.info("User saved successfully with ID: {}, roles={}", savedUser.getId(), savedUser.getRoles().size());
 
-            // Create new user's account
-            User user = null;
-            try {
-                String encodedPassword = encoder.encode(signUpRequest.getPassword());
-                System.out.println("Password encoded successfully");
-
-                user = new User(signUpRequest.getUsername(),
-                        signUpRequest.getEmail(),
-                        signUpRequest.getFullName(),
-                        signUpRequest.getPhoneNo(),
-                        encodedPassword);
-                System.out.println("User object created successfully");
-            } catch (Exception userCreationError) {
-                System.err.println("Error creating user object: " + userCreationError.getMessage());
-                userCreationError.printStackTrace();
-                return ResponseEntity.ok(new MessageResponse("Error: Failed to create user. " + userCreationError.getMessage()));
+                return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
+            } catch (DataIntegrityViolationException duplicate) {
+                UserConflict conflict = UserConflict.of(duplicate);
+                String message = conflict != null ? conflict.getMessage()
+                        : "Error: Registration failed. The username or email may already be in use.";
+                logger.info("Registration rejected for {}: {}", signUpRequest.getUsername(), message);
+                return ResponseEntity.ok(new MessageResponse(message));
             }
+        } catch (Exception e) {
+            // Log the exception for server-side troubleshooting
+            logger.error("Unexpected error during user registration: {}", e.getMessage(), e);
 
-            Set<String> strRoles = signUpRequest.getRoles();
-            Set<Role> roles = new HashSet<>();
-
-            // Assign roles to the user - always use the default USER role to avoid issues
-            try {
-                System.out.println("Assigning default USER role");
-
-                // Try to find the USER role
-                Role userRole = null;
-                try {
-                    System.out.println("Looking for USER role in database");
-                    userRole = roleRepository.findByNameWithLogging(ERole.ROLE_USER).orElse(null);
-
-                    if (userRole != null) {
-                        System.out.println("Found USER role in database: " + userRole.getId());
-                        roles.add(userRole);
-                        System.out.println("Assigned default USER role: " + userRole);
-                    } else {
-                        System.err.println("Could not find USER role, creating it");
-
-                        // Create the USER role if it doesn't exist
-                        try {
-                            System.out.println("Creating new USER role");
-                            Role newUserRole = new Role();
-                            newUserRole.setName(ERole.ROLE_USER);
-
-                            System.out.println("Saving new USER role to database");
-                            Role savedRole = roleRepository.save(newUserRole);
-                            System.out.println("New USER role saved with ID: " + savedRole.getId());
-
-                            roles.add(savedRole);
-                            System.out.println("Created and assigned new USER role: " + savedRole);
-                        } catch (Exception roleCreationError) {
-                            System.err.println("Error creating USER role: " + roleCreationError.getMessage());
-                            roleCreationError.printStackTrace();
-                            // Continue without this role rather than failing
-                            System.out.println("Continuing without USER role due to creation error");
-                        }
-                    }
-                } catch (Exception roleFindingError) {
-                    System.err.println("Error finding USER role: " + roleFindingError.getMessage());
-                    roleFindingError.printStackTrace();
-
-                    // Create the USER role if there was an error finding it
-                    try {
-                        System.out.println("Creating new USER role after finding error");
-                        Role newUserRole = new Role();
-                        newUserRole.setName(ERole.ROLE_USER);
-
-                        System.out.println("Saving new USER role to database after finding error");
-                        Role savedRole = roleRepository.save(newUserRole);
-                        System.out.println("New USER role saved with ID after finding error: " + savedRole.getId());
-
-                        roles.add(savedRole);
-                        System.out.println("Created and assigned new USER role after error: " + savedRole);
-                    } catch (Exception roleCreationError) {
-                        System.err.println("Error creating USER role after finding error: " + roleCreationError.getMessage());
-                        roleCreationError.printStackTrace();
-                        // Continue without roles rather than failing
-                        System.out.println("Continuing without USER role due to creation error after finding error");
-                    }
-                }
+            // Return a meaningful error message with 200 OK status to avoid frontend issues
+            return ResponseEntity.ok(new MessageResponse("Error: Registration failed. Please try again later."));
+        }
+    }
 
-                // If the user requested ADMIN role, try to add it
-                if (strRoles != null) {
-                    System.out.println("Checking for ADMIN role in requested roles: " + strRoles);
-
-                    for (String role : strRoles) {
-                        System.out.println("Checking role: " + role);
-
-                        // Check for both "ROLE_ADMIN" and "admin" for compatibility
-                        if (role != null && (role.equals("ROLE_ADMIN") || role.toLowerCase().trim().equals("admin"))) {
-                            System.out.println("ADMIN role requested, attempting to assign");
-
-                            try {
-                                System.out.println("Looking for ADMIN role in database");
-                                Role adminRole = roleRepository.findByNameWithLogging(ERole.ROLE_ADMIN).orElse(null);
-
-                                if (adminRole != null) {
-                                    System.out.println("Found ADMIN role in database: " + adminRole.getId());
-                                    roles.add(adminRole);
-                                    System.out.println("Added ADMIN role: " + adminRole);
-                                } else {
-                                    System.out.println("ADMIN role not found, creating it");
-
-                                    // Create the ADMIN role if it doesn't exist
-                                    try {
-                                        System.out.println("Creating new ADMIN role");
-                                        Role newAdminRole = new Role();
-                                        newAdminRole.setName(ERole.ROLE_ADMIN);
-
-                                        System.out.println("Saving new ADMIN role to database");
-                                        Role savedRole = roleRepository.save(newAdminRole);
-                                        System.out.println("New ADMIN role saved with ID: " + savedRole.getId());
-
-                                        roles.add(savedRole);
-                                        System.out.println("Created and assigned new ADMIN role: " + savedRole);
-                                    } catch (Exception roleCreationError) {
-                                        System.err.println("Error creating ADMIN role: " + roleCreationError.getMessage());
-                                        roleCreationError.printStackTrace();
-                                        // Continue without this role rather than failing
-                                        System.out.println("Continuing without ADMIN role due to creation error");
-                                    }
-                                }
-                            } catch (Exception roleFindingError) {
-                                System.err.println("Error finding ADMIN role: " + roleFindingError.getMessage());
-                                roleFindingError.printStackTrace();
-
-                                // Try to create the ADMIN role if there was an error finding it
-                                try {
-                                    System.out.println("Creating new ADMIN role after finding error");
-                                    Role newAdminRole = new Role();
-                                    newAdminRole.setName(ERole.ROLE_ADMIN);
-
-                                    System.out.println("Saving new ADMIN role to database after finding error");
-                                    Role savedRole = roleRepository.save(newAdminRole);
-                                    System.out.println("New ADMIN role saved with ID after finding error: " + savedRole.getId());
-
-                                    roles.add(savedRole);
-                                    System.out.println("Created and assigned new ADMIN role after error: " + savedRole);
-                                } catch (Exception roleCreationError) {
-                                    System.err.println("Error creating ADMIN role after finding error: " + roleCreationError.getMessage());
-                                    roleCreationError.printStackTrace();
-                                    // Continue without ADMIN role
-                                    System.out.println("Continuing without ADMIN role due to creation error after finding error");
-                                }
-                            }
-                            break;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Error assigning roles: " + e.getMessage());
-                e.printStackTrace();
-                // Continue with empty roles rather than failing
-                System.out.println("Continuing with empty roles set");
-            }
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh
+     * token. This costs one indexed lookup of the refresh token and signing
+     * the access token; the user's details come from the user cache and no
+     * password is checked.
+     * 
+     * @param refreshRequest The refresh token from sign-in or the previous refresh
+     * @return A new access token and refresh token
+     * @throws TokenRefreshException if the refresh token cannot be used, answered with 401
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
 
-            System.out.println("Setting roles for user: " + roles.size() + " roles");
-            user.setRoles(roles);
+        UserDetailsImpl userDetails;
+        try {
+            userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(rotation.getUsername());
+        } catch (UsernameNotFoundException e) {
+            refreshTokenService.revokeAllForUser(rotation.getUserId());
+            throw new TokenRefreshException("Error: User no longer exists. Please sign in again.");
+        }
 
-            try {
-                System.out.println("Saving user to database: " + user.getUsername());
-                User savedUser = userRepository.save(user);
-                System.out.println("User saved successfully with ID: " + savedUser.getId());
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(item -> item.getAuthority())
+                .collect(Collectors.toList());
+        JwtResponse jwtResponse = new JwtResponse(jwtUtils.generateJwtToken(userDetails),
+                userDetails.getId(),
+                userDetails.getUsername(),
+                userDetails.getEmail(),
+                roles);
+        jwtResponse.setRefreshToken(rotation.getRefreshToken());
+        jwtResponse.setExpiresIn(jwtUtils.getJwtExpirationMs() / 1000);
+        return ResponseEntity.ok(jwtResponse);
+    }
 
-                // Log the saved user details (excluding password)
-                System.out.println("Saved user details: username=" + savedUser.getUsername() + 
-                                  ", email=" + savedUser.getEmail() + 
-                                  ", fullName=" + savedUser.getFullName() + 
-                                  ", roles=" + savedUser.getRoles().size());
+    /**
+     * Signs the user out by revoking the bearer token of the request, so it
+     * is rejected from now on even though it has not expired, and the refresh
+     * token family if a refresh token is given.
+     * 
+     * @param request The request carrying the token
+     * @param refreshRequest The refresh token of the session, optional
+     * @return A message confirming the logout, or an error message
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logoutUser(HttpServletRequest request,
+                                        @RequestBody(required = false) RefreshTokenRequest refreshRequest) {
+        if (refreshRequest != null && StringUtils.hasText(refreshRequest.getRefreshToken())) {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        }
 
-                return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
-            } catch (Exception e) {
-                System.err.println("Error saving user: " + e.getMessage());
-                e.printStackTrace();
-
-                // Try to provide more specific error information
-                String errorMessage = e.getMessage();
-                if (e.getCause() != null) {
-                    errorMessage += " Caused by: " + e.getCause().getMessage();
-                }
+        String headerAuth = request.getHeader(headerName);
+        if (!StringUtils.hasText(headerAuth) || !headerAuth.startsWith(headerPrefix)) {
+            return ResponseEntity.ok(new MessageResponse("Error: No token to log out"));
+        }
 
-                // Check for common database errors
-                if (errorMessage.contains("constraint") || errorMessage.contains("Duplicate")) {
-                    return ResponseEntity.ok(new MessageResponse("Error: Registration failed. The username or email may already be in use."));
-                } else if (errorMessage.contains("connection") || errorMessage.contains("Connection")) {
-                    return ResponseEntity.ok(new MessageResponse("Error: Registration failed. Database connection issue. Please try again later."));
-                } else {
-                    return ResponseEntity.ok(new MessageResponse("Error: Registration failed. " + errorMessage));
-                }
-            }
-        } catch (Exception e) {
-            // Log the exception for server-side troubleshooting
-            System.err.println("Unexpected error during user registration: " + e.getMessage());
-            e.printStackTrace();
+        Claims claims = jwtUtils.getVerifiedClaims(headerAuth.substring(headerPrefix.length()));
+        if (claims == null) {
+            // Invalid or expired tokens are rejected anyway
+            return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
+        }
 
-            // Return a meaningful error message with 200 OK status to avoid frontend issues
-            return ResponseEntity.ok(new MessageResponse("Error: Registration failed. Please try again later."));
+        if (!tokenRevocationService.revoke(claims)) {
+            return ResponseEntity.ok(new MessageResponse(
+                    "Error: This token cannot be revoked and stays valid until it expires"));
         }
+        logger.info("User logged out: {}", claims.getSubject());
+        return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
     }
 
+    /**
+     * Resets a user's password to a random one, sent by email or returned
+     * when mail is disabled. It runs on the password worker pool, which
+     * hashes the new password, and is rejected with 503 when the pool is
+     * saturated.
+     * 
+     * @param forgotPasswordRequest The username of the account
+     * @return A message with the outcome of the reset
+     */
     @PostMapping("/forgot-password")
-    public ResponseEntity<?> forgotPassword(@Valid @RequestBody ForgotPasswordRequest forgotPasswordRequest) {
+    public CompletableFuture<ResponseEntity<?>> forgotPassword(
+            @Valid @RequestBody ForgotPasswordRequest forgotPasswordRequest) {
+        return passwordWorkerPool.submit(() -> resetPassword(forgotPasswordRequest));
+    }
+
+    private ResponseEntity<?> resetPassword(ForgotPasswordRequest forgotPasswordRequest) {
         try {
             // Find user by username
             String username = forgotPasswordRequest.getUsername();
-            System.out.println("Processing forgot password request for username: " + username);
+            logger.info("Processing forgot password request for username: {}", username);
 
             User user = userRepository.findByUsername(username)
                     .orElse(null);
 
             if (user == null) {
-                System.out.println("User not found with username: " + username);
+                logger.info("User not found with username: {}", username);
                 // Return 200 OK with error message to avoid frontend issues
                 return ResponseEntity.ok(new MessageResponse("Error: User not found with username: " + username));
             }
 
-            System.out.println("User found: " + user.getUsername() + ", email: " + user.getEmail());
+            logger.info("User found: {}, email: {}", user.getUsername(), user.getEmail());
 
             // Generate a new random password
             String newPassword = generateRandomPassword();
-            System.out.println("Generated new password for user");
+            logger.debug("Generated new password for user");
 
             // Update the user's password in the database
             user.setPassword(encoder.encode(newPassword));
             userRepository.save(user);
-            System.out.println("Updated user password in database");
+            userDetailsService.evict(user.getUsername());
+            refreshTokenService.revokeAllForUser(user.getId());
+            logger.info("Updated user password in database");
 
             if (mailEnabled) {
                 try {
@@ -400,33 +333,31 @@ public class AuthController {
                     message.setText("Your new password is: " + newPassword + 
                             "\n\nPlease change your password after logging in.");
 
-                    System.out.println("Attempting to send email to: " + user.getEmail());
+                    logger.debug("Attempting to send email to: {}", user.getEmail());
                     emailSender.send(message);
-                    System.out.println("Email sent successfully");
+                    logger.info("Email sent successfully");
 
                     return ResponseEntity.ok(new MessageResponse("A new password has been sent to your email."));
                 } catch (Exception emailError) {
                     // Log the email sending error
-                    System.err.println("Error sending email: " + emailError.getMessage());
-                    emailError.printStackTrace();
+                    logger.error("Error sending email: {}", emailError.getMessage(), emailError);
 
                     // Return success response anyway since the password was reset
-                    System.out.println("Returning success response despite email error");
+                    logger.warn("Returning success response despite email error");
                     return ResponseEntity.ok(new MessageResponse(
                         "Password has been reset, but there was an error sending the email. " +
                         "Please contact support to get your new password. Error: " + emailError.getMessage()));
                 }
             } else {
                 // Email sending is disabled, return the password directly in the response
-                System.out.println("Email sending is disabled, returning password directly in response");
+                logger.info("Email sending is disabled, returning password directly in response");
                 return ResponseEntity.ok(new MessageResponse(
                     "Password has been reset. Your new password is: " + newPassword + 
                     "\nPlease change your password after logging in."));
             }
         } catch (Exception e) {
             // Log the exception for server-side troubleshooting
-            System.err.println("Error during password reset: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error during password reset: {}", e.getMessage(), e);
 
             // Return a meaningful error message with 200 OK status to avoid frontend issues
             return ResponseEntity.ok(new MessageResponse("Error: Password reset failed. " + e.getMessage()));
@@ -1,5 +1,7 @@
 package com.FeedBackCollectionForm.assignment.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -14,6 +16,7 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/auth")
 public class AuthRootController {
+    private static final Logger logger = LoggerFactory.getLogger(AuthRootController.class);
 
     /**
      * Auth API root endpoint that returns basic auth service information.
@@ -22,7 +25,7 @@ public class AuthRootController {
      */
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAuthInfo() {
-        System.out.println("Auth API root endpoint called at " + new java.util.Date());
+        logger.debug("Auth API root endpoint called");
 
         Map<String, Object> response = new HashMap<>();
         response.put("status", "UP");
@@ -2,6 +2,8 @@ package com.FeedBackCollectionForm.assignment.controller;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,13 +18,14 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api")
 public class HealthController {
+    private static final Logger logger = LoggerFactory.getLogger(HealthController.class);
 
     @PersistenceContext
     private EntityManager entityManager;
 
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> healthCheck() {
-        System.out.println("Health check endpoint called at " + new Date());
+        logger.debug("Health check endpoint called");
 
         Map<String, Object> response = new HashMap<>();
         response.put("status", "UP");
@@ -33,19 +36,18 @@ public class HealthController {
             // Check DB connectivity
             try {
                 Object result = entityManager.createNativeQuery("SELECT 1").getSingleResult();
-                System.out.println("Database connection test successful, result: " + result);
+                logger.info("Database connection test successful, result: {}", result);
                 response.put("database", "connected");
             } catch (Exception dbError) {
-                dbError.printStackTrace();
-                System.err.println("Database connection failed: " + dbError.getMessage());
+                logger.error("Database connection failed: {}", dbError.getMessage(), dbError);
                 response.put("database", "disconnected");
                 response.put("dbMessage", "Database connection has issues");
             }
 
-            System.out.println("Returning health response: " + response);
+            logger.debug("Returning health response: {}", response);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.err.println("Unexpected error in health check: " + e.getMessage());
+            logger.error("Unexpected error in health check: {}", e.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("status", "UP");
             errorResponse.put("message", "Server is running with some issues");
@@ -58,7 +60,7 @@ public class HealthController {
 
     @GetMapping("/ping")
     public ResponseEntity<Map<String, Object>> ping() {
-        System.out.println("Ping endpoint called at " + new Date());
+        logger.debug("Ping endpoint called");
 
         Map<String, Object> response = new HashMap<>();
         response.put("status", "UP");
@@ -0,0 +1,71 @@
+package com.FeedBackCollectionForm.assignment.controller;
+
+import com.FeedBackCollectionForm.assignment.security.services.PasswordWorkerPool;
+import com.FeedBackCollectionForm.assignment.security.services.RefreshTokenService;
+import com.FeedBackCollectionForm.assignment.security.services.TokenRevocationService;
+import com.FeedBackCollectionForm.assignment.security.services.UserDetailsServiceImpl;
+import com.FeedBackCollectionForm.assignment.service.FormCacheMetrics;
+import com.FeedBackCollectionForm.assignment.service.LiveUpdateService;
+import com.FeedBackCollectionForm.assignment.service.export.ExportMetrics;
+import com.FeedBackCollectionForm.assignment.service.version.FormVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes in-process runtime metrics to administrators.
+ */
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    @Autowired
+    private ExportMetrics exportMetrics;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private PasswordWorkerPool passwordWorkerPool;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private FormCacheMetrics formCacheMetrics;
+
+    @Autowired
+    private FormVersionService formVersionService;
+
+    /**
+     * Returns all metric groups.
+     * 
+     * @return A response entity with the metrics keyed by group
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("exports", exportMetrics.snapshot());
+        metrics.put("live", liveUpdateService.snapshot());
+        metrics.put("users", userDetailsService.snapshot());
+        metrics.put("passwordWorkers", passwordWorkerPool.snapshot());
+        metrics.put("revocations", tokenRevocationService.snapshot());
+        metrics.put("refreshTokens", refreshTokenService.snapshot());
+        metrics.put("formCache", formCacheMetrics.snapshot());
+        metrics.put("formVersions", formVersionService.snapshot());
+        return ResponseEntity.ok(metrics);
+    }
+}
@@ -1,9 +1,17 @@
 package com.FeedBackCollectionForm.assignment.controller;
 
+import com.FeedBackCollectionForm.assignment.payload.request.ResponseFilterRequest;
 import com.FeedBackCollectionForm.assignment.payload.request.ResponseRequest;
+import com.FeedBackCollectionForm.assignment.payload.response.FilterEstimateResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.FilteredResponsesResponse;
 import com.FeedBackCollectionForm.assignment.payload.response.ResponseResponse;
 import com.FeedBackCollectionForm.assignment.security.services.UserDetailsImpl;
+import com.FeedBackCollectionForm.assignment.service.ResponseExportService;
+import com.FeedBackCollectionForm.assignment.service.ResponseFilterService;
 import com.FeedBackCollectionForm.assignment.service.ResponseService;
+import com.FeedBackCollectionForm.assignment.service.analytics.AnalyticsMode;
+import com.FeedBackCollectionForm.assignment.service.export.ExportCompression;
+import com.FeedBackCollectionForm.assignment.service.export.ExportFormat;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -12,6 +20,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -25,6 +34,12 @@ public class ResponseController {
     @Autowired
     private ResponseService responseService;
 
+    @Autowired
+    private ResponseExportService responseExportService;
+
+    @Autowired
+    private ResponseFilterService responseFilterService;
+
     @PostMapping("/forms/public/{publicUrl}/submit")
     public ResponseEntity<ResponseResponse> submitResponse(
             @PathVariable String publicUrl,
@@ -42,6 +57,53 @@ public class ResponseController {
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * List the responses of a form that match a boolean filter, newest first.
+     * Example body: {"and": [{"option": 12}, {"question": 7, "gte": 4}]}
+     * 
+     * @param formId The ID of the form
+     * @param filter The filter tree
+     * @param page The zero-based page, defaults to 0
+     * @param size The page size, defaults to 20
+     * @param userDetails The authenticated user details
+     * @return The number of matching responses and one page of them
+     */
+    @PostMapping("/forms/{formId}/responses/filter")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<FilteredResponsesResponse> filterResponses(
+            @PathVariable Long formId,
+            @RequestBody ResponseFilterRequest filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        FilteredResponsesResponse responses = responseFilterService.filterResponses(formId,
+                userDetails.getUsername(), filter, page, size);
+        return ResponseEntity.ok(responses);
+    }
+
+    /**
+     * Count the responses of a form that match a boolean filter. On forms above
+     * app.sampling.exact-max-responses the count is estimated from a random
+     * sample unless mode=exact is given.
+     * 
+     * @param formId The ID of the form
+     * @param filter The filter tree (see filterResponses)
+     * @param mode exact, approximate or auto, defaults to auto
+     * @param userDetails The authenticated user details
+     * @return The number of matching responses, with confidence bounds when estimated
+     */
+    @PostMapping("/forms/{formId}/responses/estimate")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<FilterEstimateResponse> estimateMatches(
+            @PathVariable Long formId,
+            @RequestBody ResponseFilterRequest filter,
+            @RequestParam(required = false) String mode,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        FilterEstimateResponse estimate = responseFilterService.estimateMatches(formId,
+                userDetails.getUsername(), filter, AnalyticsMode.fromParam(mode));
+        return ResponseEntity.ok(estimate);
+    }
+
     @GetMapping("/responses/my")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<List<ResponseResponse>> getMyResponses(
@@ -69,28 +131,59 @@ public class ResponseController {
     }
 
     /**
-     * Download all responses for a form as CSV.
+     * Download all responses for a form, or those matching a filter, as CSV or NDJSON.
+     * The export is streamed while it is generated. It is compressed when
+     * requested explicitly via the compression parameter, in which case a
+     * compressed file is returned, or when the client advertises gzip/zstd in
+     * Accept-Encoding, in which case it is sent with a Content-Encoding header.
      * 
      * @param formId The ID of the form
+     * @param filter A filter tree as JSON (see filterResponses), optional
+     * @param format The row format, csv (default) or ndjson
+     * @param compression The codec to apply, gzip, zstd or none
+     * @param acceptEncoding The Accept-Encoding request header
      * @param userDetails The authenticated user details
-     * @return A CSV file containing all responses
+     * @return A file containing all responses
      */
     @GetMapping("/forms/{formId}/responses/download")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<byte[]> downloadFormResponses(
+    public ResponseEntity<StreamingResponseBody> downloadFormResponses(
             @PathVariable Long formId,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String compression,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             @AuthenticationPrincipal UserDetailsImpl userDetails) {
-        String csvContent = responseService.generateCsvForForm(formId, userDetails.getUsername());
-        byte[] csvBytes = csvContent.getBytes();
+        String username = userDetails.getUsername();
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        ResponseFilterRequest responseFilter = responseFilterService.parse(filter);
+        boolean explicit = compression != null && !compression.isBlank();
+        ExportCompression codec = explicit
+                ? ExportCompression.fromParam(compression)
+                : ExportCompression.negotiate(acceptEncoding);
+
+        responseExportService.checkExportAccess(formId, username, responseFilter);
 
+        String filename = "form_responses_" + formId + "." + exportFormat.getExtension();
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("text/csv"));
-        headers.setContentDispositionFormData("attachment", "form_responses_" + formId + ".csv");
-        headers.setContentLength(csvBytes.length);
+        if (explicit && codec != ExportCompression.NONE) {
+            headers.setContentType(MediaType.parseMediaType(codec.getContentType()));
+            filename += "." + codec.getExtension();
+        } else {
+            headers.setContentType(MediaType.parseMediaType(exportFormat.getContentType()));
+            if (codec != ExportCompression.NONE) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, codec.getEncoding());
+            }
+            headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        headers.setContentDispositionFormData("attachment", filename);
+
+        StreamingResponseBody body = out ->
+                responseExportService.exportFormResponses(formId, username, responseFilter, exportFormat, codec, out);
 
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(csvBytes);
+                .body(body);
     }
 
     /**
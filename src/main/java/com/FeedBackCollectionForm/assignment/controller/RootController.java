@@ -1,5 +1,7 @@
 package com.FeedBackCollectionForm.assignment.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -14,6 +16,7 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api")
 public class RootController {
+    private static final Logger logger = LoggerFactory.getLogger(RootController.class);
 
     /**
      * Root API endpoint that returns basic server information.
@@ -22,7 +25,7 @@ public class RootController {
      */
     @GetMapping
     public ResponseEntity<Map<String, Object>> getApiInfo() {
-        System.out.println("Root API endpoint called at " + new java.util.Date());
+        logger.debug("Root API endpoint called");
 
         Map<String, Object> response = new HashMap<>();
         response.put("status", "UP");
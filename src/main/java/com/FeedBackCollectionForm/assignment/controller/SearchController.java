@@ -0,0 +1,59 @@
+package com.FeedBackCollectionForm.assignment.controller;
+
+import com.FeedBackCollectionForm.assignment.payload.response.MessageResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.SearchResultResponse;
+import com.FeedBackCollectionForm.assignment.security.services.UserDetailsImpl;
+import com.FeedBackCollectionForm.assignment.service.ResponseSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller for keyword search over text answers.
+ */
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175", 
+                      "http://127.0.0.1:5173", "http://127.0.0.1:5174", "http://127.0.0.1:5175"}, 
+           maxAge = 3600, allowCredentials = "true")
+@RestController
+@RequestMapping("/api")
+public class SearchController {
+
+    @Autowired
+    private ResponseSearchService responseSearchService;
+
+    /**
+     * Searches the text answers of a form.
+     * 
+     * @param formId The ID of the form
+     * @param q The keywords, all of which must match; Lucene query syntax is supported
+     * @param page The zero-based page, defaults to 0
+     * @param size The page size, defaults to 20
+     * @param userDetails The authenticated user details
+     * @return The IDs of matching responses, best matches first, with highlighted snippets
+     */
+    @GetMapping("/forms/{formId}/search")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<SearchResultResponse> searchResponses(
+            @PathVariable Long formId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        SearchResultResponse result = responseSearchService.search(formId, userDetails.getUsername(), q, page, size);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Rebuilds the search index from the database in the background.
+     * 
+     * @return A message confirming the rebuild was scheduled
+     */
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuildIndex() {
+        responseSearchService.rebuild();
+        return ResponseEntity.ok(new MessageResponse("Search index rebuild started"));
+    }
+}
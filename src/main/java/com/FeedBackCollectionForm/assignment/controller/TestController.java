@@ -1,5 +1,7 @@
 package com.FeedBackCollectionForm.assignment.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -14,6 +16,7 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/test")
 public class TestController {
+    private static final Logger logger = LoggerFactory.getLogger(TestController.class);
 
     /**
      * Simple test endpoint that returns a 200 OK response.
@@ -22,7 +25,7 @@ public class TestController {
      */
     @GetMapping("/ping")
     public ResponseEntity<Map<String, Object>> ping() {
-        System.out.println("Test ping endpoint called at " + new java.util.Date());
+        logger.debug("Test ping endpoint called");
 
         try {
             Map<String, Object> response = new HashMap<>();
@@ -32,8 +35,7 @@ public class TestController {
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.err.println("Error in ping endpoint: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error in ping endpoint: {}", e.getMessage(), e);
 
             // Return a success response even if there's an error
             Map<String, Object> errorResponse = new HashMap<>();
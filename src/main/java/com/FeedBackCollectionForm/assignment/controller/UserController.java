@@ -1,16 +1,34 @@
 package com.FeedBackCollectionForm.assignment.controller;
 
 import com.FeedBackCollectionForm.assignment.model.User;
+import com.FeedBackCollectionForm.assignment.payload.request.RevokeTokenRequest;
 import com.FeedBackCollectionForm.assignment.payload.request.UpdateProfileRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.UpdateRolesRequest;
 import com.FeedBackCollectionForm.assignment.payload.response.MessageResponse;
 import com.FeedBackCollectionForm.assignment.payload.response.UserProfileResponse;
 import com.FeedBackCollectionForm.assignment.repository.UserRepository;
+import com.FeedBackCollectionForm.assignment.security.jwt.JwtUtils;
+import com.FeedBackCollectionForm.assignment.security.services.RoleCache;
+import com.FeedBackCollectionForm.assignment.security.services.TokenRevocationService;
 import com.FeedBackCollectionForm.assignment.security.services.UserDetailsImpl;
+import com.FeedBackCollectionForm.assignment.security.services.UserDetailsServiceImpl;
+import com.FeedBackCollectionForm.assignment.service.UserProvisioningService;
+import com.FeedBackCollectionForm.assignment.service.export.ExportFormat;
+import com.FeedBackCollectionForm.assignment.service.provisioning.ImportFormat;
+import com.FeedBackCollectionForm.assignment.service.provisioning.UserImportReader;
+import io.jsonwebtoken.Claims;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
 
 import java.util.Optional;
 
@@ -24,6 +42,21 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RoleCache roleCache;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
     @GetMapping("/profile")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<?> getUserProfile(@AuthenticationPrincipal UserDetailsImpl userDetails) {
@@ -90,7 +123,96 @@ public class UserController {
         }
 
         userRepository.save(user);
+        userDetailsService.evict(user.getUsername());
 
         return ResponseEntity.ok(new MessageResponse("Profile updated successfully"));
     }
+
+    /**
+     * Replace the roles of a user. Tokens issued to the user before the change
+     * stop carrying trusted roles; their requests are authorized with the new
+     * roles until the user signs in again.
+     * 
+     * @param id The ID of the user
+     * @param rolesRequest The new roles
+     * @return A message confirming the change
+     */
+    @PutMapping("/{id}/roles")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> updateUserRoles(
+            @PathVariable Long id,
+            @Valid @RequestBody UpdateRolesRequest rolesRequest) {
+
+        Optional<User> userOptional = userRepository.findById(id);
+
+        if (!userOptional.isPresent()) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: User not found"));
+        }
+
+        User user = userOptional.get();
+        user.setRoles(roleCache.forRequest(rolesRequest.getRoles()));
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User savedUser = userRepository.save(user);
+        userDetailsService.tokenVersionChanged(savedUser);
+
+        return ResponseEntity.ok(new MessageResponse("Roles updated successfully"));
+    }
+
+    /**
+     * Create users in bulk from a CSV upload with a header row, or from one
+     * signup object per line of NDJSON. The result of each row is streamed
+     * back as NDJSON while later rows are still being processed.
+     * 
+     * @param format The format of the upload, csv (default) or ndjson
+     * @param body The uploaded users
+     * @return One result line per row of the upload
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> provisionUsers(
+            @RequestParam(required = false) String format,
+            InputStream body) throws IOException {
+
+        UserImportReader reader = userProvisioningService.open(body, ImportFormat.fromParam(format));
+        StreamingResponseBody results = out -> userProvisioningService.provision(reader, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportFormat.NDJSON.getContentType()))
+                .body(results);
+    }
+
+    /**
+     * Revoke a token of any user, e.g. one that has leaked. The token can be
+     * given in full or by its ID.
+     * 
+     * @param revokeRequest The token or its ID
+     * @return A message confirming the revocation, or an error message
+     */
+    @PostMapping("/tokens/revoke")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> revokeToken(@RequestBody RevokeTokenRequest revokeRequest) {
+        if (revokeRequest.getToken() != null && !revokeRequest.getToken().isBlank()) {
+            Claims claims = jwtUtils.getVerifiedClaims(revokeRequest.getToken().trim());
+            if (claims == null) {
+                return ResponseEntity.ok(new MessageResponse("Error: The token is invalid or has already expired"));
+            }
+            if (!tokenRevocationService.revoke(claims)) {
+                return ResponseEntity.ok(new MessageResponse(
+                        "Error: This token cannot be revoked and stays valid until it expires"));
+            }
+            return ResponseEntity.ok(new MessageResponse("Token revoked successfully"));
+        }
+
+        if (revokeRequest.getTokenId() != null && !revokeRequest.getTokenId().isBlank()) {
+            if (revokeRequest.getTokenId().trim().length() > 64) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Error: Invalid token ID"));
+            }
+            // Without the token its expiry is unknown, so keep the revocation for the longest token lifetime
+            Date expiration = new Date(System.currentTimeMillis() + jwtUtils.getJwtExpirationMs());
+            tokenRevocationService.revoke(revokeRequest.getTokenId().trim(), null, expiration);
+            return ResponseEntity.ok(new MessageResponse("Token revoked successfully"));
+        }
+
+        return ResponseEntity.badRequest().body(new MessageResponse("Error: A token or token ID is required"));
+    }
 }
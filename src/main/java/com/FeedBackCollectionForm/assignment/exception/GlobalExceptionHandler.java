@@ -1,5 +1,8 @@
 package com.FeedBackCollectionForm.assignment.exception;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -19,6 +22,7 @@ import java.util.Map;
  */
 @ControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
     // Removed custom handler for MethodArgumentNotValidException to avoid conflict with ResponseEntityExceptionHandler
     // The parent class ResponseEntityExceptionHandler already provides a handler for this exception
@@ -44,6 +48,52 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * Handles requests shed by a saturated worker pool. Unlike other errors
+     * these are answered with 503 so clients back off and retry.
+     * 
+     * @param ex The service busy exception
+     * @param request The web request
+     * @return A response entity with error details
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Object> handleServiceBusyException(
+            ServiceBusyException ex, WebRequest request) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.put("error", "Service Unavailable");
+        response.put("message", ex.getMessage());
+        response.put("path", request.getDescription(false));
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    /**
+     * Handles refresh tokens that cannot be used. Answered with 401 so
+     * clients send the user back to sign-in.
+     * 
+     * @param ex The token refresh exception
+     * @param request The web request
+     * @return A response entity with error details
+     */
+    @ExceptionHandler(TokenRefreshException.class)
+    public ResponseEntity<Object> handleTokenRefreshException(
+            TokenRefreshException ex, WebRequest request) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.UNAUTHORIZED.value());
+        response.put("error", "Unauthorized");
+        response.put("message", ex.getMessage());
+        response.put("path", request.getDescription(false));
+
+        return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+    }
+
     /**
      * Handles runtime exceptions.
      * 
@@ -55,8 +105,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     public ResponseEntity<Object> handleRuntimeException(
             RuntimeException ex, WebRequest request) {
 
-        System.err.println("Runtime exception caught by GlobalExceptionHandler: " + ex.getMessage());
-        ex.printStackTrace();
+        logger.error("Runtime exception caught by GlobalExceptionHandler: {}", ex.getMessage(), ex);
 
         Map<String, Object> response = new HashMap<>();
         response.put("timestamp", new Date());
@@ -74,7 +123,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 message.contains("jdbc") ||
                 message.contains("JDBC") ||
                 message.contains("H2"))) {
-            System.err.println("Database connection issue detected: " + message);
+            logger.error("Database connection issue detected: {}", message);
             response.put("message", "Database connection issue. Please try again later.");
             response.put("originalError", message);
         } else {
@@ -98,8 +147,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     public ResponseEntity<Object> handleAllExceptions(
             Exception ex, WebRequest request) {
 
-        System.err.println("Exception caught by GlobalExceptionHandler: " + ex.getMessage());
-        ex.printStackTrace();
+        logger.error("Exception caught by GlobalExceptionHandler: {}", ex.getMessage(), ex);
 
         Map<String, Object> response = new HashMap<>();
         response.put("timestamp", new Date());
@@ -117,7 +165,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 message.contains("jdbc") ||
                 message.contains("JDBC") ||
                 message.contains("H2"))) {
-            System.err.println("Database connection issue detected: " + message);
+            logger.error("Database connection issue detected: {}", message);
             response.put("message", "Database connection issue. Please try again later.");
             response.put("originalError", message);
         } else {
@@ -0,0 +1,17 @@
+package com.FeedBackCollectionForm.assignment.exception;
+
+/**
+ * Exception thrown when a bounded worker pool is saturated and the request
+ * is shed instead of queued. Answered with 503 Service Unavailable.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    /**
+     * Constructs a new ServiceBusyException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.FeedBackCollectionForm.assignment.exception;
+
+/**
+ * Exception thrown when a refresh token is unknown, expired, revoked or
+ * reused. Answered with 401 Unauthorized so clients ask the user to sign in
+ * again.
+ */
+public class TokenRefreshException extends RuntimeException {
+
+    /**
+     * Constructs a new TokenRefreshException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public TokenRefreshException(String message) {
+        super(message);
+    }
+}
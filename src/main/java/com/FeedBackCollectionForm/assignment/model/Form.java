@@ -6,6 +6,11 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -17,9 +22,13 @@ import java.util.UUID;
 @AllArgsConstructor
 @Entity
 @Table(name = "forms")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "forms")
+@NaturalIdCache(region = "formPublicUrls")
 public class Form {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids are assigned without an insert, so a new form and its questions and options are inserted in batches
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "forms_seq")
+    @SequenceGenerator(name = "forms_seq", sequenceName = "forms_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -29,6 +38,7 @@ public class Form {
     @Size(max = 500)
     private String description;
 
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String publicUrl;
 
@@ -39,8 +49,13 @@ public class Form {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Set when the form is edited, not when only its current version pointer moves
     private LocalDateTime updatedAt;
 
+    // The published FormVersion that new responses are submitted against
+    @Column(name = "current_version_id")
+    private Long currentVersionId;
+
     public Long getId() {
         return id;
     }
@@ -69,6 +84,10 @@ public class Form {
         return updatedAt;
     }
 
+    public Long getCurrentVersionId() {
+        return currentVersionId;
+    }
+
     public List<Question> getQuestions() {
         return questions;
     }
@@ -105,6 +124,10 @@ public class Form {
         this.updatedAt = updatedAt;
     }
 
+    public void setCurrentVersionId(Long currentVersionId) {
+        this.currentVersionId = currentVersionId;
+    }
+
     public void setQuestions(List<Question> questions) {
         this.questions = questions;
     }
@@ -113,7 +136,10 @@ public class Form {
         this.responses = responses;
     }
 
-    @OneToMany(mappedBy = "form", cascade = CascadeType.ALL, orphanRemoval = true)
+    // Removed questions stay in the table for the answers and versions that refer to them
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "formQuestions")
+    @OneToMany(mappedBy = "form", cascade = CascadeType.ALL)
+    @SQLRestriction("removed_at IS NULL")
     private List<Question> questions = new ArrayList<>();
 
     @OneToMany(mappedBy = "form", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -125,11 +151,6 @@ public class Form {
         publicUrl = UUID.randomUUID().toString();
     }
 
-    @PreUpdate
-    protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
-    }
-
     // Helper methods to maintain bidirectional relationship
     public void addQuestion(Question question) {
         questions.add(question);
@@ -138,7 +159,7 @@ public class Form {
 
     public void removeQuestion(Question question) {
         questions.remove(question);
-        question.setForm(null);
+        question.setRemovedAt(LocalDateTime.now());
     }
 
     public void addResponse(Response response) {
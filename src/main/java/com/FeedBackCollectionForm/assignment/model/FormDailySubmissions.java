@@ -0,0 +1,39 @@
+package com.FeedBackCollectionForm.assignment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Number of submissions a form received on one day, compacted from the
+ * in-memory minute and hour buckets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "form_daily_submissions",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"form_id", "submission_day"}))
+public class FormDailySubmissions {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "form_id", nullable = false)
+    private Long formId;
+
+    @Column(name = "submission_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "cnt", nullable = false)
+    private long count;
+
+    public FormDailySubmissions(Long formId, LocalDate day, long count) {
+        this.formId = formId;
+        this.day = day;
+        this.count = count;
+    }
+}
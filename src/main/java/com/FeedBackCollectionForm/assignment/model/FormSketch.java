@@ -0,0 +1,45 @@
+package com.FeedBackCollectionForm.assignment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Serialized probabilistic sketch belonging to a form. The scope ID is the
+ * form ID for form-level sketches and the question ID for per-question
+ * sketches; the kind tells them apart. Sketches live in memory and are
+ * flushed here periodically, so a row may lag slightly behind the responses
+ * table (see updatedAt).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "form_sketches",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"kind", "scope_id"}),
+       indexes = @Index(name = "idx_form_sketches_form", columnList = "form_id"))
+public class FormSketch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "form_id", nullable = false)
+    private Long formId;
+
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private SketchKind kind;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
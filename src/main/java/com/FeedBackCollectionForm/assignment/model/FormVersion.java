@@ -0,0 +1,54 @@
+package com.FeedBackCollectionForm.assignment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A published, immutable snapshot of a form's structure. The content is the
+ * canonical JSON of the title, description, questions and options, and the
+ * content hash is its SHA-256, so publishing an unchanged form reuses the
+ * current version. Rows are never updated, which lets anything derived from
+ * a version be cached by its ID without invalidation.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(name = "form_versions",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"form_id", "version"}))
+public class FormVersion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "form_versions_seq")
+    @SequenceGenerator(name = "form_versions_seq", sequenceName = "form_versions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "form_id", nullable = false)
+    private Long formId;
+
+    @Column(nullable = false)
+    private Integer version;
+
+    @Column(name = "content_hash", length = 64, nullable = false)
+    private String contentHash;
+
+    @Lob
+    @Column(nullable = false)
+    private String content;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public FormVersion(Long formId, Integer version, String contentHash, String content) {
+        this.formId = formId;
+        this.version = version;
+        this.contentHash = contentHash;
+        this.content = content;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -4,19 +4,24 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "options")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "options")
 @Data // includes all getters, setters, constructors, equals, hashCode, toString
 @NoArgsConstructor
 @AllArgsConstructor
 public class Option {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "options_seq")
+    @SequenceGenerator(name = "options_seq", sequenceName = "options_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -25,6 +30,9 @@ public class Option {
 
     private Integer displayOrder;
 
+    // Set when the option is removed from its question by an edit
+    private LocalDateTime removedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "question_id", nullable = false)
     private Question question;
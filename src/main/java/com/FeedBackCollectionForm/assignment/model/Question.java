@@ -7,7 +7,11 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,9 +20,11 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "questions")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "questions")
 public class Question {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "questions_seq")
+    @SequenceGenerator(name = "questions_seq", sequenceName = "questions_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -47,6 +53,9 @@ public class Question {
     
     private String description;
 
+    // Set when the question is removed from its form by an edit
+    private LocalDateTime removedAt;
+
     public Long getId() {
         return id;
     }
@@ -99,6 +108,10 @@ public class Question {
         return description;
     }
 
+    public LocalDateTime getRemovedAt() {
+        return removedAt;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -151,6 +164,10 @@ public class Question {
         this.description = description;
     }
 
+    public void setRemovedAt(LocalDateTime removedAt) {
+        this.removedAt = removedAt;
+    }
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "form_id", nullable = false)
     private Form form;
@@ -163,7 +180,10 @@ public class Question {
         return form;
     }
 
-    @OneToMany(mappedBy = "question", cascade = CascadeType.ALL, orphanRemoval = true)
+    // Removed options stay in the table for the answers and versions that refer to them
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "questionOptions")
+    @OneToMany(mappedBy = "question", cascade = CascadeType.ALL)
+    @SQLRestriction("removed_at IS NULL")
     private List<Option> options = new ArrayList<>();
 
     public List<Option> getOptions() {
@@ -193,7 +213,7 @@ public class Question {
 
     public void removeOption(Option option) {
         options.remove(option);
-        option.setQuestion(null);
+        option.setRemovedAt(LocalDateTime.now());
     }
 
     public void addAnswer(Answer answer) {
@@ -0,0 +1,79 @@
+package com.FeedBackCollectionForm.assignment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Incrementally maintained aggregate for one question.
+ * A question has one TOTAL row holding the number of answers and, for rating
+ * questions, the running sum and sum of squares. OPTION rows count how often
+ * each option was selected (bucket = option ID) and RATING rows form the
+ * rating histogram (bucket = rating value). The form itself has
+ * {@link #RESPONSE_STRIPES} RESPONSES rows whose counts add up to its
+ * responses, stored under the question IDs from {@link #FORM_QUESTION_ID}
+ * downwards with bucket = form ID. Each submission counts itself in one of
+ * them, picked by its response ID.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "question_stats",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"question_id", "kind", "bucket"}),
+       indexes = @Index(name = "idx_question_stats_form", columnList = "form_id"))
+public class QuestionStat {
+    /** The question ID of rows that describe the whole form rather than a question. */
+    public static final long FORM_QUESTION_ID = 0;
+
+    /** The number of RESPONSES rows of a form, so concurrent submissions rarely update the same one. */
+    public static final int RESPONSE_STRIPES = 8;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "form_id", nullable = false)
+    private Long formId;
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private QuestionStatKind kind;
+
+    @Column(nullable = false)
+    private long bucket;
+
+    @Column(name = "cnt", nullable = false)
+    private long count;
+
+    @Column(name = "total", nullable = false)
+    private long sum;
+
+    @Column(nullable = false)
+    private long sumSquares;
+
+    public QuestionStat(Long formId, Long questionId, QuestionStatKind kind, long bucket,
+                        long count, long sum, long sumSquares) {
+        this.formId = formId;
+        this.questionId = questionId;
+        this.kind = kind;
+        this.bucket = bucket;
+        this.count = count;
+        this.sum = sum;
+        this.sumSquares = sumSquares;
+    }
+
+    /**
+     * Gets the question ID of a RESPONSES row of a form.
+     *
+     * @param stripe The stripe, from 0 to {@link #RESPONSE_STRIPES} - 1
+     * @return The question ID of its row
+     */
+    public static long responsesQuestionId(long stripe) {
+        return FORM_QUESTION_ID - stripe;
+    }
+}
@@ -0,0 +1,9 @@
+package com.FeedBackCollectionForm.assignment.model;
+
+public enum QuestionStatKind {
+    TOTAL,
+    OPTION,
+    RATING,
+    // The number of responses to the whole form
+    RESPONSES
+}
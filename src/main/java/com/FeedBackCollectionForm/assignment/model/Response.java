@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -38,6 +39,10 @@ public class Response {
     @Column(nullable = false)
     private LocalDateTime submittedAt;
 
+    // The FormVersion the response was submitted against; null for responses older than versioning
+    @Column(name = "form_version_id")
+    private Long formVersionId;
+
     @OneToMany(mappedBy = "response", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Answer> answers = new ArrayList<>();
 
@@ -57,6 +62,10 @@ public class Response {
         return submittedAt;
     }
 
+    public Long getFormVersionId() {
+        return formVersionId;
+    }
+
     public List<Answer> getAnswers() {
         return answers;
     }
@@ -77,13 +86,18 @@ public class Response {
         this.submittedAt = submittedAt;
     }
 
+    public void setFormVersionId(Long formVersionId) {
+        this.formVersionId = formVersionId;
+    }
+
     public void setAnswers(List<Answer> answers) {
         this.answers = answers;
     }
 
     @PrePersist
     protected void onCreate() {
-        submittedAt = LocalDateTime.now();
+        // Match the column's microsecond precision so in-memory copies equal what is read back
+        submittedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     // Helper methods to maintain bidirectional relationship
@@ -0,0 +1,14 @@
+package com.FeedBackCollectionForm.assignment.model;
+
+/**
+ * Kind of a persisted sketch, which decides the meaning of its scope ID and
+ * the format of its payload.
+ */
+public enum SketchKind {
+    /** HyperLogLog of respondent emails, scoped to a form. */
+    RESPONDENTS,
+    /** KLL sketch of rating values, scoped to a rating question. */
+    RATING_QUANTILES,
+    /** Count-Min sketch and top terms/bigrams of text answers, scoped to a text question. */
+    TEXT_TERMS
+}
@@ -17,10 +17,13 @@ import java.util.Set;
 @Entity
 @Table(name = "users", 
        uniqueConstraints = {
-           @UniqueConstraint(columnNames = "username"),
-           @UniqueConstraint(columnNames = "email")
+           @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+           @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
        })
 public class User {
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -63,6 +66,10 @@ public class User {
                inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles = new HashSet<>();
 
+    // Bumped when the roles change so tokens issued before are no longer trusted
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion;
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,44 @@
+package com.FeedBackCollectionForm.assignment.payload.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A structural diff of a form. Only what is set is changed; the parts are
+ * applied in this order: title and description, removals, updates, added
+ * options, the new question order, then added questions. For example
+ * {@code {"updateOptions": [{"id": 12, "text": "Very good"}]}} renames one
+ * option and leaves the rest of the form as it is.
+ */
+@Data
+public class FormPatchRequest {
+    @Size(max = 100)
+    private String title;
+
+    @Size(max = 500)
+    private String description;
+
+    private List<Long> removeQuestionIds = new ArrayList<>();
+
+    private List<Long> removeOptionIds = new ArrayList<>();
+
+    @Valid
+    private List<QuestionPatchRequest> updateQuestions = new ArrayList<>();
+
+    @Valid
+    private List<OptionPatchRequest> updateOptions = new ArrayList<>();
+
+    // Options added to existing questions; each must name its questionId
+    @Valid
+    private List<OptionPatchRequest> addOptions = new ArrayList<>();
+
+    // The IDs of all remaining existing questions in their new order; added questions go after them
+    private List<Long> questionOrder;
+
+    @Valid
+    private List<QuestionRequest> addQuestions = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.FeedBackCollectionForm.assignment.payload.request;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * An option to update, identified by its id, or to add to the question
+ * with questionId. Properties left null keep their value.
+ */
+@Data
+public class OptionPatchRequest {
+    private Long id;
+
+    private Long questionId;
+
+    @Size(max = 255)
+    private String text;
+
+    private Integer displayOrder;
+}
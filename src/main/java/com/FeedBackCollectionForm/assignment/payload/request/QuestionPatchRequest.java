@@ -0,0 +1,34 @@
+package com.FeedBackCollectionForm.assignment.payload.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Changes to an existing question; properties left null keep their value.
+ * The type of a question cannot change, since its answers depend on it.
+ */
+@Data
+public class QuestionPatchRequest {
+    @NotNull
+    private Long id;
+
+    @Size(max = 500)
+    private String text;
+
+    private Integer displayOrder;
+
+    private Boolean required;
+
+    private Integer wordLimit;
+
+    private Integer minRating;
+    private Integer maxRating;
+    private Integer defaultRating;
+
+    private String dateFormat;
+    private String minDate;
+    private String maxDate;
+
+    private String description;
+}
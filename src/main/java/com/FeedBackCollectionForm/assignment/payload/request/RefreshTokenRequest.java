@@ -0,0 +1,15 @@
+package com.FeedBackCollectionForm.assignment.payload.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+    @NotBlank
+    private String refreshToken;
+
+    @Override
+    public String toString() {
+        return "RefreshTokenRequest(refreshToken=[PROTECTED])";
+    }
+}
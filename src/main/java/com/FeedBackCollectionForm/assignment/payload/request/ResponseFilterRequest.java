@@ -0,0 +1,34 @@
+package com.FeedBackCollectionForm.assignment.payload.request;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A node of a boolean response filter. Exactly one kind of node must be set:
+ * <ul>
+ *   <li>{@code {"and": [...]}} / {@code {"or": [...]}} combine child filters</li>
+ *   <li>{@code {"not": {...}}} negates a filter</li>
+ *   <li>{@code {"option": 12}} matches responses that selected option 12</li>
+ *   <li>{@code {"question": 7, "gte": 4, "lte": 5}} matches ratings in a range (either bound optional)</li>
+ *   <li>{@code {"question": 3, "answered": true}} matches responses that answered question 3</li>
+ * </ul>
+ */
+@Data
+public class ResponseFilterRequest {
+    private List<ResponseFilterRequest> and;
+
+    private List<ResponseFilterRequest> or;
+
+    private ResponseFilterRequest not;
+
+    private Long option;
+
+    private Long question;
+
+    private Integer gte;
+
+    private Integer lte;
+
+    private Boolean answered;
+}
@@ -0,0 +1,12 @@
+package com.FeedBackCollectionForm.assignment.payload.request;
+
+import lombok.Data;
+
+@Data
+public class RevokeTokenRequest {
+
+    // Either the token itself or its ID (jti claim); a token revoked by ID is remembered for the full token lifetime
+    private String token;
+
+    private String tokenId;
+}
@@ -0,0 +1,14 @@
+package com.FeedBackCollectionForm.assignment.payload.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.Set;
+
+@Data
+public class UpdateRolesRequest {
+
+    // "admin" or "ROLE_ADMIN" grants the admin role; every user keeps the user role
+    @NotNull
+    private Set<String> roles;
+}
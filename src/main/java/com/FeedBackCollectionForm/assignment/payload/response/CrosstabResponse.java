@@ -0,0 +1,29 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CrosstabResponse {
+    private Long formId;
+    private String source;
+    private long population;
+    private Integer sampleSize;
+    private Double confidenceLevel;
+    private Long rowQuestionId;
+    private String rowQuestion;
+    private Long columnQuestionId;
+    private String columnQuestion;
+    private List<Long> rowKeys = new ArrayList<>();
+    private List<String> rowLabels = new ArrayList<>();
+    private List<Long> columnKeys = new ArrayList<>();
+    private List<String> columnLabels = new ArrayList<>();
+    private List<List<Long>> counts = new ArrayList<>();
+    private List<List<Long>> countsLower;
+    private List<List<Long>> countsUpper;
+    private List<Long> rowTotals = new ArrayList<>();
+    private List<Long> columnTotals = new ArrayList<>();
+    private long responses;
+}
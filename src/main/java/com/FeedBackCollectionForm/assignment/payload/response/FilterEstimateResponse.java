@@ -0,0 +1,16 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.Data;
+
+@Data
+public class FilterEstimateResponse {
+    private Long formId;
+    private String source;
+    private long population;
+    private Integer sampleSize;
+    private Double confidenceLevel;
+    private long matches;
+    private long matchesLower;
+    private long matchesUpper;
+    private double proportion;
+}
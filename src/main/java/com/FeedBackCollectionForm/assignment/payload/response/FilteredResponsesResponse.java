@@ -0,0 +1,15 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class FilteredResponsesResponse {
+    private Long formId;
+    private long total;
+    private int page;
+    private int size;
+    private List<ResponseResponse> responses = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class FormAnalyticsResponse {
+    private Long formId;
+    private String title;
+    private long responseCount;
+    private long uniqueRespondents;
+    private double uniqueRespondentsError;
+    private List<QuestionAnalyticsResponse> questions = new ArrayList<>();
+}
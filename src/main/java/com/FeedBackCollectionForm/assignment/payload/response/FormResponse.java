@@ -1,6 +1,7 @@
 package com.FeedBackCollectionForm.assignment.payload.response;
 
 import com.FeedBackCollectionForm.assignment.model.Form;
+import com.FeedBackCollectionForm.assignment.service.version.FormSnapshot;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -17,6 +18,7 @@ public class FormResponse {
     private String createdBy;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long versionId;
     private List<QuestionResponse> questions = new ArrayList<>();
     private long responseCount;
 
@@ -48,6 +50,10 @@ public class FormResponse {
         this.updatedAt = updatedAt;
     }
 
+    public void setVersionId(Long versionId) {
+        this.versionId = versionId;
+    }
+
     public void setQuestions(List<QuestionResponse> questions) {
         this.questions = questions;
     }
@@ -65,10 +71,28 @@ public class FormResponse {
         response.setCreatedBy(form.getCreatedBy().getUsername());
         response.setCreatedAt(form.getCreatedAt());
         response.setUpdatedAt(form.getUpdatedAt());
+        response.setVersionId(form.getCurrentVersionId());
         response.setQuestions(form.getQuestions().stream()
                 .map(QuestionResponse::fromEntity)
                 .collect(Collectors.toList()));
         response.setResponseCount(responseCount);
         return response;
     }
+
+    public static FormResponse fromSnapshot(Form form, FormSnapshot snapshot, long responseCount) {
+        FormResponse response = new FormResponse();
+        response.setId(form.getId());
+        response.setTitle(snapshot.getTitle());
+        response.setDescription(snapshot.getDescription());
+        response.setPublicUrl(form.getPublicUrl());
+        response.setCreatedBy(form.getCreatedBy().getUsername());
+        response.setCreatedAt(form.getCreatedAt());
+        response.setUpdatedAt(form.getUpdatedAt());
+        response.setVersionId(form.getCurrentVersionId());
+        response.setQuestions(snapshot.getQuestions().stream()
+                .map(QuestionResponse::fromSnapshot)
+                .collect(Collectors.toList()));
+        response.setResponseCount(responseCount);
+        return response;
+    }
 }
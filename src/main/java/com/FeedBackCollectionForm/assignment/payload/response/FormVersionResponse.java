@@ -0,0 +1,18 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import com.FeedBackCollectionForm.assignment.service.version.FormSnapshot;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class FormVersionResponse {
+    private Long id;
+    private Long formId;
+    private Integer version;
+    private String contentHash;
+    private LocalDateTime createdAt;
+    private boolean current;
+    // Only set when a single version is requested
+    private FormSnapshot structure;
+}
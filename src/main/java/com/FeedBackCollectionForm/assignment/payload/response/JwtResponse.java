@@ -12,6 +12,9 @@ public class JwtResponse {
     private String username;
     private String email;
     private List<String> roles;
+    private String refreshToken;
+    // Lifetime of the access token in seconds; refresh before it runs out
+    private long expiresIn;
 
     public JwtResponse(String token, Long id, String username, String email, List<String> roles) {
         this.token = token;
@@ -0,0 +1,15 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class LiveSubmissionResponse {
+    private Long responseId;
+    private String respondentName;
+    private String respondentEmail;
+    private LocalDateTime submittedAt;
+}
@@ -0,0 +1,13 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class LiveSubmissionsResponse {
+    private Long formId;
+    private int newSubmissions;
+    private List<LiveSubmissionResponse> latest = new ArrayList<>();
+}
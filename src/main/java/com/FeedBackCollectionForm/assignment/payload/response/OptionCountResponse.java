@@ -0,0 +1,13 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class OptionCountResponse {
+    private Long optionId;
+    private String text;
+    private long count;
+    private double percentage;
+}
@@ -1,6 +1,7 @@
 package com.FeedBackCollectionForm.assignment.payload.response;
 
 import com.FeedBackCollectionForm.assignment.model.Option;
+import com.FeedBackCollectionForm.assignment.service.version.OptionSnapshot;
 import lombok.Data;
 
 @Data
@@ -28,4 +29,12 @@ public class OptionResponse {
         response.setDisplayOrder(option.getDisplayOrder());
         return response;
     }
+
+    public static OptionResponse fromSnapshot(OptionSnapshot option) {
+        OptionResponse response = new OptionResponse();
+        response.setId(option.getId());
+        response.setText(option.getText());
+        response.setDisplayOrder(option.getDisplayOrder());
+        return response;
+    }
 }
@@ -0,0 +1,22 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import com.FeedBackCollectionForm.assignment.service.provisioning.ProvisioningStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ProvisioningResultResponse {
+    private int line;
+    private String username;
+    private ProvisioningStatus status;
+    private Long userId;
+    private String message;
+
+    public ProvisioningResultResponse(int line, String username, ProvisioningStatus status, String message) {
+        this.line = line;
+        this.username = username;
+        this.status = status;
+        this.message = message;
+    }
+}
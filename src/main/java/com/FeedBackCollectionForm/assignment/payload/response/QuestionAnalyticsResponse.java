@@ -0,0 +1,64 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import com.FeedBackCollectionForm.assignment.model.Option;
+import com.FeedBackCollectionForm.assignment.model.Question;
+import com.FeedBackCollectionForm.assignment.model.QuestionStat;
+import com.FeedBackCollectionForm.assignment.model.QuestionStatKind;
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class QuestionAnalyticsResponse {
+    private Long questionId;
+    private String text;
+    private QuestionType type;
+    private long answerCount;
+    private List<OptionCountResponse> options;
+    private RatingSummaryResponse rating;
+    private TermFrequencyResponse terms;
+
+    public static QuestionAnalyticsResponse fromStats(Question question, List<QuestionStat> stats) {
+        QuestionAnalyticsResponse response = new QuestionAnalyticsResponse();
+        response.setQuestionId(question.getId());
+        response.setText(question.getText());
+        response.setType(question.getType());
+
+        QuestionStat total = null;
+        Map<Long, Long> optionCounts = new HashMap<>();
+        Map<Long, Long> histogram = new HashMap<>();
+        for (QuestionStat stat : stats) {
+            if (stat.getKind() == QuestionStatKind.TOTAL) {
+                total = stat;
+            } else if (stat.getKind() == QuestionStatKind.OPTION) {
+                optionCounts.put(stat.getBucket(), stat.getCount());
+            } else {
+                histogram.put(stat.getBucket(), stat.getCount());
+            }
+        }
+        response.setAnswerCount(total != null ? total.getCount() : 0);
+
+        QuestionType type = question.getType();
+        if (type == QuestionType.MULTIPLE_CHOICE || type == QuestionType.SINGLE_SELECT || type == QuestionType.MULTI_SELECT) {
+            List<OptionCountResponse> options = new ArrayList<>();
+            for (Option option : question.getOptions()) {
+                long count = optionCounts.getOrDefault(option.getId(), 0L);
+                double percentage = response.getAnswerCount() > 0 ? 100.0 * count / response.getAnswerCount() : 0.0;
+                options.add(new OptionCountResponse(option.getId(), option.getText(), count, percentage));
+            }
+            response.setOptions(options);
+        } else if (type == QuestionType.RATING_SCALE) {
+            RatingSummaryResponse rating = total != null
+                    ? RatingSummaryResponse.fromTotals(total.getCount(), total.getSum(), total.getSumSquares())
+                    : new RatingSummaryResponse();
+            rating.getHistogram().putAll(histogram);
+            response.setRating(rating);
+        }
+
+        return response;
+    }
+}
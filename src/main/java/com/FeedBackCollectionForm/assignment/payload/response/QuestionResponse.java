@@ -2,6 +2,7 @@ package com.FeedBackCollectionForm.assignment.payload.response;
 
 import com.FeedBackCollectionForm.assignment.model.Question;
 import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.service.version.QuestionSnapshot;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -57,4 +58,21 @@ public class QuestionResponse {
 
         return response;
     }
+
+    public static QuestionResponse fromSnapshot(QuestionSnapshot question) {
+        QuestionResponse response = new QuestionResponse();
+        response.setId(question.getId());
+        response.setText(question.getText());
+        response.setType(question.getType());
+        response.setDisplayOrder(question.getDisplayOrder());
+        response.setRequired(question.getRequired());
+
+        if (question.getType() == QuestionType.MULTIPLE_CHOICE) {
+            response.setOptions(question.getOptions().stream()
+                    .map(OptionResponse::fromSnapshot)
+                    .collect(Collectors.toList()));
+        }
+
+        return response;
+    }
 }
@@ -0,0 +1,30 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.Data;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Data
+public class RatingSummaryResponse {
+    private long count;
+    private double mean;
+    private double standardDeviation;
+    private Integer p10;
+    private Integer median;
+    private Integer p90;
+    private Double quantileRankError;
+    private Map<Long, Long> histogram = new TreeMap<>();
+
+    public static RatingSummaryResponse fromTotals(long count, long sum, long sumSquares) {
+        RatingSummaryResponse response = new RatingSummaryResponse();
+        response.setCount(count);
+        if (count > 0) {
+            double mean = (double) sum / count;
+            double variance = Math.max(0.0, (double) sumSquares / count - mean * mean);
+            response.setMean(mean);
+            response.setStandardDeviation(Math.sqrt(variance));
+        }
+        return response;
+    }
+}
@@ -14,6 +14,7 @@ public class ResponseResponse {
     private String respondentEmail;
     private LocalDateTime submittedAt;
     private Long formId;
+    private Long formVersionId;
     private String formTitle;
     private List<AnswerResponse> answers;
 
@@ -37,6 +38,10 @@ public class ResponseResponse {
         this.formId = formId;
     }
 
+    public void setFormVersionId(Long formVersionId) {
+        this.formVersionId = formVersionId;
+    }
+
     public void setFormTitle(String formTitle) {
         this.formTitle = formTitle;
     }
@@ -52,6 +57,7 @@ public class ResponseResponse {
         responseDto.setRespondentEmail(response.getRespondentEmail());
         responseDto.setSubmittedAt(response.getSubmittedAt());
         responseDto.setFormId(response.getForm().getId());
+        responseDto.setFormVersionId(response.getFormVersionId());
         responseDto.setFormTitle(response.getForm().getTitle());
 
         // Convert answers to DTOs
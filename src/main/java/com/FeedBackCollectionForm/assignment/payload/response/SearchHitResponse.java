@@ -0,0 +1,13 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class SearchHitResponse {
+    private Long responseId;
+    private LocalDateTime submittedAt;
+    private float score;
+    private String highlight;
+}
@@ -0,0 +1,18 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class SearchResultResponse {
+    private Long formId;
+    private String query;
+    private int page;
+    private int size;
+    private long totalHits;
+    private boolean totalHitsExact;
+    private long tookMillis;
+    private List<SearchHitResponse> hits = new ArrayList<>();
+}
@@ -0,0 +1,13 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class SeriesBucketResponse {
+    private LocalDateTime start;
+    private long count;
+}
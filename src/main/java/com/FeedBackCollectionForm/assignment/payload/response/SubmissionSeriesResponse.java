@@ -0,0 +1,17 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class SubmissionSeriesResponse {
+    private Long formId;
+    private String resolution;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long total;
+    private List<SeriesBucketResponse> buckets = new ArrayList<>();
+}
@@ -0,0 +1,13 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TermCountResponse {
+    private String term;
+    private long count;
+}
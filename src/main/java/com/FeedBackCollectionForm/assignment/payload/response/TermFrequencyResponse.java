@@ -0,0 +1,29 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import com.FeedBackCollectionForm.assignment.service.analytics.TermSketch;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class TermFrequencyResponse {
+    private long answerCount;
+    private long errorBound;
+    private List<TermCountResponse> terms = new ArrayList<>();
+    private List<TermCountResponse> bigrams = new ArrayList<>();
+
+    public static TermFrequencyResponse fromSketch(TermSketch sketch, int limit) {
+        TermFrequencyResponse response = new TermFrequencyResponse();
+        response.setAnswerCount(sketch.getAnswerCount());
+        response.setErrorBound(sketch.errorBound());
+        for (Map.Entry<String, Integer> term : sketch.topTerms(limit)) {
+            response.getTerms().add(new TermCountResponse(term.getKey(), term.getValue()));
+        }
+        for (Map.Entry<String, Integer> bigram : sketch.topBigrams(limit)) {
+            response.getBigrams().add(new TermCountResponse(bigram.getKey(), bigram.getValue()));
+        }
+        return response;
+    }
+}
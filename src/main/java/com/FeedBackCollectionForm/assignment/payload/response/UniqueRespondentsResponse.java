@@ -0,0 +1,13 @@
+package com.FeedBackCollectionForm.assignment.payload.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class UniqueRespondentsResponse {
+    private List<Long> formIds = new ArrayList<>();
+    private long uniqueRespondents;
+    private double relativeStandardError;
+}
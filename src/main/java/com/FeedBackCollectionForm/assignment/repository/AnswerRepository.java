@@ -4,6 +4,9 @@ import com.FeedBackCollectionForm.assignment.model.Answer;
 import com.FeedBackCollectionForm.assignment.model.Question;
 import com.FeedBackCollectionForm.assignment.model.Response;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,4 +21,18 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
     Optional<Answer> findByResponseAndQuestion(Response response, Question question);
     
     long countByQuestion(Question question);
+
+    /**
+     * Deletes the answers of a form that refer to a question or option
+     * removed by an edit, which the form's collections no longer reach.
+     * Selections of removed options go with their whole answer.
+     */
+    @Modifying
+    @Query("DELETE FROM Answer a WHERE a.question.id IN " +
+           "(SELECT q.id FROM Question q WHERE q.form.id = :formId AND q.removedAt IS NOT NULL) " +
+           "OR a.selectedOption.id IN " +
+           "(SELECT o.id FROM Option o WHERE o.question.form.id = :formId AND o.removedAt IS NOT NULL) " +
+           "OR a.id IN (SELECT s.id FROM Answer s JOIN s.selectedOptions o " +
+           "WHERE o.question.form.id = :formId AND o.removedAt IS NOT NULL)")
+    void deleteAnswersToRemovedByFormId(@Param("formId") Long formId);
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.FeedBackCollectionForm.assignment.repository;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+
+import java.util.Optional;
+
+/**
+ * Custom interface for form repository methods served from the second-level cache.
+ */
+public interface CustomFormRepository {
+
+    /**
+     * Find a form by its public URL. The URL is the form's natural ID, so a
+     * form looked up before is resolved from the cache without a query.
+     *
+     * @param publicUrl The public URL of the form
+     * @return An Optional containing the form if found, or empty if not found
+     */
+    Optional<Form> findByPublicUrl(String publicUrl);
+}
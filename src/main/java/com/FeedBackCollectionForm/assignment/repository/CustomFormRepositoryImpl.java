@@ -0,0 +1,27 @@
+package com.FeedBackCollectionForm.assignment.repository;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Custom implementation of form repository methods that resolve forms through
+ * their natural ID rather than a query, which the second-level cache cannot serve.
+ */
+@Repository
+public class CustomFormRepositoryImpl implements CustomFormRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Form> findByPublicUrl(String publicUrl) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Form.class)
+                .loadOptional(publicUrl);
+    }
+}
@@ -6,6 +6,8 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -15,6 +17,7 @@ import java.util.Optional;
  */
 @Repository
 public class CustomRoleRepositoryImpl implements CustomRoleRepository {
+    private static final Logger logger = LoggerFactory.getLogger(CustomRoleRepositoryImpl.class);
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -22,22 +25,20 @@ public class CustomRoleRepositoryImpl implements CustomRoleRepository {
     @Override
     public Optional<Role> findByNameWithLogging(ERole name) {
         try {
-            System.out.println("CustomRoleRepositoryImpl: Finding role by name: " + name);
+            logger.debug("Finding role by name: {}", name);
             
             TypedQuery<Role> query = entityManager.createQuery(
                 "SELECT r FROM Role r WHERE r.name = :name", Role.class);
             query.setParameter("name", name);
             
             Role role = query.getSingleResult();
-            System.out.println("CustomRoleRepositoryImpl: Found role: " + role);
+            logger.debug("Found role: {}", role);
             return Optional.of(role);
         } catch (NoResultException e) {
-            System.out.println("CustomRoleRepositoryImpl: No role found with name: " + name);
+            logger.info("No role found with name: {}", name);
             return Optional.empty();
         } catch (Exception e) {
-            System.err.println("CustomRoleRepositoryImpl: Error finding role by name: " + name);
-            System.err.println("CustomRoleRepositoryImpl: Error details: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error finding role by name {}: {}", name, e.getMessage(), e);
             return Optional.empty();
         }
     }
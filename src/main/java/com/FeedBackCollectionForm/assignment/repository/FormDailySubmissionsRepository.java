@@ -0,0 +1,27 @@
+package com.FeedBackCollectionForm.assignment.repository;
+
+import com.FeedBackCollectionForm.assignment.model.FormDailySubmissions;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface FormDailySubmissionsRepository extends JpaRepository<FormDailySubmissions, Long> {
+    List<FormDailySubmissions> findByFormIdAndDayBetweenOrderByDayAsc(Long formId, LocalDate from, LocalDate to);
+
+    @Query("SELECT DISTINCT d.formId FROM FormDailySubmissions d")
+    List<Long> findFormIds();
+
+    @Modifying
+    @Query("UPDATE FormDailySubmissions d SET d.count = d.count + :delta WHERE d.formId = :formId AND d.day = :day")
+    int increment(@Param("formId") Long formId, @Param("day") LocalDate day, @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM FormDailySubmissions d WHERE d.formId = :formId")
+    void deleteByFormId(@Param("formId") Long formId);
+}
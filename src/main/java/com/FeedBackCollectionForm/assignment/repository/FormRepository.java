@@ -3,14 +3,15 @@ package com.FeedBackCollectionForm.assignment.repository;
 import com.FeedBackCollectionForm.assignment.model.Form;
 import com.FeedBackCollectionForm.assignment.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface FormRepository extends JpaRepository<Form, Long> {
+public interface FormRepository extends JpaRepository<Form, Long>, CustomFormRepository {
     List<Form> findByCreatedBy(User user);
 
-    Optional<Form> findByPublicUrl(String publicUrl);
-}
\ No newline at end of file
+    @Query("SELECT f.id FROM Form f WHERE f.currentVersionId IS NULL")
+    List<Long> findIdsWithoutVersion();
+}
@@ -0,0 +1,20 @@
+package com.FeedBackCollectionForm.assignment.repository;
+
+import com.FeedBackCollectionForm.assignment.model.FormSketch;
+import com.FeedBackCollectionForm.assignment.model.SketchKind;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface FormSketchRepository extends JpaRepository<FormSketch, Long> {
+    Optional<FormSketch> findByKindAndScopeId(SketchKind kind, Long scopeId);
+
+    @Modifying
+    @Query("DELETE FROM FormSketch s WHERE s.formId = :formId")
+    void deleteByFormId(@Param("formId") Long formId);
+}
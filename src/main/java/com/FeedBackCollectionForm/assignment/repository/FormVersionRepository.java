@@ -0,0 +1,24 @@
+package com.FeedBackCollectionForm.assignment.repository;
+
+import com.FeedBackCollectionForm.assignment.model.FormVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FormVersionRepository extends JpaRepository<FormVersion, Long> {
+    Optional<FormVersion> findByFormIdAndVersion(Long formId, Integer version);
+
+    @Query("SELECT v.id, v.version, v.contentHash, v.createdAt FROM FormVersion v " +
+           "WHERE v.formId = :formId ORDER BY v.version DESC")
+    List<Object[]> findSummariesByFormId(@Param("formId") Long formId);
+
+    @Modifying
+    @Query("DELETE FROM FormVersion v WHERE v.formId = :formId")
+    void deleteByFormId(@Param("formId") Long formId);
+}
@@ -3,6 +3,9 @@ package com.FeedBackCollectionForm.assignment.repository;
 import com.FeedBackCollectionForm.assignment.model.Option;
 import com.FeedBackCollectionForm.assignment.model.Question;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +15,20 @@ public interface OptionRepository extends JpaRepository<Option, Long> {
     List<Option> findByQuestion(Question question);
     
     List<Option> findByQuestionOrderByDisplayOrderAsc(Question question);
+
+    /**
+     * Finds every option of a form's questions, including options and
+     * questions removed by edits.
+     */
+    @Query("SELECT o FROM Option o WHERE o.question.form.id = :formId ORDER BY o.id")
+    List<Option> findAllByFormIdIncludingRemoved(@Param("formId") Long formId);
+
+    /**
+     * Deletes the options of a form that were removed by an edit, together
+     * with every option of a removed question.
+     */
+    @Modifying
+    @Query("DELETE FROM Option o WHERE o.question.id IN (SELECT q.id FROM Question q " +
+           "WHERE q.form.id = :formId AND (o.removedAt IS NOT NULL OR q.removedAt IS NOT NULL))")
+    void deleteRemovedByFormId(@Param("formId") Long formId);
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.FeedBackCollectionForm.assignment.repository;
 import com.FeedBackCollectionForm.assignment.model.Form;
 import com.FeedBackCollectionForm.assignment.model.Question;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +15,17 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
     List<Question> findByForm(Form form);
     
     List<Question> findByFormOrderByDisplayOrderAsc(Form form);
+
+    /**
+     * Finds every question of a form, including those removed by edits,
+     * which the form's question list hides. Current questions come first in
+     * display order, then removed ones in the order they were removed.
+     */
+    @Query("SELECT q FROM Question q WHERE q.form.id = :formId " +
+           "ORDER BY q.removedAt NULLS FIRST, q.displayOrder, q.id")
+    List<Question> findAllByFormIdIncludingRemoved(@Param("formId") Long formId);
+
+    @Modifying
+    @Query("DELETE FROM Question q WHERE q.form.id = :formId AND q.removedAt IS NOT NULL")
+    void deleteRemovedByFormId(@Param("formId") Long formId);
 }
\ No newline at end of file
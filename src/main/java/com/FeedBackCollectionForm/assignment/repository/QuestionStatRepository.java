@@ -0,0 +1,40 @@
+package com.FeedBackCollectionForm.assignment.repository;
+
+import com.FeedBackCollectionForm.assignment.model.QuestionStat;
+import com.FeedBackCollectionForm.assignment.model.QuestionStatKind;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QuestionStatRepository extends JpaRepository<QuestionStat, Long> {
+    List<QuestionStat> findByFormId(Long formId);
+
+    boolean existsByQuestionIdAndKind(Long questionId, QuestionStatKind kind);
+
+    List<QuestionStat> findByQuestionIdInAndKindAndBucket(Collection<Long> questionIds, QuestionStatKind kind, long bucket);
+
+    /**
+     * Atomically adds one observation to a stats row.
+     *
+     * @return The number of rows updated, 0 if the row does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE QuestionStat s SET s.count = s.count + 1, s.sum = s.sum + :value, " +
+           "s.sumSquares = s.sumSquares + :square " +
+           "WHERE s.questionId = :questionId AND s.kind = :kind AND s.bucket = :bucket")
+    int increment(@Param("questionId") Long questionId,
+                  @Param("kind") QuestionStatKind kind,
+                  @Param("bucket") long bucket,
+                  @Param("value") long value,
+                  @Param("square") long square);
+
+    @Modifying
+    @Query("DELETE FROM QuestionStat s WHERE s.formId = :formId")
+    void deleteByFormId(@Param("formId") Long formId);
+}
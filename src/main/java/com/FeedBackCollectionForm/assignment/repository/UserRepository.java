@@ -2,8 +2,10 @@ package com.FeedBackCollectionForm.assignment.repository;
 
 import com.FeedBackCollectionForm.assignment.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +17,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
     
     Boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Finds the users whose roles have changed, with their current token version.
+     * 
+     * @return The user ID, token version and username of each
+     */
+    @Query("SELECT u.id, u.tokenVersion, u.username FROM User u WHERE u.tokenVersion > 0")
+    List<Object[]> findChangedTokenVersions();
+
+    /**
+     * Lists the username and email of every user, for checking bulk imports
+     * against existing accounts without a query per row.
+     * 
+     * @return Pairs of username and email
+     */
+    @Query("SELECT u.username, u.email FROM User u")
+    List<Object[]> findAllUsernamesAndEmails();
+}
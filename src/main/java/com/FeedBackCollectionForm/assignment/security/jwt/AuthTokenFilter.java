@@ -1,6 +1,9 @@
 package com.FeedBackCollectionForm.assignment.security.jwt;
 
+import com.FeedBackCollectionForm.assignment.config.logging.SamplingTurboFilter;
+import com.FeedBackCollectionForm.assignment.security.services.TokenRevocationService;
 import com.FeedBackCollectionForm.assignment.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +28,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Value("${app.jwt.header}")
     private String headerName;
 
@@ -36,6 +42,20 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        // Keep or drop the sampled log lines of the whole request together
+        SamplingTurboFilter.beginRequest();
+        try {
+            authenticate(request);
+
+            // Always continue the filter chain
+            logger.info("Continuing filter chain for: {}", request.getRequestURI());
+            filterChain.doFilter(request, response);
+        } finally {
+            SamplingTurboFilter.endRequest();
+        }
+    }
+
+    private void authenticate(HttpServletRequest request) {
         try {
             // Log all requests for debugging
             String path = request.getRequestURI();
@@ -62,14 +82,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                 logger.info("JWT token present: {}", (jwt != null));
 
                 if (jwt != null) {
-                    boolean isValid = jwtUtils.validateJwtToken(jwt);
-                    logger.info("JWT token valid: {}", isValid);
+                    Claims claims = jwtUtils.getVerifiedClaims(jwt);
+                    logger.info("JWT token valid: {}", claims != null);
 
-                    if (isValid) {
-                        String username = jwtUtils.getUserNameFromJwtToken(jwt);
+                    if (claims != null && tokenRevocationService.isRevoked(claims)) {
+                        logger.info("JWT token has been revoked, continuing without authentication");
+                    } else if (claims != null) {
+                        String username = claims.getSubject();
                         logger.info("Username from token: {}", username);
 
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                        UserDetails userDetails = userDetailsService.loadUserFromClaims(claims);
                         UsernamePasswordAuthenticationToken authentication =
                                 new UsernamePasswordAuthenticationToken(
                                         userDetails,
@@ -87,10 +109,6 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage(), e);
         }
-
-        // Always continue the filter chain
-        logger.info("Continuing filter chain for: {}", request.getRequestURI());
-        filterChain.doFilter(request, response);
     }
 
     private String parseJwt(HttpServletRequest request) {
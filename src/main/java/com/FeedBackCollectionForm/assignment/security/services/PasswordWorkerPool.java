@@ -0,0 +1,87 @@
+package com.FeedBackCollectionForm.assignment.security.services;
+
+import com.FeedBackCollectionForm.assignment.exception.ServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a small, bounded pool instead of
+ * on request threads. BCrypt is deliberately slow, so a burst of sign-ins
+ * would otherwise occupy every request thread and starve cheap requests such
+ * as public form submissions. Work beyond the pool and its queue is rejected
+ * with a {@link ServiceBusyException} rather than waiting.
+ */
+@Component
+public class PasswordWorkerPool {
+
+    // 0 means one worker per available processor
+    @Value("${app.security.password-workers:0}")
+    private int workers;
+
+    @Value("${app.security.password-queue-size:64}")
+    private int queueSize;
+
+    private ThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "password-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues password work without waiting for it.
+     *
+     * @param task The work, e.g. an authentication
+     * @return The result once a worker has run the task
+     * @throws ServiceBusyException if every worker is busy and the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ServiceBusyException("The server is busy signing in other users, please try again shortly");
+        }
+    }
+
+    /**
+     * Gets the pool counters.
+     *
+     * @return The number of workers, busy workers, queued and rejected tasks
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("workers", executor.getMaximumPoolSize());
+        metrics.put("active", executor.getActiveCount());
+        metrics.put("queued", executor.getQueue().size());
+        metrics.put("completed", executor.getCompletedTaskCount());
+        metrics.put("rejected", rejected.get());
+        return metrics;
+    }
+}
@@ -0,0 +1,205 @@
+package com.FeedBackCollectionForm.assignment.security.services;
+
+import com.FeedBackCollectionForm.assignment.exception.TokenRefreshException;
+import com.FeedBackCollectionForm.assignment.model.RefreshToken;
+import com.FeedBackCollectionForm.assignment.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues and rotates opaque refresh tokens. A refresh token is 256 random
+ * bits, so it is stored as a plain SHA-256 hash and looked up by that hash
+ * with one indexed read; unlike passwords it needs no BCrypt. Every refresh
+ * marks the presented token as used and issues a new one of the same
+ * family. A used token presented again means the family has leaked, so the
+ * whole family is revoked and its holder must sign in again.
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.jwt.refresh-expiration-ms:2592000000}")
+    private long refreshExpirationMs;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong rotated = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong reuseDetected = new AtomicLong();
+
+    /**
+     * Starts a new token family for a user who just signed in.
+     *
+     * @param userId The ID of the user
+     * @param username The username of the user
+     * @return The refresh token, to be handed to the client only
+     */
+    public String issue(Long userId, String username) {
+        String token = newToken();
+        refreshTokenRepository.save(new RefreshToken(hash(token), UUID.randomUUID().toString(), userId, username,
+                LocalDateTime.now().plusNanos(refreshExpirationMs * 1_000_000)));
+        issued.incrementAndGet();
+        return token;
+    }
+
+    /**
+     * Exchanges a refresh token for a new one of the same family.
+     *
+     * @param token The refresh token presented by the client
+     * @return The new token and the user it belongs to
+     * @throws TokenRefreshException if the token is unknown, expired, revoked or was already used
+     */
+    public Rotation rotate(String token) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(token)).orElse(null);
+        if (current == null) {
+            rejected.incrementAndGet();
+            throw new TokenRefreshException("Error: Refresh token is not valid. Please sign in again.");
+        }
+        if (current.getUsedAt() != null) {
+            reuseDetected(current);
+        }
+        if (current.isRevoked()) {
+            rejected.incrementAndGet();
+            throw new TokenRefreshException("Error: Refresh token has been revoked. Please sign in again.");
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            rejected.incrementAndGet();
+            throw new TokenRefreshException("Error: Refresh token has expired. Please sign in again.");
+        }
+
+        String next = newToken();
+        Boolean marked = transactionTemplate.execute(status -> {
+            // Of two refreshes racing with the same token only one marks it; the other is treated as reuse
+            if (refreshTokenRepository.markUsed(current.getId(), LocalDateTime.now()) == 0) {
+                return false;
+            }
+            refreshTokenRepository.save(new RefreshToken(hash(next), current.getFamilyId(), current.getUserId(),
+                    current.getUsername(), LocalDateTime.now().plusNanos(refreshExpirationMs * 1_000_000)));
+            return true;
+        });
+        if (!Boolean.TRUE.equals(marked)) {
+            reuseDetected(current);
+        }
+
+        rotated.incrementAndGet();
+        return new Rotation(next, current.getUserId(), current.getUsername());
+    }
+
+    /**
+     * Revokes the family of a refresh token, e.g. on logout. Unknown tokens
+     * are ignored.
+     *
+     * @param token The refresh token presented by the client
+     */
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(current -> refreshTokenRepository.revokeFamily(current.getFamilyId()));
+    }
+
+    /**
+     * Revokes every refresh token of a user, e.g. after a password reset.
+     *
+     * @param userId The ID of the user
+     */
+    public void revokeAllForUser(Long userId) {
+        int revoked = refreshTokenRepository.revokeAllForUser(userId);
+        logger.info("Revoked {} refresh tokens of user {}", revoked, userId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    /**
+     * Gets the refresh token counters.
+     *
+     * @return The number of families started, rotations, rejected tokens and detected reuses
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("issued", issued.get());
+        metrics.put("rotated", rotated.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("reuseDetected", reuseDetected.get());
+        return metrics;
+    }
+
+    private void reuseDetected(RefreshToken token) {
+        int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId());
+        reuseDetected.incrementAndGet();
+        rejected.incrementAndGet();
+        logger.warn("Refresh token of user {} was used again; revoked {} tokens of its family",
+                token.getUsername(), revoked);
+        throw new TokenRefreshException("Error: Refresh token has already been used. Please sign in again.");
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The result of a successful refresh.
+     */
+    public static class Rotation {
+        private final String refreshToken;
+        private final Long userId;
+        private final String username;
+
+        Rotation(String refreshToken, Long userId, String username) {
+            this.refreshToken = refreshToken;
+            this.userId = userId;
+            this.username = username;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+    }
+}
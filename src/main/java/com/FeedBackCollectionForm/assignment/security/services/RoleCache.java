@@ -0,0 +1,72 @@
+package com.FeedBackCollectionForm.assignment.security.services;
+
+import com.FeedBackCollectionForm.assignment.exception.RoleNotFoundException;
+import com.FeedBackCollectionForm.assignment.model.ERole;
+import com.FeedBackCollectionForm.assignment.model.Role;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the role entities, loaded once by the database initializer after it
+ * has made sure every role exists. Roles never change at runtime, so signup
+ * and role assignment use these references instead of querying roles.
+ */
+@Component
+public class RoleCache {
+    private volatile Map<ERole, Role> roles = Collections.emptyMap();
+
+    /**
+     * Replaces the cached roles.
+     *
+     * @param loaded All roles in the database
+     */
+    public void initialize(List<Role> loaded) {
+        Map<ERole, Role> byName = new EnumMap<>(ERole.class);
+        for (Role role : loaded) {
+            byName.put(role.getName(), role);
+        }
+        roles = Collections.unmodifiableMap(byName);
+    }
+
+    /**
+     * Gets a role to reference from a user.
+     *
+     * @param name The role name
+     * @return The role
+     * @throws RoleNotFoundException if the role was not initialized
+     */
+    public Role get(ERole name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            throw new RoleNotFoundException("Error: Role " + name + " is not found.");
+        }
+        return role;
+    }
+
+    /**
+     * Maps requested role names to roles. Every user gets the USER role;
+     * "admin" or "ROLE_ADMIN" adds the ADMIN role.
+     *
+     * @param requested The role names from a signup or role change, or null
+     * @return The roles to assign
+     */
+    public Set<Role> forRequest(Collection<String> requested) {
+        Set<Role> assigned = new HashSet<>();
+        assigned.add(get(ERole.ROLE_USER));
+        if (requested != null) {
+            for (String role : requested) {
+                if (role != null && (role.equals("ROLE_ADMIN") || role.toLowerCase().trim().equals("admin"))) {
+                    assigned.add(get(ERole.ROLE_ADMIN));
+                }
+            }
+        }
+        return assigned;
+    }
+}
@@ -0,0 +1,224 @@
+package com.FeedBackCollectionForm.assignment.security.services;
+
+import com.FeedBackCollectionForm.assignment.model.RevokedToken;
+import com.FeedBackCollectionForm.assignment.repository.RevokedTokenRepository;
+import com.FeedBackCollectionForm.assignment.security.jwt.JwtUtils;
+import com.FeedBackCollectionForm.assignment.util.BloomFilter;
+import com.FeedBackCollectionForm.assignment.util.Murmur3;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of JWTs revoked before their expiry. Revoked token IDs are
+ * stored in the revoked_tokens table, and every authenticated request checks
+ * its token against an in-memory Bloom filter of them first: tokens the
+ * filter has never seen, i.e. nearly all of them, are accepted without a
+ * query, and only filter positives are looked up in the table. The filter is
+ * rebuilt from the table every app.jwt.revocation.rebuild-interval-ms, which
+ * also picks up tokens revoked by other nodes, and tokens revoked on this
+ * node are added to it immediately.
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.jwt.revocation.expected-tokens:100000}")
+    private long expectedTokens;
+
+    @Value("${app.jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${app.jwt.revocation.rebuild-interval-ms:300000}")
+    private long rebuildIntervalMs;
+
+    // Null until first loaded; until then every token is looked up in the table
+    private volatile BloomFilter filter;
+
+    // Token IDs revoked while a rebuild is reading the table, added to the new filter before it replaces the old one
+    private final Object filterLock = new Object();
+    private List<String> revokedDuringRebuild;
+
+    // Results of table lookups, so a filter false positive costs one query per rebuild interval rather than per request
+    private Cache<String, Boolean> lookups;
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong filterPositives = new AtomicLong();
+    private final AtomicLong tableLookups = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        lookups = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(rebuildIntervalMs))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Purges revocations of tokens that have expired anyway and rebuilds the
+     * filter from the remaining ones.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.rebuild-interval-ms:300000}",
+               initialDelayString = "${app.jwt.revocation.rebuild-interval-ms:300000}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        synchronized (filterLock) {
+            revokedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer purged = transactionTemplate.execute(status -> revokedTokenRepository.deleteExpired(now));
+            List<String> tokenIds = revokedTokenRepository.findActiveTokenIds(now);
+
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, 2L * tokenIds.size()), falsePositiveRate);
+            for (String tokenId : tokenIds) {
+                rebuilt.add(hash(tokenId));
+            }
+            synchronized (filterLock) {
+                for (String tokenId : revokedDuringRebuild) {
+                    rebuilt.add(hash(tokenId));
+                }
+                filter = rebuilt;
+            }
+            logger.info("Rebuilt token revocation filter with {} tokens ({} expired revocations purged) in {} ms",
+                    tokenIds.size(), purged, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            logger.error("Could not rebuild the token revocation filter: {}", e.getMessage(), e);
+        } finally {
+            synchronized (filterLock) {
+                revokedDuringRebuild = null;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a verified token has been revoked.
+     *
+     * @param claims The claims of the token
+     * @return true if the token must not be accepted
+     */
+    public boolean isRevoked(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId == null) {
+            // Tokens issued before revocation support have no ID; they expire on their own
+            return false;
+        }
+        checks.incrementAndGet();
+        BloomFilter current = filter;
+        if (current != null) {
+            if (!current.mightContain(hash(tokenId))) {
+                return false;
+            }
+            filterPositives.incrementAndGet();
+        }
+        boolean revoked = lookups.get(tokenId, id -> {
+            tableLookups.incrementAndGet();
+            return revokedTokenRepository.existsByTokenId(id);
+        });
+        if (revoked) {
+            rejected.incrementAndGet();
+        }
+        return revoked;
+    }
+
+    /**
+     * Revokes a verified token.
+     *
+     * @param claims The claims of the token
+     * @return false if the token has no ID and cannot be revoked
+     */
+    public boolean revoke(Claims claims) {
+        if (claims.getId() == null) {
+            return false;
+        }
+        revoke(claims.getId(), claims.get(JwtUtils.CLAIM_USER_ID, Long.class), claims.getExpiration());
+        return true;
+    }
+
+    /**
+     * Revokes a token by its ID. Revoking a token twice has no further effect.
+     *
+     * @param tokenId The jti claim of the token
+     * @param userId The ID of the user the token was issued to, or null if unknown
+     * @param expiration When the token expires; the revocation is kept until then
+     */
+    public void revoke(String tokenId, Long userId, Date expiration) {
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault());
+        try {
+            revokedTokenRepository.save(new RevokedToken(tokenId, userId, expiresAt));
+        } catch (DataIntegrityViolationException alreadyRevoked) {
+            logger.debug("Token {} was already revoked", tokenId);
+        }
+
+        synchronized (filterLock) {
+            BloomFilter current = filter;
+            if (current != null) {
+                current.add(hash(tokenId));
+            }
+            if (revokedDuringRebuild != null) {
+                revokedDuringRebuild.add(tokenId);
+            }
+        }
+        lookups.put(tokenId, Boolean.TRUE);
+        logger.info("Revoked token {} of user {} until {}", tokenId, userId, expiresAt);
+    }
+
+    /**
+     * Gets the revocation counters.
+     *
+     * @return The filter size and the number of checks, filter positives, table lookups and rejected tokens
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        BloomFilter current = filter;
+        metrics.put("loaded", current != null);
+        if (current != null) {
+            metrics.put("revokedTokens", current.getElements());
+            metrics.put("filterBits", current.getBitCount());
+            metrics.put("filterHashes", current.getHashFunctions());
+            metrics.put("expectedFalsePositiveRate", current.expectedFalsePositiveRate());
+        }
+        metrics.put("checks", checks.get());
+        metrics.put("filterPositives", filterPositives.get());
+        metrics.put("tableLookups", tableLookups.get());
+        metrics.put("rejected", rejected.get());
+        return metrics;
+    }
+
+    private static long hash(String tokenId) {
+        return Murmur3.hash64(tokenId);
+    }
+}
@@ -0,0 +1,45 @@
+package com.FeedBackCollectionForm.assignment.security.services;
+
+import com.FeedBackCollectionForm.assignment.model.User;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * A username or email that is already taken. Signup and bulk provisioning
+ * insert users without checking first and find duplicates from the unique
+ * constraint the insert violated.
+ */
+public enum UserConflict {
+    USERNAME(User.USERNAME_CONSTRAINT, "(username", "Error: Username is already taken!"),
+    EMAIL(User.EMAIL_CONSTRAINT, "(email", "Error: Email is already in use!");
+
+    private final String constraint;
+    // How H2 names the column when it reports an unnamed index
+    private final String column;
+    private final String message;
+
+    UserConflict(String constraint, String column, String message) {
+        this.constraint = constraint;
+        this.column = column;
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Finds which unique constraint of the users table an insert violated.
+     *
+     * @param e The exception of the insert
+     * @return The conflict, or null if the violation is not a duplicate user
+     */
+    public static UserConflict of(DataIntegrityViolationException e) {
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+        for (UserConflict conflict : values()) {
+            if (cause.contains(conflict.constraint) || cause.contains(conflict.column)) {
+                return conflict;
+            }
+        }
+        return null;
+    }
+}
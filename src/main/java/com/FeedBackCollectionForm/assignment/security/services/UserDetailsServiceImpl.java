@@ -2,24 +2,178 @@ package com.FeedBackCollectionForm.assignment.security.services;
 
 import com.FeedBackCollectionForm.assignment.model.User;
 import com.FeedBackCollectionForm.assignment.repository.UserRepository;
+import com.FeedBackCollectionForm.assignment.security.jwt.JwtUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
+
     @Autowired
     UserRepository userRepository;
 
+    @Value("${app.security.user-cache.size:10000}")
+    private long userCacheSize;
+
+    @Value("${app.security.user-cache.ttl-seconds:300}")
+    private long userCacheTtlSeconds;
+
+    // Current token version of every user whose roles have changed; tokens with an older version are reloaded.
+    // Refreshed from the database on a schedule, so changes made by other instances are seen after a delay
+    private final Map<Long, Integer> tokenVersions = new ConcurrentHashMap<>();
+
+    private Cache<String, UserDetailsImpl> users;
+
+    @PostConstruct
+    void init() {
+        users = Caffeine.newBuilder()
+                .maximumSize(userCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(userCacheTtlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTokenVersions() {
+        refreshTokenVersions();
+        logger.info("Loaded token versions of {} users", tokenVersions.size());
+    }
+
+    /**
+     * Picks up token versions bumped by other instances. A role change made
+     * elsewhere is trusted from old tokens here for at most
+     * app.security.token-version-refresh-ms; users whose version moved are
+     * also dropped from the cache, so their old roles are not served from it.
+     */
+    @Scheduled(fixedDelayString = "${app.security.token-version-refresh-ms:30000}",
+               initialDelayString = "${app.security.token-version-refresh-ms:30000}")
+    public void refreshTokenVersions() {
+        try {
+            for (Object[] row : userRepository.findChangedTokenVersions()) {
+                Long id = (Long) row[0];
+                Integer version = (Integer) row[1];
+                if (version > tokenVersions.getOrDefault(id, 0)) {
+                    tokenVersions.merge(id, version, Math::max);
+                    evict((String) row[2]);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Could not refresh token versions: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads a user for sign-in and for tokens that cannot be trusted on
+     * their own. Users are cached for app.security.user-cache.ttl-seconds;
+     * changes to a user must call {@link #evict(String)}.
+     */
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+        // Unknown usernames are not cached; the exception propagates to the caller
+        return users.get(username, name -> {
+            User user = userRepository.findByUsername(name)
+                    .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + name));
+
+            return UserDetailsImpl.build(user);
+        });
+    }
+
+    /**
+     * Stores a password rehashed at the configured strength after a
+     * successful sign-in.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        User savedUser = userRepository.save(user);
+        evict(savedUser.getUsername());
+        logger.info("Rehashed the password of user {}", savedUser.getUsername());
+
+        return UserDetailsImpl.build(savedUser);
+    }
+
+    /**
+     * Builds the principal of a request from the claims of its token. Only
+     * tokens issued before the user's roles last changed, or before tokens
+     * carried the user's details, are resolved from the database.
+     *
+     * @param claims The verified claims of the token
+     * @return The user details
+     */
+    public UserDetailsImpl loadUserFromClaims(Claims claims) {
+        Long id = claims.get(JwtUtils.CLAIM_USER_ID, Long.class);
+        Integer version = claims.get(JwtUtils.CLAIM_VERSION, Integer.class);
+        List<?> roles = claims.get(JwtUtils.CLAIM_ROLES, List.class);
+        if (id == null || version == null || roles == null || version < tokenVersions.getOrDefault(id, 0)) {
+            return (UserDetailsImpl) loadUserByUsername(claims.getSubject());
+        }
+
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+        return new UserDetailsImpl(id, claims.getSubject(), claims.get(JwtUtils.CLAIM_EMAIL, String.class),
+                null, authorities, version);
+    }
+
+    /**
+     * Records that a user's token version was bumped, so tokens issued
+     * before no longer carry trusted roles.
+     *
+     * @param user The user, already saved with the new version
+     */
+    public void tokenVersionChanged(User user) {
+        tokenVersions.merge(user.getId(), user.getTokenVersion(), Math::max);
+        evict(user.getUsername());
+    }
+
+    /**
+     * Drops a user from the cache after its password, profile or roles changed.
+     *
+     * @param username The username of the user
+     */
+    public void evict(String username) {
+        users.invalidate(username);
+    }
 
-        return UserDetailsImpl.build(user);
+    /**
+     * Gets the user cache counters.
+     *
+     * @return The number of cached users, hits, misses and the hit rate
+     */
+    public Map<String, Object> snapshot() {
+        CacheStats stats = users.stats();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", users.estimatedSize());
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("hitRate", stats.hitRate());
+        metrics.put("evictions", stats.evictionCount());
+        return metrics;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,333 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+import com.FeedBackCollectionForm.assignment.model.Option;
+import com.FeedBackCollectionForm.assignment.model.Question;
+import com.FeedBackCollectionForm.assignment.repository.OptionRepository;
+import com.FeedBackCollectionForm.assignment.repository.QuestionRepository;
+import com.FeedBackCollectionForm.assignment.service.analytics.FormColumnStore;
+import com.FeedBackCollectionForm.assignment.service.analytics.FormColumnStore.ColumnSpec;
+import com.FeedBackCollectionForm.assignment.service.event.FormDeletedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.FormEditedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.ResponseSubmittedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a {@link FormColumnStore} per form. A store is loaded from the
+ * database the first time the form is analysed or exported and then kept up
+ * to date after each committed submission. Stores share a memory budget;
+ * the least recently used ones are dropped when it is exceeded and reloaded
+ * on their next use. A store larger than the whole budget only serves the
+ * call that loaded it, and exports of its form read the database a batch at
+ * a time instead.
+ */
+@Service
+public class ColumnStoreService {
+    private static final Logger logger = LoggerFactory.getLogger(ColumnStoreService.class);
+    private static final int FETCH_SIZE = 500;
+    private static final String RESPONSE_COLUMNS =
+            "SELECT r.id, r.respondentName, r.respondentEmail, r.submittedAt FROM Response r ";
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private OptionRepository optionRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.column-store.memory-budget-mb:64}")
+    private long memoryBudgetMb;
+
+    private final Map<Long, FormColumnStore> stores = new ConcurrentHashMap<>();
+    private final Map<Long, Long> lastUsed = new ConcurrentHashMap<>();
+    private final Set<Long> oversized = ConcurrentHashMap.newKeySet();
+    private final AtomicLong clock = new AtomicLong();
+    private long memoryBudgetBytes;
+
+    @PostConstruct
+    void init() {
+        memoryBudgetBytes = memoryBudgetMb * 1024 * 1024;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onResponseSubmitted(ResponseSubmittedEvent event) {
+        // Waits for a load in progress; forms that were never loaded pick the response up when they are
+        FormColumnStore store = stores.computeIfPresent(event.getFormId(), (id, existing) -> existing);
+        if (store != null) {
+            store.append(event.getResponseId(), event.getRespondentName(), event.getRespondentEmail(),
+                    event.getSubmittedAt(), event.getAnswers());
+            enforceBudget(event.getFormId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void afterFormDeleted(FormDeletedEvent event) {
+        stores.remove(event.getFormId());
+        lastUsed.remove(event.getFormId());
+        oversized.remove(event.getFormId());
+    }
+
+    // Its columns follow the questions of the form, so it is reloaded on next use
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void afterFormEdited(FormEditedEvent event) {
+        stores.remove(event.getFormId());
+        lastUsed.remove(event.getFormId());
+    }
+
+    /**
+     * Gets the column store of a form, loading it if needed. The caller is
+     * responsible for checking access to the form.
+     *
+     * @param formId The ID of the form
+     * @return The column store
+     */
+    public FormColumnStore getStore(Long formId) {
+        lastUsed.put(formId, clock.incrementAndGet());
+        FormColumnStore store = stores.get(formId);
+        if (store == null) {
+            store = stores.computeIfAbsent(formId, this::load);
+            enforceBudget(formId);
+        }
+        return store;
+    }
+
+    /**
+     * Gets the column store of a form for an export, unless its store was
+     * found to be larger than the memory budget. The caller is responsible
+     * for checking access to the form.
+     *
+     * @param formId The ID of the form
+     * @return The column store, or null if the export should use
+     *         {@link #readBatches(Long, List, int, Consumer)}
+     */
+    public FormColumnStore getStoreForExport(Long formId) {
+        return oversized.contains(formId) ? null : getStore(formId);
+    }
+
+    /**
+     * Reads responses of a form from the database a batch at a time, copying
+     * each batch into a column store of its own, so only one batch is in
+     * memory. Must be called inside a transaction.
+     *
+     * @param formId The ID of the form
+     * @param responseIds The responses to read, in this order, or null for all responses newest first
+     * @param batchSize The number of responses per batch
+     * @param consumer Receives each batch, with its rows in reading order
+     */
+    public void readBatches(Long formId, List<Long> responseIds, int batchSize, Consumer<FormColumnStore> consumer) {
+        List<ColumnSpec> specs = columnSpecs(formId);
+        if (responseIds != null) {
+            for (int from = 0; from < responseIds.size(); from += batchSize) {
+                List<Long> ids = responseIds.subList(from, Math.min(from + batchSize, responseIds.size()));
+                Map<Long, Object[]> byId = new HashMap<>();
+                entityManager.createQuery(RESPONSE_COLUMNS + "WHERE r.form.id = :formId AND r.id IN :responseIds",
+                                Object[].class)
+                        .setParameter("formId", formId)
+                        .setParameter("responseIds", ids)
+                        .getResultList()
+                        .forEach(response -> byId.put((Long) response[0], response));
+                consumer.accept(batchStore(specs, ids.stream().map(byId::get).filter(Objects::nonNull).toList()));
+            }
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        try (Stream<Object[]> responses = entityManager.createQuery(RESPONSE_COLUMNS +
+                "WHERE r.form.id = :formId ORDER BY r.submittedAt DESC, r.id DESC", Object[].class)
+                .setParameter("formId", formId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream()) {
+            Iterator<Object[]> iterator = responses.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == batchSize) {
+                    consumer.accept(batchStore(specs, batch));
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batchStore(specs, batch));
+        }
+    }
+
+    /**
+     * Describes the columns of a form's questions. Questions and options
+     * removed by edits keep their columns, so the answers given before the
+     * edit are still counted and exported.
+     *
+     * @param formId The ID of the form
+     * @return One column spec per question
+     */
+    List<ColumnSpec> columnSpecs(Long formId) {
+        Map<Long, List<Long>> optionIds = new HashMap<>();
+        for (Option option : optionRepository.findAllByFormIdIncludingRemoved(formId)) {
+            optionIds.computeIfAbsent(option.getQuestion().getId(), id -> new ArrayList<>()).add(option.getId());
+        }
+        List<ColumnSpec> specs = new ArrayList<>();
+        for (Question question : questionRepository.findAllByFormIdIncludingRemoved(formId)) {
+            specs.add(new ColumnSpec(question.getId(), question.getType(),
+                    optionIds.getOrDefault(question.getId(), List.of())));
+        }
+        return specs;
+    }
+
+    /**
+     * Gets the column store of a form only if it is already loaded.
+     *
+     * @param formId The ID of the form
+     * @return The column store, or null
+     */
+    public FormColumnStore getLoadedStore(Long formId) {
+        return stores.get(formId);
+    }
+
+    private FormColumnStore load(Long formId) {
+        long started = System.nanoTime();
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        FormColumnStore store = template.execute(status -> {
+            if (entityManager.find(Form.class, formId) == null) {
+                throw new RuntimeException("Form not found");
+            }
+            FormColumnStore loaded = new FormColumnStore(columnSpecs(formId));
+
+            Map<Long, Integer> rows = new HashMap<>();
+            try (Stream<Object[]> responses = entityManager.createQuery(RESPONSE_COLUMNS +
+                    "WHERE r.form.id = :formId ORDER BY r.submittedAt, r.id", Object[].class)
+                    .setParameter("formId", formId)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                    .getResultStream()) {
+                responses.forEach(response -> rows.put((Long) response[0], addRow(loaded, response)));
+            }
+            addAnswers(loaded, rows, "a.response.form.id = :formId", "formId", formId);
+            return loaded;
+        });
+        logger.debug("Loaded column store of form {} with {} responses ({} KB) in {} ms", formId, store.size(),
+                store.memoryBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+        return store;
+    }
+
+    private FormColumnStore batchStore(List<ColumnSpec> specs, List<Object[]> responses) {
+        FormColumnStore batch = new FormColumnStore(specs);
+        Map<Long, Integer> rows = new HashMap<>();
+        for (Object[] response : responses) {
+            rows.put((Long) response[0], addRow(batch, response));
+        }
+        if (!rows.isEmpty()) {
+            addAnswers(batch, rows, "a.response.id IN :responseIds", "responseIds", List.copyOf(rows.keySet()));
+        }
+        return batch;
+    }
+
+    private static int addRow(FormColumnStore store, Object[] response) {
+        return store.addRow((Long) response[0], (String) response[1], (String) response[2],
+                (LocalDateTime) response[3]);
+    }
+
+    /**
+     * Copies the answers matching a condition on the answer {@code a} into the
+     * rows of their responses.
+     */
+    private void addAnswers(FormColumnStore store, Map<Long, Integer> rows, String condition, String parameter,
+                            Object value) {
+        try (Stream<Object[]> answers = entityManager.createQuery(
+                "SELECT a.response.id, a.question.id, so.id, a.ratingValue, a.textAnswer, a.dateValue " +
+                "FROM Answer a LEFT JOIN a.selectedOption so WHERE " + condition, Object[].class)
+                .setParameter(parameter, value)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream()) {
+            answers.forEach(answer -> {
+                Integer row = rows.get((Long) answer[0]);
+                if (row != null) {
+                    store.setAnswer(row, (Long) answer[1], (Long) answer[2], (Integer) answer[3],
+                            (String) answer[4], (String) answer[5]);
+                }
+            });
+        }
+        try (Stream<Object[]> selections = entityManager.createQuery(
+                "SELECT a.response.id, a.question.id, o.id FROM Answer a JOIN a.selectedOptions o " +
+                "WHERE " + condition, Object[].class)
+                .setParameter(parameter, value)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream()) {
+            selections.forEach(selection -> {
+                Integer row = rows.get((Long) selection[0]);
+                if (row != null) {
+                    store.addOption(row, (Long) selection[1], (Long) selection[2]);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicts the least recently used stores until the rest fit the memory
+     * budget. The store that was just used is kept unless it alone exceeds
+     * the budget; then the caller that loaded or grew it is the last to use
+     * it, and its form is remembered as too large to keep.
+     */
+    private synchronized void enforceBudget(Long keepFormId) {
+        FormColumnStore kept = stores.get(keepFormId);
+        if (kept != null && kept.memoryBytes() > memoryBudgetBytes && stores.remove(keepFormId, kept)) {
+            lastUsed.remove(keepFormId);
+            oversized.add(keepFormId);
+            logger.info("Column store of form {} ({} KB) exceeds the memory budget and is not kept",
+                    keepFormId, kept.memoryBytes() / 1024);
+        }
+
+        Map<Long, Long> sizes = new HashMap<>();
+        long total = 0;
+        for (Map.Entry<Long, FormColumnStore> entry : stores.entrySet()) {
+            long bytes = entry.getValue().memoryBytes();
+            sizes.put(entry.getKey(), bytes);
+            total += bytes;
+        }
+        if (total <= memoryBudgetBytes) {
+            return;
+        }
+        List<Long> leastRecentFirst = new ArrayList<>(sizes.keySet());
+        leastRecentFirst.sort(Comparator.comparingLong(formId -> lastUsed.getOrDefault(formId, 0L)));
+        for (Long formId : leastRecentFirst) {
+            if (total <= memoryBudgetBytes) {
+                break;
+            }
+            if (!formId.equals(keepFormId) && stores.remove(formId) != null) {
+                lastUsed.remove(formId);
+                total -= sizes.get(formId);
+                logger.debug("Evicted column store of form {} to stay within the memory budget", formId);
+            }
+        }
+    }
+}
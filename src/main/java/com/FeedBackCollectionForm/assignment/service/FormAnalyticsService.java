@@ -0,0 +1,310 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+import com.FeedBackCollectionForm.assignment.model.Option;
+import com.FeedBackCollectionForm.assignment.model.Question;
+import com.FeedBackCollectionForm.assignment.model.QuestionStat;
+import com.FeedBackCollectionForm.assignment.model.QuestionStatKind;
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.payload.response.CrosstabResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.FormAnalyticsResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.QuestionAnalyticsResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.RatingSummaryResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.TermFrequencyResponse;
+import com.FeedBackCollectionForm.assignment.repository.FormRepository;
+import com.FeedBackCollectionForm.assignment.repository.OptionRepository;
+import com.FeedBackCollectionForm.assignment.repository.QuestionStatRepository;
+import com.FeedBackCollectionForm.assignment.service.analytics.AnalyticsMode;
+import com.FeedBackCollectionForm.assignment.service.analytics.FormColumnStore;
+import com.FeedBackCollectionForm.assignment.service.analytics.KllSketch;
+import com.FeedBackCollectionForm.assignment.service.analytics.ReservoirSample;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assembles form analytics from the exact rollups in question_stats and the
+ * approximate sketches (unique respondents, rating quantiles, term
+ * frequencies) kept by the sketch services.
+ */
+@Service
+public class FormAnalyticsService {
+    private static final int SUMMARY_TERMS = 10;
+    private static final int MAX_TERMS = 100;
+
+    @Autowired
+    private FormRepository formRepository;
+
+    @Autowired
+    private OptionRepository optionRepository;
+
+    @Autowired
+    private QuestionStatRepository questionStatRepository;
+
+    @Autowired
+    private RespondentSketchService respondentSketchService;
+
+    @Autowired
+    private RatingQuantileService ratingQuantileService;
+
+    @Autowired
+    private TermFrequencyService termFrequencyService;
+
+    @Autowired
+    private ColumnStoreService columnStoreService;
+
+    @Autowired
+    private ResponseSampleService responseSampleService;
+
+    /**
+     * Builds the analytics of a form.
+     *
+     * @param formId The ID of the form
+     * @param username The username of the user requesting the analytics
+     * @return The per-question analytics and form-level estimates
+     */
+    @Transactional(readOnly = true)
+    public FormAnalyticsResponse getFormAnalytics(Long formId, String username) {
+        Form form = formRepository.findById(formId)
+                .orElseThrow(() -> new RuntimeException("Form not found"));
+
+        if (!form.getCreatedBy().getUsername().equals(username)) {
+            throw new RuntimeException("Not authorized to access this form's analytics");
+        }
+
+        return buildAnalytics(form);
+    }
+
+    /**
+     * Builds the analytics of a form from rollups the caller keeps, without
+     * checking who is asking. Used to push snapshots to subscribers whose
+     * access was checked when they subscribed.
+     *
+     * @param formId The ID of the form
+     * @param stats The rollup rows of the form
+     * @return The per-question analytics and form-level estimates
+     */
+    @Transactional(readOnly = true)
+    public FormAnalyticsResponse getFormAnalytics(Long formId, List<QuestionStat> stats) {
+        Form form = formRepository.findById(formId)
+                .orElseThrow(() -> new RuntimeException("Form not found"));
+        return buildAnalytics(form, stats);
+    }
+
+    private FormAnalyticsResponse buildAnalytics(Form form) {
+        return buildAnalytics(form, questionStatRepository.findByFormId(form.getId()));
+    }
+
+    private FormAnalyticsResponse buildAnalytics(Form form, List<QuestionStat> stats) {
+        Long formId = form.getId();
+        Map<Long, List<QuestionStat>> statsByQuestion = new HashMap<>();
+        long responseCount = 0;
+        for (QuestionStat stat : stats) {
+            if (stat.getKind() == QuestionStatKind.RESPONSES) {
+                responseCount += stat.getCount();
+            } else {
+                statsByQuestion.computeIfAbsent(stat.getQuestionId(), id -> new ArrayList<>()).add(stat);
+            }
+        }
+
+        List<QuestionAnalyticsResponse> questions = new ArrayList<>();
+        for (Question question : form.getQuestions()) {
+            QuestionAnalyticsResponse analytics = QuestionAnalyticsResponse.fromStats(question,
+                    statsByQuestion.getOrDefault(question.getId(), List.of()));
+            if (question.getType() == QuestionType.RATING_SCALE && analytics.getAnswerCount() > 0) {
+                applyQuantiles(analytics.getRating(), ratingQuantileService.getSketch(formId, question.getId()));
+            } else if (isText(question) && analytics.getAnswerCount() > 0) {
+                analytics.setTerms(TermFrequencyResponse.fromSketch(
+                        termFrequencyService.getSketch(formId, question.getId()), SUMMARY_TERMS));
+            }
+            questions.add(analytics);
+        }
+
+        FormAnalyticsResponse response = new FormAnalyticsResponse();
+        response.setFormId(form.getId());
+        response.setTitle(form.getTitle());
+        response.setResponseCount(responseCount);
+        response.setUniqueRespondents(respondentSketchService.estimate(formId));
+        response.setUniqueRespondentsError(respondentSketchService.relativeStandardError());
+        response.setQuestions(questions);
+        return response;
+    }
+
+    /**
+     * Gets the most mentioned terms and bigrams of a text question.
+     *
+     * @param formId The ID of the form
+     * @param questionId The ID of the text question
+     * @param username The username of the user requesting the terms
+     * @param limit The maximum number of terms and of bigrams
+     * @return The top terms and bigrams with the number of answers mentioning them
+     */
+    @Transactional(readOnly = true)
+    public TermFrequencyResponse getTermFrequencies(Long formId, Long questionId, String username, int limit) {
+        Form form = formRepository.findById(formId)
+                .orElseThrow(() -> new RuntimeException("Form not found"));
+
+        if (!form.getCreatedBy().getUsername().equals(username)) {
+            throw new RuntimeException("Not authorized to access this form's analytics");
+        }
+        if (limit < 1 || limit > MAX_TERMS) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_TERMS);
+        }
+
+        Question question = form.getQuestions().stream()
+                .filter(q -> q.getId().equals(questionId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Question not found"));
+        if (!isText(question)) {
+            throw new RuntimeException("Term frequencies are only available for text questions");
+        }
+
+        return TermFrequencyResponse.fromSketch(termFrequencyService.getSketch(formId, questionId), limit);
+    }
+
+    /**
+     * Cross-tabulates two choice or rating questions. Exact tables are
+     * computed from the form's column store, approximate ones from its
+     * reservoir sample, scaled to all responses with 95% confidence bounds.
+     * Either is reused until the next submission.
+     *
+     * @param formId The ID of the form
+     * @param rowQuestionId The question whose options or ratings form the rows
+     * @param columnQuestionId The question whose options or ratings form the columns
+     * @param mode Exact, approximate, or approximate only for forms above the exact limit
+     * @param username The username of the user requesting the crosstab
+     * @return The number of responses for every pair of answers
+     */
+    @Transactional(readOnly = true)
+    public CrosstabResponse getCrosstab(Long formId, Long rowQuestionId, Long columnQuestionId, AnalyticsMode mode,
+                                        String username) {
+        Form form = formRepository.findById(formId)
+                .orElseThrow(() -> new RuntimeException("Form not found"));
+
+        if (!form.getCreatedBy().getUsername().equals(username)) {
+            throw new RuntimeException("Not authorized to access this form's analytics");
+        }
+
+        Question rowQuestion = findCategoricalQuestion(form, rowQuestionId);
+        Question columnQuestion = findCategoricalQuestion(form, columnQuestionId);
+
+        CrosstabResponse response = new CrosstabResponse();
+        FormColumnStore store;
+        ResponseSampleService.FormSample sample = null;
+        if (responseSampleService.useSample(formId, mode)) {
+            sample = responseSampleService.getSample(formId);
+            store = sample.getStore();
+            response.setSource(ResponseSampleService.SOURCE_SAMPLE);
+            response.setPopulation(sample.getPopulation());
+            response.setSampleSize(sample.getSampleSize());
+            response.setConfidenceLevel(ReservoirSample.CONFIDENCE_LEVEL);
+            response.setCountsLower(new ArrayList<>());
+            response.setCountsUpper(new ArrayList<>());
+        } else {
+            store = columnStoreService.getStore(formId);
+            response.setSource(ResponseSampleService.SOURCE_EXACT);
+            response.setPopulation(store.size());
+        }
+        FormColumnStore.Crosstab crosstab = store.cached(
+                "crosstab:" + rowQuestionId + ":" + columnQuestionId,
+                columns -> columns.crosstab(rowQuestionId, columnQuestionId));
+
+        response.setFormId(formId);
+        response.setRowQuestionId(rowQuestionId);
+        response.setRowQuestion(rowQuestion.getText());
+        response.setColumnQuestionId(columnQuestionId);
+        response.setColumnQuestion(columnQuestion.getText());
+        response.setResponses(scale(crosstab.getResponses(), sample)[0]);
+
+        long[] rowKeys = crosstab.getRowKeys();
+        long[] columnKeys = crosstab.getColumnKeys();
+        Map<Long, String> rowLabels = labels(rowQuestion);
+        Map<Long, String> columnLabels = labels(columnQuestion);
+        for (long key : rowKeys) {
+            response.getRowKeys().add(key);
+            response.getRowLabels().add(rowLabels.getOrDefault(key, String.valueOf(key)));
+        }
+        for (long key : columnKeys) {
+            response.getColumnKeys().add(key);
+            response.getColumnLabels().add(columnLabels.getOrDefault(key, String.valueOf(key)));
+        }
+
+        long[] columnTotals = new long[columnKeys.length];
+        for (int i = 0; i < rowKeys.length; i++) {
+            List<Long> counts = new ArrayList<>(columnKeys.length);
+            List<Long> lower = new ArrayList<>(columnKeys.length);
+            List<Long> upper = new ArrayList<>(columnKeys.length);
+            long rowTotal = 0;
+            for (int j = 0; j < columnKeys.length; j++) {
+                long count = crosstab.getCount(i, j);
+                long[] estimate = scale(count, sample);
+                counts.add(estimate[0]);
+                lower.add(estimate[1]);
+                upper.add(estimate[2]);
+                rowTotal += count;
+                columnTotals[j] += count;
+            }
+            response.getCounts().add(counts);
+            response.getRowTotals().add(scale(rowTotal, sample)[0]);
+            if (sample != null) {
+                response.getCountsLower().add(lower);
+                response.getCountsUpper().add(upper);
+            }
+        }
+        for (long total : columnTotals) {
+            response.getColumnTotals().add(scale(total, sample)[0]);
+        }
+        return response;
+    }
+
+    /**
+     * Scales a count from the sample to all responses; exact counts are
+     * returned as they are.
+     */
+    private long[] scale(long count, ResponseSampleService.FormSample sample) {
+        if (sample == null) {
+            return new long[]{count, count, count};
+        }
+        return ReservoirSample.estimateCount(count, sample.getSampleSize(), sample.getPopulation());
+    }
+
+    private Question findCategoricalQuestion(Form form, Long questionId) {
+        Question question = form.getQuestions().stream()
+                .filter(q -> q.getId().equals(questionId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Question " + questionId + " not found"));
+        QuestionType type = question.getType();
+        if (type != QuestionType.SINGLE_SELECT && type != QuestionType.MULTIPLE_CHOICE
+                && type != QuestionType.MULTI_SELECT && type != QuestionType.RATING_SCALE) {
+            throw new RuntimeException("Crosstabs are only available for choice and rating questions");
+        }
+        return question;
+    }
+
+    // Includes options removed by edits, whose answers are still counted
+    private Map<Long, String> labels(Question question) {
+        Map<Long, String> labels = new HashMap<>();
+        for (Option option : optionRepository.findByQuestion(question)) {
+            labels.put(option.getId(), option.getRemovedAt() != null
+                    ? option.getText() + " (removed)"
+                    : option.getText());
+        }
+        return labels;
+    }
+
+    private boolean isText(Question question) {
+        return question.getType() == QuestionType.TEXT || question.getType() == QuestionType.TEXT_WITH_LIMIT;
+    }
+
+    private void applyQuantiles(RatingSummaryResponse rating, KllSketch sketch) {
+        rating.setP10(sketch.quantile(0.1));
+        rating.setMedian(sketch.quantile(0.5));
+        rating.setP90(sketch.quantile(0.9));
+        rating.setQuantileRankError(sketch.normalizedRankError());
+    }
+}
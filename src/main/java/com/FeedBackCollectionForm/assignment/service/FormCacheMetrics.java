@@ -0,0 +1,58 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports hits and misses of the second-level cache regions holding forms,
+ * questions and options, as counted by Hibernate statistics.
+ */
+@Component
+public class FormCacheMetrics {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Returns the counters of every cache region since startup.
+     *
+     * @return A map suitable for JSON serialization
+     */
+    public Map<String, Object> snapshot() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", statistics.isStatisticsEnabled());
+        metrics.put("hits", statistics.getSecondLevelCacheHitCount());
+        metrics.put("misses", statistics.getSecondLevelCacheMissCount());
+        metrics.put("puts", statistics.getSecondLevelCachePutCount());
+        metrics.put("hitRatio", ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()));
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        String[] names = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(names);
+        for (String name : names) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(name);
+            Map<String, Object> counters = new LinkedHashMap<>();
+            counters.put("hits", region.getHitCount());
+            counters.put("misses", region.getMissCount());
+            counters.put("puts", region.getPutCount());
+            counters.put("hitRatio", ratio(region.getHitCount(), region.getMissCount()));
+            regions.put(name, counters);
+        }
+        metrics.put("regions", regions);
+        return metrics;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : Math.round(hits * 1000.0 / lookups) / 1000.0;
+    }
+}
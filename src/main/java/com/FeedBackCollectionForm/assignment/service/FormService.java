@@ -1,20 +1,40 @@
 package com.FeedBackCollectionForm.assignment.service;
 
 import com.FeedBackCollectionForm.assignment.model.*;
+import com.FeedBackCollectionForm.assignment.payload.request.FormPatchRequest;
 import com.FeedBackCollectionForm.assignment.payload.request.FormRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.OptionPatchRequest;
 import com.FeedBackCollectionForm.assignment.payload.request.OptionRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.QuestionPatchRequest;
 import com.FeedBackCollectionForm.assignment.payload.request.QuestionRequest;
 import com.FeedBackCollectionForm.assignment.payload.response.FormResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.FormVersionResponse;
 import com.FeedBackCollectionForm.assignment.repository.*;
+import com.FeedBackCollectionForm.assignment.service.event.FormDeletedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.FormEditedEvent;
+import com.FeedBackCollectionForm.assignment.service.version.FormSnapshot;
+import com.FeedBackCollectionForm.assignment.service.version.QuestionSnapshot;
+import com.FeedBackCollectionForm.assignment.service.version.FormVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class FormService {
+    private static final int MAX_WORD_LIMIT = 10_000;
 
     @Autowired
     private FormRepository formRepository;
@@ -25,12 +45,36 @@ public class FormService {
     @Autowired
     private OptionRepository optionRepository;
 
+    @Autowired
+    private AnswerRepository answerRepository;
+
     @Autowired
     private ResponseRepository responseRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private QuestionStatsService questionStatsService;
+
+    @Autowired
+    private FormVersionService formVersionService;
+
+    @Autowired
+    private FormVersionRepository formVersionRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Creates a form with its questions and options. The whole graph is built
+     * in memory and persisted by cascade; sequence IDs are assigned without
+     * inserting, so its rows go out as batched inserts in a single flush.
+     *
+     * @param formRequest The form with its questions and options
+     * @param username The creator of the form
+     * @return The created form
+     */
     @Transactional
     public FormResponse createForm(FormRequest formRequest, String username) {
         User user = userRepository.findByUsername(username)
@@ -40,59 +84,15 @@ public class FormService {
         form.setTitle(formRequest.getTitle());
         form.setDescription(formRequest.getDescription());
         form.setCreatedBy(user);
-
-        Form savedForm = formRepository.save(form);
-
-        // Create questions
         for (int i = 0; i < formRequest.getQuestions().size(); i++) {
-            QuestionRequest questionRequest = formRequest.getQuestions().get(i);
-            Question question = new Question();
-            question.setText(questionRequest.getText());
-            question.setType(questionRequest.getType());
-            question.setDisplayOrder(questionRequest.getDisplayOrder() != null ? questionRequest.getDisplayOrder() : i);
-            question.setRequired(questionRequest.getRequired());
-            question.setForm(savedForm);
-
-            Question savedQuestion = questionRepository.save(question);
-
-            // Create options for question types that need options
-            if (questionRequest.getType() == QuestionType.MULTIPLE_CHOICE || 
-                questionRequest.getType() == QuestionType.SINGLE_SELECT || 
-                questionRequest.getType() == QuestionType.MULTI_SELECT) {
-                
-                for (int j = 0; j < questionRequest.getOptions().size(); j++) {
-                    OptionRequest optionRequest = questionRequest.getOptions().get(j);
-                    Option option = new Option();
-                    option.setText(optionRequest.getText());
-                    option.setDisplayOrder(optionRequest.getDisplayOrder() != null ? optionRequest.getDisplayOrder() : j);
-                    option.setQuestion(savedQuestion);
-                    optionRepository.save(option);
-                }
-            }
-            
-            // Set additional properties based on question type
-            if (questionRequest.getType() == QuestionType.TEXT_WITH_LIMIT) {
-                question.setWordLimit(questionRequest.getWordLimit());
-                questionRepository.save(question);
-            } else if (questionRequest.getType() == QuestionType.RATING_SCALE) {
-                question.setMinRating(questionRequest.getMinRating());
-                question.setMaxRating(questionRequest.getMaxRating());
-                question.setDefaultRating(questionRequest.getDefaultRating());
-                questionRepository.save(question);
-            } else if (questionRequest.getType() == QuestionType.DATE) {
-                question.setDateFormat(questionRequest.getDateFormat());
-                question.setMinDate(questionRequest.getMinDate());
-                question.setMaxDate(questionRequest.getMaxDate());
-                questionRepository.save(question);
-            }
-            
-            // Set description if provided
-            if (questionRequest.getDescription() != null) {
-                question.setDescription(questionRequest.getDescription());
-                questionRepository.save(question);
-            }
+            form.addQuestion(newQuestion(formRequest.getQuestions().get(i), i));
         }
 
+        Form savedForm = formRepository.save(form);
+        // Publishing before the flush lets the form be inserted with its current version already set
+        formVersionService.publish(savedForm);
+        // Flushes the graph, then creates the rollups of all questions in one statement
+        questionStatsService.initializeForm(savedForm.getId());
         return FormResponse.fromEntity(savedForm, 0);
     }
 
@@ -126,7 +126,151 @@ public class FormService {
         Form form = formRepository.findByPublicUrl(publicUrl)
                 .orElseThrow(() -> new RuntimeException("Form not found"));
 
-        return FormResponse.fromEntity(form, responseRepository.countByForm(form));
+        if (form.getCurrentVersionId() == null) {
+            return FormResponse.fromEntity(form, responseRepository.countByForm(form));
+        }
+        FormSnapshot snapshot = formVersionService.getSnapshot(form.getCurrentVersionId());
+        return FormResponse.fromSnapshot(form, snapshot, responseRepository.countByForm(form));
+    }
+
+    @Transactional(readOnly = true)
+    public List<FormVersionResponse> getFormVersions(Long id, String username) {
+        Form form = loadOwnedForm(id, username);
+
+        return formVersionRepository.findSummariesByFormId(form.getId()).stream()
+                .map(summary -> {
+                    FormVersionResponse version = new FormVersionResponse();
+                    version.setId((Long) summary[0]);
+                    version.setFormId(form.getId());
+                    version.setVersion((Integer) summary[1]);
+                    version.setContentHash((String) summary[2]);
+                    version.setCreatedAt((LocalDateTime) summary[3]);
+                    version.setCurrent(Objects.equals(summary[0], form.getCurrentVersionId()));
+                    return version;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public FormVersionResponse getFormVersion(Long id, Integer versionNumber, String username) {
+        Form form = loadOwnedForm(id, username);
+
+        FormVersion formVersion = formVersionRepository.findByFormIdAndVersion(form.getId(), versionNumber)
+                .orElseThrow(() -> new RuntimeException("Form version not found"));
+
+        FormVersionResponse version = new FormVersionResponse();
+        version.setId(formVersion.getId());
+        version.setFormId(form.getId());
+        version.setVersion(formVersion.getVersion());
+        version.setContentHash(formVersion.getContentHash());
+        version.setCreatedAt(formVersion.getCreatedAt());
+        version.setCurrent(formVersion.getId().equals(form.getCurrentVersionId()));
+        version.setStructure(formVersionService.getSnapshot(formVersion.getId()));
+        return version;
+    }
+
+    /**
+     * Applies a structural diff to a form. Only the questions and options the
+     * diff names are read, from the second-level cache when they are in it,
+     * and only changed rows are written; removed questions and options are
+     * hidden rather than deleted, so the answers and versions that refer to
+     * them stay intact. The new version is derived from the current one.
+     *
+     * @param id The ID of the form
+     * @param patch The changes
+     * @param username The owner of the form
+     * @return The form as of its new version
+     */
+    @Transactional
+    public FormResponse updateForm(Long id, FormPatchRequest patch, String username) {
+        Form form = loadOwnedForm(id, username);
+        FormSnapshot current = formVersionService.currentSnapshot(form);
+        FormEdit edit = new FormEdit(current);
+
+        if (patch.getTitle() != null) {
+            if (patch.getTitle().isBlank()) {
+                throw new RuntimeException("Title must not be blank");
+            }
+            form.setTitle(patch.getTitle());
+        }
+        if (patch.getDescription() != null) {
+            form.setDescription(patch.getDescription());
+        }
+
+        for (Long questionId : patch.getRemoveQuestionIds()) {
+            Question question = edit.question(questionId);
+            form.removeQuestion(question);
+            edit.removed(question);
+        }
+        for (Long optionId : patch.getRemoveOptionIds()) {
+            Option option = edit.option(optionId);
+            option.getQuestion().removeOption(option);
+        }
+
+        for (QuestionPatchRequest questionPatch : patch.getUpdateQuestions()) {
+            applyQuestionPatch(edit.question(questionPatch.getId()), questionPatch);
+        }
+        for (OptionPatchRequest optionPatch : patch.getUpdateOptions()) {
+            if (optionPatch.getId() == null) {
+                throw new RuntimeException("Option to update must have an id");
+            }
+            Option option = edit.option(optionPatch.getId());
+            if (optionPatch.getText() != null) {
+                if (optionPatch.getText().isBlank()) {
+                    throw new RuntimeException("Option text must not be blank");
+                }
+                option.setText(optionPatch.getText());
+            }
+            if (optionPatch.getDisplayOrder() != null) {
+                option.setDisplayOrder(optionPatch.getDisplayOrder());
+            }
+        }
+
+        for (OptionPatchRequest optionPatch : patch.getAddOptions()) {
+            if (optionPatch.getQuestionId() == null) {
+                throw new RuntimeException("Option to add must have a questionId");
+            }
+            Question question = edit.question(optionPatch.getQuestionId());
+            if (!hasOptions(question.getType())) {
+                throw new RuntimeException("Question does not have options");
+            }
+            if (optionPatch.getText() == null || optionPatch.getText().isBlank()) {
+                throw new RuntimeException("Option text must not be blank");
+            }
+            Option option = new Option();
+            option.setText(optionPatch.getText());
+            option.setDisplayOrder(optionPatch.getDisplayOrder() != null
+                    ? optionPatch.getDisplayOrder() : question.getOptions().size());
+            question.addOption(option);
+            optionRepository.save(option);
+        }
+
+        int questionCount = current.getQuestions().size() - edit.removedCount();
+        if (patch.getQuestionOrder() != null) {
+            if (patch.getQuestionOrder().size() != questionCount
+                    || new HashSet<>(patch.getQuestionOrder()).size() != questionCount) {
+                throw new RuntimeException("Question order must list every remaining question once");
+            }
+            for (int i = 0; i < questionCount; i++) {
+                edit.move(patch.getQuestionOrder().get(i), i);
+            }
+        }
+
+        for (int i = 0; i < patch.getAddQuestions().size(); i++) {
+            Question question = newQuestion(patch.getAddQuestions().get(i), questionCount + i);
+            form.addQuestion(question);
+            Question savedQuestion = questionRepository.save(question);
+            questionStatsService.initialize(savedQuestion);
+            edit.added(savedQuestion);
+        }
+
+        Long previousVersionId = form.getCurrentVersionId();
+        FormSnapshot snapshot = formVersionService.publish(form, edit.apply(form));
+        if (!form.getCurrentVersionId().equals(previousVersionId)) {
+            form.setUpdatedAt(LocalDateTime.now());
+            eventPublisher.publishEvent(new FormEditedEvent(form.getId()));
+        }
+        return FormResponse.fromSnapshot(form, snapshot, responseRepository.countByForm(form));
     }
 
     @Transactional
@@ -141,6 +285,228 @@ public class FormService {
             throw new RuntimeException("Not authorized to delete this form");
         }
 
+        eventPublisher.publishEvent(new FormDeletedEvent(form.getId()));
+        // Questions and options removed by edits are hidden from the form's
+        // collections, so the cascade below cannot reach them
+        answerRepository.deleteAnswersToRemovedByFormId(form.getId());
+        optionRepository.deleteRemovedByFormId(form.getId());
+        questionRepository.deleteRemovedByFormId(form.getId());
         formRepository.delete(form);
     }
-}
\ No newline at end of file
+
+    private Form loadOwnedForm(Long id, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Form form = formRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Form not found"));
+
+        if (!form.getCreatedBy().getId().equals(user.getId())) {
+            throw new RuntimeException("Not authorized to access this form");
+        }
+
+        return form;
+    }
+
+    private void applyQuestionPatch(Question question, QuestionPatchRequest patch) {
+        if (patch.getText() != null) {
+            if (patch.getText().isBlank()) {
+                throw new RuntimeException("Question text must not be blank");
+            }
+            question.setText(patch.getText());
+        }
+        if (patch.getDisplayOrder() != null) {
+            question.setDisplayOrder(patch.getDisplayOrder());
+        }
+        if (patch.getRequired() != null) {
+            question.setRequired(patch.getRequired());
+        }
+        if (patch.getWordLimit() != null) {
+            question.setWordLimit(patch.getWordLimit());
+        }
+        if (patch.getMinRating() != null) {
+            question.setMinRating(patch.getMinRating());
+        }
+        if (patch.getMaxRating() != null) {
+            question.setMaxRating(patch.getMaxRating());
+        }
+        if (patch.getDefaultRating() != null) {
+            question.setDefaultRating(patch.getDefaultRating());
+        }
+        if (patch.getDateFormat() != null) {
+            question.setDateFormat(patch.getDateFormat());
+        }
+        if (patch.getMinDate() != null) {
+            question.setMinDate(patch.getMinDate());
+        }
+        if (patch.getMaxDate() != null) {
+            question.setMaxDate(patch.getMaxDate());
+        }
+        if (patch.getDescription() != null) {
+            question.setDescription(patch.getDescription());
+        }
+        validateQuestion(question);
+    }
+
+    private Question newQuestion(QuestionRequest questionRequest, int defaultDisplayOrder) {
+        Question question = new Question();
+        question.setText(questionRequest.getText());
+        question.setType(questionRequest.getType());
+        question.setDisplayOrder(questionRequest.getDisplayOrder() != null
+                ? questionRequest.getDisplayOrder() : defaultDisplayOrder);
+        question.setRequired(questionRequest.getRequired());
+        question.setDescription(questionRequest.getDescription());
+
+        if (hasOptions(questionRequest.getType())) {
+            for (int j = 0; j < questionRequest.getOptions().size(); j++) {
+                OptionRequest optionRequest = questionRequest.getOptions().get(j);
+                Option option = new Option();
+                option.setText(optionRequest.getText());
+                option.setDisplayOrder(optionRequest.getDisplayOrder() != null ? optionRequest.getDisplayOrder() : j);
+                question.addOption(option);
+            }
+        }
+
+        if (questionRequest.getType() == QuestionType.TEXT_WITH_LIMIT) {
+            question.setWordLimit(questionRequest.getWordLimit());
+        } else if (questionRequest.getType() == QuestionType.RATING_SCALE) {
+            question.setMinRating(questionRequest.getMinRating());
+            question.setMaxRating(questionRequest.getMaxRating());
+            question.setDefaultRating(questionRequest.getDefaultRating());
+        } else if (questionRequest.getType() == QuestionType.DATE) {
+            question.setDateFormat(questionRequest.getDateFormat());
+            question.setMinDate(questionRequest.getMinDate());
+            question.setMaxDate(questionRequest.getMaxDate());
+        }
+        validateQuestion(question);
+        return question;
+    }
+
+    /**
+     * Checks that the settings of a question fit its type and each other, so
+     * that a version is never published with a question nobody can answer.
+     */
+    private static void validateQuestion(Question question) {
+        QuestionType type = question.getType();
+        Integer minRating = question.getMinRating();
+        Integer maxRating = question.getMaxRating();
+        Integer defaultRating = question.getDefaultRating();
+        if (type != QuestionType.RATING_SCALE && (minRating != null || maxRating != null || defaultRating != null)) {
+            throw new RuntimeException("Rating settings only apply to rating scale questions");
+        }
+        if (type != QuestionType.TEXT_WITH_LIMIT && question.getWordLimit() != null) {
+            throw new RuntimeException("A word limit only applies to text questions with a limit");
+        }
+        if (type != QuestionType.DATE
+                && (question.getDateFormat() != null || question.getMinDate() != null || question.getMaxDate() != null)) {
+            throw new RuntimeException("Date settings only apply to date questions");
+        }
+
+        if (minRating != null && maxRating != null && minRating > maxRating) {
+            throw new RuntimeException("Minimum rating must not be greater than maximum rating");
+        }
+        if (defaultRating != null && ((minRating != null && defaultRating < minRating)
+                || (maxRating != null && defaultRating > maxRating))) {
+            throw new RuntimeException("Default rating must be between the minimum and maximum rating");
+        }
+        if (question.getWordLimit() != null && (question.getWordLimit() < 1 || question.getWordLimit() > MAX_WORD_LIMIT)) {
+            throw new RuntimeException("Word limit must be between 1 and " + MAX_WORD_LIMIT);
+        }
+        LocalDate minDate = parseDateSetting(question.getMinDate(), "Minimum date");
+        LocalDate maxDate = parseDateSetting(question.getMaxDate(), "Maximum date");
+        if (minDate != null && maxDate != null && minDate.isAfter(maxDate)) {
+            throw new RuntimeException("Minimum date must not be after maximum date");
+        }
+    }
+
+    // Answers are compared with the date bounds as ISO strings
+    private static LocalDate parseDateSetting(String value, String name) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException(name + " must be a date in the form yyyy-MM-dd");
+        }
+    }
+
+    private static boolean hasOptions(QuestionType type) {
+        return type == QuestionType.MULTIPLE_CHOICE || type == QuestionType.SINGLE_SELECT
+                || type == QuestionType.MULTI_SELECT;
+    }
+
+    /**
+     * Tracks what an edit touched. Questions and options are checked against
+     * the current version, so the form's other questions are never loaded.
+     */
+    private class FormEdit {
+        private final FormSnapshot current;
+        private final Map<Long, Question> changed = new LinkedHashMap<>();
+        private final Set<Long> removedQuestionIds = new HashSet<>();
+        private final Map<Long, Integer> displayOrders = new HashMap<>();
+
+        FormEdit(FormSnapshot current) {
+            this.current = current;
+        }
+
+        Question question(Long questionId) {
+            Question question = changed.get(questionId);
+            if (question != null) {
+                return question;
+            }
+            if (current.findQuestion(questionId) == null || removedQuestionIds.contains(questionId)) {
+                throw new RuntimeException("Question does not belong to this form");
+            }
+            question = questionRepository.findById(questionId)
+                    .orElseThrow(() -> new RuntimeException("Question not found"));
+            changed.put(questionId, question);
+            return question;
+        }
+
+        Option option(Long optionId) {
+            Option option = optionRepository.findById(optionId)
+                    .orElseThrow(() -> new RuntimeException("Option not found"));
+            QuestionSnapshot question = current.findQuestion(option.getQuestion().getId());
+            if (question == null || !question.hasOption(optionId) || option.getRemovedAt() != null
+                    || removedQuestionIds.contains(question.getId())) {
+                throw new RuntimeException("Option does not belong to this form");
+            }
+            question(question.getId());
+            return option;
+        }
+
+        void removed(Question question) {
+            changed.remove(question.getId());
+            removedQuestionIds.add(question.getId());
+        }
+
+        void added(Question question) {
+            changed.put(question.getId(), question);
+        }
+
+        void move(Long questionId, int displayOrder) {
+            QuestionSnapshot question = current.findQuestion(questionId);
+            if (question == null || removedQuestionIds.contains(questionId)) {
+                throw new RuntimeException("Question does not belong to this form");
+            }
+            Question changedQuestion = changed.get(questionId);
+            if (changedQuestion != null) {
+                changedQuestion.setDisplayOrder(displayOrder);
+            } else if (!Integer.valueOf(displayOrder).equals(question.getDisplayOrder())) {
+                questionRepository.findById(questionId)
+                        .orElseThrow(() -> new RuntimeException("Question not found"))
+                        .setDisplayOrder(displayOrder);
+                displayOrders.put(questionId, displayOrder);
+            }
+        }
+
+        int removedCount() {
+            return removedQuestionIds.size();
+        }
+
+        FormSnapshot apply(Form form) {
+            return current.withChanges(form, changed.values(), removedQuestionIds, displayOrders);
+        }
+    }
+}
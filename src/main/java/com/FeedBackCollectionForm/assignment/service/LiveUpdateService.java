@@ -0,0 +1,457 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+import com.FeedBackCollectionForm.assignment.model.QuestionStat;
+import com.FeedBackCollectionForm.assignment.model.QuestionStatKind;
+import com.FeedBackCollectionForm.assignment.payload.response.FormAnalyticsResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.LiveSubmissionResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.LiveSubmissionsResponse;
+import com.FeedBackCollectionForm.assignment.repository.FormRepository;
+import com.FeedBackCollectionForm.assignment.repository.QuestionStatRepository;
+import com.FeedBackCollectionForm.assignment.service.event.FormDeletedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.FormEditedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.ResponseSubmittedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.SubmittedAnswer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes live results of a form to open dashboards over Server-Sent Events.
+ * Submissions only mark their form as changed; a single dispatcher thread
+ * wakes up a few times per second and builds one update per changed form,
+ * so no form gets more than app.live.max-updates-per-second updates.
+ *
+ * <p>The snapshot of an update comes from rollups of the form kept in
+ * memory: they are read from question_stats when the first update of the
+ * form is built and then follow the submissions, so building a snapshot
+ * does not query the rollups again. A submission committed while they load
+ * may be counted twice or missed, so they are reloaded every
+ * app.live.rollup-refresh-ms.
+ *
+ * <p>Updates are written by a pool of app.live.send-threads sender threads.
+ * Each subscriber holds at most one unsent update; a newer one replaces it,
+ * so a slow dashboard skips to the latest snapshot instead of holding up
+ * the others or queueing updates without bound.
+ *
+ * <p>Each update is a "submissions" event listing the responses received
+ * since the previous update, followed by a "snapshot" event with the
+ * current form analytics.
+ */
+@Service
+public class LiveUpdateService {
+    private static final Logger logger = LoggerFactory.getLogger(LiveUpdateService.class);
+    private static final int MAX_LATEST = 20;
+    private static final Update KEEPALIVE = new Update(null, null);
+
+    @Autowired
+    private FormRepository formRepository;
+
+    @Autowired
+    private QuestionStatRepository questionStatRepository;
+
+    @Autowired
+    private FormAnalyticsService formAnalyticsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.live.max-updates-per-second:2}")
+    private int maxUpdatesPerSecond;
+
+    @Value("${app.live.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${app.live.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.live.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.live.send-threads:4}")
+    private int sendThreads;
+
+    @Value("${app.live.rollup-refresh-ms:60000}")
+    private long rollupRefreshMs;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final Map<Long, FormRollups> rollups = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong updatesSent = new AtomicLong();
+    private final AtomicLong updatesDropped = new AtomicLong();
+    private ScheduledExecutorService dispatcher;
+    private ThreadPoolExecutor senders;
+    private long lastHeartbeat = System.currentTimeMillis();
+
+    @PostConstruct
+    void start() {
+        long interval = Math.max(1, 1000 / Math.max(1, maxUpdatesPerSecond));
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int threads = Math.max(1, sendThreads);
+        AtomicInteger counter = new AtomicInteger();
+        // A subscriber is queued at most once, so the queue never outgrows the subscribers
+        senders = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, maxSubscribers)), runnable -> {
+                    Thread thread = new Thread(runnable, "live-sender-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        dispatcher.scheduleWithFixedDelay(this::dispatch, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(forForm -> forForm.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+        rollups.clear();
+    }
+
+    /**
+     * Opens a live stream of a form for its owner. The first snapshot is
+     * sent with the next dispatch.
+     *
+     * @param formId The ID of the form
+     * @param username The username of the user subscribing
+     * @return The emitter streaming the updates
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long formId, String username) {
+        Form form = formRepository.findById(formId)
+                .orElseThrow(() -> new RuntimeException("Form not found"));
+
+        if (!form.getCreatedBy().getUsername().equals(username)) {
+            throw new RuntimeException("Not authorized to access this form's analytics");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RuntimeException("Too many live subscribers, please try again later");
+        }
+
+        Subscriber subscriber = new Subscriber(formId, new SseEmitter(timeoutMs));
+        // Added under the map's lock, so an unsubscribe emptying the form's set cannot drop it meanwhile
+        subscribers.compute(formId, (id, forForm) -> {
+            Set<Subscriber> result = forForm != null ? forForm : new CopyOnWriteArraySet<>();
+            result.add(subscriber);
+            return result;
+        });
+        Runnable remove = () -> unsubscribe(subscriber);
+        subscriber.emitter.onCompletion(remove);
+        subscriber.emitter.onTimeout(remove);
+        subscriber.emitter.onError(error -> remove.run());
+
+        pending.computeIfAbsent(formId, id -> new PendingUpdate());
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onResponseSubmitted(ResponseSubmittedEvent event) {
+        if (!subscribers.containsKey(event.getFormId())) {
+            return;
+        }
+        FormRollups formRollups = rollups.get(event.getFormId());
+        if (formRollups != null) {
+            formRollups.apply(event);
+        }
+        LiveSubmissionResponse submission = new LiveSubmissionResponse(event.getResponseId(),
+                event.getRespondentName(), event.getRespondentEmail(), event.getSubmittedAt());
+        pending.compute(event.getFormId(), (id, update) -> {
+            PendingUpdate result = update != null ? update : new PendingUpdate();
+            result.add(submission);
+            return result;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void afterFormEdited(FormEditedEvent event) {
+        // Reload the rollups with the rows of the new questions and push the new structure
+        rollups.remove(event.getFormId());
+        if (subscribers.containsKey(event.getFormId())) {
+            pending.computeIfAbsent(event.getFormId(), id -> new PendingUpdate());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void afterFormDeleted(FormDeletedEvent event) {
+        pending.remove(event.getFormId());
+        rollups.remove(event.getFormId());
+        Set<Subscriber> forForm = subscribers.remove(event.getFormId());
+        if (forForm != null) {
+            // Their unsubscribe no longer finds the set, so they are uncounted here
+            subscriberCount.addAndGet(-forForm.size());
+            forForm.forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+
+    /**
+     * Gets the live push counters.
+     *
+     * @return The number of open streams, forms watched, updates sent and
+     *         updates a slow subscriber skipped
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("subscribers", subscriberCount.get());
+        metrics.put("forms", subscribers.size());
+        metrics.put("updatesSent", updatesSent.get());
+        metrics.put("updatesDropped", updatesDropped.get());
+        return metrics;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        AtomicBoolean lastOne = new AtomicBoolean();
+        subscribers.computeIfPresent(subscriber.formId, (id, forForm) -> {
+            if (forForm.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            lastOne.set(forForm.isEmpty());
+            return forForm.isEmpty() ? null : forForm;
+        });
+        if (lastOne.get()) {
+            rollups.remove(subscriber.formId);
+        }
+    }
+
+    private void dispatch() {
+        try {
+            for (Long formId : List.copyOf(pending.keySet())) {
+                PendingUpdate update = pending.remove(formId);
+                Set<Subscriber> forForm = subscribers.get(formId);
+                if (update != null && forForm != null && !forForm.isEmpty()) {
+                    Update built = build(formId, update);
+                    forForm.forEach(subscriber -> subscriber.offer(built));
+                    updatesSent.incrementAndGet();
+                }
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastHeartbeat >= heartbeatMs) {
+                lastHeartbeat = now;
+                subscribers.values().forEach(forForm -> forForm.forEach(Subscriber::keepAlive));
+            }
+        } catch (RuntimeException e) {
+            // Keep the dispatcher alive; the form is pushed again on its next submission
+            logger.warn("Live update dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private Update build(Long formId, PendingUpdate update) {
+        String submissions = null;
+        if (update.count > 0) {
+            LiveSubmissionsResponse response = new LiveSubmissionsResponse();
+            response.setFormId(formId);
+            response.setNewSubmissions(update.count);
+            response.setLatest(new ArrayList<>(update.latest));
+            submissions = toJson(response);
+        }
+        FormAnalyticsResponse analytics = formAnalyticsService.getFormAnalytics(formId, rollupsOf(formId).stats());
+        return new Update(submissions, toJson(analytics));
+    }
+
+    private FormRollups rollupsOf(Long formId) {
+        FormRollups current = rollups.get(formId);
+        long now = System.currentTimeMillis();
+        if (current == null || now - current.loadedAt >= rollupRefreshMs) {
+            current = new FormRollups(formId, questionStatRepository.findByFormId(formId), now);
+            rollups.put(formId, current);
+            if (!subscribers.containsKey(formId)) {
+                // The last subscriber left while the rollups were loading
+                rollups.remove(formId);
+            }
+        }
+        return current;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize live update: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The serialized events of one update, shared by all subscribers of the
+     * form. submissions is null when no response arrived since the previous
+     * update.
+     */
+    private record Update(String submissions, String snapshot) {
+    }
+
+    /**
+     * An open stream and the update waiting to be written to it. The stream
+     * is queued on the sender pool only while it has an update and is not
+     * already queued, so one stream never occupies more than one sender.
+     */
+    private final class Subscriber {
+        private final Long formId;
+        private final SseEmitter emitter;
+        private final AtomicReference<Update> next = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Subscriber(Long formId, SseEmitter emitter) {
+            this.formId = formId;
+            this.emitter = emitter;
+        }
+
+        void offer(Update update) {
+            Update replaced = next.getAndSet(update);
+            if (replaced != null && replaced != KEEPALIVE) {
+                updatesDropped.incrementAndGet();
+            }
+            schedule();
+        }
+
+        void keepAlive() {
+            if (next.compareAndSet(null, KEEPALIVE)) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Update update;
+                while ((update = next.getAndSet(null)) != null) {
+                    if (!send(update)) {
+                        return;
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            // An update offered after the last getAndSet but before scheduled was cleared
+            if (next.get() != null) {
+                schedule();
+            }
+        }
+
+        private boolean send(Update update) {
+            try {
+                if (update == KEEPALIVE) {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                    return true;
+                }
+                if (update.submissions() != null) {
+                    emitter.send(SseEmitter.event().name("submissions").data(update.submissions(), MediaType.APPLICATION_JSON));
+                }
+                emitter.send(SseEmitter.event().name("snapshot").data(update.snapshot(), MediaType.APPLICATION_JSON));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the container completes the emitter
+                unsubscribe(this);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * The rollup rows of a form, keyed by question, kind and bucket, kept up
+     * to date with the submissions since they were loaded.
+     */
+    private static class FormRollups {
+        private final Long formId;
+        private final long loadedAt;
+        private final Map<StatKey, QuestionStat> rows = new HashMap<>();
+
+        FormRollups(Long formId, List<QuestionStat> stats, long loadedAt) {
+            this.formId = formId;
+            this.loadedAt = loadedAt;
+            for (QuestionStat stat : stats) {
+                rows.put(new StatKey(stat.getQuestionId(), stat.getKind(), stat.getBucket()), copy(stat));
+            }
+        }
+
+        synchronized void apply(ResponseSubmittedEvent event) {
+            add(QuestionStat.FORM_QUESTION_ID, QuestionStatKind.RESPONSES, formId, 0);
+            for (SubmittedAnswer answer : event.getAnswers()) {
+                QuestionStatsService.forEachIncrement(answer, (kind, bucket, value) ->
+                        add(answer.getQuestionId(), kind, bucket, value));
+            }
+        }
+
+        synchronized List<QuestionStat> stats() {
+            return rows.values().stream().map(FormRollups::copy).toList();
+        }
+
+        private void add(long questionId, QuestionStatKind kind, long bucket, long value) {
+            QuestionStat row = rows.computeIfAbsent(new StatKey(questionId, kind, bucket),
+                    key -> new QuestionStat(formId, questionId, kind, bucket, 0, 0, 0));
+            row.setCount(row.getCount() + 1);
+            row.setSum(row.getSum() + value);
+            row.setSumSquares(row.getSumSquares() + value * value);
+        }
+
+        private static QuestionStat copy(QuestionStat stat) {
+            return new QuestionStat(stat.getFormId(), stat.getQuestionId(), stat.getKind(), stat.getBucket(),
+                    stat.getCount(), stat.getSum(), stat.getSumSquares());
+        }
+    }
+
+    private record StatKey(long questionId, QuestionStatKind kind, long bucket) {
+    }
+
+    /**
+     * Submissions received for a form since its last update, newest first.
+     */
+    private static class PendingUpdate {
+        private final Deque<LiveSubmissionResponse> latest = new ArrayDeque<>();
+        private int count;
+
+        void add(LiveSubmissionResponse submission) {
+            count++;
+            latest.addFirst(submission);
+            if (latest.size() > MAX_LATEST) {
+                latest.removeLast();
+            }
+        }
+    }
+}
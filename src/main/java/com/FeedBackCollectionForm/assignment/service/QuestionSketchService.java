@@ -0,0 +1,250 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.FormSketch;
+import com.FeedBackCollectionForm.assignment.model.QuestionStatKind;
+import com.FeedBackCollectionForm.assignment.model.SketchKind;
+import com.FeedBackCollectionForm.assignment.service.analytics.SketchCache;
+import com.FeedBackCollectionForm.assignment.service.event.FormDeletedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.ResponseSubmittedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.SubmittedAnswer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Base for services that keep one sketch per question. Sketches are updated
+ * after each committed submission, flushed to form_sketches periodically and
+ * loaded lazily. On load, the exact answer count in the question's TOTAL
+ * rollup tells how many answers the stored sketch is missing (none, unless
+ * updates were lost between flushes); those are the most recent answers and
+ * are read back from the answers table. Questions without a stored sketch are
+ * built from all of their answers once, streamed without holding any lock;
+ * answers that committed out of ID order near the end of the stream are
+ * picked up afterwards, de-duplicated by ID.
+ * <p>
+ * Loading finishes with the question's TOTAL row locked: the answers read then
+ * are exactly those of the responses whose lock mark is below the load's, so
+ * submissions with a higher mark are added by their listener and the others
+ * are skipped. Only that last step, which reads the few answers committed
+ * since the stream started, blocks submissions to the question.
+ *
+ * @param <S> The sketch type
+ */
+public abstract class QuestionSketchService<S> {
+    private static final int FETCH_SIZE = 500;
+    // How far below the newest answer ID a concurrent submission may still commit
+    private static final long LATE_COMMIT_WINDOW = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private SketchStoreService sketchStoreService;
+
+    @Autowired
+    private QuestionStatsService questionStatsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final SketchKind kind;
+    private final SketchCache<S> sketches = new SketchCache<>(this::load);
+    private final Map<Long, Long> formIdByQuestion = new ConcurrentHashMap<>();
+    // The lock mark each loaded sketch was completed under
+    private final Map<Long, Long> loadMarks = new ConcurrentHashMap<>();
+
+    protected QuestionSketchService(SketchKind kind) {
+        this.kind = kind;
+    }
+
+    protected abstract S newSketch();
+
+    protected abstract S deserialize(byte[] payload);
+
+    protected abstract byte[] serialize(S sketch);
+
+    /**
+     * Returns how many answers the sketch has seen; must agree with the
+     * answer count of the question's TOTAL rollup.
+     */
+    protected abstract long answerCount(S sketch);
+
+    /**
+     * Returns the JPQL expression of the sketched value of an answer {@code a}.
+     */
+    protected abstract String answerValue();
+
+    /**
+     * Returns the JPQL condition selecting the answers {@code a} that count
+     * towards the TOTAL rollup.
+     */
+    protected abstract String answerCondition();
+
+    protected abstract boolean accepts(SubmittedAnswer answer);
+
+    protected abstract void add(S sketch, SubmittedAnswer answer);
+
+    protected abstract void addStored(S sketch, Object value);
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onResponseSubmitted(ResponseSubmittedEvent event) {
+        for (SubmittedAnswer answer : event.getAnswers()) {
+            if (!accepts(answer)) {
+                continue;
+            }
+            Long questionId = answer.getQuestionId();
+            formIdByQuestion.put(questionId, event.getFormId());
+            // Waits for a load in progress, which may or may not have read this answer
+            S sketch = sketches.get(questionId);
+            if (event.getLockMark() < loadMarks.getOrDefault(questionId, 0L)) {
+                continue;
+            }
+            add(sketch, answer);
+            sketches.markDirty(questionId);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void afterFormDeleted(FormDeletedEvent event) {
+        formIdByQuestion.entrySet().removeIf(entry -> {
+            if (entry.getValue().equals(event.getFormId())) {
+                sketches.evict(entry.getKey());
+                loadMarks.remove(entry.getKey());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Returns the sketch of a question. The caller is responsible for
+     * checking access to the form.
+     *
+     * @param formId The ID of the form the question belongs to
+     * @param questionId The ID of the question
+     * @return The sketch of all answers given so far
+     */
+    public S getSketch(Long formId, Long questionId) {
+        formIdByQuestion.put(questionId, formId);
+        return sketches.get(questionId);
+    }
+
+    /**
+     * Writes sketches that changed since the last flush to form_sketches.
+     */
+    @Scheduled(fixedDelayString = "${app.sketches.flush-interval-ms:60000}")
+    @PreDestroy
+    public void flush() {
+        try {
+            int written = sketches.flush((questionId, sketch) ->
+                    sketchStoreService.save(kind, formIdByQuestion.get(questionId), questionId, serialize(sketch)));
+            if (written > 0) {
+                logger.debug("Flushed {} {} sketches", written, kind);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to flush {} sketches: {}", kind, e.getMessage(), e);
+        }
+    }
+
+    private S load(Long questionId) {
+        Optional<FormSketch> stored = sketchStoreService.load(kind, questionId);
+        S initial = stored.map(row -> deserialize(row.getPayload())).orElseGet(this::newSketch);
+        long storedCount = answerCount(initial);
+
+        // Stream every answer committed so far into a new sketch, without locking,
+        // remembering the IDs near the end that concurrent submissions may have skipped
+        Set<Long> tail = new HashSet<>();
+        long tailFrom = 0;
+        if (stored.isEmpty()) {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            readOnly.setReadOnly(true);
+            tailFrom = readOnly.execute(status -> {
+                Long maxId = entityManager.createQuery("SELECT MAX(a.id) FROM Answer a " +
+                        "WHERE a.question.id = :questionId AND " + answerCondition(), Long.class)
+                        .setParameter("questionId", questionId)
+                        .getSingleResult();
+                if (maxId == null) {
+                    return 0L;
+                }
+                long from = Math.max(0, maxId - LATE_COMMIT_WINDOW);
+                addAnswers(questionId, initial, 0, maxId, Long.MAX_VALUE, id -> id <= from || tail.add(id));
+                return from;
+            });
+        }
+
+        // Add what the sketch is still missing with the TOTAL row locked
+        long after = tailFrom;
+        TransactionTemplate locking = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        locking.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        S sketch = locking.execute(status -> {
+            long mark = questionStatsService.lockTotal(questionId);
+            List<Long> total = entityManager.createQuery(
+                    "SELECT s.count FROM QuestionStat s WHERE s.questionId = :questionId AND s.kind = :kind", Long.class)
+                    .setParameter("questionId", questionId)
+                    .setParameter("kind", QuestionStatKind.TOTAL)
+                    .getResultList();
+            long expected = total.isEmpty() ? 0 : total.get(0);
+            S loaded = initial;
+            long missing = expected - answerCount(loaded);
+            if (missing > 0 && stored.isPresent()) {
+                addAnswers(questionId, loaded, 0, Long.MAX_VALUE, missing, id -> true);
+            } else if (missing > 0) {
+                addAnswers(questionId, loaded, after, Long.MAX_VALUE, Long.MAX_VALUE, id -> !tail.contains(id));
+                if (answerCount(loaded) < expected) {
+                    // An answer below the window committed after the stream read past it
+                    logger.info("Rebuilding the {} sketch of question {} from all {} answers", kind, questionId, expected);
+                    loaded = newSketch();
+                    addAnswers(questionId, loaded, 0, Long.MAX_VALUE, Long.MAX_VALUE, id -> true);
+                }
+            }
+            loadMarks.put(questionId, mark);
+            return loaded;
+        });
+
+        long added = answerCount(sketch) - storedCount;
+        if (added > 0) {
+            sketches.markDirty(questionId);
+            logger.info("Added {} answers to the {} sketch of question {}", added, kind, questionId);
+        }
+        return sketch;
+    }
+
+    // Adds the newest answers with after < ID <= upTo that pass the filter, at most limit of them
+    private void addAnswers(Long questionId, S sketch, long after, long upTo, long limit, LongPredicate filter) {
+        TypedQuery<Object[]> query = entityManager.createQuery("SELECT a.id, " + answerValue() + " FROM Answer a " +
+                "WHERE a.question.id = :questionId AND " + answerCondition() +
+                " AND a.id > :after AND a.id <= :upTo ORDER BY a.id DESC", Object[].class)
+                .setParameter("questionId", questionId)
+                .setParameter("after", after)
+                .setParameter("upTo", upTo)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE);
+        if (limit < Long.MAX_VALUE) {
+            query.setMaxResults((int) Math.min(limit, Integer.MAX_VALUE));
+        }
+        try (Stream<Object[]> rows = query.getResultStream()) {
+            rows.filter(row -> filter.test((Long) row[0])).forEach(row -> addStored(sketch, row[1]));
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.*;
+import com.FeedBackCollectionForm.assignment.repository.QuestionStatRepository;
+import com.FeedBackCollectionForm.assignment.service.event.FormDeletedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.SubmittedAnswer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Maintains per-question rollups (option counts, rating count/sum/sum of
+ * squares and histogram) in the question_stats table. Rollups are updated in
+ * the submitting transaction, so analytics can be served from a single
+ * indexed read of question_stats instead of scanning answers.
+ */
+@Service
+public class QuestionStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(QuestionStatsService.class);
+
+    // The question IDs of the RESPONSES rows of every form
+    private static final List<Long> RESPONSES_QUESTION_IDS = LongStream.range(0, QuestionStat.RESPONSE_STRIPES)
+            .map(QuestionStat::responsesQuestionId).boxed().toList();
+
+    // The RESPONSES kind as stored, since Hibernate writes enums in a VALUES list by ordinal
+    private static final String RESPONSES_KIND = "'" + QuestionStatKind.RESPONSES.name() + "'";
+
+    // The order rollup rows are updated in
+    private static final Comparator<Increment> INCREMENT_ORDER = Comparator.comparingLong(Increment::questionId)
+            .thenComparing(Increment::kind)
+            .thenComparingLong(Increment::bucket);
+
+    // Taken by lockTotal and read by recordResponse; see there
+    private final AtomicLong lockMarks = new AtomicLong();
+
+    @Autowired
+    private QuestionStatRepository questionStatRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Creates the TOTAL row of a new question. Concurrent submissions lock this
+     * row first, which serializes the remaining updates of the same question.
+     *
+     * @param question The newly persisted question
+     */
+    @Transactional
+    public void initialize(Question question) {
+        questionStatRepository.save(new QuestionStat(question.getForm().getId(), question.getId(),
+                QuestionStatKind.TOTAL, 0, 0, 0, 0));
+    }
+
+    /**
+     * Creates the TOTAL rows of all questions of a new form with a single
+     * statement, and the form's RESPONSES rows with another. The questions are
+     * flushed first.
+     *
+     * @param formId The ID of the newly persisted form
+     */
+    @Transactional
+    public void initializeForm(Long formId) {
+        int created = entityManager.createQuery(
+                "INSERT INTO QuestionStat (formId, questionId, kind, bucket, count, sum, sumSquares) " +
+                "SELECT q.form.id, q.id, :kind, 0, 0, 0, 0 FROM Question q WHERE q.form.id = :formId")
+                .setParameter("kind", QuestionStatKind.TOTAL)
+                .setParameter("formId", formId)
+                .executeUpdate();
+        insertResponseRows(formId, Set.of(), 0);
+        logger.debug("Created rollups for {} questions of form {}", created, formId);
+    }
+
+    /**
+     * Adds a response and its answers to the rollups. Must run inside the
+     * transaction that persists them, after the answers are saved.
+     * <p>
+     * Rows are updated in (question, kind, bucket) order, so two submissions
+     * never wait on each other's rows in opposite orders, and the TOTAL row of
+     * a question is always locked before its other rows. Submissions to the
+     * same form therefore only queue behind each other on the questions both
+     * answer. The response is counted last, in one of the form's
+     * RESPONSES rows picked by its ID, so that row is locked only until commit.
+     *
+     * @param formId The ID of the form the response belongs to
+     * @param responseId The ID of the saved response
+     * @param answers The answers of the response
+     * @return The lock mark of the response, taken while its rows are locked: a
+     *         {@link #lockTotal(Long)} of an answered question returning a higher
+     *         mark saw this response committed, one returning this mark or lower
+     *         did not
+     */
+    @Transactional
+    public long recordResponse(Long formId, Long responseId, List<SubmittedAnswer> answers) {
+        List<Increment> increments = new ArrayList<>();
+        for (SubmittedAnswer answer : answers) {
+            forEachIncrement(answer, (kind, bucket, value) ->
+                    increments.add(new Increment(answer.getQuestionId(), kind, bucket, value)));
+        }
+        increments.sort(INCREMENT_ORDER);
+        for (Increment increment : increments) {
+            increment(formId, increment.questionId(), increment.kind(), increment.bucket(), increment.value());
+        }
+        increment(formId, QuestionStat.responsesQuestionId(Math.floorMod(responseId, QuestionStat.RESPONSE_STRIPES)),
+                QuestionStatKind.RESPONSES, formId, 0);
+        return lockMarks.get();
+    }
+
+    /**
+     * Locks the TOTAL row of a question until the current transaction ends.
+     * Every response recorded before has committed by then, and answers to the
+     * question cannot be recorded until the lock is released, so the answers
+     * read meanwhile are exactly those of the responses with a lower mark.
+     *
+     * @param questionId The ID of the question
+     * @return The lock mark, higher than the mark of every response recorded before
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long lockTotal(Long questionId) {
+        entityManager.createQuery(
+                "SELECT s FROM QuestionStat s WHERE s.questionId = :questionId AND s.kind = :kind", QuestionStat.class)
+                .setParameter("questionId", questionId)
+                .setParameter("kind", QuestionStatKind.TOTAL)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        return lockMarks.incrementAndGet();
+    }
+
+    /**
+     * Lists the rollup rows of its question that an answer adds one
+     * observation to, so rollups kept in memory follow the table exactly.
+     *
+     * @param answer The submitted answer
+     * @param increment Called once per row; unanswered questions add none
+     */
+    public static void forEachIncrement(SubmittedAnswer answer, StatIncrement increment) {
+        QuestionType type = answer.getType();
+        Integer rating = type == QuestionType.RATING_SCALE ? answer.getRatingValue() : null;
+        if (!isAnswered(type, answer)) {
+            return;
+        }
+
+        long value = rating != null ? rating : 0;
+        increment.add(QuestionStatKind.TOTAL, 0, value);
+
+        if (type == QuestionType.MULTIPLE_CHOICE || type == QuestionType.SINGLE_SELECT
+                || type == QuestionType.MULTI_SELECT) {
+            for (Long optionId : answer.getSelectedOptionIds()) {
+                increment.add(QuestionStatKind.OPTION, optionId, 0);
+            }
+        } else if (rating != null) {
+            increment.add(QuestionStatKind.RATING, rating, value);
+        }
+    }
+
+    /**
+     * Gets the number of responses of a form by adding up its RESPONSES rows,
+     * a lookup by unique key rather than a count.
+     *
+     * @param formId The ID of the form
+     * @return The number of responses
+     */
+    @Transactional(readOnly = true)
+    public long responseCount(Long formId) {
+        return questionStatRepository.findByQuestionIdInAndKindAndBucket(RESPONSES_QUESTION_IDS,
+                        QuestionStatKind.RESPONSES, formId).stream()
+                .mapToLong(QuestionStat::getCount)
+                .sum();
+    }
+
+    @EventListener
+    public void onFormDeleted(FormDeletedEvent event) {
+        questionStatRepository.deleteByFormId(event.getFormId());
+    }
+
+    /**
+     * Backfills rollups for questions created before rollups existed. This is
+     * the only place that aggregates over the answers table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillMissingStats() {
+        List<Question> missing = entityManager.createQuery(
+                "SELECT q FROM Question q WHERE NOT EXISTS (SELECT s FROM QuestionStat s " +
+                "WHERE s.questionId = q.id AND s.kind = :kind)", Question.class)
+                .setParameter("kind", QuestionStatKind.TOTAL)
+                .getResultList();
+
+        for (Question question : missing) {
+            rebuild(question);
+        }
+        if (!missing.isEmpty()) {
+            logger.info("Backfilled analytics rollups for {} questions", missing.size());
+        }
+
+        List<Object[]> uncounted = entityManager.createQuery(
+                "SELECT f.id, (SELECT COUNT(r) FROM Response r WHERE r.form = f) FROM Form f " +
+                "WHERE (SELECT COUNT(s) FROM QuestionStat s WHERE s.formId = f.id AND s.kind = :kind) < :stripes",
+                Object[].class)
+                .setParameter("kind", QuestionStatKind.RESPONSES)
+                .setParameter("stripes", (long) QuestionStat.RESPONSE_STRIPES)
+                .getResultList();
+        for (Object[] form : uncounted) {
+            Long formId = (Long) form[0];
+            Set<Long> existing = questionStatRepository.findByQuestionIdInAndKindAndBucket(RESPONSES_QUESTION_IDS,
+                            QuestionStatKind.RESPONSES, formId).stream()
+                    .map(QuestionStat::getQuestionId)
+                    .collect(Collectors.toSet());
+            insertResponseRows(formId, existing, existing.isEmpty() ? ((Number) form[1]).longValue() : 0);
+        }
+        if (!uncounted.isEmpty()) {
+            logger.info("Backfilled response counts for {} forms", uncounted.size());
+        }
+    }
+
+    /**
+     * Creates the RESPONSES rows a form lacks with a single statement.
+     *
+     * @param formId The ID of the form
+     * @param existing The question IDs of the RESPONSES rows it already has
+     * @param responses The count of its first new row, 0 for a new form
+     */
+    private void insertResponseRows(Long formId, Set<Long> existing, long responses) {
+        StringBuilder values = new StringBuilder();
+        List<Long> questionIds = new ArrayList<>();
+        for (Long questionId : RESPONSES_QUESTION_IDS) {
+            if (!existing.contains(questionId)) {
+                int row = questionIds.size();
+                values.append(row == 0 ? "" : ", ")
+                        .append("(:formId, :q").append(row).append(", ").append(RESPONSES_KIND).append(", :formId, ")
+                        .append(row == 0 ? ":responses" : "0").append(", 0, 0)");
+                questionIds.add(questionId);
+            }
+        }
+        if (questionIds.isEmpty()) {
+            return;
+        }
+
+        Query insert = entityManager.createQuery(
+                "INSERT INTO QuestionStat (formId, questionId, kind, bucket, count, sum, sumSquares) VALUES " + values)
+                .setParameter("formId", formId)
+                .setParameter("responses", responses);
+        for (int row = 0; row < questionIds.size(); row++) {
+            insert.setParameter("q" + row, questionIds.get(row));
+        }
+        insert.executeUpdate();
+    }
+
+    private void rebuild(Question question) {
+        Long formId = question.getForm().getId();
+        Long questionId = question.getId();
+
+        Object[] totals = entityManager.createQuery(
+                "SELECT COUNT(a), COALESCE(SUM(a.ratingValue), 0), COALESCE(SUM(a.ratingValue * a.ratingValue), 0) " +
+                "FROM Answer a WHERE a.question.id = :questionId AND " +
+                "(a.textAnswer IS NOT NULL OR a.ratingValue IS NOT NULL OR a.selectedOption IS NOT NULL " +
+                "OR a.dateValue IS NOT NULL OR SIZE(a.selectedOptions) > 0)", Object[].class)
+                .setParameter("questionId", questionId)
+                .getSingleResult();
+        questionStatRepository.save(new QuestionStat(formId, questionId, QuestionStatKind.TOTAL, 0,
+                ((Number) totals[0]).longValue(), ((Number) totals[1]).longValue(), ((Number) totals[2]).longValue()));
+
+        String bucketQuery;
+        QuestionStatKind kind;
+        if (question.getType() == QuestionType.MULTIPLE_CHOICE || question.getType() == QuestionType.SINGLE_SELECT) {
+            kind = QuestionStatKind.OPTION;
+            bucketQuery = "SELECT a.selectedOption.id, COUNT(a) FROM Answer a " +
+                    "WHERE a.question.id = :questionId AND a.selectedOption IS NOT NULL GROUP BY a.selectedOption.id";
+        } else if (question.getType() == QuestionType.MULTI_SELECT) {
+            kind = QuestionStatKind.OPTION;
+            bucketQuery = "SELECT o.id, COUNT(a) FROM Answer a JOIN a.selectedOptions o " +
+                    "WHERE a.question.id = :questionId GROUP BY o.id";
+        } else if (question.getType() == QuestionType.RATING_SCALE) {
+            kind = QuestionStatKind.RATING;
+            bucketQuery = "SELECT a.ratingValue, COUNT(a) FROM Answer a " +
+                    "WHERE a.question.id = :questionId AND a.ratingValue IS NOT NULL GROUP BY a.ratingValue";
+        } else {
+            return;
+        }
+
+        List<Object[]> buckets = entityManager.createQuery(bucketQuery, Object[].class)
+                .setParameter("questionId", questionId)
+                .getResultList();
+        for (Object[] bucket : buckets) {
+            long key = ((Number) bucket[0]).longValue();
+            long count = ((Number) bucket[1]).longValue();
+            long sum = kind == QuestionStatKind.RATING ? key * count : 0;
+            questionStatRepository.save(new QuestionStat(formId, questionId, kind, key, count, sum, key * sum));
+        }
+    }
+
+    private void increment(Long formId, Long questionId, QuestionStatKind kind, long bucket, long value) {
+        int updated = questionStatRepository.increment(questionId, kind, bucket, value, value * value);
+        if (updated == 0) {
+            questionStatRepository.save(new QuestionStat(formId, questionId, kind, bucket, 1, value, value * value));
+        }
+    }
+
+    private record Increment(long questionId, QuestionStatKind kind, long bucket, long value) {
+    }
+
+    private static boolean isAnswered(QuestionType type, SubmittedAnswer answer) {
+        switch (type) {
+            case TEXT:
+            case TEXT_WITH_LIMIT:
+                return answer.getTextAnswer() != null && !answer.getTextAnswer().isBlank();
+            case MULTIPLE_CHOICE:
+            case SINGLE_SELECT:
+            case MULTI_SELECT:
+                return !answer.getSelectedOptionIds().isEmpty();
+            case RATING_SCALE:
+                return answer.getRatingValue() != null;
+            case DATE:
+                return answer.getDateValue() != null;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Receives one rollup row an answer adds to.
+     */
+    @FunctionalInterface
+    public interface StatIncrement {
+        void add(QuestionStatKind kind, long bucket, long value);
+    }
+}
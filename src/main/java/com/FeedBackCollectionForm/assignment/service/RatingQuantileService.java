@@ -0,0 +1,64 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.model.SketchKind;
+import com.FeedBackCollectionForm.assignment.service.analytics.KllSketch;
+import com.FeedBackCollectionForm.assignment.service.event.SubmittedAnswer;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps a KLL quantile sketch per rating question so p10/median/p90 can be
+ * reported without sorting the answers, whatever the rating range.
+ */
+@Service
+public class RatingQuantileService extends QuestionSketchService<KllSketch> {
+
+    public RatingQuantileService() {
+        super(SketchKind.RATING_QUANTILES);
+    }
+
+    @Override
+    protected KllSketch newSketch() {
+        return new KllSketch();
+    }
+
+    @Override
+    protected KllSketch deserialize(byte[] payload) {
+        return KllSketch.fromBytes(payload);
+    }
+
+    @Override
+    protected byte[] serialize(KllSketch sketch) {
+        return sketch.toBytes();
+    }
+
+    @Override
+    protected long answerCount(KllSketch sketch) {
+        return sketch.getCount();
+    }
+
+    @Override
+    protected String answerValue() {
+        return "a.ratingValue";
+    }
+
+    @Override
+    protected String answerCondition() {
+        return "a.ratingValue IS NOT NULL";
+    }
+
+    @Override
+    protected boolean accepts(SubmittedAnswer answer) {
+        return answer.getType() == QuestionType.RATING_SCALE && answer.getRatingValue() != null;
+    }
+
+    @Override
+    protected void add(KllSketch sketch, SubmittedAnswer answer) {
+        sketch.add(answer.getRatingValue());
+    }
+
+    @Override
+    protected void addStored(KllSketch sketch, Object value) {
+        sketch.add((Integer) value);
+    }
+}
@@ -0,0 +1,217 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+import com.FeedBackCollectionForm.assignment.model.Question;
+import com.FeedBackCollectionForm.assignment.payload.request.ResponseFilterRequest;
+import com.FeedBackCollectionForm.assignment.repository.FormRepository;
+import com.FeedBackCollectionForm.assignment.repository.OptionRepository;
+import com.FeedBackCollectionForm.assignment.repository.QuestionRepository;
+import com.FeedBackCollectionForm.assignment.service.analytics.FormColumnStore;
+import com.FeedBackCollectionForm.assignment.service.export.CountingOutputStream;
+import com.FeedBackCollectionForm.assignment.service.export.CsvExportWriter;
+import com.FeedBackCollectionForm.assignment.service.export.ExportCompression;
+import com.FeedBackCollectionForm.assignment.service.export.ExportFormat;
+import com.FeedBackCollectionForm.assignment.service.export.ExportMetrics;
+import com.FeedBackCollectionForm.assignment.service.export.NdjsonExportWriter;
+import com.FeedBackCollectionForm.assignment.service.export.ResponseExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Streams all (or all filtered) responses of a form to an output stream, optionally compressing
+ * them while they are generated so large exports never sit in memory. Rows are read from the
+ * form's column store rather than from Response entities; forms whose store is too large to keep
+ * are read from the database a batch at a time.
+ */
+@Service
+public class ResponseExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseExportService.class);
+
+    @Autowired
+    private FormRepository formRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private OptionRepository optionRepository;
+
+    @Autowired
+    private ColumnStoreService columnStoreService;
+
+    @Autowired
+    private ResponseFilterService responseFilterService;
+
+    @Autowired
+    private ExportMetrics exportMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.export.buffer-size:65536}")
+    private int bufferSize;
+
+    @Value("${app.export.flush-rows:1000}")
+    private int flushRows;
+
+    @Value("${app.export.gzip-level:6}")
+    private int gzipLevel;
+
+    @Value("${app.export.zstd-level:3}")
+    private int zstdLevel;
+
+    /**
+     * Checks that the form exists and belongs to the user, and that the filter
+     * is valid, before any bytes are streamed.
+     *
+     * @param formId The ID of the form
+     * @param username The username of the user requesting the export
+     * @param filter The filter of the export, or null
+     */
+    @Transactional(readOnly = true)
+    public void checkExportAccess(Long formId, String username, ResponseFilterRequest filter) {
+        Form form = loadOwnedForm(formId, username);
+        if (filter != null) {
+            responseFilterService.matchingResponseIds(form, filter);
+        }
+    }
+
+    /**
+     * Writes the responses for a form to the given stream, newest first.
+     *
+     * @param formId The ID of the form
+     * @param username The username of the user requesting the export
+     * @param filter Restricts the export to matching responses, or null for all responses
+     * @param format The row format
+     * @param compression The codec applied to the stream
+     * @param out The stream receiving the export, left open on return
+     */
+    @Transactional(readOnly = true)
+    public void exportFormResponses(Long formId, String username, ResponseFilterRequest filter, ExportFormat format,
+                                    ExportCompression compression, OutputStream out) throws IOException {
+        Form form = loadOwnedForm(formId, username);
+        // Removed questions keep their columns so that older answers are exported too
+        List<Question> questions = questionRepository.findAllByFormIdIncludingRemoved(formId);
+        long start = System.nanoTime();
+
+        CountingOutputStream wire = new CountingOutputStream(StreamUtils.nonClosing(out));
+        // Closing the chain releases the compressor even if the client goes away; the servlet stream stays open
+        try (OutputStream compressed = compression.wrap(wire, bufferSize,
+                     compression == ExportCompression.ZSTD ? zstdLevel : gzipLevel);
+             CountingOutputStream raw = new CountingOutputStream(compressed);
+             Writer writer = new OutputStreamWriter(new BufferedOutputStream(raw, bufferSize), StandardCharsets.UTF_8);
+             // Rows are formatted into memory while the store is read, and written out after releasing it
+             CharArrayWriter batch = new CharArrayWriter(bufferSize)) {
+            ResponseExportWriter exportWriter = format == ExportFormat.NDJSON
+                    ? new NdjsonExportWriter(batch, objectMapper)
+                    : new CsvExportWriter(batch);
+
+            exportWriter.writeHeader(questions, optionRepository.findAllByFormIdIncludingRemoved(formId));
+            batch.writeTo(writer);
+            batch.reset();
+
+            long exported;
+            try {
+                exported = writeRows(form, filter, questions, exportWriter, batch, writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            writer.flush();
+            compression.finish(compressed);
+            wire.flush();
+
+            long nanos = System.nanoTime() - start;
+            exportMetrics.record(format, compression, exported, raw.getCount(), wire.getCount(), nanos);
+            logger.info("Exported {} responses of form {} as {} ({}): {} bytes raw, {} bytes on the wire in {} ms",
+                    exported, formId, format, compression, raw.getCount(), wire.getCount(), nanos / 1_000_000);
+        }
+    }
+
+    /**
+     * Writes the rows of the export from the form's column store, or from
+     * the database if the store is too large to keep.
+     *
+     * @return The number of rows written
+     */
+    private long writeRows(Form form, ResponseFilterRequest filter, List<Question> questions,
+                           ResponseExportWriter exportWriter, CharArrayWriter batch, Writer writer) {
+        List<Long> responseIds = filter != null ? responseFilterService.matchingResponseIds(form, filter) : null;
+        FormColumnStore store = columnStoreService.getStoreForExport(form.getId());
+        if (store != null) {
+            int[] rows = responseIds == null
+                    ? store.read(FormColumnStore::rowsNewestFirst)
+                    : store.read(columns -> responseIds.stream()
+                            .mapToInt(columns::row)
+                            .filter(row -> row >= 0)
+                            .toArray());
+            for (int from = 0; from < rows.length; from += flushRows) {
+                writeBatch(store, Arrays.copyOfRange(rows, from, Math.min(from + flushRows, rows.length)),
+                        questions, exportWriter, batch, writer);
+            }
+            return rows.length;
+        }
+
+        long[] count = new long[1];
+        columnStoreService.readBatches(form.getId(), responseIds, flushRows, columns -> {
+            int[] rows = IntStream.range(0, columns.size()).toArray();
+            writeBatch(columns, rows, questions, exportWriter, batch, writer);
+            count[0] += rows.length;
+        });
+        return count[0];
+    }
+
+    /**
+     * Formats rows while the store is read, then writes them out after
+     * releasing it.
+     */
+    private void writeBatch(FormColumnStore store, int[] rows, List<Question> questions,
+                            ResponseExportWriter exportWriter, CharArrayWriter batch, Writer writer) {
+        try {
+            store.read(columns -> {
+                try {
+                    for (int row : rows) {
+                        exportWriter.writeRow(columns, row, questions);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+            batch.writeTo(writer);
+            batch.reset();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Form loadOwnedForm(Long formId, String username) {
+        Form form = formRepository.findById(formId)
+                .orElseThrow(() -> new RuntimeException("Form not found"));
+
+        if (!form.getCreatedBy().getUsername().equals(username)) {
+            throw new RuntimeException("Not authorized to access this form's responses");
+        }
+
+        return form;
+    }
+}
@@ -0,0 +1,437 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+import com.FeedBackCollectionForm.assignment.model.Option;
+import com.FeedBackCollectionForm.assignment.model.Question;
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.model.Response;
+import com.FeedBackCollectionForm.assignment.payload.request.ResponseFilterRequest;
+import com.FeedBackCollectionForm.assignment.payload.response.FilterEstimateResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.FilteredResponsesResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.ResponseResponse;
+import com.FeedBackCollectionForm.assignment.repository.FormRepository;
+import com.FeedBackCollectionForm.assignment.repository.ResponseRepository;
+import com.FeedBackCollectionForm.assignment.service.analytics.AnalyticsMode;
+import com.FeedBackCollectionForm.assignment.service.analytics.FormBitmapIndex;
+import com.FeedBackCollectionForm.assignment.service.analytics.FormBitmapIndex.IndexedAnswer;
+import com.FeedBackCollectionForm.assignment.service.analytics.FormColumnStore;
+import com.FeedBackCollectionForm.assignment.service.analytics.ReservoirSample;
+import com.FeedBackCollectionForm.assignment.service.event.FormDeletedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.ResponseSubmittedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.SubmittedAnswer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Answers boolean response filters ("option X AND rating >= 4 on Q7") from
+ * an in-memory bitmap index per form instead of joining answers. Indexes
+ * are built for all forms at startup and kept up to date after each
+ * committed submission; filtered listings and exports read the matching
+ * response IDs from them.
+ */
+@Service
+public class ResponseFilterService {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseFilterService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_FILTER_DEPTH = 16;
+
+    @Autowired
+    private FormRepository formRepository;
+
+    @Autowired
+    private ResponseRepository responseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseSampleService responseSampleService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<Long, FormBitmapIndex> indexes = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onResponseSubmitted(ResponseSubmittedEvent event) {
+        List<IndexedAnswer> answers = new ArrayList<>();
+        for (SubmittedAnswer answer : event.getAnswers()) {
+            if (isAnswered(answer)) {
+                answers.add(new IndexedAnswer(answer.getQuestionId(), answer.getSelectedOptionIds(),
+                        answer.getType() == QuestionType.RATING_SCALE ? answer.getRatingValue() : null));
+            }
+        }
+        // A freshly loaded index may already contain this response; adding it again is a no-op
+        index(event.getFormId()).add(event.getResponseId(), answers);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void afterFormDeleted(FormDeletedEvent event) {
+        indexes.remove(event.getFormId());
+    }
+
+    /**
+     * Builds the indexes of all forms so the first filter of each form is fast.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexes() {
+        long started = System.nanoTime();
+        List<Long> formIds = readOnly(() -> entityManager.createQuery("SELECT f.id FROM Form f", Long.class)
+                .getResultList());
+        formIds.forEach(this::index);
+        logger.info("Built response filter indexes for {} forms in {} ms", formIds.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Parses a filter given as a JSON request parameter.
+     *
+     * @param json The filter as JSON, may be null or blank
+     * @return The filter, or null if none was given
+     */
+    public ResponseFilterRequest parse(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, ResponseFilterRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid filter: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Lists the responses of a form that match a filter, newest first.
+     *
+     * @param formId The ID of the form
+     * @param username The username of the user requesting the responses
+     * @param filter The filter to apply
+     * @param page The zero-based page
+     * @param size The page size, at most 100
+     * @return The total number of matches and one page of responses
+     */
+    @Transactional(readOnly = true)
+    public FilteredResponsesResponse filterResponses(Long formId, String username, ResponseFilterRequest filter,
+                                                     int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Page must be at least 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        Form form = loadOwnedForm(formId, username);
+        long offset = (long) page * size;
+
+        List<Long> pageIds = new ArrayList<>();
+        long total = index(formId).query(index -> {
+            RoaringBitmap matches = evaluate(form, index, filter);
+            IntIterator ordinals = matches.getReverseIntIterator();
+            for (long skipped = 0; skipped < offset && ordinals.hasNext(); skipped++) {
+                ordinals.next();
+            }
+            while (pageIds.size() < size && ordinals.hasNext()) {
+                pageIds.add(index.responseId(ordinals.next()));
+            }
+            return matches.getLongCardinality();
+        });
+
+        Map<Long, ResponseResponse> byId = new LinkedHashMap<>();
+        pageIds.forEach(id -> byId.put(id, null));
+        for (Response response : responseRepository.findAllById(pageIds)) {
+            byId.put(response.getId(), ResponseResponse.fromEntity(response));
+        }
+
+        FilteredResponsesResponse result = new FilteredResponsesResponse();
+        result.setFormId(formId);
+        result.setTotal(total);
+        result.setPage(page);
+        result.setSize(size);
+        byId.values().stream().filter(response -> response != null).forEach(result.getResponses()::add);
+        return result;
+    }
+
+    /**
+     * Returns the IDs of the responses of a form that match a filter, newest
+     * first. The caller is responsible for checking access to the form.
+     *
+     * @param form The form
+     * @param filter The filter to apply
+     * @return The matching response IDs
+     */
+    public List<Long> matchingResponseIds(Form form, ResponseFilterRequest filter) {
+        return index(form.getId()).query(index -> {
+            RoaringBitmap matches = evaluate(form, index, filter);
+            List<Long> ids = new ArrayList<>(matches.getCardinality());
+            IntIterator ordinals = matches.getReverseIntIterator();
+            while (ordinals.hasNext()) {
+                ids.add(index.responseId(ordinals.next()));
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Counts the responses of a form that match a filter. Exact counts come
+     * from the bitmap index; approximate ones evaluate the filter on the
+     * form's reservoir sample and scale the result to all responses with
+     * 95% confidence bounds.
+     *
+     * @param formId The ID of the form
+     * @param username The username of the user requesting the count
+     * @param filter The filter to apply
+     * @param mode Exact, approximate, or approximate only for forms above the exact limit
+     * @return The number of matching responses
+     */
+    @Transactional(readOnly = true)
+    public FilterEstimateResponse estimateMatches(Long formId, String username, ResponseFilterRequest filter,
+                                                  AnalyticsMode mode) {
+        Form form = loadOwnedForm(formId, username);
+        Map<Long, Long> questionByOption = validate(form, filter);
+
+        FilterEstimateResponse response = new FilterEstimateResponse();
+        response.setFormId(formId);
+        if (responseSampleService.useSample(formId, mode)) {
+            ResponseSampleService.FormSample sample = responseSampleService.getSample(formId);
+            long hits = sample.getStore().read(store -> {
+                long count = 0;
+                for (int row = 0; row < store.size(); row++) {
+                    if (matches(filter, store, row, questionByOption)) {
+                        count++;
+                    }
+                }
+                return count;
+            });
+            long[] estimate = ReservoirSample.estimateCount(hits, sample.getSampleSize(), sample.getPopulation());
+            response.setSource(ResponseSampleService.SOURCE_SAMPLE);
+            response.setPopulation(sample.getPopulation());
+            response.setSampleSize(sample.getSampleSize());
+            response.setConfidenceLevel(ReservoirSample.CONFIDENCE_LEVEL);
+            response.setMatches(estimate[0]);
+            response.setMatchesLower(estimate[1]);
+            response.setMatchesUpper(estimate[2]);
+            response.setProportion(sample.getSampleSize() == 0 ? 0.0 : (double) hits / sample.getSampleSize());
+        } else {
+            long[] counts = index(formId).query(index ->
+                    new long[]{evaluate(filter, index).getLongCardinality(), index.all().getLongCardinality()});
+            response.setSource(ResponseSampleService.SOURCE_EXACT);
+            response.setPopulation(counts[1]);
+            response.setMatches(counts[0]);
+            response.setMatchesLower(counts[0]);
+            response.setMatchesUpper(counts[0]);
+            response.setProportion(counts[1] == 0 ? 0.0 : (double) counts[0] / counts[1]);
+        }
+        return response;
+    }
+
+    private RoaringBitmap evaluate(Form form, FormBitmapIndex index, ResponseFilterRequest filter) {
+        validate(form, filter);
+        RoaringBitmap result = evaluate(filter, index);
+        // Leaf results are live bitmaps of the index
+        return result.clone();
+    }
+
+    /**
+     * Checks the structure of a filter and that its options and questions
+     * belong to the form.
+     *
+     * @return The question of every option of the form, for evaluating option filters
+     */
+    private Map<Long, Long> validate(Form form, ResponseFilterRequest filter) {
+        if (filter == null) {
+            throw new RuntimeException("Filter must not be empty");
+        }
+        Map<Long, Question> questions = new HashMap<>();
+        Map<Long, Long> questionByOption = new HashMap<>();
+        for (Question question : form.getQuestions()) {
+            questions.put(question.getId(), question);
+            for (Option option : question.getOptions()) {
+                questionByOption.put(option.getId(), question.getId());
+            }
+        }
+        validate(filter, questions, questionByOption, 0);
+        return questionByOption;
+    }
+
+    private void validate(ResponseFilterRequest filter, Map<Long, Question> questions, Map<Long, Long> questionByOption,
+                          int depth) {
+        if (depth > MAX_FILTER_DEPTH) {
+            throw new RuntimeException("Filter is nested too deeply");
+        }
+        int kinds = (filter.getAnd() != null ? 1 : 0) + (filter.getOr() != null ? 1 : 0)
+                + (filter.getNot() != null ? 1 : 0) + (filter.getOption() != null ? 1 : 0)
+                + (filter.getQuestion() != null ? 1 : 0);
+        if (kinds != 1) {
+            throw new RuntimeException("Each filter must have exactly one of and, or, not, option or question");
+        }
+
+        if (filter.getAnd() != null || filter.getOr() != null) {
+            List<ResponseFilterRequest> children = filter.getAnd() != null ? filter.getAnd() : filter.getOr();
+            if (children.isEmpty()) {
+                throw new RuntimeException("and/or filters need at least one child");
+            }
+            for (ResponseFilterRequest child : children) {
+                validate(child, questions, questionByOption, depth + 1);
+            }
+        } else if (filter.getNot() != null) {
+            validate(filter.getNot(), questions, questionByOption, depth + 1);
+        } else if (filter.getOption() != null) {
+            if (!questionByOption.containsKey(filter.getOption())) {
+                throw new RuntimeException("Option " + filter.getOption() + " does not belong to this form");
+            }
+        } else {
+            Question question = questions.get(filter.getQuestion());
+            if (question == null) {
+                throw new RuntimeException("Question " + filter.getQuestion() + " does not belong to this form");
+            }
+            if (filter.getGte() != null || filter.getLte() != null) {
+                if (question.getType() != QuestionType.RATING_SCALE) {
+                    throw new RuntimeException("Rating filters need a rating question");
+                }
+            } else if (filter.getAnswered() == null) {
+                throw new RuntimeException("Question filters need gte/lte or answered");
+            }
+        }
+    }
+
+    private RoaringBitmap evaluate(ResponseFilterRequest filter, FormBitmapIndex index) {
+        if (filter.getAnd() != null || filter.getOr() != null) {
+            List<ResponseFilterRequest> children = filter.getAnd() != null ? filter.getAnd() : filter.getOr();
+            RoaringBitmap result = null;
+            for (ResponseFilterRequest child : children) {
+                RoaringBitmap bitmap = evaluate(child, index);
+                if (result == null) {
+                    result = bitmap;
+                } else {
+                    result = filter.getAnd() != null ? RoaringBitmap.and(result, bitmap) : RoaringBitmap.or(result, bitmap);
+                }
+            }
+            return result;
+        }
+        if (filter.getNot() != null) {
+            return RoaringBitmap.andNot(index.all(), evaluate(filter.getNot(), index));
+        }
+        if (filter.getOption() != null) {
+            return index.option(filter.getOption());
+        }
+        if (filter.getGte() != null || filter.getLte() != null) {
+            return index.ratingRange(filter.getQuestion(), filter.getGte(), filter.getLte());
+        }
+        RoaringBitmap answered = index.answered(filter.getQuestion());
+        return filter.getAnswered() ? answered : RoaringBitmap.andNot(index.all(), answered);
+    }
+
+    /**
+     * Evaluates a validated filter against one row of a sampled store.
+     */
+    private boolean matches(ResponseFilterRequest filter, FormColumnStore store, int row,
+                            Map<Long, Long> questionByOption) {
+        if (filter.getAnd() != null) {
+            return filter.getAnd().stream().allMatch(child -> matches(child, store, row, questionByOption));
+        }
+        if (filter.getOr() != null) {
+            return filter.getOr().stream().anyMatch(child -> matches(child, store, row, questionByOption));
+        }
+        if (filter.getNot() != null) {
+            return !matches(filter.getNot(), store, row, questionByOption);
+        }
+        if (filter.getOption() != null) {
+            return store.isSelected(row, questionByOption.get(filter.getOption()), filter.getOption());
+        }
+        if (filter.getGte() != null || filter.getLte() != null) {
+            Integer rating = store.rating(row, filter.getQuestion());
+            return rating != null && (filter.getGte() == null || rating >= filter.getGte())
+                    && (filter.getLte() == null || rating <= filter.getLte());
+        }
+        return store.isAnswered(row, filter.getQuestion()) == filter.getAnswered();
+    }
+
+    private FormBitmapIndex index(Long formId) {
+        return indexes.computeIfAbsent(formId, this::load);
+    }
+
+    private FormBitmapIndex load(Long formId) {
+        FormBitmapIndex index = new FormBitmapIndex();
+        readOnly(() -> {
+            Map<Long, Map<Long, IndexedAnswer>> answers = new HashMap<>();
+            collect(answers, "SELECT a.response.id, a.question.id, a.selectedOption.id, a.ratingValue FROM Answer a " +
+                    "WHERE a.response.form.id = :formId AND (a.selectedOption IS NOT NULL OR a.ratingValue IS NOT NULL " +
+                    "OR LENGTH(TRIM(a.textAnswer)) > 0 OR a.dateValue IS NOT NULL)", formId);
+            collect(answers, "SELECT a.response.id, a.question.id, o.id FROM Answer a JOIN a.selectedOptions o " +
+                    "WHERE a.response.form.id = :formId", formId);
+
+            try (Stream<Long> responseIds = entityManager.createQuery(
+                    "SELECT r.id FROM Response r WHERE r.form.id = :formId ORDER BY r.submittedAt, r.id", Long.class)
+                    .setParameter("formId", formId)
+                    .getResultStream()) {
+                responseIds.forEach(id -> index.add(id,
+                        new ArrayList<>(answers.getOrDefault(id, Map.of()).values())));
+            }
+            return null;
+        });
+        return index;
+    }
+
+    private void collect(Map<Long, Map<Long, IndexedAnswer>> answers, String query, Long formId) {
+        try (Stream<Object[]> rows = entityManager.createQuery(query, Object[].class)
+                .setParameter("formId", formId)
+                .getResultStream()) {
+            rows.forEach(row -> {
+                Long questionId = (Long) row[1];
+                IndexedAnswer answer = answers.computeIfAbsent((Long) row[0], id -> new HashMap<>())
+                        .computeIfAbsent(questionId, id -> new IndexedAnswer(id, new ArrayList<>(),
+                                row.length > 3 ? (Integer) row[3] : null));
+                if (row[2] != null) {
+                    answer.getOptionIds().add((Long) row[2]);
+                }
+            });
+        }
+    }
+
+    private boolean isAnswered(SubmittedAnswer answer) {
+        return !answer.getSelectedOptionIds().isEmpty() || answer.getRatingValue() != null
+                || answer.getDateValue() != null
+                || (answer.getTextAnswer() != null && !answer.getTextAnswer().isBlank());
+    }
+
+    private Form loadOwnedForm(Long formId, String username) {
+        Form form = formRepository.findById(formId)
+                .orElseThrow(() -> new RuntimeException("Form not found"));
+
+        if (!form.getCreatedBy().getUsername().equals(username)) {
+            throw new RuntimeException("Not authorized to access this form's responses");
+        }
+
+        return form;
+    }
+
+    private <T> T readOnly(Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        return template.execute(status -> work.get());
+    }
+}
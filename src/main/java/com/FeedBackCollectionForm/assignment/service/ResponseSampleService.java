@@ -0,0 +1,268 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+import com.FeedBackCollectionForm.assignment.service.analytics.AnalyticsMode;
+import com.FeedBackCollectionForm.assignment.service.analytics.FormColumnStore;
+import com.FeedBackCollectionForm.assignment.service.analytics.ReservoirSample;
+import com.FeedBackCollectionForm.assignment.service.event.FormDeletedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.FormEditedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.ResponseSubmittedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.SubmittedAnswer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a fixed-size uniform random sample of the responses of each form,
+ * stored as a small {@link FormColumnStore}. Ad-hoc filters and crosstabs
+ * on huge forms run on the sample instead of on every response.
+ *
+ * <p>A sample is drawn the first time it is needed by reservoir sampling
+ * the form's response IDs, so only the sampled responses' answers are
+ * read. Later submissions are offered to the reservoir after commit. Only
+ * what filters and crosstabs use is kept: options, ratings, dates and
+ * whether each question was answered, but no text.
+ */
+@Service
+public class ResponseSampleService {
+    public static final String SOURCE_EXACT = "EXACT";
+    public static final String SOURCE_SAMPLE = "SAMPLE";
+    private static final Logger logger = LoggerFactory.getLogger(ResponseSampleService.class);
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ColumnStoreService columnStoreService;
+
+    @Autowired
+    private QuestionStatsService questionStatsService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.sampling.reservoir-size:10000}")
+    private int reservoirSize;
+
+    @Value("${app.sampling.exact-max-responses:100000}")
+    private long exactMaxResponses;
+
+    private final Map<Long, FormSample> samples = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onResponseSubmitted(ResponseSubmittedEvent event) {
+        // Waits for a draw in progress; forms that were never sampled pick the response up when they are
+        FormSample sample = samples.computeIfPresent(event.getFormId(), (id, existing) -> existing);
+        if (sample != null) {
+            sample.offer(event.getResponseId(), sampledAnswers(event.getAnswers()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void afterFormDeleted(FormDeletedEvent event) {
+        samples.remove(event.getFormId());
+    }
+
+    // Drawn again on next use, with columns for the added questions
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void afterFormEdited(FormEditedEvent event) {
+        samples.remove(event.getFormId());
+    }
+
+    /**
+     * Decides whether ad-hoc analytics of a form run on its sample. In auto
+     * mode the form is sized from its sample or column store when either is
+     * in memory, and from its response count rollup otherwise.
+     *
+     * @param formId The ID of the form
+     * @param mode The requested mode
+     * @return True to use the sample, false for the exact path
+     */
+    public boolean useSample(Long formId, AnalyticsMode mode) {
+        return switch (mode) {
+            case EXACT -> false;
+            case APPROXIMATE -> true;
+            case AUTO -> responseCount(formId) > exactMaxResponses;
+        };
+    }
+
+    private long responseCount(Long formId) {
+        FormSample sample = samples.get(formId);
+        if (sample != null) {
+            return sample.getPopulation();
+        }
+        FormColumnStore store = columnStoreService.getLoadedStore(formId);
+        if (store != null) {
+            return store.size();
+        }
+        return questionStatsService.responseCount(formId);
+    }
+
+    /**
+     * Gets the sample of a form, drawing it if needed. The caller is
+     * responsible for checking access to the form.
+     *
+     * @param formId The ID of the form
+     * @return The sample
+     */
+    public FormSample getSample(Long formId) {
+        return samples.computeIfAbsent(formId, this::load);
+    }
+
+    private FormSample load(Long formId) {
+        long started = System.nanoTime();
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        FormSample sample = template.execute(status -> {
+            if (entityManager.find(Form.class, formId) == null) {
+                throw new RuntimeException("Form not found");
+            }
+            ReservoirSample reservoir = new ReservoirSample(reservoirSize);
+            long[] slots = new long[reservoirSize];
+            long lastId = 0;
+            try (Stream<Long> responseIds = entityManager.createQuery(
+                    "SELECT r.id FROM Response r WHERE r.form.id = :formId ORDER BY r.id", Long.class)
+                    .setParameter("formId", formId)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, LOAD_BATCH_SIZE)
+                    .getResultStream()) {
+                for (Long id : (Iterable<Long>) responseIds::iterator) {
+                    int slot = reservoir.offer();
+                    if (slot >= 0) {
+                        slots[slot] = id;
+                    }
+                    lastId = id;
+                }
+            }
+
+            FormColumnStore store = new FormColumnStore(columnStoreService.columnSpecs(formId));
+            long[] sampledIds = Arrays.copyOf(slots, (int) Math.min(reservoir.getSeen(), reservoirSize));
+            for (long id : sampledIds) {
+                store.addRow(id, null, null, null);
+            }
+            for (int from = 0; from < sampledIds.length; from += LOAD_BATCH_SIZE) {
+                List<Long> batch = new ArrayList<>();
+                for (int i = from; i < Math.min(from + LOAD_BATCH_SIZE, sampledIds.length); i++) {
+                    batch.add(sampledIds[i]);
+                }
+                loadAnswers(store, batch);
+            }
+            return new FormSample(reservoir, store, lastId);
+        });
+        logger.debug("Drew a sample of {} out of {} responses of form {} in {} ms", sample.getSampleSize(),
+                sample.getPopulation(), formId, (System.nanoTime() - started) / 1_000_000);
+        return sample;
+    }
+
+    private void loadAnswers(FormColumnStore store, List<Long> responseIds) {
+        List<Object[]> answers = entityManager.createQuery(
+                "SELECT a.response.id, a.question.id, so.id, a.ratingValue, a.textAnswer, a.dateValue " +
+                "FROM Answer a LEFT JOIN a.selectedOption so WHERE a.response.id IN :ids", Object[].class)
+                .setParameter("ids", responseIds)
+                .getResultList();
+        for (Object[] answer : answers) {
+            String text = (String) answer[4];
+            boolean hasText = text != null && !text.isBlank();
+            if (answer[2] != null || answer[3] != null || hasText || answer[5] != null) {
+                store.setAnswer(store.row((Long) answer[0]), (Long) answer[1], (Long) answer[2],
+                        (Integer) answer[3], hasText ? "" : null, (String) answer[5]);
+            }
+        }
+        List<Object[]> selections = entityManager.createQuery(
+                "SELECT a.response.id, a.question.id, o.id FROM Answer a JOIN a.selectedOptions o " +
+                "WHERE a.response.id IN :ids", Object[].class)
+                .setParameter("ids", responseIds)
+                .getResultList();
+        for (Object[] selection : selections) {
+            store.addOption(store.row((Long) selection[0]), (Long) selection[1], (Long) selection[2]);
+        }
+    }
+
+    /**
+     * Keeps the answers that have a value, with any text reduced to an
+     * empty marker so the sample only records that it was given.
+     */
+    private List<SubmittedAnswer> sampledAnswers(List<SubmittedAnswer> answers) {
+        List<SubmittedAnswer> sampled = new ArrayList<>();
+        for (SubmittedAnswer answer : answers) {
+            boolean hasText = answer.getTextAnswer() != null && !answer.getTextAnswer().isBlank();
+            if (!answer.getSelectedOptionIds().isEmpty() || answer.getRatingValue() != null
+                    || answer.getDateValue() != null || hasText) {
+                sampled.add(new SubmittedAnswer(answer.getQuestionId(), answer.getType(), hasText ? "" : null,
+                        answer.getSelectedOptionIds(), answer.getRatingValue(), answer.getDateValue()));
+            }
+        }
+        return sampled;
+    }
+
+    /**
+     * The reservoir of one form and the sampled responses it selected.
+     */
+    public static class FormSample {
+        private final ReservoirSample reservoir;
+        private final FormColumnStore store;
+        private final long lastLoadedId;
+
+        FormSample(ReservoirSample reservoir, FormColumnStore store, long lastLoadedId) {
+            this.reservoir = reservoir;
+            this.store = store;
+            this.lastLoadedId = lastLoadedId;
+        }
+
+        synchronized void offer(long responseId, List<SubmittedAnswer> answers) {
+            // Responses up to the last loaded ID were offered when the sample was drawn. A response
+            // with a lower ID committed after the draw is skipped, which is negligible at this scale.
+            if (responseId <= lastLoadedId) {
+                return;
+            }
+            int slot = reservoir.offer();
+            if (slot < 0) {
+                return;
+            }
+            if (slot == store.size()) {
+                store.append(responseId, null, null, null, answers);
+            } else {
+                store.replaceRow(slot, responseId, null, null, null, answers);
+            }
+        }
+
+        /**
+         * Gets the sampled responses. Rows are in no particular order.
+         *
+         * @return The column store of the sample
+         */
+        public FormColumnStore getStore() {
+            return store;
+        }
+
+        /**
+         * Gets the number of responses the sample was drawn from.
+         *
+         * @return The population size
+         */
+        public long getPopulation() {
+            return reservoir.getSeen();
+        }
+
+        public int getSampleSize() {
+            return store.size();
+        }
+    }
+}
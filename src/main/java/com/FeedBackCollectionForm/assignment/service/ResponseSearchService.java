@@ -0,0 +1,274 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.payload.response.SearchResultResponse;
+import com.FeedBackCollectionForm.assignment.repository.FormRepository;
+import com.FeedBackCollectionForm.assignment.service.event.FormDeletedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.ResponseSubmittedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.SubmittedAnswer;
+import com.FeedBackCollectionForm.assignment.service.search.AnswerIndex;
+import com.FeedBackCollectionForm.assignment.service.search.IndexedResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Keyword search over text answers backed by an embedded Lucene index in
+ * app.search.index-dir. Index writes run on a single background thread:
+ * submissions are indexed after commit, searches see them once the thread
+ * has drained its queue, and the index is committed to disk periodically.
+ * The index can always be rebuilt from the answers table.
+ */
+@Service
+public class ResponseSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseSearchService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    // Responses committed this long before the last index commit may still have been in flight
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(5);
+
+    @Autowired
+    private FormRepository formRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.search.index-dir:./data/search-index}")
+    private String indexDir;
+
+    @Value("${app.search.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private AnswerIndex index;
+    private Optional<Instant> lastCommitAtStart;
+    private BlockingQueue<Runnable> queue;
+    private ThreadPoolExecutor indexer;
+
+    @PostConstruct
+    public void open() throws IOException {
+        index = new AnswerIndex(Paths.get(indexDir));
+        lastCommitAtStart = index.lastCommit();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        // A full queue makes the submitting thread index its own response instead of dropping it
+        indexer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, queue,
+                runnable -> new Thread(runnable, "search-indexer"), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onResponseSubmitted(ResponseSubmittedEvent event) {
+        List<String> texts = new ArrayList<>();
+        for (SubmittedAnswer answer : event.getAnswers()) {
+            if ((answer.getType() == QuestionType.TEXT || answer.getType() == QuestionType.TEXT_WITH_LIMIT)
+                    && answer.getTextAnswer() != null && !answer.getTextAnswer().isBlank()) {
+                texts.add(answer.getTextAnswer());
+            }
+        }
+        if (!texts.isEmpty()) {
+            IndexedResponse response = new IndexedResponse(event.getResponseId(), event.getFormId(),
+                    event.getSubmittedAt(), texts);
+            write("index response " + event.getResponseId(), () -> index.index(response));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void afterFormDeleted(FormDeletedEvent event) {
+        write("delete form " + event.getFormId(), () -> index.deleteForm(event.getFormId()));
+    }
+
+    /**
+     * Searches the text answers of a form.
+     *
+     * @param formId The ID of the form
+     * @param username The username of the user searching
+     * @param query The keywords; Lucene query syntax (quotes, OR, NOT, wildcards) is supported
+     * @param page The zero-based page
+     * @param size The page size, at most 100
+     * @return The matching responses with highlighted snippets
+     */
+    @Transactional(readOnly = true)
+    public SearchResultResponse search(Long formId, String username, String query, int page, int size) {
+        Form form = formRepository.findById(formId)
+                .orElseThrow(() -> new RuntimeException("Form not found"));
+
+        if (!form.getCreatedBy().getUsername().equals(username)) {
+            throw new RuntimeException("Not authorized to search this form's responses");
+        }
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("Search query must not be empty");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Page must be at least 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if ((long) (page + 1) * size > AnswerIndex.MAX_HITS) {
+            throw new RuntimeException("Only the first " + AnswerIndex.MAX_HITS + " matches can be paged through");
+        }
+
+        try {
+            return index.search(formId, query, page, size);
+        } catch (IOException e) {
+            throw new RuntimeException("Search failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Schedules a rebuild of the whole index from the answers table. Searches
+     * keep seeing the old index until the rebuild has finished.
+     */
+    public void rebuild() {
+        write("rebuild", () -> reindex(null));
+    }
+
+    /**
+     * Indexes what the index is missing at startup: everything if it has never
+     * been committed, otherwise the responses submitted shortly before and
+     * after its last commit.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        write("catch up", () -> reindex(lastCommitAtStart
+                .map(time -> LocalDateTime.ofInstant(time.minus(CATCH_UP_MARGIN), ZoneId.systemDefault()))
+                .orElse(null)));
+    }
+
+    /**
+     * Commits the index to disk so a restart only has to catch up on recent
+     * responses.
+     */
+    @Scheduled(fixedDelayString = "${app.search.commit-interval-ms:10000}")
+    public void commit() {
+        write("commit", () -> index.commit(Instant.now()));
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        indexer.shutdown();
+        if (!indexer.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("Search indexer did not finish its queue; the next start catches up");
+            indexer.shutdownNow();
+        }
+        index.commit(Instant.now());
+        index.close();
+    }
+
+    /**
+     * Re-indexes responses submitted at or after the given time, or rebuilds
+     * the index from scratch when no time is given.
+     */
+    private void reindex(LocalDateTime since) throws IOException {
+        long started = System.nanoTime();
+        if (since == null) {
+            index.deleteAll();
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readOnly.setReadOnly(true);
+        int indexed = readOnly.execute(status -> {
+            TypedQuery<Object[]> query = entityManager.createQuery(
+                    "SELECT a.response.id, a.response.form.id, a.response.submittedAt, a.textAnswer FROM Answer a " +
+                    "WHERE a.textAnswer IS NOT NULL AND a.question.type IN :types" +
+                    (since != null ? " AND a.response.submittedAt >= :since" : "") +
+                    " ORDER BY a.response.id, a.id", Object[].class)
+                    .setParameter("types", List.of(QuestionType.TEXT, QuestionType.TEXT_WITH_LIMIT));
+            if (since != null) {
+                query.setParameter("since", since);
+            }
+            try (Stream<Object[]> rows = query.getResultStream()) {
+                return indexRows(rows.iterator());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to index responses: " + e.getMessage(), e);
+            }
+        });
+
+        index.commit(Instant.now());
+        index.refresh();
+        if (since == null || indexed > 0) {
+            logger.info("Indexed {} responses for search in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private int indexRows(Iterator<Object[]> rows) throws IOException {
+        int indexed = 0;
+        Object[] current = null;
+        List<String> texts = new ArrayList<>();
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            if (current != null && !current[0].equals(row[0])) {
+                indexed += indexResponse(current, texts);
+                texts = new ArrayList<>();
+            }
+            current = row;
+            if (!((String) row[3]).isBlank()) {
+                texts.add((String) row[3]);
+            }
+        }
+        if (current != null) {
+            indexed += indexResponse(current, texts);
+        }
+        return indexed;
+    }
+
+    private int indexResponse(Object[] row, List<String> texts) throws IOException {
+        if (texts.isEmpty()) {
+            return 0;
+        }
+        index.index(new IndexedResponse((Long) row[0], (Long) row[1], (LocalDateTime) row[2], texts));
+        return 1;
+    }
+
+    /**
+     * Runs an index write on the indexer thread. Searches are refreshed once
+     * the queue is drained, so bursts of submissions share one refresh.
+     */
+    private void write(String description, IndexWrite write) {
+        indexer.execute(() -> {
+            try {
+                write.run();
+                if (queue.isEmpty()) {
+                    index.refresh();
+                }
+            } catch (Exception e) {
+                logger.error("Search index failed to {}: {}", description, e.getMessage(), e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface IndexWrite {
+        void run() throws IOException;
+    }
+}
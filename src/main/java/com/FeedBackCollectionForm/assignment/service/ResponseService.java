@@ -5,10 +5,17 @@ import com.FeedBackCollectionForm.assignment.payload.request.AnswerRequest;
 import com.FeedBackCollectionForm.assignment.payload.request.ResponseRequest;
 import com.FeedBackCollectionForm.assignment.payload.response.ResponseResponse;
 import com.FeedBackCollectionForm.assignment.repository.*;
+import com.FeedBackCollectionForm.assignment.service.event.ResponseSubmittedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.SubmittedAnswer;
+import com.FeedBackCollectionForm.assignment.service.version.FormSnapshot;
+import com.FeedBackCollectionForm.assignment.service.version.FormVersionService;
+import com.FeedBackCollectionForm.assignment.service.version.QuestionSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -31,30 +38,42 @@ public class ResponseService {
     @Autowired
     private AnswerRepository answerRepository;
 
+    @Autowired
+    private QuestionStatsService questionStatsService;
+
+    @Autowired
+    private FormVersionService formVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public ResponseResponse submitResponse(String publicUrl, ResponseRequest responseRequest) {
         Form form = formRepository.findByPublicUrl(publicUrl)
                 .orElseThrow(() -> new RuntimeException("Form not found"));
+        // Answers are validated against the form's current version; questions and options are only referenced
+        FormSnapshot snapshot = formVersionService.currentSnapshot(form);
 
         Response response = new Response();
         response.setForm(form);
+        response.setFormVersionId(form.getCurrentVersionId());
         response.setRespondentName(responseRequest.getRespondentName());
         response.setRespondentEmail(responseRequest.getRespondentEmail());
 
         Response savedResponse = responseRepository.save(response);
 
         // Process answers
+        List<SubmittedAnswer> submittedAnswers = new ArrayList<>();
         for (AnswerRequest answerRequest : responseRequest.getAnswers()) {
-            Question question = questionRepository.findById(answerRequest.getQuestionId())
-                    .orElseThrow(() -> new RuntimeException("Question not found"));
-
-            if (!question.getForm().getId().equals(form.getId())) {
-                throw new RuntimeException("Question does not belong to this form");
+            QuestionSnapshot question = snapshot.findQuestion(answerRequest.getQuestionId());
+            if (question == null) {
+                throw new RuntimeException(questionRepository.existsById(answerRequest.getQuestionId())
+                        ? "Question does not belong to this form" : "Question not found");
             }
 
             Answer answer = new Answer();
             answer.setResponse(savedResponse);
-            answer.setQuestion(question);
+            answer.setQuestion(questionRepository.getReferenceById(question.getId()));
 
             if (question.getType() == QuestionType.TEXT || question.getType() == QuestionType.TEXT_WITH_LIMIT) {
                 answer.setTextAnswer(answerRequest.getTextAnswer());
@@ -68,26 +87,12 @@ public class ResponseService {
                 }
             } else if (question.getType() == QuestionType.MULTIPLE_CHOICE || question.getType() == QuestionType.SINGLE_SELECT) {
                 if (answerRequest.getSelectedOptionId() != null) {
-                    Option option = optionRepository.findById(answerRequest.getSelectedOptionId())
-                            .orElseThrow(() -> new RuntimeException("Option not found"));
-
-                    if (!option.getQuestion().getId().equals(question.getId())) {
-                        throw new RuntimeException("Option does not belong to this question");
-                    }
-
-                    answer.setSelectedOption(option);
+                    answer.setSelectedOption(option(question, answerRequest.getSelectedOptionId()));
                 }
             } else if (question.getType() == QuestionType.MULTI_SELECT) {
                 if (answerRequest.getSelectedOptionIds() != null && !answerRequest.getSelectedOptionIds().isEmpty()) {
                     for (Long optionId : answerRequest.getSelectedOptionIds()) {
-                        Option option = optionRepository.findById(optionId)
-                                .orElseThrow(() -> new RuntimeException("Option not found"));
-
-                        if (!option.getQuestion().getId().equals(question.getId())) {
-                            throw new RuntimeException("Option does not belong to this question");
-                        }
-
-                        answer.addSelectedOption(option);
+                        answer.addSelectedOption(option(question, optionId));
                     }
                 }
             } else if (question.getType() == QuestionType.RATING_SCALE) {
@@ -115,11 +120,25 @@ public class ResponseService {
             }
 
             answerRepository.save(answer);
+            submittedAnswers.add(SubmittedAnswer.from(answer));
         }
+        long lockMark = questionStatsService.recordResponse(form.getId(), savedResponse.getId(), submittedAnswers);
+
+        eventPublisher.publishEvent(new ResponseSubmittedEvent(form.getId(), savedResponse.getId(),
+                savedResponse.getSubmittedAt(), savedResponse.getRespondentEmail(), savedResponse.getRespondentName(),
+                submittedAnswers, lockMark));
 
         return ResponseResponse.fromEntity(savedResponse);
     }
 
+    private Option option(QuestionSnapshot question, Long optionId) {
+        if (!question.hasOption(optionId)) {
+            throw new RuntimeException(optionRepository.existsById(optionId)
+                    ? "Option does not belong to this question" : "Option not found");
+        }
+        return optionRepository.getReferenceById(optionId);
+    }
+
     @Transactional(readOnly = true)
     public List<ResponseResponse> getResponsesByForm(Long formId, String username) {
         Form form = formRepository.findById(formId)
@@ -165,83 +184,6 @@ public class ResponseService {
                 .collect(Collectors.toList());
     }
 
-    /**
-     * Generates a CSV string containing all responses for a form.
-     * 
-     * @param formId The ID of the form
-     * @param username The username of the user requesting the download
-     * @return A CSV string containing all responses
-     */
-    @Transactional(readOnly = true)
-    public String generateCsvForForm(Long formId, String username) {
-        Form form = formRepository.findById(formId)
-                .orElseThrow(() -> new RuntimeException("Form not found"));
-
-        if (!form.getCreatedBy().getUsername().equals(username)) {
-            throw new RuntimeException("Not authorized to access this form's responses");
-        }
-
-        List<Response> responses = responseRepository.findByFormOrderBySubmittedAtDesc(form);
-
-        // Build CSV header
-        StringBuilder csv = new StringBuilder();
-        csv.append("Response ID,Respondent Name,Respondent Email,Submission Date");
-
-        // Add question headers
-        List<Question> questions = form.getQuestions();
-        for (Question question : questions) {
-            csv.append(",").append("\"").append(question.getText().replace("\"", "\"\"")).append("\"");
-        }
-        csv.append("\n");
-
-        // Add response data
-        for (Response response : responses) {
-            csv.append(response.getId()).append(",");
-            csv.append("\"").append(response.getRespondentName() != null ? response.getRespondentName().replace("\"", "\"\"") : "").append("\",");
-            csv.append("\"").append(response.getRespondentEmail() != null ? response.getRespondentEmail().replace("\"", "\"\"") : "").append("\",");
-            csv.append("\"").append(response.getSubmittedAt()).append("\"");
-
-            // Add answers
-            for (Question question : questions) {
-                csv.append(",");
-
-                // Find the answer for this question
-                Optional<Answer> answerOpt = response.getAnswers().stream()
-                        .filter(a -> a.getQuestion().getId().equals(question.getId()))
-                        .findFirst();
-
-                if (answerOpt.isPresent()) {
-                    Answer answer = answerOpt.get();
-                    if (question.getType() == QuestionType.TEXT || question.getType() == QuestionType.TEXT_WITH_LIMIT) {
-                        csv.append("\"").append(answer.getTextAnswer() != null ? answer.getTextAnswer().replace("\"", "\"\"") : "").append("\"");
-                    } else if (question.getType() == QuestionType.MULTIPLE_CHOICE || question.getType() == QuestionType.SINGLE_SELECT) {
-                        if (answer.getSelectedOption() != null) {
-                            csv.append("\"").append(answer.getSelectedOption().getText().replace("\"", "\"\"")).append("\"");
-                        }
-                    } else if (question.getType() == QuestionType.MULTI_SELECT) {
-                        if (answer.getSelectedOptions() != null && !answer.getSelectedOptions().isEmpty()) {
-                            String optionsText = answer.getSelectedOptions().stream()
-                                .map(option -> option.getText())
-                                .collect(java.util.stream.Collectors.joining(", "));
-                            csv.append("\"").append(optionsText.replace("\"", "\"\"")).append("\"");
-                        }
-                    } else if (question.getType() == QuestionType.RATING_SCALE) {
-                        if (answer.getRatingValue() != null) {
-                            csv.append(answer.getRatingValue());
-                        }
-                    } else if (question.getType() == QuestionType.DATE) {
-                        if (answer.getDateValue() != null) {
-                            csv.append("\"").append(answer.getDateValue().replace("\"", "\"\"")).append("\"");
-                        }
-                    }
-                }
-            }
-            csv.append("\n");
-        }
-
-        return csv.toString();
-    }
-
     /**
      * Generates a CSV string for a single response.
      * 
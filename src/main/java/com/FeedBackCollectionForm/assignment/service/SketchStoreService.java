@@ -0,0 +1,53 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.FormSketch;
+import com.FeedBackCollectionForm.assignment.model.SketchKind;
+import com.FeedBackCollectionForm.assignment.repository.FormSketchRepository;
+import com.FeedBackCollectionForm.assignment.service.event.FormDeletedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Reads and writes serialized sketches in the form_sketches table. Sketch
+ * services call this from after-commit listeners and scheduled flushes, so
+ * every operation runs in its own transaction.
+ */
+@Service
+public class SketchStoreService {
+
+    @Autowired
+    private FormSketchRepository formSketchRepository;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public Optional<FormSketch> load(SketchKind kind, Long scopeId) {
+        return formSketchRepository.findByKindAndScopeId(kind, scopeId);
+    }
+
+    /**
+     * Inserts or replaces the payload of a sketch.
+     *
+     * @param kind The kind of the sketch
+     * @param formId The ID of the form the sketch belongs to
+     * @param scopeId The form or question ID the sketch is scoped to
+     * @param payload The serialized sketch
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void save(SketchKind kind, Long formId, Long scopeId, byte[] payload) {
+        FormSketch sketch = formSketchRepository.findByKindAndScopeId(kind, scopeId)
+                .orElseGet(() -> new FormSketch(null, formId, scopeId, kind, null, null));
+        sketch.setPayload(payload);
+        sketch.setUpdatedAt(LocalDateTime.now());
+        formSketchRepository.save(sketch);
+    }
+
+    @EventListener
+    public void onFormDeleted(FormDeletedEvent event) {
+        formSketchRepository.deleteByFormId(event.getFormId());
+    }
+}
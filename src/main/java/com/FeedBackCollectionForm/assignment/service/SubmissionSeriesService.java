@@ -0,0 +1,249 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+import com.FeedBackCollectionForm.assignment.model.FormDailySubmissions;
+import com.FeedBackCollectionForm.assignment.payload.response.SeriesBucketResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.SubmissionSeriesResponse;
+import com.FeedBackCollectionForm.assignment.repository.FormDailySubmissionsRepository;
+import com.FeedBackCollectionForm.assignment.repository.FormRepository;
+import com.FeedBackCollectionForm.assignment.service.analytics.BucketRing;
+import com.FeedBackCollectionForm.assignment.service.analytics.FormSubmissionSeries;
+import com.FeedBackCollectionForm.assignment.service.analytics.SeriesResolution;
+import com.FeedBackCollectionForm.assignment.service.event.FormDeletedEvent;
+import com.FeedBackCollectionForm.assignment.service.event.ResponseSubmittedEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps per-form submission counts in lock-free minute and hour rings that
+ * are updated after each committed submission, and periodically compacts
+ * them into the persisted form_daily_submissions series. Series requests are
+ * answered from those buckets in O(buckets), never by grouping responses.
+ */
+@Service
+public class SubmissionSeriesService {
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionSeriesService.class);
+    private static final long MAX_BUCKETS = 10_000;
+
+    @Autowired
+    private FormDailySubmissionsRepository dailySubmissionsRepository;
+
+    @Autowired
+    private FormRepository formRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.series.minute-buckets:1440}")
+    private int minuteBuckets;
+
+    @Value("${app.series.hour-buckets:336}")
+    private int hourBuckets;
+
+    private final Map<Long, FormSubmissionSeries> seriesByForm = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onResponseSubmitted(ResponseSubmittedEvent event) {
+        long epochMinute = epochMinute(event.getSubmittedAt());
+        series(event.getFormId()).record(epochMinute, Math.floorDiv(epochMinute, 1440));
+    }
+
+    @EventListener
+    public void onFormDeleted(FormDeletedEvent event) {
+        dailySubmissionsRepository.deleteByFormId(event.getFormId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void afterFormDeleted(FormDeletedEvent event) {
+        seriesByForm.remove(event.getFormId());
+    }
+
+    /**
+     * Returns the submission counts of a form for a time range.
+     *
+     * @param formId The ID of the form
+     * @param username The username of the user requesting the series
+     * @param resolution The bucket width
+     * @param from The start of the range, defaults depend on the resolution
+     * @param to The end of the range, defaults to now
+     * @return One bucket per minute, hour or day in the range
+     */
+    @Transactional(readOnly = true)
+    public SubmissionSeriesResponse getSeries(Long formId, String username, SeriesResolution resolution,
+                                              LocalDateTime from, LocalDateTime to) {
+        Form form = formRepository.findById(formId)
+                .orElseThrow(() -> new RuntimeException("Form not found"));
+
+        if (!form.getCreatedBy().getUsername().equals(username)) {
+            throw new RuntimeException("Not authorized to access this form's analytics");
+        }
+
+        long step = resolution.getMinutes();
+        long end = Math.floorDiv(epochMinute(to != null ? to : LocalDateTime.now()), step);
+        long start = from != null ? Math.floorDiv(epochMinute(from), step) : end - defaultBuckets(resolution) + 1;
+        if (resolution != SeriesResolution.DAY) {
+            // Minute and hour buckets only exist for the retention window of their ring
+            int retained = resolution == SeriesResolution.MINUTE ? minuteBuckets : hourBuckets;
+            start = Math.max(start, end - retained + 1);
+        }
+        if (end < start) {
+            throw new RuntimeException("The end of the range must not be before its start");
+        }
+        if (end - start + 1 > MAX_BUCKETS) {
+            throw new RuntimeException("Requested range is too large, at most " + MAX_BUCKETS + " buckets are returned");
+        }
+
+        FormSubmissionSeries series = series(formId);
+        SubmissionSeriesResponse response = new SubmissionSeriesResponse();
+        response.setFormId(formId);
+        response.setResolution(resolution.name());
+        response.setFrom(toDateTime(start * step));
+        response.setTo(toDateTime((end + 1) * step));
+
+        long total = 0;
+        if (resolution == SeriesResolution.DAY) {
+            Map<Long, Long> persisted = new HashMap<>();
+            for (FormDailySubmissions day : dailySubmissionsRepository.findByFormIdAndDayBetweenOrderByDayAsc(
+                    formId, LocalDate.ofEpochDay(start), LocalDate.ofEpochDay(end))) {
+                persisted.put(day.getDay().toEpochDay(), day.getCount());
+            }
+            for (long day = start; day <= end; day++) {
+                long count = persisted.getOrDefault(day, 0L) + series.pending(day);
+                response.getBuckets().add(new SeriesBucketResponse(toDateTime(day * step), count));
+                total += count;
+            }
+        } else {
+            BucketRing ring = resolution == SeriesResolution.MINUTE ? series.getMinutes() : series.getHours();
+            for (long bucket = start; bucket <= end; bucket++) {
+                long count = ring.get(bucket);
+                response.getBuckets().add(new SeriesBucketResponse(toDateTime(bucket * step), count));
+                total += count;
+            }
+        }
+        response.setTotal(total);
+        return response;
+    }
+
+    /**
+     * Folds the per-day deltas accumulated in memory into the persisted
+     * daily series.
+     */
+    @Scheduled(fixedDelayString = "${app.series.compaction-interval-ms:60000}")
+    @PreDestroy
+    public void compact() {
+        long today = Math.floorDiv(epochMinute(LocalDateTime.now()), 1440);
+        for (Map.Entry<Long, FormSubmissionSeries> entry : seriesByForm.entrySet()) {
+            Long formId = entry.getKey();
+            FormSubmissionSeries series = entry.getValue();
+            Map<Long, Long> pending = series.pendingDays();
+            if (!pending.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        for (Map.Entry<Long, Long> day : pending.entrySet()) {
+                            LocalDate date = LocalDate.ofEpochDay(day.getKey());
+                            if (dailySubmissionsRepository.increment(formId, date, day.getValue()) == 0) {
+                                dailySubmissionsRepository.save(new FormDailySubmissions(formId, date, day.getValue()));
+                            }
+                        }
+                    });
+                    pending.forEach(series::compacted);
+                } catch (Exception e) {
+                    logger.error("Failed to compact submission series of form {}: {}", formId, e.getMessage(), e);
+                }
+            }
+            series.evictCompactedBefore(today - 1);
+        }
+    }
+
+    /**
+     * Backfills the daily series of forms that have responses but no daily
+     * rows, and warms the hour and minute rings from recent responses. This
+     * runs once at startup; afterwards the series are maintained incrementally.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void warmUp() {
+        Set<Long> compactedForms = new HashSet<>(dailySubmissionsRepository.findFormIds());
+        List<Long> formsWithResponses = entityManager.createQuery(
+                "SELECT DISTINCT r.form.id FROM Response r", Long.class).getResultList();
+
+        for (Long formId : formsWithResponses) {
+            if (compactedForms.contains(formId)) {
+                continue;
+            }
+            Map<LocalDate, Long> days = new HashMap<>();
+            try (Stream<LocalDateTime> submittedAt = entityManager.createQuery(
+                    "SELECT r.submittedAt FROM Response r WHERE r.form.id = :formId", LocalDateTime.class)
+                    .setParameter("formId", formId)
+                    .getResultStream()) {
+                submittedAt.forEach(time -> days.merge(time.toLocalDate(), 1L, Long::sum));
+            }
+            days.forEach((day, count) -> dailySubmissionsRepository.save(new FormDailySubmissions(formId, day, count)));
+            logger.info("Backfilled daily submission series of form {} ({} days)", formId, days.size());
+        }
+
+        LocalDateTime since = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(hourBuckets - 1);
+        try (Stream<Object[]> recent = entityManager.createQuery(
+                "SELECT r.form.id, r.submittedAt FROM Response r WHERE r.submittedAt >= :since", Object[].class)
+                .setParameter("since", since)
+                .getResultStream()) {
+            recent.forEach(row -> {
+                FormSubmissionSeries series = series((Long) row[0]);
+                long epochMinute = epochMinute((LocalDateTime) row[1]);
+                series.getMinutes().add(epochMinute, 1);
+                series.getHours().add(Math.floorDiv(epochMinute, 60), 1);
+            });
+        }
+    }
+
+    private FormSubmissionSeries series(Long formId) {
+        return seriesByForm.computeIfAbsent(formId, id -> new FormSubmissionSeries(minuteBuckets, hourBuckets));
+    }
+
+    private long defaultBuckets(SeriesResolution resolution) {
+        switch (resolution) {
+            case MINUTE:
+                return 60;
+            case HOUR:
+                return 24;
+            default:
+                return 30;
+        }
+    }
+
+    private static long epochMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime toDateTime(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+}
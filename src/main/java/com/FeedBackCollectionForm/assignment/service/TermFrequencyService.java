@@ -0,0 +1,68 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.model.SketchKind;
+import com.FeedBackCollectionForm.assignment.service.analytics.TermSketch;
+import com.FeedBackCollectionForm.assignment.service.event.SubmittedAnswer;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps a term sketch per text question so the most mentioned words and
+ * word pairs can be served without re-tokenizing the answers.
+ */
+@Service
+public class TermFrequencyService extends QuestionSketchService<TermSketch> {
+
+    public TermFrequencyService() {
+        super(SketchKind.TEXT_TERMS);
+    }
+
+    @Override
+    protected TermSketch newSketch() {
+        return new TermSketch();
+    }
+
+    @Override
+    protected TermSketch deserialize(byte[] payload) {
+        return TermSketch.fromBytes(payload);
+    }
+
+    @Override
+    protected byte[] serialize(TermSketch sketch) {
+        return sketch.toBytes();
+    }
+
+    @Override
+    protected long answerCount(TermSketch sketch) {
+        return sketch.getAnswerCount();
+    }
+
+    @Override
+    protected String answerValue() {
+        return "a.textAnswer";
+    }
+
+    @Override
+    protected String answerCondition() {
+        return "TRIM(a.textAnswer) <> ''";
+    }
+
+    @Override
+    protected boolean accepts(SubmittedAnswer answer) {
+        return (answer.getType() == QuestionType.TEXT || answer.getType() == QuestionType.TEXT_WITH_LIMIT)
+                && answer.getTextAnswer() != null && !answer.getTextAnswer().isBlank();
+    }
+
+    @Override
+    protected void add(TermSketch sketch, SubmittedAnswer answer) {
+        sketch.add(answer.getTextAnswer());
+    }
+
+    @Override
+    protected void addStored(TermSketch sketch, Object value) {
+        String text = (String) value;
+        if (!text.isBlank()) {
+            sketch.add(text);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.User;
+import com.FeedBackCollectionForm.assignment.payload.request.SignupRequest;
+import com.FeedBackCollectionForm.assignment.payload.response.ProvisioningResultResponse;
+import com.FeedBackCollectionForm.assignment.repository.UserRepository;
+import com.FeedBackCollectionForm.assignment.security.services.RoleCache;
+import com.FeedBackCollectionForm.assignment.security.services.UserConflict;
+import com.FeedBackCollectionForm.assignment.service.provisioning.ImportFormat;
+import com.FeedBackCollectionForm.assignment.service.provisioning.ProvisioningStatus;
+import com.FeedBackCollectionForm.assignment.service.provisioning.UserImportReader;
+import com.FeedBackCollectionForm.assignment.service.provisioning.UserImportRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Creates users in bulk from a CSV or NDJSON upload. Rows are read and
+ * processed one batch at a time: each row is validated with the signup rules
+ * and checked against the usernames and emails of existing users, which are
+ * loaded once per import, and of earlier rows. Passwords of the accepted rows
+ * are hashed in parallel on a dedicated pool, so an import does not compete
+ * with sign-ins for the password workers, and each batch is inserted in one
+ * transaction. The result of every row is streamed back as NDJSON once its
+ * batch is done.
+ */
+@Service
+public class UserProvisioningService {
+    private static final Logger logger = LoggerFactory.getLogger(UserProvisioningService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleCache roleCache;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.provisioning.batch-size:500}")
+    private int batchSize;
+
+    // 0 means one thread per two available processors
+    @Value("${app.provisioning.hash-threads:0}")
+    private int hashThreads;
+
+    private ThreadPoolExecutor hashExecutor;
+
+    @PostConstruct
+    void start() {
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        // A full queue makes the importing thread hash the next password itself, which throttles the reader
+        hashExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(batchSize, 1)), runnable -> {
+                    Thread thread = new Thread(runnable, "provisioning-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        hashExecutor.shutdownNow();
+    }
+
+    /**
+     * Opens an upload, reading the CSV header so a malformed upload is
+     * rejected before any results are streamed.
+     *
+     * @param input The uploaded users
+     * @param format The format of the upload
+     * @return A reader positioned at the first user
+     */
+    public UserImportReader open(InputStream input, ImportFormat format) throws IOException {
+        UserImportReader reader = new UserImportReader(input, format, objectMapper);
+        reader.open();
+        return reader;
+    }
+
+    /**
+     * Creates the users of an upload, writing one result line per row.
+     *
+     * @param reader The opened upload
+     * @param out The stream receiving the results, left open on return
+     */
+    public void provision(UserImportReader reader, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(StreamUtils.nonClosing(out), StandardCharsets.UTF_8));
+
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (Object[] existing : userRepository.findAllUsernamesAndEmails()) {
+            usernames.add((String) existing[0]);
+            emails.add((String) existing[1]);
+        }
+
+        Map<ProvisioningStatus, Integer> counts = new EnumMap<>(ProvisioningStatus.class);
+        List<UserImportRow> rows;
+        while (!(rows = reader.next(batchSize)).isEmpty()) {
+            for (ProvisioningResultResponse result : provisionBatch(rows, usernames, emails)) {
+                writer.write(objectMapper.writeValueAsString(result));
+                writer.write('\n');
+                counts.merge(result.getStatus(), 1, Integer::sum);
+            }
+            writer.flush();
+        }
+        writer.flush();
+
+        logger.info("Provisioned users in {} ms: {}", (System.nanoTime() - start) / 1_000_000, counts);
+    }
+
+    private List<ProvisioningResultResponse> provisionBatch(List<UserImportRow> rows, Set<String> usernames,
+                                                            Set<String> emails) {
+        List<ProvisioningResultResponse> results = new ArrayList<>(rows.size());
+        List<PendingUser> pending = new ArrayList<>();
+
+        for (UserImportRow row : rows) {
+            SignupRequest request = row.getUser();
+            if (request == null) {
+                results.add(new ProvisioningResultResponse(row.getLine(), null, ProvisioningStatus.INVALID, row.getError()));
+                continue;
+            }
+
+            ProvisioningResultResponse result;
+            String violations = validate(request);
+            if (violations != null) {
+                result = new ProvisioningResultResponse(row.getLine(), request.getUsername(),
+                        ProvisioningStatus.INVALID, violations);
+            } else if (usernames.contains(request.getUsername())) {
+                result = new ProvisioningResultResponse(row.getLine(), request.getUsername(),
+                        ProvisioningStatus.DUPLICATE_USERNAME, UserConflict.USERNAME.getMessage());
+            } else if (emails.contains(request.getEmail())) {
+                result = new ProvisioningResultResponse(row.getLine(), request.getUsername(),
+                        ProvisioningStatus.DUPLICATE_EMAIL, UserConflict.EMAIL.getMessage());
+            } else {
+                usernames.add(request.getUsername());
+                emails.add(request.getEmail());
+                result = new ProvisioningResultResponse(row.getLine(), request.getUsername(),
+                        ProvisioningStatus.CREATED, null);
+                // Hashing starts now and overlaps with checking the rest of the batch
+                pending.add(new PendingUser(request, result,
+                        CompletableFuture.supplyAsync(() -> encoder.encode(request.getPassword()), hashExecutor)));
+            }
+            results.add(result);
+        }
+
+        if (!pending.isEmpty()) {
+            insert(pending);
+        }
+        return results;
+    }
+
+    private String validate(SignupRequest request) {
+        Set<ConstraintViolation<SignupRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Inserts a batch in one transaction. A batch that hits a unique
+     * constraint, e.g. because a user was created concurrently, is retried
+     * one user per transaction so only the conflicting rows fail.
+     */
+    private void insert(List<PendingUser> pending) {
+        for (PendingUser user : pending) {
+            try {
+                user.encodedPassword = user.hash.join();
+            } catch (RuntimeException e) {
+                user.fail(ProvisioningStatus.FAILED, "Error: Password hashing failed");
+            }
+        }
+        List<PendingUser> hashed = pending.stream()
+                .filter(user -> user.encodedPassword != null)
+                .collect(Collectors.toList());
+
+        try {
+            List<User> saved = transactionTemplate.execute(status ->
+                    userRepository.saveAll(hashed.stream().map(this::toUser).collect(Collectors.toList())));
+            for (int i = 0; i < hashed.size(); i++) {
+                hashed.get(i).result.setUserId(saved.get(i).getId());
+            }
+        } catch (DataIntegrityViolationException batchConflict) {
+            logger.warn("Batch of {} users conflicted with existing users, inserting them one at a time", hashed.size());
+            for (PendingUser user : hashed) {
+                try {
+                    User saved = transactionTemplate.execute(status -> userRepository.save(toUser(user)));
+                    user.result.setUserId(saved.getId());
+                } catch (DataIntegrityViolationException conflict) {
+                    UserConflict duplicate = UserConflict.of(conflict);
+                    if (duplicate == null) {
+                        user.fail(ProvisioningStatus.FAILED, "Error: The user could not be saved");
+                    } else {
+                        user.fail(duplicate == UserConflict.USERNAME
+                                ? ProvisioningStatus.DUPLICATE_USERNAME : ProvisioningStatus.DUPLICATE_EMAIL,
+                                duplicate.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private User toUser(PendingUser pending) {
+        SignupRequest request = pending.request;
+        User user = new User(request.getUsername(), request.getEmail(), request.getFullName(),
+                request.getPhoneNo(), pending.encodedPassword);
+        user.setRoles(roleCache.forRequest(request.getRoles()));
+        return user;
+    }
+
+    private static class PendingUser {
+        private final SignupRequest request;
+        private final ProvisioningResultResponse result;
+        private final CompletableFuture<String> hash;
+        private String encodedPassword;
+
+        PendingUser(SignupRequest request, ProvisioningResultResponse result, CompletableFuture<String> hash) {
+            this.request = request;
+            this.result = result;
+            this.hash = hash;
+        }
+
+        void fail(ProvisioningStatus status, String message) {
+            result.setStatus(status);
+            result.setMessage(message);
+            result.setUserId(null);
+        }
+    }
+}
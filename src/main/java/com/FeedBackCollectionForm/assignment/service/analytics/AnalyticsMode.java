@@ -0,0 +1,25 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import java.util.Locale;
+
+/**
+ * Where ad-hoc analytics are computed: over all responses, over the form's
+ * reservoir sample, or over the sample only when the form is too large for
+ * an exact answer to be cheap.
+ */
+public enum AnalyticsMode {
+    EXACT,
+    APPROXIMATE,
+    AUTO;
+
+    public static AnalyticsMode fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return AUTO;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported mode: " + value);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free ring of counters indexed by a bucket epoch (for
+ * example minutes or hours since 1970). Each slot packs the epoch it belongs
+ * to and its count into one long, so claiming a slot for a new epoch and
+ * counting into it is a single compare-and-set.
+ */
+public class BucketRing {
+    private static final int COUNT_BITS = 36;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+    private final int size;
+
+    public BucketRing(int size) {
+        this.size = size;
+        this.slots = new AtomicLongArray(size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds to the counter of a bucket. Increments for a bucket that has
+     * already been overwritten by a newer one are dropped.
+     *
+     * @param epoch The bucket epoch
+     * @param delta The amount to add
+     */
+    public void add(long epoch, long delta) {
+        int index = index(epoch);
+        while (true) {
+            long current = slots.get(index);
+            long slotEpoch = current >>> COUNT_BITS;
+            long next;
+            if (slotEpoch == epoch) {
+                next = current + delta;
+            } else if (slotEpoch < epoch) {
+                next = (epoch << COUNT_BITS) | (delta & COUNT_MASK);
+            } else {
+                return;
+            }
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the counter of a bucket, or 0 if the bucket is empty or no
+     * longer retained.
+     *
+     * @param epoch The bucket epoch
+     * @return The count recorded for the bucket
+     */
+    public long get(long epoch) {
+        long current = slots.get(index(epoch));
+        return (current >>> COUNT_BITS) == epoch ? current & COUNT_MASK : 0;
+    }
+
+    private int index(long epoch) {
+        return (int) Math.floorMod(epoch, (long) size);
+    }
+}
@@ -0,0 +1,147 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Bitmap index over the responses of one form. Each response gets a dense
+ * ordinal in submission order, and Roaring bitmaps of ordinals record which
+ * responses selected each option, gave each rating value and answered each
+ * question. Boolean filters become bitmap AND/OR/ANDNOT operations.
+ */
+public class FormBitmapIndex {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byOption = new HashMap<>();
+    private final Map<Long, NavigableMap<Integer, RoaringBitmap>> byRating = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byAnswered = new HashMap<>();
+    private long[] responseIds = new long[64];
+    private int size;
+
+    /**
+     * Adds a response and its answers. Adding a response that is already
+     * indexed has no effect.
+     *
+     * @param responseId The ID of the response
+     * @param answers The answered questions, selected options and ratings
+     */
+    public void add(long responseId, List<IndexedAnswer> answers) {
+        lock.writeLock().lock();
+        try {
+            if (ordinals.containsKey(responseId)) {
+                return;
+            }
+            int ordinal = size++;
+            if (ordinal == responseIds.length) {
+                responseIds = Arrays.copyOf(responseIds, ordinal * 2);
+            }
+            responseIds[ordinal] = responseId;
+            ordinals.put(responseId, ordinal);
+            all.add(ordinal);
+            for (IndexedAnswer answer : answers) {
+                byAnswered.computeIfAbsent(answer.getQuestionId(), id -> new RoaringBitmap()).add(ordinal);
+                for (Long optionId : answer.getOptionIds()) {
+                    byOption.computeIfAbsent(optionId, id -> new RoaringBitmap()).add(ordinal);
+                }
+                if (answer.getRating() != null) {
+                    byRating.computeIfAbsent(answer.getQuestionId(), id -> new TreeMap<>())
+                            .computeIfAbsent(answer.getRating(), rating -> new RoaringBitmap())
+                            .add(ordinal);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a query against a consistent view of the index. The bitmaps handed
+     * out by the accessors are live and must not be modified.
+     *
+     * @param query Evaluates the accessors of this index
+     * @return The query result
+     */
+    public <T> T query(Function<FormBitmapIndex, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RoaringBitmap all() {
+        return all;
+    }
+
+    public RoaringBitmap option(long optionId) {
+        return byOption.getOrDefault(optionId, new RoaringBitmap());
+    }
+
+    public RoaringBitmap answered(long questionId) {
+        return byAnswered.getOrDefault(questionId, new RoaringBitmap());
+    }
+
+    /**
+     * Returns the responses that rated a question within a range.
+     *
+     * @param questionId The ID of the rating question
+     * @param min The lowest rating, inclusive, or null for no lower bound
+     * @param max The highest rating, inclusive, or null for no upper bound
+     * @return The union of the matching rating bitmaps
+     */
+    public RoaringBitmap ratingRange(long questionId, Integer min, Integer max) {
+        NavigableMap<Integer, RoaringBitmap> ratings = byRating.getOrDefault(questionId, new TreeMap<>());
+        if (min != null && max != null) {
+            ratings = min <= max ? ratings.subMap(min, true, max, true) : new TreeMap<>();
+        } else if (min != null) {
+            ratings = ratings.tailMap(min, true);
+        } else if (max != null) {
+            ratings = ratings.headMap(max, true);
+        }
+        return RoaringBitmap.or(ratings.values().iterator());
+    }
+
+    public long responseId(int ordinal) {
+        return responseIds[ordinal];
+    }
+
+    /**
+     * One answered question of a response as seen by the index: its selected
+     * options (empty for non-choice questions) and rating (null for non-rating
+     * questions).
+     */
+    public static class IndexedAnswer {
+        private final long questionId;
+        private final List<Long> optionIds;
+        private final Integer rating;
+
+        public IndexedAnswer(long questionId, List<Long> optionIds, Integer rating) {
+            this.questionId = questionId;
+            this.optionIds = optionIds;
+            this.rating = rating;
+        }
+
+        public long getQuestionId() {
+            return questionId;
+        }
+
+        public List<Long> getOptionIds() {
+            return optionIds;
+        }
+
+        public Integer getRating() {
+            return rating;
+        }
+    }
+}
@@ -0,0 +1,1002 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.service.event.SubmittedAnswer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Column store over the responses of one form. Each response gets a dense
+ * row in submission order, and each question a primitive column indexed by
+ * row: option ordinals for single-choice questions, a bit set per row for
+ * multi-select questions, int rating values, epoch-day dates and text as
+ * offsets into a UTF-8 byte arena. Scans touch a few arrays instead of
+ * walking Response, Answer and Option entities.
+ *
+ * <p>Row accessors such as {@link #text(int, long)} must be called inside
+ * {@link #read(Function)} or {@link #cached(Object, Function)}, which hold
+ * the read lock. Memoized results are dropped as soon as a row is added or
+ * changed.
+ */
+public class FormColumnStore {
+    private static final int INITIAL_ROWS = 64;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int CHUNK_ROWS = 1 << 14;
+    /** The largest crosstab counted; each parallel chunk holds a table of this many longs. */
+    public static final int MAX_CROSSTAB_CELLS = 1 << 18;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    // Rough size of a HashMap entry with boxed key and value
+    private static final long ROW_LOOKUP_BYTES = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> rows = new HashMap<>();
+    private final Map<Long, Column> columns = new LinkedHashMap<>();
+    private final Map<Object, Object> derived = new ConcurrentHashMap<>();
+    private final TextColumn respondentNames = new TextColumn();
+    private final TextColumn respondentEmails = new TextColumn();
+    private long[] responseIds = new long[INITIAL_ROWS];
+    private long[] submittedAt = new long[INITIAL_ROWS];
+    private boolean chronological = true;
+    private int size;
+
+    /**
+     * Creates an empty store with one column per question.
+     *
+     * @param specs The questions of the form
+     */
+    public FormColumnStore(List<ColumnSpec> specs) {
+        for (ColumnSpec spec : specs) {
+            columns.put(spec.getQuestionId(), Column.create(spec));
+        }
+        respondentNames.grow(INITIAL_ROWS);
+        respondentEmails.grow(INITIAL_ROWS);
+        columns.values().forEach(column -> column.grow(INITIAL_ROWS));
+    }
+
+    /**
+     * Adds a row for a response. Adding a response that is already stored
+     * has no effect.
+     *
+     * @param responseId The ID of the response
+     * @param respondentName The name given by the respondent
+     * @param respondentEmail The email given by the respondent
+     * @param submittedAt When the response was submitted
+     * @return The new row, or -1 if the response is already stored
+     */
+    public int addRow(long responseId, String respondentName, String respondentEmail, LocalDateTime submittedAt) {
+        lock.writeLock().lock();
+        try {
+            return addRowLocked(responseId, respondentName, respondentEmail, submittedAt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records a stored answer. Only the value matching the question's column
+     * is kept; the question counts as answered even if that value is null.
+     *
+     * @param row The row of the response
+     * @param questionId The ID of the question
+     * @param optionId The selected option of a single-choice question
+     * @param rating The rating value
+     * @param text The text answer
+     * @param date The date answer
+     */
+    public void setAnswer(int row, long questionId, Long optionId, Integer rating, String text, String date) {
+        lock.writeLock().lock();
+        try {
+            Column column = columns.get(questionId);
+            if (column != null) {
+                column.set(row, optionId != null ? List.of(optionId) : List.of(), rating, text, date);
+                derived.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records one selected option of a multi-select answer.
+     *
+     * @param row The row of the response
+     * @param questionId The ID of the multi-select question
+     * @param optionId The ID of the selected option
+     */
+    public void addOption(int row, long questionId, long optionId) {
+        lock.writeLock().lock();
+        try {
+            if (columns.get(questionId) instanceof OptionColumn column) {
+                column.set(row, List.of(optionId), null, null, null);
+                derived.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a response with all its answers in one step, so readers never
+     * see it half-written. Adding a response that is already stored has no
+     * effect.
+     *
+     * @param responseId The ID of the response
+     * @param respondentName The name given by the respondent
+     * @param respondentEmail The email given by the respondent
+     * @param submittedAt When the response was submitted
+     * @param answers The answers of the response
+     */
+    public void append(long responseId, String respondentName, String respondentEmail, LocalDateTime submittedAt,
+                       List<SubmittedAnswer> answers) {
+        lock.writeLock().lock();
+        try {
+            int row = addRowLocked(responseId, respondentName, respondentEmail, submittedAt);
+            if (row < 0) {
+                return;
+            }
+            for (SubmittedAnswer answer : answers) {
+                Column column = columns.get(answer.getQuestionId());
+                if (column != null) {
+                    column.set(row, answer.getSelectedOptionIds(), answer.getRatingValue(), answer.getTextAnswer(),
+                            answer.getDateValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the response in a row with another one, as a sampled store
+     * does when it evicts a response.
+     *
+     * @param row The row to overwrite
+     * @param responseId The ID of the new response
+     * @param respondentName The name given by the respondent
+     * @param respondentEmail The email given by the respondent
+     * @param submittedAt When the response was submitted
+     * @param answers The answers of the new response
+     */
+    public void replaceRow(int row, long responseId, String respondentName, String respondentEmail,
+                           LocalDateTime submittedAt, List<SubmittedAnswer> answers) {
+        lock.writeLock().lock();
+        try {
+            if (row < 0 || row >= size || rows.containsKey(responseId)) {
+                return;
+            }
+            rows.remove(responseIds[row]);
+            rows.put(responseId, row);
+            responseIds[row] = responseId;
+            this.submittedAt[row] = toNanos(submittedAt);
+            chronological = false;
+            respondentNames.set(row, respondentName);
+            respondentEmails.set(row, respondentEmail);
+            for (Column column : columns.values()) {
+                column.clear(row);
+            }
+            for (SubmittedAnswer answer : answers) {
+                Column column = columns.get(answer.getQuestionId());
+                if (column != null) {
+                    column.set(row, answer.getSelectedOptionIds(), answer.getRatingValue(), answer.getTextAnswer(),
+                            answer.getDateValue());
+                }
+            }
+            derived.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of stored responses.
+     *
+     * @return The number of rows
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimates the heap used by the columns of this store.
+     *
+     * @return The approximate size in bytes
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 16L * responseIds.length + ROW_LOOKUP_BYTES * rows.size()
+                    + respondentNames.bytes() + respondentEmails.bytes();
+            for (Column column : columns.values()) {
+                bytes += column.bytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a read against a consistent view of the store. Keep reads short;
+     * submissions wait for them.
+     *
+     * @param read Evaluates the row accessors of this store
+     * @return The read result
+     */
+    public <T> T read(Function<FormColumnStore, T> read) {
+        lock.readLock().lock();
+        try {
+            return read.apply(this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a memoized result, computing it against a consistent view of
+     * the store if there is none since the last change.
+     *
+     * @param key Identifies the result
+     * @param compute Computes the result from this store
+     * @return The memoized or freshly computed result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T cached(Object key, Function<FormColumnStore, T> compute) {
+        lock.readLock().lock();
+        try {
+            Object result = derived.get(key);
+            if (result == null) {
+                result = compute.apply(this);
+                Object existing = derived.putIfAbsent(key, result);
+                if (existing != null) {
+                    result = existing;
+                }
+            }
+            return (T) result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets all rows ordered by submission time, newest first.
+     *
+     * @return The rows
+     */
+    public int[] rowsNewestFirst() {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = size - 1 - i;
+        }
+        if (!chronological) {
+            sortNewestFirst(order, new int[size], 0, size);
+        }
+        return order;
+    }
+
+    /**
+     * Gets the row of a response.
+     *
+     * @param responseId The ID of the response
+     * @return The row, or -1 if the response is not stored
+     */
+    public int row(long responseId) {
+        return rows.getOrDefault(responseId, -1);
+    }
+
+    public long responseId(int row) {
+        return responseIds[row];
+    }
+
+    public String respondentName(int row) {
+        return respondentNames.get(row);
+    }
+
+    public String respondentEmail(int row) {
+        return respondentEmails.get(row);
+    }
+
+    public LocalDateTime submittedAt(int row) {
+        long nanos = submittedAt[row];
+        if (nanos == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    /**
+     * Tells whether a response has a stored answer to a question, even one
+     * without a value.
+     */
+    public boolean isAnswered(int row, long questionId) {
+        Column column = columns.get(questionId);
+        return column != null && column.isAnswered(row);
+    }
+
+    /**
+     * Gets the selected options of a choice answer in option order.
+     *
+     * @return The option IDs, empty if none were selected
+     */
+    public long[] optionIds(int row, long questionId) {
+        if (columns.get(questionId) instanceof OptionColumn column) {
+            int[] ordinals = new int[column.maxCategoriesPerRow()];
+            int count = column.categories(row, ordinals);
+            long[] optionIds = new long[count];
+            for (int i = 0; i < count; i++) {
+                optionIds[i] = column.optionIds[ordinals[i]];
+            }
+            return optionIds;
+        }
+        return new long[0];
+    }
+
+    /**
+     * Tells whether an option was selected in a choice answer.
+     */
+    public boolean isSelected(int row, long questionId, long optionId) {
+        return columns.get(questionId) instanceof OptionColumn column && column.isSelected(row, optionId);
+    }
+
+    public Integer rating(int row, long questionId) {
+        return columns.get(questionId) instanceof RatingColumn column ? column.get(row) : null;
+    }
+
+    public String text(int row, long questionId) {
+        return columns.get(questionId) instanceof TextColumn column ? column.get(row) : null;
+    }
+
+    public String date(int row, long questionId) {
+        return columns.get(questionId) instanceof DateColumn column ? column.get(row) : null;
+    }
+
+    /**
+     * Counts how often each category of one question occurs together with
+     * each category of another in a single pass over both columns. Large
+     * forms are split into chunks counted in parallel. Multi-select answers
+     * count once for every selected option.
+     *
+     * @param rowQuestionId The question whose categories form the rows
+     * @param columnQuestionId The question whose categories form the columns
+     * @return The contingency table
+     * @throws IllegalArgumentException If a question has no choice or rating column, or
+     *                                  the table would exceed {@link #MAX_CROSSTAB_CELLS} cells
+     */
+    public Crosstab crosstab(long rowQuestionId, long columnQuestionId) {
+        lock.readLock().lock();
+        try {
+            if (!(columns.get(rowQuestionId) instanceof CategoricalColumn rowColumn)
+                    || !(columns.get(columnQuestionId) instanceof CategoricalColumn columnColumn)) {
+                throw new IllegalArgumentException("Crosstabs need choice or rating questions");
+            }
+            long[] rowKeys = rowColumn.keys();
+            long[] columnKeys = columnColumn.keys();
+            long tableCells = (long) rowKeys.length * columnKeys.length;
+            if (tableCells > MAX_CROSSTAB_CELLS) {
+                throw new IllegalArgumentException("Crosstab would have " + tableCells + " cells, more than the "
+                        + MAX_CROSSTAB_CELLS + " supported");
+            }
+            int cells = (int) tableCells;
+
+            long[] counts;
+            if (size < PARALLEL_THRESHOLD) {
+                counts = count(rowColumn, columnColumn, columnKeys.length, cells, 0, size);
+            } else {
+                // The read lock keeps the arrays stable while the pool workers scan them
+                int chunks = (size + CHUNK_ROWS - 1) / CHUNK_ROWS;
+                counts = IntStream.range(0, chunks).parallel()
+                        .mapToObj(chunk -> count(rowColumn, columnColumn, columnKeys.length, cells,
+                                chunk * CHUNK_ROWS, Math.min(size, (chunk + 1) * CHUNK_ROWS)))
+                        .reduce(FormColumnStore::sum)
+                        .orElseGet(() -> new long[cells + 1]);
+            }
+
+            long[][] table = new long[rowKeys.length][];
+            for (int i = 0; i < rowKeys.length; i++) {
+                table[i] = Arrays.copyOfRange(counts, i * columnKeys.length, (i + 1) * columnKeys.length);
+            }
+            return new Crosstab(rowKeys, columnKeys, table, counts[cells]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Merge sort of rows by submission time, newest first, keeping the order
+     * of rows submitted at the same time. Halves already in order are not
+     * merged, so rows committed slightly out of order cost close to one pass.
+     */
+    private void sortNewestFirst(int[] order, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sortNewestFirst(order, buffer, from, middle);
+        sortNewestFirst(order, buffer, middle, to);
+        if (submittedAt[order[middle - 1]] >= submittedAt[order[middle]]) {
+            return;
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        for (int i = from, left = from, right = middle; i < to; i++) {
+            if (right == to || (left < middle && submittedAt[buffer[left]] >= submittedAt[buffer[right]])) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
+            }
+        }
+    }
+
+    private int addRowLocked(long responseId, String respondentName, String respondentEmail,
+                             LocalDateTime submitted) {
+        if (rows.containsKey(responseId)) {
+            return -1;
+        }
+        int row = size++;
+        if (row == responseIds.length) {
+            int capacity = row * 2;
+            responseIds = Arrays.copyOf(responseIds, capacity);
+            submittedAt = Arrays.copyOf(submittedAt, capacity);
+            respondentNames.grow(capacity);
+            respondentEmails.grow(capacity);
+            columns.values().forEach(column -> column.grow(capacity));
+        }
+        responseIds[row] = responseId;
+        submittedAt[row] = toNanos(submitted);
+        if (row > 0 && submittedAt[row] < submittedAt[row - 1]) {
+            chronological = false;
+        }
+        respondentNames.set(row, respondentName);
+        respondentEmails.set(row, respondentEmail);
+        rows.put(responseId, row);
+        derived.clear();
+        return row;
+    }
+
+    private static long toNanos(LocalDateTime time) {
+        return time != null ? time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano() : NO_TIME;
+    }
+
+    /**
+     * Counts the rows [from, to) into a flat table; the last slot holds the
+     * number of rows that answered both questions.
+     */
+    private static long[] count(CategoricalColumn rowColumn, CategoricalColumn columnColumn, int width, int cells,
+                                int from, int to) {
+        long[] counts = new long[cells + 1];
+        int[] rowCategories = new int[rowColumn.maxCategoriesPerRow()];
+        int[] columnCategories = new int[columnColumn.maxCategoriesPerRow()];
+        for (int row = from; row < to; row++) {
+            int rowCount = rowColumn.categories(row, rowCategories);
+            if (rowCount == 0) {
+                continue;
+            }
+            int columnCount = columnColumn.categories(row, columnCategories);
+            if (columnCount == 0) {
+                continue;
+            }
+            counts[cells]++;
+            for (int i = 0; i < rowCount; i++) {
+                int offset = rowCategories[i] * width;
+                for (int j = 0; j < columnCount; j++) {
+                    counts[offset + columnCategories[j]]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static long[] sum(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+        return a;
+    }
+
+    /**
+     * A column holding one value per row, plus a bit per row telling
+     * whether the question was answered at all.
+     */
+    private abstract static class Column {
+        private long[] answered = new long[0];
+
+        static Column create(ColumnSpec spec) {
+            return switch (spec.getType()) {
+                case SINGLE_SELECT, MULTIPLE_CHOICE -> new SingleOptionColumn(spec.getOptionIds());
+                case MULTI_SELECT -> new MultiOptionColumn(spec.getOptionIds());
+                case RATING_SCALE -> new RatingColumn();
+                case DATE -> new DateColumn();
+                case TEXT, TEXT_WITH_LIMIT -> new TextColumn();
+            };
+        }
+
+        /** Grows the column to hold the given number of rows. */
+        void grow(int capacity) {
+            answered = Arrays.copyOf(answered, (capacity + 63) >>> 6);
+        }
+
+        long bytes() {
+            return 8L * answered.length;
+        }
+
+        boolean isAnswered(int row) {
+            return (answered[row >>> 6] & (1L << row)) != 0;
+        }
+
+        void set(int row, List<Long> optionIds, Integer rating, String text, String date) {
+            answered[row >>> 6] |= 1L << row;
+            setValue(row, optionIds, rating, text, date);
+        }
+
+        /** Forgets the answer of a row. */
+        void clear(int row) {
+            answered[row >>> 6] &= ~(1L << row);
+            clearValue(row);
+        }
+
+        abstract void clearValue(int row);
+
+        /** Keeps the value that belongs to this column's question type. */
+        abstract void setValue(int row, List<Long> optionIds, Integer rating, String text, String date);
+    }
+
+    private abstract static class CategoricalColumn extends Column {
+        /** The category keys in category order: option IDs or rating values. */
+        abstract long[] keys();
+
+        abstract int maxCategoriesPerRow();
+
+        /** Writes the categories of a row to out and returns how many there are. */
+        abstract int categories(int row, int[] out);
+    }
+
+    private abstract static class OptionColumn extends CategoricalColumn {
+        final long[] optionIds;
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+
+        OptionColumn(List<Long> optionIds) {
+            this.optionIds = optionIds.stream().mapToLong(Long::longValue).toArray();
+            for (int i = 0; i < this.optionIds.length; i++) {
+                ordinals.put(this.optionIds[i], i);
+            }
+        }
+
+        @Override
+        void setValue(int row, List<Long> optionIds, Integer rating, String text, String date) {
+            optionIds.forEach(optionId -> select(row, optionId));
+        }
+
+        /** Records a selected option; options of other questions are ignored. */
+        void select(int row, long optionId) {
+            Integer ordinal = ordinals.get(optionId);
+            if (ordinal != null) {
+                select(row, (int) ordinal);
+            }
+        }
+
+        abstract void select(int row, int ordinal);
+
+        boolean isSelected(int row, long optionId) {
+            Integer ordinal = ordinals.get(optionId);
+            return ordinal != null && isSelected(row, (int) ordinal);
+        }
+
+        abstract boolean isSelected(int row, int ordinal);
+
+        @Override
+        long[] keys() {
+            return optionIds;
+        }
+    }
+
+    /**
+     * Option ordinal plus one per row, zero when no option was selected.
+     */
+    private static final class SingleOptionColumn extends OptionColumn {
+        private int[] values = new int[0];
+
+        SingleOptionColumn(List<Long> optionIds) {
+            super(optionIds);
+        }
+
+        @Override
+        void grow(int capacity) {
+            super.grow(capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        long bytes() {
+            return super.bytes() + 4L * values.length;
+        }
+
+        @Override
+        void select(int row, int ordinal) {
+            values[row] = ordinal + 1;
+        }
+
+        @Override
+        boolean isSelected(int row, int ordinal) {
+            return values[row] == ordinal + 1;
+        }
+
+        @Override
+        void clearValue(int row) {
+            values[row] = 0;
+        }
+
+        @Override
+        int maxCategoriesPerRow() {
+            return 1;
+        }
+
+        @Override
+        int categories(int row, int[] out) {
+            int value = values[row];
+            if (value == 0) {
+                return 0;
+            }
+            out[0] = value - 1;
+            return 1;
+        }
+    }
+
+    /**
+     * A fixed-width bit set of selected option ordinals per row.
+     */
+    private static final class MultiOptionColumn extends OptionColumn {
+        private final int stride;
+        private long[] words = new long[0];
+
+        MultiOptionColumn(List<Long> optionIds) {
+            super(optionIds);
+            this.stride = Math.max(1, (optionIds.size() + 63) >>> 6);
+        }
+
+        @Override
+        void grow(int capacity) {
+            super.grow(capacity);
+            words = Arrays.copyOf(words, capacity * stride);
+        }
+
+        @Override
+        long bytes() {
+            return super.bytes() + 8L * words.length;
+        }
+
+        @Override
+        void select(int row, int ordinal) {
+            words[row * stride + (ordinal >>> 6)] |= 1L << ordinal;
+        }
+
+        @Override
+        boolean isSelected(int row, int ordinal) {
+            return (words[row * stride + (ordinal >>> 6)] & (1L << ordinal)) != 0;
+        }
+
+        @Override
+        void clearValue(int row) {
+            Arrays.fill(words, row * stride, (row + 1) * stride, 0L);
+        }
+
+        @Override
+        int maxCategoriesPerRow() {
+            return Math.max(1, optionIds.length);
+        }
+
+        @Override
+        int categories(int row, int[] out) {
+            int count = 0;
+            int base = row * stride;
+            for (int w = 0; w < stride; w++) {
+                long word = words[base + w];
+                while (word != 0) {
+                    out[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Rating value per row, {@link Integer#MIN_VALUE} when there is none.
+     * Categories are the distinct stored values, so a wide configured scale
+     * costs nothing until respondents actually use it.
+     */
+    private static final class RatingColumn extends CategoricalColumn {
+        private static final int NONE = Integer.MIN_VALUE;
+
+        private int[] values = new int[0];
+        // Rows per stored value, for the categories
+        private final TreeMap<Integer, Integer> occurrences = new TreeMap<>();
+        // The sorted category values, built on first read after a change
+        private volatile int[] categoryValues;
+
+        @Override
+        void grow(int capacity) {
+            super.grow(capacity);
+            int from = values.length;
+            values = Arrays.copyOf(values, capacity);
+            Arrays.fill(values, from, capacity, NONE);
+        }
+
+        @Override
+        long bytes() {
+            return super.bytes() + 4L * values.length + 48L * occurrences.size();
+        }
+
+        @Override
+        void setValue(int row, List<Long> optionIds, Integer rating, String text, String date) {
+            clearValue(row);
+            if (rating == null || rating == NONE) {
+                return;
+            }
+            values[row] = rating;
+            occurrences.merge(rating, 1, Integer::sum);
+            categoryValues = null;
+        }
+
+        @Override
+        void clearValue(int row) {
+            int value = values[row];
+            if (value == NONE) {
+                return;
+            }
+            values[row] = NONE;
+            occurrences.computeIfPresent(value, (key, rows) -> rows > 1 ? rows - 1 : null);
+            categoryValues = null;
+        }
+
+        Integer get(int row) {
+            int value = values[row];
+            return value != NONE ? value : null;
+        }
+
+        private int[] categoryValues() {
+            int[] sorted = categoryValues;
+            if (sorted == null) {
+                sorted = occurrences.keySet().stream().mapToInt(Integer::intValue).toArray();
+                categoryValues = sorted;
+            }
+            return sorted;
+        }
+
+        @Override
+        long[] keys() {
+            return Arrays.stream(categoryValues()).asLongStream().toArray();
+        }
+
+        @Override
+        int maxCategoriesPerRow() {
+            return 1;
+        }
+
+        @Override
+        int categories(int row, int[] out) {
+            int value = values[row];
+            if (value == NONE) {
+                return 0;
+            }
+            out[0] = Arrays.binarySearch(categoryValues(), value);
+            return 1;
+        }
+    }
+
+    /**
+     * Epoch day per row, {@link Integer#MIN_VALUE} when there is none.
+     * Dates that are not in ISO form are kept verbatim so they read back
+     * unchanged.
+     */
+    private static final class DateColumn extends Column {
+        private static final int NONE = Integer.MIN_VALUE;
+
+        private final Map<Integer, String> verbatim = new HashMap<>();
+        private int[] days = new int[0];
+
+        @Override
+        void grow(int capacity) {
+            super.grow(capacity);
+            int from = days.length;
+            days = Arrays.copyOf(days, capacity);
+            Arrays.fill(days, from, capacity, NONE);
+        }
+
+        @Override
+        long bytes() {
+            return super.bytes() + 4L * days.length + 64L * verbatim.size();
+        }
+
+        @Override
+        void clearValue(int row) {
+            days[row] = NONE;
+            verbatim.remove(row);
+        }
+
+        @Override
+        void setValue(int row, List<Long> optionIds, Integer rating, String text, String date) {
+            clearValue(row);
+            if (date == null) {
+                return;
+            }
+            try {
+                LocalDate parsed = LocalDate.parse(date);
+                if (parsed.toString().equals(date)) {
+                    days[row] = (int) parsed.toEpochDay();
+                    return;
+                }
+            } catch (DateTimeParseException e) {
+                // Fall through and keep the value as given
+            }
+            verbatim.put(row, date);
+        }
+
+        String get(int row) {
+            int day = days[row];
+            return day != NONE ? LocalDate.ofEpochDay(day).toString() : verbatim.get(row);
+        }
+    }
+
+    /**
+     * UTF-8 bytes of every row appended to pages of up to PAGE_BYTES, with
+     * the page and offset of each row's value packed into one long and its
+     * length; a length of -1 stands for null. The first page doubles until
+     * it is full, so short columns stay small, and a value longer than a page
+     * gets a page of its own. Values that are replaced leave their old bytes
+     * behind.
+     */
+    private static final class TextColumn extends Column {
+        private static final int PAGE_BYTES = 1 << 20;
+        private final List<byte[]> pages = new ArrayList<>(List.of(new byte[256]));
+        private long pageBytes = 256;
+        private int used;
+        private long[] starts = new long[0];
+        private int[] lengths = new int[0];
+
+        @Override
+        void grow(int capacity) {
+            super.grow(capacity);
+            int from = lengths.length;
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            Arrays.fill(lengths, from, capacity, -1);
+        }
+
+        @Override
+        long bytes() {
+            return super.bytes() + pageBytes + 12L * starts.length;
+        }
+
+        @Override
+        void setValue(int row, List<Long> optionIds, Integer rating, String text, String date) {
+            set(row, text);
+        }
+
+        @Override
+        void clearValue(int row) {
+            lengths[row] = -1;
+        }
+
+        void set(int row, String value) {
+            if (value == null) {
+                lengths[row] = -1;
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            byte[] page = pages.get(pages.size() - 1);
+            if (bytes.length > page.length - used) {
+                if (pages.size() == 1 && bytes.length <= PAGE_BYTES - used) {
+                    int length = Math.min(PAGE_BYTES, Math.max(used + bytes.length, 2 * page.length));
+                    pageBytes += length - page.length;
+                    page = Arrays.copyOf(page, length);
+                    pages.set(0, page);
+                } else {
+                    page = new byte[Math.max(PAGE_BYTES, bytes.length)];
+                    pageBytes += page.length;
+                    pages.add(page);
+                    used = 0;
+                }
+            }
+            System.arraycopy(bytes, 0, page, used, bytes.length);
+            starts[row] = (long) (pages.size() - 1) << 32 | used;
+            lengths[row] = bytes.length;
+            used += bytes.length;
+        }
+
+        String get(int row) {
+            int length = lengths[row];
+            if (length < 0) {
+                return null;
+            }
+            long start = starts[row];
+            return new String(pages.get((int) (start >>> 32)), (int) start, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * The shape of one question's column.
+     */
+    public static class ColumnSpec {
+        private final long questionId;
+        private final QuestionType type;
+        private final List<Long> optionIds;
+
+        public ColumnSpec(long questionId, QuestionType type, List<Long> optionIds) {
+            this.questionId = questionId;
+            this.type = type;
+            this.optionIds = Collections.unmodifiableList(optionIds);
+        }
+
+        public long getQuestionId() {
+            return questionId;
+        }
+
+        public QuestionType getType() {
+            return type;
+        }
+
+        public List<Long> getOptionIds() {
+            return optionIds;
+        }
+    }
+
+    /**
+     * A contingency table. Keys are option IDs for choice questions and
+     * rating values for rating questions.
+     */
+    public static class Crosstab {
+        private final long[] rowKeys;
+        private final long[] columnKeys;
+        private final long[][] counts;
+        private final long responses;
+
+        Crosstab(long[] rowKeys, long[] columnKeys, long[][] counts, long responses) {
+            this.rowKeys = rowKeys;
+            this.columnKeys = columnKeys;
+            this.counts = counts;
+            this.responses = responses;
+        }
+
+        public long[] getRowKeys() {
+            return rowKeys.clone();
+        }
+
+        public long[] getColumnKeys() {
+            return columnKeys.clone();
+        }
+
+        public long getCount(int row, int column) {
+            return counts[row][column];
+        }
+
+        /**
+         * Gets the number of responses that answered both questions.
+         *
+         * @return The number of responses counted
+         */
+        public long getResponses() {
+            return responses;
+        }
+    }
+}
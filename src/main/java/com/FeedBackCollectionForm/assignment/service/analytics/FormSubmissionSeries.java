@@ -0,0 +1,96 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Submission counters of one form: a minute ring, an hour ring and per-day
+ * deltas that have not been compacted into the persisted daily series yet.
+ */
+public class FormSubmissionSeries {
+    private final BucketRing minutes;
+    private final BucketRing hours;
+    private final Map<Long, LongAdder> pendingDays = new ConcurrentHashMap<>();
+
+    public FormSubmissionSeries(int minuteBuckets, int hourBuckets) {
+        this.minutes = new BucketRing(minuteBuckets);
+        this.hours = new BucketRing(hourBuckets);
+    }
+
+    public void record(long epochMinute, long epochDay) {
+        minutes.add(epochMinute, 1);
+        hours.add(Math.floorDiv(epochMinute, 60), 1);
+        pendingDays.computeIfAbsent(epochDay, day -> new LongAdder()).increment();
+    }
+
+    public BucketRing getMinutes() {
+        return minutes;
+    }
+
+    public BucketRing getHours() {
+        return hours;
+    }
+
+    /**
+     * Returns the count of a day that has not been compacted yet.
+     *
+     * @param epochDay The day
+     * @return The pending count, 0 if none
+     */
+    public long pending(long epochDay) {
+        LongAdder adder = pendingDays.get(epochDay);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * Returns a snapshot of the pending per-day deltas. The compactor
+     * persists them and then calls {@link #compacted(long, long)}, so a
+     * concurrent read never sees a count in neither place.
+     *
+     * @return The pending counts keyed by epoch day
+     */
+    public Map<Long, Long> pendingDays() {
+        Map<Long, Long> snapshot = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pendingDays.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                snapshot.put(entry.getKey(), count);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Subtracts a persisted delta from the pending count of a day.
+     *
+     * @param epochDay The day that was compacted
+     * @param count The count that was persisted
+     */
+    public void compacted(long epochDay, long count) {
+        LongAdder adder = pendingDays.get(epochDay);
+        if (adder != null) {
+            adder.add(-count);
+        }
+    }
+
+    /**
+     * Drops empty counters of days before the given day; those days no
+     * longer receive submissions.
+     *
+     * @param epochDay The first day to keep
+     */
+    public void evictCompactedBefore(long epochDay) {
+        pendingDays.entrySet().removeIf(entry -> entry.getKey() < epochDay && entry.getValue().sum() == 0);
+    }
+
+    public boolean hasPending() {
+        for (LongAdder adder : pendingDays.values()) {
+            if (adder.sum() != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,107 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the items with the highest estimated counts, as reported by a
+ * Count-Min sketch, in a bounded table. A new item replaces the current
+ * minimum once its estimate exceeds it. The sorted view is cached, so reads
+ * cost O(1) between updates.
+ */
+public class HeavyHitters {
+    private final int capacity;
+    private final Map<String, Integer> counts = new HashMap<>();
+    private String minItem;
+    private int minCount;
+    private List<Map.Entry<String, Integer>> sorted = List.of();
+    private boolean stale;
+
+    public HeavyHitters(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records the current estimate of an item.
+     *
+     * @param item The item
+     * @param estimate Its estimated count
+     */
+    public void offer(String item, int estimate) {
+        if (counts.containsKey(item)) {
+            counts.put(item, estimate);
+            if (item.equals(minItem)) {
+                findMinimum();
+            }
+        } else if (counts.size() < capacity) {
+            counts.put(item, estimate);
+            if (minItem == null || estimate < minCount) {
+                minItem = item;
+                minCount = estimate;
+            }
+        } else if (estimate > minCount) {
+            counts.remove(minItem);
+            counts.put(item, estimate);
+            findMinimum();
+        } else {
+            return;
+        }
+        stale = true;
+    }
+
+    /**
+     * Returns the items with the highest counts.
+     *
+     * @param limit The maximum number of items
+     * @return The items and counts, highest first
+     */
+    public List<Map.Entry<String, Integer>> top(int limit) {
+        if (stale) {
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.size());
+            counts.forEach((item, count) -> entries.add(Map.entry(item, count)));
+            entries.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            sorted = List.copyOf(entries);
+            stale = false;
+        }
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    public void writeTo(ByteArrayOutputStream out) {
+        Varints.write(out, counts.size());
+        counts.forEach((item, count) -> {
+            byte[] bytes = item.getBytes(StandardCharsets.UTF_8);
+            Varints.write(out, bytes.length);
+            out.writeBytes(bytes);
+            Varints.write(out, count);
+        });
+    }
+
+    public static HeavyHitters readFrom(ByteBuffer buffer, int capacity) {
+        HeavyHitters hitters = new HeavyHitters(capacity);
+        int size = (int) Varints.read(buffer);
+        for (int i = 0; i < size; i++) {
+            byte[] bytes = new byte[(int) Varints.read(buffer)];
+            buffer.get(bytes);
+            hitters.offer(new String(bytes, StandardCharsets.UTF_8), (int) Varints.read(buffer));
+        }
+        return hitters;
+    }
+
+    private void findMinimum() {
+        minItem = null;
+        minCount = Integer.MAX_VALUE;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() < minCount) {
+                minItem = entry.getKey();
+                minCount = entry.getValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import java.nio.ByteBuffer;
+
+/**
+ * HyperLogLog cardinality sketch over 64-bit hashes with 2^p one-byte
+ * registers. Cardinalities are estimated with Ertl's improved raw estimator
+ * ("New cardinality estimation algorithms for HyperLogLog sketches", 2017),
+ * which is unbiased across the whole range without empirical correction
+ * tables. The relative standard error is about 1.04 / sqrt(2^p): 0.81% for
+ * the default p = 14, so 99.7% of estimates fall within 2.4% of the exact
+ * count. Sketches with the same precision merge losslessly by taking the
+ * register-wise maximum.
+ */
+public class HyperLogLog {
+    public static final int DEFAULT_PRECISION = 14;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Returns the relative standard error of estimates at this precision.
+     *
+     * @return The relative standard error, e.g. 0.0081 for p = 14
+     */
+    public double relativeStandardError() {
+        return relativeStandardError(precision);
+    }
+
+    public static double relativeStandardError(int precision) {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    /**
+     * Adds a hashed element. Adding the same element twice has no effect.
+     *
+     * @param hash A well-mixed 64-bit hash of the element
+     */
+    public synchronized void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // The remaining 64 - p bits decide the register value; the sentinel bit caps it at 64 - p + 1
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Folds another sketch into this one.
+     *
+     * @param other A sketch with the same precision
+     */
+    public synchronized void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches with different precisions");
+        }
+        byte[] otherRegisters = other.snapshotRegisters();
+        for (int i = 0; i < registers.length; i++) {
+            if (otherRegisters[i] > registers[i]) {
+                registers[i] = otherRegisters[i];
+            }
+        }
+    }
+
+    /**
+     * Estimates the number of distinct elements added.
+     *
+     * @return The estimated cardinality
+     */
+    public long estimate() {
+        byte[] snapshot = snapshotRegisters();
+        int m = snapshot.length;
+        int q = 64 - precision;
+        int[] histogram = new int[q + 2];
+        for (byte register : snapshot) {
+            histogram[register]++;
+        }
+
+        double z = m * tau(1.0 - (double) histogram[q + 1] / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma((double) histogram[0] / m);
+
+        double alphaInfinity = 0.5 / Math.log(2);
+        return Math.round(alphaInfinity * m * m / z);
+    }
+
+    /**
+     * Serializes the sketch as a version byte, the precision and the registers.
+     *
+     * @return The serialized sketch
+     */
+    public byte[] toBytes() {
+        byte[] snapshot = snapshotRegisters();
+        return ByteBuffer.allocate(2 + snapshot.length)
+                .put(FORMAT_VERSION)
+                .put((byte) precision)
+                .put(snapshot)
+                .array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.get() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported HyperLogLog format");
+        }
+        HyperLogLog sketch = new HyperLogLog(buffer.get());
+        buffer.get(sketch.registers);
+        return sketch;
+    }
+
+    private synchronized byte[] snapshotRegisters() {
+        return registers.clone();
+    }
+
+    private static double sigma(double x) {
+        if (x == 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1.0;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0.0 || x == 1.0) {
+            return 0.0;
+        }
+        double y = 1.0;
+        double z = 1.0 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= Math.pow(1.0 - x, 2) * y;
+        } while (z != previous);
+        return z / 3.0;
+    }
+}
@@ -0,0 +1,227 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * KLL quantile sketch over integer values (Karnin, Lang and Liberty, "Optimal
+ * Quantile Approximation in Streams", 2016). Items live in a stack of
+ * compactors; level h holds items of weight 2^h, and a full level is sorted
+ * and every other item (random offset) is promoted to the next level. Level
+ * capacities shrink geometrically by 2/3 towards the bottom, so the sketch
+ * keeps O(k) items regardless of the stream length.
+ * <p>
+ * With k = 200 the normalized rank error is about 1.3% with 99% confidence:
+ * the reported p50 lies between the true 48.7th and 51.3rd percentiles.
+ * Sketches with the same k merge by concatenating levels and compacting.
+ */
+public class KllSketch {
+    public static final int DEFAULT_K = 200;
+    private static final byte FORMAT_VERSION = 1;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private final List<int[]> levels = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private long count;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    public KllSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8");
+        }
+        this.k = k;
+        addLevel();
+    }
+
+    /**
+     * Returns the normalized rank error with 99% confidence for a given k,
+     * using the empirical fit published with the Apache DataSketches KLL
+     * implementation.
+     *
+     * @param k The sketch parameter
+     * @return The rank error as a fraction of the stream length
+     */
+    public static double normalizedRankError(int k) {
+        return 2.296 / Math.pow(k, 0.9723);
+    }
+
+    public double normalizedRankError() {
+        return normalizedRankError(k);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized void add(int value) {
+        append(0, value);
+        count++;
+        compress();
+    }
+
+    /**
+     * Folds another sketch into this one.
+     *
+     * @param other A sketch with the same k
+     */
+    public synchronized void merge(KllSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge sketches with different k");
+        }
+        KllSketch snapshot = KllSketch.fromBytes(other.toBytes());
+        for (int h = 0; h < snapshot.levels.size(); h++) {
+            while (levels.size() <= h) {
+                addLevel();
+            }
+            int[] items = snapshot.levels.get(h);
+            for (int i = 0; i < snapshot.sizes.get(h); i++) {
+                append(h, items[i]);
+            }
+        }
+        count += snapshot.count;
+        compress();
+    }
+
+    /**
+     * Estimates the value at a rank.
+     *
+     * @param fraction The rank as a fraction between 0 and 1, e.g. 0.9 for p90
+     * @return The estimated quantile, or null if the sketch is empty
+     */
+    public synchronized Integer quantile(double fraction) {
+        if (fraction < 0.0 || fraction > 1.0) {
+            throw new IllegalArgumentException("Rank must be between 0 and 1");
+        }
+        int retained = 0;
+        for (int size : sizes) {
+            retained += size;
+        }
+        if (retained == 0) {
+            return null;
+        }
+
+        // Pack (value, level) pairs so one primitive sort orders all retained items
+        long[] weighted = new long[retained];
+        int next = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            int[] items = levels.get(h);
+            for (int i = 0; i < sizes.get(h); i++) {
+                weighted[next++] = ((long) items[i] << 8) | h;
+            }
+        }
+        Arrays.sort(weighted);
+
+        long totalWeight = 0;
+        for (long item : weighted) {
+            totalWeight += 1L << (item & 0xff);
+        }
+        double target = fraction * totalWeight;
+        long cumulative = 0;
+        for (long item : weighted) {
+            cumulative += 1L << (item & 0xff);
+            if (cumulative >= target) {
+                return (int) (item >> 8);
+            }
+        }
+        return (int) (weighted[weighted.length - 1] >> 8);
+    }
+
+    /**
+     * Serializes the sketch. Values are zigzag varints, so small ratings take
+     * one byte each and a full sketch stays around a kilobyte.
+     *
+     * @return The serialized sketch
+     */
+    public synchronized byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(FORMAT_VERSION);
+        Varints.write(out, k);
+        Varints.write(out, count);
+        Varints.write(out, levels.size());
+        for (int h = 0; h < levels.size(); h++) {
+            int[] items = levels.get(h);
+            Varints.write(out, sizes.get(h));
+            for (int i = 0; i < sizes.get(h); i++) {
+                Varints.write(out, ((items[i] << 1) ^ (items[i] >> 31)) & 0xFFFFFFFFL);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static KllSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.get() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported KLL sketch format");
+        }
+        KllSketch sketch = new KllSketch((int) Varints.read(buffer));
+        sketch.count = Varints.read(buffer);
+        int levelCount = (int) Varints.read(buffer);
+        for (int h = 0; h < levelCount; h++) {
+            if (h > 0) {
+                sketch.addLevel();
+            }
+            int size = (int) Varints.read(buffer);
+            for (int i = 0; i < size; i++) {
+                int zigzag = (int) Varints.read(buffer);
+                sketch.append(h, (zigzag >>> 1) ^ -(zigzag & 1));
+            }
+        }
+        return sketch;
+    }
+
+    private void compress() {
+        int h = 0;
+        while (h < levels.size()) {
+            if (sizes.get(h) >= capacity(h)) {
+                if (h + 1 == levels.size()) {
+                    addLevel();
+                }
+                compact(h);
+            }
+            h++;
+        }
+    }
+
+    private int capacity(int level) {
+        int depth = levels.size() - level - 1;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void compact(int level) {
+        int[] items = levels.get(level);
+        int size = sizes.get(level);
+        Arrays.sort(items, 0, size);
+        // An odd item out stays behind so total weight is preserved exactly
+        int kept = size % 2;
+        int offset = random.nextBoolean() ? 1 : 0;
+        for (int i = kept + offset; i < size; i += 2) {
+            append(level + 1, items[i]);
+        }
+        sizes.set(level, kept);
+    }
+
+    private void append(int level, int value) {
+        int[] items = levels.get(level);
+        int size = sizes.get(level);
+        if (size == items.length) {
+            items = Arrays.copyOf(items, Math.max(8, items.length * 2));
+            levels.set(level, items);
+        }
+        items[size] = value;
+        sizes.set(level, size + 1);
+    }
+
+    private void addLevel() {
+        levels.add(new int[8]);
+        sizes.add(0);
+    }
+}
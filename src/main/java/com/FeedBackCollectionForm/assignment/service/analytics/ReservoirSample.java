@@ -0,0 +1,125 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses a fixed-size uniform random sample from a stream of unknown
+ * length (reservoir sampling, Li's Algorithm L). After n offers every item
+ * has been kept with probability capacity / n. Instead of drawing a random
+ * number per item, the sampler draws how many items to skip before the next
+ * replacement, so long streams cost a few random draws in total.
+ *
+ * <p>The sampler only decides slots; the caller stores the items.
+ */
+public class ReservoirSample {
+    public static final double CONFIDENCE_LEVEL = 0.95;
+    private static final double Z_95 = 1.959964;
+
+    private final int capacity;
+    private long seen;
+    private double w;
+    private long next;
+
+    public ReservoirSample(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.w = Math.exp(Math.log(random()) / capacity);
+        this.next = capacity + skip();
+    }
+
+    /**
+     * Offers the next item of the stream.
+     *
+     * @return The slot the item goes to (replacing its current occupant if
+     *         the reservoir is full), or -1 if the item is not sampled
+     */
+    public synchronized int offer() {
+        seen++;
+        if (seen <= capacity) {
+            return (int) (seen - 1);
+        }
+        if (seen < next) {
+            return -1;
+        }
+        w *= Math.exp(Math.log(random()) / capacity);
+        next = seen + skip();
+        return ThreadLocalRandom.current().nextInt(capacity);
+    }
+
+    /**
+     * Gets the number of items offered so far.
+     *
+     * @return The size of the sampled population
+     */
+    public synchronized long getSeen() {
+        return seen;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Computes a Wilson score interval for a population proportion from
+     * a sample drawn without replacement. The finite population correction
+     * narrows the interval as the sample approaches the population and
+     * makes it exact once the sample is the whole population.
+     *
+     * @param hits The number of sampled items with the property
+     * @param sampleSize The number of sampled items
+     * @param population The number of items in the population
+     * @return The lower and upper bound of the proportion at {@link #CONFIDENCE_LEVEL}
+     */
+    public static double[] proportionInterval(long hits, long sampleSize, long population) {
+        if (sampleSize == 0) {
+            return new double[]{0.0, 1.0};
+        }
+        double p = (double) hits / sampleSize;
+        double fpc = population > 1 ? Math.max(0.0, (double) (population - sampleSize) / (population - 1)) : 0.0;
+        if (fpc == 0.0) {
+            return new double[]{p, p};
+        }
+        // Sampling without replacement behaves like a larger sample with replacement
+        double n = sampleSize / fpc;
+        double z2 = Z_95 * Z_95;
+        double center = (p + z2 / (2 * n)) / (1 + z2 / n);
+        double margin = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n)) / (1 + z2 / n);
+        return new double[]{Math.max(0.0, center - margin), Math.min(1.0, center + margin)};
+    }
+
+    /**
+     * Scales a count in the sample up to the population, with the bounds of
+     * {@link #proportionInterval(long, long, long)}.
+     *
+     * @param hits The number of sampled items with the property
+     * @param sampleSize The number of sampled items
+     * @param population The number of items in the population
+     * @return The estimated count and its lower and upper bound
+     */
+    public static long[] estimateCount(long hits, long sampleSize, long population) {
+        if (sampleSize == 0) {
+            return new long[]{0, 0, population};
+        }
+        double[] interval = proportionInterval(hits, sampleSize, population);
+        long estimate = Math.round((double) hits * population / sampleSize);
+        // The tolerance keeps rounding noise from widening an exact interval by one
+        return new long[]{
+                estimate,
+                Math.min(estimate, (long) Math.floor(interval[0] * population + 1e-9)),
+                Math.max(estimate, (long) Math.ceil(interval[1] * population - 1e-9))
+        };
+    }
+
+    private long skip() {
+        double skip = Math.floor(Math.log(random()) / Math.log(1 - w));
+        // Once w underflows the next replacement is practically never
+        return skip < Long.MAX_VALUE / 2 ? (long) skip + 1 : Long.MAX_VALUE / 2;
+    }
+
+    private static double random() {
+        // Avoid log(0)
+        return 1.0 - ThreadLocalRandom.current().nextDouble();
+    }
+}
@@ -0,0 +1,33 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import java.util.Locale;
+
+/**
+ * Bucket widths of the submission rate series.
+ */
+public enum SeriesResolution {
+    MINUTE(1),
+    HOUR(60),
+    DAY(1440);
+
+    private final long minutes;
+
+    SeriesResolution(long minutes) {
+        this.minutes = minutes;
+    }
+
+    public long getMinutes() {
+        return minutes;
+    }
+
+    public static SeriesResolution fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return HOUR;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported resolution: " + value);
+        }
+    }
+}
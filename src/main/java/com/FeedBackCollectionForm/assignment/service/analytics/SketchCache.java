@@ -0,0 +1,68 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * In-memory sketches keyed by scope ID, loaded lazily on first use and
+ * tracked as dirty until they have been written back.
+ *
+ * @param <S> The sketch type
+ */
+public class SketchCache<S> {
+    private final Map<Long, S> sketches = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Function<Long, S> loader;
+
+    public SketchCache(Function<Long, S> loader) {
+        this.loader = loader;
+    }
+
+    public S get(Long scopeId) {
+        return sketches.computeIfAbsent(scopeId, loader);
+    }
+
+    public S getIfLoaded(Long scopeId) {
+        return sketches.get(scopeId);
+    }
+
+    public void markDirty(Long scopeId) {
+        dirty.add(scopeId);
+    }
+
+    public void evict(Long scopeId) {
+        sketches.remove(scopeId);
+        dirty.remove(scopeId);
+    }
+
+    /**
+     * Hands every dirty sketch to the writer. A sketch is unmarked before it
+     * is written, so updates racing with the write mark it again, and it is
+     * marked again if the writer fails.
+     *
+     * @param writer Persists one sketch
+     * @return The number of sketches written
+     */
+    public int flush(BiConsumer<Long, S> writer) {
+        int written = 0;
+        for (Long scopeId : dirty) {
+            S sketch = sketches.get(scopeId);
+            if (sketch == null) {
+                // Still loading; the next flush picks it up
+                continue;
+            }
+            dirty.remove(scopeId);
+            try {
+                writer.accept(scopeId, sketch);
+                written++;
+            } catch (RuntimeException e) {
+                dirty.add(scopeId);
+                throw e;
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,66 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits free text into lowercase word tokens for term statistics. Stopwords
+ * and single characters are dropped; negations ("no", "not") are kept
+ * because they change the meaning of the words around them.
+ */
+public final class TermExtractor {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}']+");
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "about", "above", "after", "again", "against", "all", "also", "am", "an", "and", "any", "are",
+            "as", "at", "be", "because", "been", "before", "being", "below", "between", "both", "but", "by",
+            "can", "could", "did", "do", "does", "doing", "down", "during", "each", "even", "few", "for", "from",
+            "further", "get", "got", "had", "has", "have", "having", "he", "her", "here", "hers", "herself",
+            "him", "himself", "his", "how", "i", "i'm", "i've", "i'd", "i'll", "if", "in", "into", "is", "it",
+            "it's", "its", "itself", "just", "let", "me", "more", "most", "much", "my", "myself", "of", "off",
+            "on", "once", "only", "or", "other", "our", "ours", "ourselves", "out", "over", "own", "really",
+            "same", "she", "should", "so", "some", "such", "than", "that", "that's", "the", "their", "theirs",
+            "them", "themselves", "then", "there", "there's", "these", "they", "they're", "this", "those",
+            "through", "to", "too", "under", "until", "up", "us", "very", "was", "we", "we're", "were", "what",
+            "when", "where", "which", "while", "who", "whom", "why", "will", "with", "would", "you", "you're",
+            "your", "yours", "yourself", "yourselves");
+
+    private TermExtractor() {
+    }
+
+    /**
+     * Tokenizes text, keeping the positions of dropped words as null so that
+     * callers do not pair words across them.
+     *
+     * @param text The text to tokenize
+     * @return The tokens in order, with null for stopwords
+     */
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String raw : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (raw.isEmpty()) {
+                continue;
+            }
+            String token = stripApostrophes(raw);
+            if (token.endsWith("'s")) {
+                token = token.substring(0, token.length() - 2);
+            }
+            tokens.add(token.length() < 2 || STOPWORDS.contains(raw) || STOPWORDS.contains(token) ? null : token);
+        }
+        return tokens;
+    }
+
+    private static String stripApostrophes(String token) {
+        int start = 0;
+        int end = token.length();
+        while (start < end && token.charAt(start) == '\'') {
+            start++;
+        }
+        while (end > start && token.charAt(end - 1) == '\'') {
+            end--;
+        }
+        return token.substring(start, end);
+    }
+}
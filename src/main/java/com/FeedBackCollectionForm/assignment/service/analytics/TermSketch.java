@@ -0,0 +1,105 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import com.FeedBackCollectionForm.assignment.util.Murmur3;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Term and bigram frequencies of the answers to one text question: a shared
+ * Count-Min sketch estimates how many answers mention each term or bigram,
+ * and two heavy-hitter tables keep the most frequent of each. A term counts
+ * once per answer, however often the answer repeats it.
+ */
+public class TermSketch {
+    public static final int CAPACITY = 100;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final CountMinSketch counts;
+    private final HeavyHitters terms;
+    private final HeavyHitters bigrams;
+    private long answerCount;
+
+    public TermSketch() {
+        this(new CountMinSketch(), new HeavyHitters(CAPACITY), new HeavyHitters(CAPACITY), 0);
+    }
+
+    private TermSketch(CountMinSketch counts, HeavyHitters terms, HeavyHitters bigrams, long answerCount) {
+        this.counts = counts;
+        this.terms = terms;
+        this.bigrams = bigrams;
+        this.answerCount = answerCount;
+    }
+
+    /**
+     * Adds a non-blank answer.
+     *
+     * @param text The answer text
+     */
+    public synchronized void add(String text) {
+        answerCount++;
+        List<String> tokens = TermExtractor.tokens(text);
+        Set<String> seen = new HashSet<>();
+        String previous = null;
+        for (String token : tokens) {
+            if (token != null && seen.add(token)) {
+                terms.offer(token, counts.add(Murmur3.hash64(token)));
+            }
+            if (token != null && previous != null) {
+                String bigram = previous + " " + token;
+                if (seen.add(bigram)) {
+                    bigrams.offer(bigram, counts.add(Murmur3.hash64(bigram)));
+                }
+            }
+            previous = token;
+        }
+    }
+
+    public synchronized long getAnswerCount() {
+        return answerCount;
+    }
+
+    /**
+     * Returns the maximum overcount of the reported frequencies with 99.3%
+     * probability.
+     *
+     * @return The error bound in answers
+     */
+    public synchronized long errorBound() {
+        return counts.errorBound();
+    }
+
+    public synchronized List<Map.Entry<String, Integer>> topTerms(int limit) {
+        return terms.top(limit);
+    }
+
+    public synchronized List<Map.Entry<String, Integer>> topBigrams(int limit) {
+        return bigrams.top(limit);
+    }
+
+    public synchronized byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(FORMAT_VERSION);
+        Varints.write(out, answerCount);
+        counts.writeTo(out);
+        terms.writeTo(out);
+        bigrams.writeTo(out);
+        return out.toByteArray();
+    }
+
+    public static TermSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.get() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported term sketch format");
+        }
+        long answerCount = Varints.read(buffer);
+        CountMinSketch counts = CountMinSketch.readFrom(buffer);
+        HeavyHitters terms = HeavyHitters.readFrom(buffer, CAPACITY);
+        HeavyHitters bigrams = HeavyHitters.readFrom(buffer, CAPACITY);
+        return new TermSketch(counts, terms, bigrams, answerCount);
+    }
+}
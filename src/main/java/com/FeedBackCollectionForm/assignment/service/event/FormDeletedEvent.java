@@ -0,0 +1,17 @@
+package com.FeedBackCollectionForm.assignment.service.event;
+
+/**
+ * Published by {@code FormService.deleteForm} inside the deleting
+ * transaction, so derived data keyed by form ID can be dropped with it.
+ */
+public class FormDeletedEvent {
+    private final Long formId;
+
+    public FormDeletedEvent(Long formId) {
+        this.formId = formId;
+    }
+
+    public Long getFormId() {
+        return formId;
+    }
+}
@@ -0,0 +1,18 @@
+package com.FeedBackCollectionForm.assignment.service.event;
+
+/**
+ * Published by {@code FormService.updateForm} inside the editing
+ * transaction when the structure of a form changed, so data derived from
+ * its questions and options can be rebuilt.
+ */
+public class FormEditedEvent {
+    private final Long formId;
+
+    public FormEditedEvent(Long formId) {
+        this.formId = formId;
+    }
+
+    public Long getFormId() {
+        return formId;
+    }
+}
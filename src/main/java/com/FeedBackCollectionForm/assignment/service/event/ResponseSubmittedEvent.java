@@ -0,0 +1,62 @@
+package com.FeedBackCollectionForm.assignment.service.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published by {@code ResponseService.submitResponse} inside the submitting
+ * transaction. In-memory analytics listen for it after commit, so they only
+ * ever see submissions that were actually stored.
+ */
+public class ResponseSubmittedEvent {
+    private final Long formId;
+    private final Long responseId;
+    private final LocalDateTime submittedAt;
+    private final String respondentEmail;
+    private final String respondentName;
+    private final List<SubmittedAnswer> answers;
+    private final long lockMark;
+
+    public ResponseSubmittedEvent(Long formId, Long responseId, LocalDateTime submittedAt, String respondentEmail,
+                                  String respondentName, List<SubmittedAnswer> answers, long lockMark) {
+        this.formId = formId;
+        this.responseId = responseId;
+        this.submittedAt = submittedAt;
+        this.respondentEmail = respondentEmail;
+        this.respondentName = respondentName;
+        this.answers = List.copyOf(answers);
+        this.lockMark = lockMark;
+    }
+
+    public Long getFormId() {
+        return formId;
+    }
+
+    public Long getResponseId() {
+        return responseId;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public String getRespondentEmail() {
+        return respondentEmail;
+    }
+
+    public String getRespondentName() {
+        return respondentName;
+    }
+
+    public List<SubmittedAnswer> getAnswers() {
+        return answers;
+    }
+
+    /**
+     * Gets the mark {@code QuestionStatsService.recordResponse} returned, which
+     * tells loads that locked a question whether they read this response.
+     */
+    public long getLockMark() {
+        return lockMark;
+    }
+}
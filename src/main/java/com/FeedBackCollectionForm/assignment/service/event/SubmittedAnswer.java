@@ -0,0 +1,69 @@
+package com.FeedBackCollectionForm.assignment.service.event;
+
+import com.FeedBackCollectionForm.assignment.model.Answer;
+import com.FeedBackCollectionForm.assignment.model.Option;
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable copy of a stored answer carried by {@link ResponseSubmittedEvent},
+ * so after-commit listeners never touch detached entities. Single- and
+ * multi-select answers both list their options in selectedOptionIds.
+ */
+public class SubmittedAnswer {
+    private final Long questionId;
+    private final QuestionType type;
+    private final String textAnswer;
+    private final List<Long> selectedOptionIds;
+    private final Integer ratingValue;
+    private final String dateValue;
+
+    public SubmittedAnswer(Long questionId, QuestionType type, String textAnswer, List<Long> selectedOptionIds,
+                           Integer ratingValue, String dateValue) {
+        this.questionId = questionId;
+        this.type = type;
+        this.textAnswer = textAnswer;
+        this.selectedOptionIds = Collections.unmodifiableList(selectedOptionIds);
+        this.ratingValue = ratingValue;
+        this.dateValue = dateValue;
+    }
+
+    public static SubmittedAnswer from(Answer answer) {
+        List<Long> optionIds = new ArrayList<>();
+        if (answer.getSelectedOption() != null) {
+            optionIds.add(answer.getSelectedOption().getId());
+        }
+        for (Option option : answer.getSelectedOptions()) {
+            optionIds.add(option.getId());
+        }
+        return new SubmittedAnswer(answer.getQuestion().getId(), answer.getQuestion().getType(),
+                answer.getTextAnswer(), optionIds, answer.getRatingValue(), answer.getDateValue());
+    }
+
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    public QuestionType getType() {
+        return type;
+    }
+
+    public String getTextAnswer() {
+        return textAnswer;
+    }
+
+    public List<Long> getSelectedOptionIds() {
+        return selectedOptionIds;
+    }
+
+    public Integer getRatingValue() {
+        return ratingValue;
+    }
+
+    public String getDateValue() {
+        return dateValue;
+    }
+}
@@ -0,0 +1,92 @@
+package com.FeedBackCollectionForm.assignment.service.export;
+
+import com.FeedBackCollectionForm.assignment.model.Option;
+import com.FeedBackCollectionForm.assignment.model.Question;
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.service.analytics.FormColumnStore;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Writes responses as CSV, one line per response and one column per question.
+ * Questions removed from the form keep their column, marked in the header.
+ */
+public class CsvExportWriter implements ResponseExportWriter {
+    private static final String REMOVED_SUFFIX = " (removed)";
+
+    private final Writer writer;
+    private final Map<Long, String> optionTexts = new HashMap<>();
+
+    public CsvExportWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeHeader(List<Question> questions, List<Option> options) throws IOException {
+        writer.write("Response ID,Respondent Name,Respondent Email,Submission Date");
+        for (Question question : questions) {
+            writer.write(",");
+            writer.write(quote(question.getRemovedAt() != null
+                    ? question.getText() + REMOVED_SUFFIX
+                    : question.getText()));
+        }
+        for (Option option : options) {
+            optionTexts.put(option.getId(), option.getText());
+        }
+        writer.write("\n");
+    }
+
+    @Override
+    public void writeRow(FormColumnStore store, int row, List<Question> questions) throws IOException {
+        writer.write(String.valueOf(store.responseId(row)));
+        writer.write(",");
+        writer.write(quote(store.respondentName(row)));
+        writer.write(",");
+        writer.write(quote(store.respondentEmail(row)));
+        writer.write(",");
+        writer.write(quote(String.valueOf(store.submittedAt(row))));
+
+        for (Question question : questions) {
+            writer.write(",");
+            if (store.isAnswered(row, question.getId())) {
+                writer.write(formatAnswer(store, row, question));
+            }
+        }
+        writer.write("\n");
+    }
+
+    private String formatAnswer(FormColumnStore store, int row, Question question) {
+        if (question.getType() == QuestionType.TEXT || question.getType() == QuestionType.TEXT_WITH_LIMIT) {
+            return quote(store.text(row, question.getId()));
+        } else if (question.getType() == QuestionType.MULTIPLE_CHOICE || question.getType() == QuestionType.SINGLE_SELECT) {
+            long[] optionIds = store.optionIds(row, question.getId());
+            return optionIds.length > 0 ? quote(optionTexts.get(optionIds[0])) : "";
+        } else if (question.getType() == QuestionType.MULTI_SELECT) {
+            long[] optionIds = store.optionIds(row, question.getId());
+            if (optionIds.length == 0) {
+                return "";
+            }
+            StringJoiner texts = new StringJoiner(", ");
+            for (long optionId : optionIds) {
+                texts.add(optionTexts.get(optionId));
+            }
+            return quote(texts.toString());
+        } else if (question.getType() == QuestionType.RATING_SCALE) {
+            Integer rating = store.rating(row, question.getId());
+            return rating != null ? String.valueOf(rating) : "";
+        } else if (question.getType() == QuestionType.DATE) {
+            String date = store.date(row, question.getId());
+            return date != null ? quote(date) : "";
+        }
+        return "";
+    }
+
+    private static String quote(String value) {
+        return "\"" + (value != null ? value.replace("\"", "\"\"") : "") + "\"";
+    }
+}
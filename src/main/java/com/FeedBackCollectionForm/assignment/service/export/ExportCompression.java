@@ -0,0 +1,137 @@
+package com.FeedBackCollectionForm.assignment.service.export;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression codecs applied to an export while it is being generated.
+ */
+public enum ExportCompression {
+    NONE(null, null, null),
+    GZIP("gzip", "application/gzip", "gz"),
+    ZSTD("zstd", "application/zstd", "zst");
+
+    private final String encoding;
+    private final String contentType;
+    private final String extension;
+
+    ExportCompression(String encoding, String contentType, String extension) {
+        this.encoding = encoding;
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Resolves an explicitly requested codec from the compression parameter.
+     *
+     * @param value The value of the compression parameter
+     * @return The matching codec
+     */
+    public static ExportCompression fromParam(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        switch (normalized) {
+            case "none":
+            case "identity":
+                return NONE;
+            case "gzip":
+            case "gz":
+                return GZIP;
+            case "zstd":
+            case "zst":
+                return ZSTD;
+            default:
+                throw new RuntimeException("Unsupported export compression: " + value);
+        }
+    }
+
+    /**
+     * Picks a codec from an Accept-Encoding header, preferring zstd over gzip.
+     *
+     * @param acceptEncoding The Accept-Encoding header, may be null
+     * @return The negotiated codec, NONE if the client accepts neither
+     */
+    public static ExportCompression negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return NONE;
+        }
+        boolean gzip = false;
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (tokens.length > 1 && tokens[1].trim().replace(" ", "").equals("q=0")) {
+                continue;
+            }
+            if (tokens[0].equals("zstd")) {
+                return ZSTD;
+            }
+            if (tokens[0].equals("gzip")) {
+                gzip = true;
+            }
+        }
+        return gzip ? GZIP : NONE;
+    }
+
+    /**
+     * Wraps the raw output stream with this codec. The returned stream must be
+     * finished with {@link #finish(OutputStream)} once everything is written,
+     * and closed in any case to release the compressor, so the caller must
+     * guard the raw stream against closing.
+     *
+     * @param raw The stream receiving compressed bytes
+     * @param bufferSize The size of the buffer the compressor writes its output to
+     * @param level The compression level, or a negative value for the codec default
+     * @return The compressing stream
+     */
+    public OutputStream wrap(OutputStream raw, int bufferSize, int level) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPOutputStream(raw, bufferSize, true) {
+                    {
+                        if (level >= 0) {
+                            def.setLevel(level);
+                        }
+                    }
+                };
+            case ZSTD:
+                ZstdOutputStream zstd = new ZstdOutputStream(new BufferedOutputStream(raw, bufferSize));
+                if (level >= 0) {
+                    zstd.setLevel(level);
+                }
+                return zstd;
+            default:
+                return raw;
+        }
+    }
+
+    /**
+     * Writes the codec trailer and any buffered output to the raw stream.
+     *
+     * @param compressed A stream returned by {@link #wrap(OutputStream, int, int)}
+     */
+    public void finish(OutputStream compressed) throws IOException {
+        if (compressed instanceof GZIPOutputStream) {
+            ((GZIPOutputStream) compressed).finish();
+        } else if (compressed instanceof ZstdOutputStream) {
+            // Closing a zstd stream writes the end of the frame and flushes its buffer; the raw stream is guarded by the caller
+            compressed.close();
+        } else {
+            compressed.flush();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.FeedBackCollectionForm.assignment.service.export;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates size, compression ratio and throughput of response exports.
+ */
+@Component
+public class ExportMetrics {
+    private final LongAdder exports = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
+    private final AtomicReference<Map<String, Object>> lastExport = new AtomicReference<>();
+
+    /**
+     * Records a completed export.
+     *
+     * @param format The row format
+     * @param compression The codec used on the wire
+     * @param rowCount The number of responses written
+     * @param rawBytes The number of bytes produced before compression
+     * @param wireBytes The number of bytes written to the client
+     * @param nanos The time spent generating the export
+     */
+    public void record(ExportFormat format, ExportCompression compression, long rowCount,
+                       long rawBytes, long wireBytes, long nanos) {
+        exports.increment();
+        rows.add(rowCount);
+        uncompressedBytes.add(rawBytes);
+        compressedBytes.add(wireBytes);
+        elapsedNanos.add(nanos);
+
+        Map<String, Object> last = new LinkedHashMap<>();
+        last.put("format", format.name());
+        last.put("compression", compression.name());
+        last.put("rows", rowCount);
+        last.put("uncompressedBytes", rawBytes);
+        last.put("compressedBytes", wireBytes);
+        last.put("compressionRatio", ratio(rawBytes, wireBytes));
+        last.put("throughputMBps", throughput(rawBytes, nanos));
+        last.put("durationMs", nanos / 1_000_000);
+        lastExport.set(last);
+    }
+
+    /**
+     * Returns the totals since startup together with the most recent export.
+     *
+     * @return A map suitable for JSON serialization
+     */
+    public Map<String, Object> snapshot() {
+        long raw = uncompressedBytes.sum();
+        long wire = compressedBytes.sum();
+        long nanos = elapsedNanos.sum();
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("exports", exports.sum());
+        snapshot.put("rows", rows.sum());
+        snapshot.put("uncompressedBytes", raw);
+        snapshot.put("compressedBytes", wire);
+        snapshot.put("compressionRatio", ratio(raw, wire));
+        snapshot.put("throughputMBps", throughput(raw, nanos));
+        snapshot.put("lastExport", lastExport.get());
+        return snapshot;
+    }
+
+    private static double ratio(long rawBytes, long wireBytes) {
+        return wireBytes == 0 ? 1.0 : (double) rawBytes / wireBytes;
+    }
+
+    private static double throughput(long rawBytes, long nanos) {
+        return nanos == 0 ? 0.0 : (rawBytes / 1_048_576.0) / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.FeedBackCollectionForm.assignment.service.export;
+
+import com.FeedBackCollectionForm.assignment.model.Option;
+import com.FeedBackCollectionForm.assignment.model.Question;
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.service.analytics.FormColumnStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes responses as newline-delimited JSON, one object per response with
+ * answers keyed by question ID.
+ */
+public class NdjsonExportWriter implements ResponseExportWriter {
+    private final Writer writer;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, String> optionTexts = new HashMap<>();
+
+    public NdjsonExportWriter(Writer writer, ObjectMapper objectMapper) {
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void writeHeader(List<Question> questions, List<Option> options) {
+        // NDJSON rows are self-describing, so there is no header line
+        for (Option option : options) {
+            optionTexts.put(option.getId(), option.getText());
+        }
+    }
+
+    @Override
+    public void writeRow(FormColumnStore store, int row, List<Question> questions) throws IOException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("responseId", store.responseId(row));
+        values.put("respondentName", store.respondentName(row));
+        values.put("respondentEmail", store.respondentEmail(row));
+        values.put("submittedAt", String.valueOf(store.submittedAt(row)));
+
+        Map<String, Object> answers = new LinkedHashMap<>();
+        for (Question question : questions) {
+            if (store.isAnswered(row, question.getId())) {
+                answers.put(String.valueOf(question.getId()), answerValue(store, row, question));
+            }
+        }
+        values.put("answers", answers);
+
+        writer.write(objectMapper.writeValueAsString(values));
+        writer.write("\n");
+    }
+
+    private Object answerValue(FormColumnStore store, int row, Question question) {
+        if (question.getType() == QuestionType.MULTIPLE_CHOICE || question.getType() == QuestionType.SINGLE_SELECT) {
+            long[] optionIds = store.optionIds(row, question.getId());
+            return optionIds.length > 0 ? optionTexts.get(optionIds[0]) : null;
+        } else if (question.getType() == QuestionType.MULTI_SELECT) {
+            List<String> texts = new ArrayList<>();
+            for (long optionId : store.optionIds(row, question.getId())) {
+                texts.add(optionTexts.get(optionId));
+            }
+            return texts;
+        } else if (question.getType() == QuestionType.RATING_SCALE) {
+            return store.rating(row, question.getId());
+        } else if (question.getType() == QuestionType.DATE) {
+            return store.date(row, question.getId());
+        }
+        return store.text(row, question.getId());
+    }
+}
@@ -0,0 +1,31 @@
+package com.FeedBackCollectionForm.assignment.service.export;
+
+import com.FeedBackCollectionForm.assignment.model.Option;
+import com.FeedBackCollectionForm.assignment.model.Question;
+import com.FeedBackCollectionForm.assignment.service.analytics.FormColumnStore;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes responses row by row in a specific export format.
+ */
+public interface ResponseExportWriter {
+
+    /**
+     * Writes anything that has to precede the first row.
+     *
+     * @param questions The questions of the exported form, in column order
+     * @param options The options of those questions
+     */
+    void writeHeader(List<Question> questions, List<Option> options) throws IOException;
+
+    /**
+     * Writes a single response. Called while the store is being read.
+     *
+     * @param store The column store of the exported form
+     * @param row The row of the response in the store
+     * @param questions The questions of the exported form, in column order
+     */
+    void writeRow(FormColumnStore store, int row, List<Question> questions) throws IOException;
+}
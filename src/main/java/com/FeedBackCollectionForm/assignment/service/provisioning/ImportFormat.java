@@ -0,0 +1,33 @@
+package com.FeedBackCollectionForm.assignment.service.provisioning;
+
+/**
+ * Formats accepted by the bulk user import endpoint.
+ */
+public enum ImportFormat {
+    CSV("csv"),
+    NDJSON("ndjson");
+
+    private final String param;
+
+    ImportFormat(String param) {
+        this.param = param;
+    }
+
+    /**
+     * Resolves the import format from a request parameter, defaulting to CSV.
+     *
+     * @param value The value of the format parameter
+     * @return The matching format
+     */
+    public static ImportFormat fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+        for (ImportFormat format : values()) {
+            if (format.param.equalsIgnoreCase(value.trim())) {
+                return format;
+            }
+        }
+        throw new RuntimeException("Unsupported import format: " + value);
+    }
+}
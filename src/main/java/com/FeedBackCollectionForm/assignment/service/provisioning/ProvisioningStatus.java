@@ -0,0 +1,12 @@
+package com.FeedBackCollectionForm.assignment.service.provisioning;
+
+/**
+ * Outcome of one row of a bulk user import.
+ */
+public enum ProvisioningStatus {
+    CREATED,
+    DUPLICATE_USERNAME,
+    DUPLICATE_EMAIL,
+    INVALID,
+    FAILED
+}
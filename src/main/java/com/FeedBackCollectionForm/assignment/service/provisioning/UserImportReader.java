@@ -0,0 +1,175 @@
+package com.FeedBackCollectionForm.assignment.service.provisioning;
+
+import com.FeedBackCollectionForm.assignment.payload.request.SignupRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads users from a CSV or NDJSON upload one batch at a time, so an import
+ * of any size is never held in memory.
+ *
+ * <p>CSV uploads start with a header naming the columns username, email,
+ * password, fullName, phoneNo and roles, in any order. Fields may be quoted
+ * but not span lines; roles are separated by semicolons. NDJSON uploads have
+ * one signup object per line.
+ */
+public class UserImportReader {
+    private static final List<String> CSV_COLUMNS =
+            List.of("username", "email", "password", "fullname", "phoneno", "roles");
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> columns;
+    private int line;
+
+    public UserImportReader(InputStream input, ImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the CSV header, if any.
+     *
+     * @throws RuntimeException if the header is missing or names unknown columns
+     */
+    public void open() throws IOException {
+        if (format == ImportFormat.CSV && columns == null) {
+            readHeader();
+        }
+    }
+
+    /**
+     * Reads the next rows, skipping blank lines.
+     *
+     * @param max The maximum number of rows to read
+     * @return The rows read, empty at the end of the upload
+     */
+    public List<UserImportRow> next(int max) throws IOException {
+        open();
+        List<UserImportRow> rows = new ArrayList<>();
+        String text;
+        while (rows.size() < max && (text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            rows.add(format == ImportFormat.CSV ? parseCsv(text) : parseJson(text));
+        }
+        return rows;
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        line++;
+        if (header == null) {
+            throw new RuntimeException("The CSV upload is empty");
+        }
+        // Tolerate a byte order mark from spreadsheet exports
+        if (header.startsWith("﻿")) {
+            header = header.substring(1);
+        }
+        columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT);
+            if (!CSV_COLUMNS.contains(name)) {
+                throw new RuntimeException("Unknown CSV column: " + names.get(i));
+            }
+            columns.put(name, i);
+        }
+        for (String required : List.of("username", "email", "password")) {
+            if (!columns.containsKey(required)) {
+                throw new RuntimeException("The CSV header must contain a " + required + " column");
+            }
+        }
+    }
+
+    private UserImportRow parseCsv(String text) {
+        List<String> fields;
+        try {
+            fields = splitCsv(text);
+        } catch (IllegalArgumentException e) {
+            return UserImportRow.unreadable(line, e.getMessage());
+        }
+        SignupRequest user = new SignupRequest();
+        user.setUsername(field(fields, "username"));
+        user.setEmail(field(fields, "email"));
+        user.setPassword(field(fields, "password"));
+        user.setFullName(field(fields, "fullname"));
+        user.setPhoneNo(field(fields, "phoneno"));
+        String roles = field(fields, "roles");
+        if (roles != null) {
+            Set<String> names = new HashSet<>(Arrays.asList(roles.split(";")));
+            names.removeIf(String::isBlank);
+            user.setRoles(names);
+        }
+        return UserImportRow.of(line, user);
+    }
+
+    private UserImportRow parseJson(String text) {
+        try {
+            return UserImportRow.of(line, objectMapper.readValue(text, SignupRequest.class));
+        } catch (JsonProcessingException e) {
+            return UserImportRow.unreadable(line, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields with "" escapes.
+     */
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
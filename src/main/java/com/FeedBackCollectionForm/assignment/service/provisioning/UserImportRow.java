@@ -0,0 +1,39 @@
+package com.FeedBackCollectionForm.assignment.service.provisioning;
+
+import com.FeedBackCollectionForm.assignment.payload.request.SignupRequest;
+
+/**
+ * One row of a bulk user import: the user it describes, or why it could
+ * not be read.
+ */
+public class UserImportRow {
+    private final int line;
+    private final SignupRequest user;
+    private final String error;
+
+    private UserImportRow(int line, SignupRequest user, String error) {
+        this.line = line;
+        this.user = user;
+        this.error = error;
+    }
+
+    public static UserImportRow of(int line, SignupRequest user) {
+        return new UserImportRow(line, user, null);
+    }
+
+    public static UserImportRow unreadable(int line, String error) {
+        return new UserImportRow(line, null, error);
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public SignupRequest getUser() {
+        return user;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
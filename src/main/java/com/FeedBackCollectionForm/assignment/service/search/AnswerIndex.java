@@ -0,0 +1,200 @@
+package com.FeedBackCollectionForm.assignment.service.search;
+
+import com.FeedBackCollectionForm.assignment.payload.response.SearchHitResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.SearchResultResponse;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.FSDirectory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * On-disk Lucene index with one document per response holding its text
+ * answers. Text is analyzed with the English analyzer (so "refunds" matches
+ * "refund") and indexed with offsets, which lets the highlighter build
+ * snippets straight from the postings. Writes become visible to searches on
+ * {@link #refresh()} and durable on {@link #commit(Instant)}.
+ */
+public class AnswerIndex implements Closeable {
+    public static final int MAX_HITS = 10_000;
+
+    private static final String FIELD_RESPONSE_ID = "responseId";
+    private static final String FIELD_FORM_ID = "formId";
+    private static final String FIELD_SUBMITTED_AT = "submittedAt";
+    private static final String FIELD_TEXT = "text";
+    private static final String COMMIT_INDEXED_AT = "indexedAt";
+    private static final FieldType TEXT_TYPE = new FieldType();
+
+    static {
+        TEXT_TYPE.setTokenized(true);
+        TEXT_TYPE.setStored(true);
+        TEXT_TYPE.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        TEXT_TYPE.freeze();
+    }
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final FSDirectory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public AnswerIndex(Path path) throws IOException {
+        Files.createDirectories(path);
+        this.directory = FSDirectory.open(path);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Returns when the last commit was taken, or empty if the index has never
+     * been committed.
+     *
+     * @return The time recorded with the last commit
+     */
+    public Optional<Instant> lastCommit() {
+        Iterable<Map.Entry<String, String>> data = writer.getLiveCommitData();
+        if (data != null) {
+            for (Map.Entry<String, String> entry : data) {
+                if (COMMIT_INDEXED_AT.equals(entry.getKey())) {
+                    return Optional.of(Instant.parse(entry.getValue()));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void index(IndexedResponse response) throws IOException {
+        Document document = new Document();
+        document.add(new StringField(FIELD_RESPONSE_ID, response.getResponseId().toString(), Field.Store.YES));
+        document.add(new StringField(FIELD_FORM_ID, response.getFormId().toString(), Field.Store.NO));
+        document.add(new StoredField(FIELD_SUBMITTED_AT, response.getSubmittedAt().toEpochSecond(ZoneOffset.UTC)));
+        for (String text : response.getTexts()) {
+            document.add(new Field(FIELD_TEXT, text, TEXT_TYPE));
+        }
+        writer.updateDocument(new Term(FIELD_RESPONSE_ID, response.getResponseId().toString()), document);
+    }
+
+    public void deleteForm(Long formId) throws IOException {
+        writer.deleteDocuments(new Term(FIELD_FORM_ID, formId.toString()));
+    }
+
+    public void deleteAll() throws IOException {
+        writer.deleteAll();
+    }
+
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    /**
+     * Makes all indexed documents durable and records the given time with
+     * the commit. Does nothing if nothing changed since the last commit.
+     *
+     * @param indexedAt A time before which all committed responses are indexed
+     */
+    public void commit(Instant indexedAt) throws IOException {
+        if (!writer.hasUncommittedChanges()) {
+            return;
+        }
+        writer.setLiveCommitData(Map.of(COMMIT_INDEXED_AT, indexedAt.toString()).entrySet());
+        writer.commit();
+    }
+
+    /**
+     * Searches the text answers of one form.
+     *
+     * @param formId The ID of the form
+     * @param queryText The query in Lucene query syntax; terms are ANDed by default
+     * @param page The zero-based page
+     * @param size The page size
+     * @return The page of matching responses, best matches first, with highlighted snippets
+     */
+    public SearchResultResponse search(Long formId, String queryText, int page, int size) throws IOException {
+        long started = System.nanoTime();
+        QueryParser parser = new QueryParser(FIELD_TEXT, analyzer);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        Query textQuery;
+        try {
+            textQuery = parser.parse(queryText);
+        } catch (ParseException e) {
+            throw new RuntimeException("Invalid search query: " + queryText);
+        }
+        Query query = new BooleanQuery.Builder()
+                .add(textQuery, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(FIELD_FORM_ID, formId.toString())), BooleanClause.Occur.FILTER)
+                .build();
+
+        SearchResultResponse result = new SearchResultResponse();
+        result.setFormId(formId);
+        result.setQuery(queryText);
+        result.setPage(page);
+        result.setSize(size);
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(query, (page + 1) * size);
+            result.setTotalHits(top.totalHits.value);
+            result.setTotalHitsExact(top.totalHits.relation == TotalHits.Relation.EQUAL_TO);
+
+            int from = Math.min(page * size, top.scoreDocs.length);
+            ScoreDoc[] pageDocs = Arrays.copyOfRange(top.scoreDocs, from, top.scoreDocs.length);
+            if (pageDocs.length > 0) {
+                UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer).build();
+                String[] snippets = highlighter.highlight(FIELD_TEXT, textQuery, new TopDocs(top.totalHits, pageDocs), 3);
+                for (int i = 0; i < pageDocs.length; i++) {
+                    Document document = searcher.storedFields().document(pageDocs[i].doc);
+                    SearchHitResponse hit = new SearchHitResponse();
+                    hit.setResponseId(Long.valueOf(document.get(FIELD_RESPONSE_ID)));
+                    hit.setSubmittedAt(LocalDateTime.ofEpochSecond(
+                            document.getField(FIELD_SUBMITTED_AT).numericValue().longValue(), 0, ZoneOffset.UTC));
+                    hit.setScore(pageDocs[i].score);
+                    hit.setHighlight(snippets[i]);
+                    result.getHits().add(hit);
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+
+        result.setTookMillis((System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
@@ -0,0 +1,37 @@
+package com.FeedBackCollectionForm.assignment.service.search;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The searchable part of a response: its text answers.
+ */
+public class IndexedResponse {
+    private final Long responseId;
+    private final Long formId;
+    private final LocalDateTime submittedAt;
+    private final List<String> texts;
+
+    public IndexedResponse(Long responseId, Long formId, LocalDateTime submittedAt, List<String> texts) {
+        this.responseId = responseId;
+        this.formId = formId;
+        this.submittedAt = submittedAt;
+        this.texts = List.copyOf(texts);
+    }
+
+    public Long getResponseId() {
+        return responseId;
+    }
+
+    public Long getFormId() {
+        return formId;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public List<String> getTexts() {
+        return texts;
+    }
+}
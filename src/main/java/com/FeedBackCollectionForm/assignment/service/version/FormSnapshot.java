@@ -0,0 +1,100 @@
+package com.FeedBackCollectionForm.assignment.service.version;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+import com.FeedBackCollectionForm.assignment.model.Question;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The structure of a form as published in a version: its title, description,
+ * questions and options in display order. Snapshots handed out by
+ * {@link FormVersionService} are shared and must not be modified.
+ */
+@Data
+@NoArgsConstructor
+public class FormSnapshot {
+    private String title;
+    private String description;
+    private List<QuestionSnapshot> questions = new ArrayList<>();
+
+    @JsonIgnore
+    private Map<Long, QuestionSnapshot> questionsById = Map.of();
+
+    // Set by FormVersionService for the version this snapshot was published as
+    @JsonIgnore
+    private Integer version;
+
+    @JsonIgnore
+    private String contentHash;
+
+    public static FormSnapshot from(Form form) {
+        FormSnapshot snapshot = new FormSnapshot();
+        snapshot.setTitle(form.getTitle());
+        snapshot.setDescription(form.getDescription());
+        snapshot.setQuestions(form.getQuestions().stream()
+                .map(QuestionSnapshot::from)
+                .sorted(QuestionSnapshot.DISPLAY_ORDER)
+                .collect(Collectors.toList()));
+        return snapshot;
+    }
+
+    /**
+     * Derives the structure of a form after an edit from this snapshot, so
+     * only the questions the edit touched are read from the form.
+     *
+     * @param form The edited form
+     * @param changed The questions that were added or changed, or whose options were, with their options loaded
+     * @param removedQuestionIds The IDs of the questions the edit removed
+     * @param displayOrders The new display order of other questions that were only moved
+     * @return A new, unpublished snapshot
+     */
+    public FormSnapshot withChanges(Form form, Collection<Question> changed, Set<Long> removedQuestionIds,
+                                    Map<Long, Integer> displayOrders) {
+        Map<Long, QuestionSnapshot> changedById = changed.stream()
+                .map(QuestionSnapshot::from)
+                .collect(Collectors.toMap(QuestionSnapshot::getId, Function.identity()));
+        List<QuestionSnapshot> edited = new ArrayList<>();
+        for (QuestionSnapshot question : questions) {
+            if (removedQuestionIds.contains(question.getId()) || changedById.containsKey(question.getId())) {
+                continue;
+            }
+            Integer displayOrder = displayOrders.get(question.getId());
+            edited.add(displayOrder == null ? question : question.withDisplayOrder(displayOrder));
+        }
+        edited.addAll(changedById.values());
+        edited.sort(QuestionSnapshot.DISPLAY_ORDER);
+
+        FormSnapshot snapshot = new FormSnapshot();
+        snapshot.setTitle(form.getTitle());
+        snapshot.setDescription(form.getDescription());
+        snapshot.setQuestions(edited);
+        return snapshot;
+    }
+
+    /**
+     * Finds a question of this version.
+     *
+     * @param questionId The ID of the question
+     * @return The question, or null if it was not published in this version
+     */
+    public QuestionSnapshot findQuestion(Long questionId) {
+        return questionsById.get(questionId);
+    }
+
+    void index() {
+        for (QuestionSnapshot question : questions) {
+            question.index();
+        }
+        questionsById = questions.stream()
+                .collect(Collectors.toUnmodifiableMap(QuestionSnapshot::getId, Function.identity()));
+    }
+}
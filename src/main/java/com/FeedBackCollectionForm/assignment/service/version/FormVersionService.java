@@ -0,0 +1,225 @@
+package com.FeedBackCollectionForm.assignment.service.version;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+import com.FeedBackCollectionForm.assignment.model.FormVersion;
+import com.FeedBackCollectionForm.assignment.repository.FormRepository;
+import com.FeedBackCollectionForm.assignment.repository.FormVersionRepository;
+import com.FeedBackCollectionForm.assignment.service.event.FormDeletedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes form versions and serves their snapshots. A version is published
+ * whenever a form's structure is created or changed; publishing an unchanged
+ * structure, recognized by its content hash, keeps the current version.
+ * Versions never change once stored, so parsed snapshots are cached by
+ * version ID with no invalidation, and the cache only bounds their number.
+ */
+@Service
+public class FormVersionService {
+    private static final Logger logger = LoggerFactory.getLogger(FormVersionService.class);
+
+    @Autowired
+    private FormVersionRepository formVersionRepository;
+
+    @Autowired
+    private FormRepository formRepository;
+
+    // A new builder with the application's Jackson settings on every injection
+    @Autowired
+    private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.forms.version-cache-size:1000}")
+    private long versionCacheSize;
+
+    // Sorted properties make equal structures serialize, and so hash, identically
+    private ObjectMapper canonicalMapper;
+
+    private Cache<Long, FormSnapshot> snapshots;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        canonicalMapper = objectMapperBuilder.featuresToEnable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY).build();
+        snapshots = Caffeine.newBuilder()
+                .maximumSize(versionCacheSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Publishes the current structure of a form as its new version, unless it
+     * equals the current version. Must run in the transaction that changed
+     * the form, after its questions and options have IDs.
+     *
+     * @param form The form, with its questions and options loaded
+     * @return The snapshot of the current version of the form after publishing
+     */
+    public FormSnapshot publish(Form form) {
+        return publish(form, FormSnapshot.from(form));
+    }
+
+    /**
+     * Publishes a structure of a form as its new version, unless it equals
+     * the current version. Must run in the transaction that changed the form;
+     * the new snapshot is cached when that transaction commits.
+     *
+     * @param form The form
+     * @param snapshot The new structure of the form, which must not be modified afterwards
+     * @return The snapshot of the current version of the form after publishing
+     */
+    public FormSnapshot publish(Form form, FormSnapshot snapshot) {
+        String content = write(snapshot);
+        String contentHash = sha256(content);
+
+        FormSnapshot current = form.getCurrentVersionId() == null ? null : getSnapshot(form.getCurrentVersionId());
+        if (current != null && current.getContentHash().equals(contentHash)) {
+            unchanged.incrementAndGet();
+            return current;
+        }
+
+        int number = current == null ? 1 : current.getVersion() + 1;
+        FormVersion version = formVersionRepository.save(new FormVersion(form.getId(), number, contentHash, content));
+        form.setCurrentVersionId(version.getId());
+
+        snapshot.setVersion(number);
+        snapshot.setContentHash(contentHash);
+        snapshot.index();
+        // Cached once the version is committed, so a publish that rolls back leaves nothing behind
+        Long versionId = version.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                snapshots.put(versionId, snapshot);
+                published.incrementAndGet();
+            }
+        });
+        logger.info("Published version {} of form {}", number, form.getId());
+        return snapshot;
+    }
+
+    /**
+     * Gets the snapshot of a form's current version, publishing the first
+     * version of a form created before versioning. Publishing needs a
+     * read-write transaction.
+     *
+     * @param form The form
+     * @return The snapshot new responses are validated against
+     */
+    public FormSnapshot currentSnapshot(Form form) {
+        if (form.getCurrentVersionId() == null) {
+            return publish(form);
+        }
+        return getSnapshot(form.getCurrentVersionId());
+    }
+
+    /**
+     * Gets the snapshot of a version.
+     *
+     * @param versionId The ID of the version
+     * @return The shared, unmodifiable snapshot
+     */
+    public FormSnapshot getSnapshot(Long versionId) {
+        return snapshots.get(versionId, id -> {
+            FormVersion version = formVersionRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Form version not found"));
+            FormSnapshot snapshot = read(version.getContent());
+            snapshot.setVersion(version.getVersion());
+            snapshot.setContentHash(version.getContentHash());
+            return snapshot;
+        });
+    }
+
+    /**
+     * Publishes the first version of forms created before versioning, one
+     * transaction per form.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void publishUnversionedForms() {
+        List<Long> formIds = formRepository.findIdsWithoutVersion();
+        for (Long formId : formIds) {
+            transactionTemplate.executeWithoutResult(status -> formRepository.findById(formId).ifPresent(this::publish));
+        }
+        if (!formIds.isEmpty()) {
+            logger.info("Published first versions of {} forms", formIds.size());
+        }
+    }
+
+    @EventListener
+    public void onFormDeleted(FormDeletedEvent event) {
+        formVersionRepository.deleteByFormId(event.getFormId());
+    }
+
+    /**
+     * Gets the publishing and snapshot cache counters.
+     *
+     * @return The number of versions published, unchanged publishes, and snapshot cache hits and misses
+     */
+    public Map<String, Object> snapshot() {
+        CacheStats stats = snapshots.stats();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("published", published.get());
+        metrics.put("unchanged", unchanged.get());
+        metrics.put("cachedSnapshots", snapshots.estimatedSize());
+        metrics.put("snapshotHits", stats.hitCount());
+        metrics.put("snapshotMisses", stats.missCount());
+        return metrics;
+    }
+
+    private String write(FormSnapshot snapshot) {
+        try {
+            return canonicalMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Form snapshot could not be serialized", e);
+        }
+    }
+
+    private FormSnapshot read(String content) {
+        try {
+            FormSnapshot snapshot = canonicalMapper.readValue(content, FormSnapshot.class);
+            snapshot.index();
+            return snapshot;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Form snapshot could not be read", e);
+        }
+    }
+
+    private static String sha256(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
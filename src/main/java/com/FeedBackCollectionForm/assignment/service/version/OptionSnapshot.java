@@ -0,0 +1,24 @@
+package com.FeedBackCollectionForm.assignment.service.version;
+
+import com.FeedBackCollectionForm.assignment.model.Option;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An option as published in a form version.
+ */
+@Data
+@NoArgsConstructor
+public class OptionSnapshot {
+    private Long id;
+    private String text;
+    private Integer displayOrder;
+
+    public static OptionSnapshot from(Option option) {
+        OptionSnapshot snapshot = new OptionSnapshot();
+        snapshot.setId(option.getId());
+        snapshot.setText(option.getText());
+        snapshot.setDisplayOrder(option.getDisplayOrder());
+        return snapshot;
+    }
+}
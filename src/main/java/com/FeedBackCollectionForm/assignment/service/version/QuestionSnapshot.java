@@ -0,0 +1,106 @@
+package com.FeedBackCollectionForm.assignment.service.version;
+
+import com.FeedBackCollectionForm.assignment.model.Option;
+import com.FeedBackCollectionForm.assignment.model.Question;
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A question as published in a form version, with every property that
+ * submissions are validated against.
+ */
+@Data
+@NoArgsConstructor
+public class QuestionSnapshot {
+    static final Comparator<QuestionSnapshot> DISPLAY_ORDER =
+            Comparator.comparing(QuestionSnapshot::getDisplayOrder, Comparator.nullsLast(Comparator.<Integer>naturalOrder()))
+                    .thenComparing(QuestionSnapshot::getId);
+
+    private Long id;
+    private String text;
+    private QuestionType type;
+    private Integer displayOrder;
+    private Boolean required;
+    private Integer wordLimit;
+    private Integer minRating;
+    private Integer maxRating;
+    private Integer defaultRating;
+    private String dateFormat;
+    private String minDate;
+    private String maxDate;
+    private String description;
+    private List<OptionSnapshot> options = new ArrayList<>();
+
+    @JsonIgnore
+    private Set<Long> optionIds = Set.of();
+
+    public static QuestionSnapshot from(Question question) {
+        QuestionSnapshot snapshot = new QuestionSnapshot();
+        snapshot.setId(question.getId());
+        snapshot.setText(question.getText());
+        snapshot.setType(question.getType());
+        snapshot.setDisplayOrder(question.getDisplayOrder());
+        snapshot.setRequired(question.getRequired());
+        snapshot.setWordLimit(question.getWordLimit());
+        snapshot.setMinRating(question.getMinRating());
+        snapshot.setMaxRating(question.getMaxRating());
+        snapshot.setDefaultRating(question.getDefaultRating());
+        snapshot.setDateFormat(question.getDateFormat());
+        snapshot.setMinDate(question.getMinDate());
+        snapshot.setMaxDate(question.getMaxDate());
+        snapshot.setDescription(question.getDescription());
+        snapshot.setOptions(question.getOptions().stream()
+                .sorted(Comparator.comparing(Option::getDisplayOrder, Comparator.nullsLast(Comparator.<Integer>naturalOrder()))
+                        .thenComparing(Option::getId))
+                .map(OptionSnapshot::from)
+                .collect(Collectors.toList()));
+        return snapshot;
+    }
+
+    /**
+     * Copies this question with another display order, sharing its options.
+     *
+     * @param displayOrder The new display order
+     * @return The moved question
+     */
+    QuestionSnapshot withDisplayOrder(Integer displayOrder) {
+        QuestionSnapshot moved = new QuestionSnapshot();
+        moved.setId(id);
+        moved.setText(text);
+        moved.setType(type);
+        moved.setDisplayOrder(displayOrder);
+        moved.setRequired(required);
+        moved.setWordLimit(wordLimit);
+        moved.setMinRating(minRating);
+        moved.setMaxRating(maxRating);
+        moved.setDefaultRating(defaultRating);
+        moved.setDateFormat(dateFormat);
+        moved.setMinDate(minDate);
+        moved.setMaxDate(maxDate);
+        moved.setDescription(description);
+        moved.setOptions(options);
+        return moved;
+    }
+
+    /**
+     * Checks whether an option belongs to this question.
+     *
+     * @param optionId The ID of the option
+     * @return true if the option was published with this question
+     */
+    public boolean hasOption(Long optionId) {
+        return optionIds.contains(optionId);
+    }
+
+    void index() {
+        optionIds = options.stream().map(OptionSnapshot::getId).collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,102 @@
+package com.FeedBackCollectionForm.assignment.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over 64-bit hashes. A negative answer is always right; a
+ * positive answer is wrong with probability about (1 - e^(-k n / m))^k for
+ * n elements in m bits with k hash functions. The bit and hash counts are
+ * chosen from the expected number of elements and the target false positive
+ * rate; adding more elements than expected raises the rate gradually rather
+ * than failing. Adds and lookups may run concurrently.
+ */
+public class BloomFilter {
+    private final long bitCount;
+    private final int hashFunctions;
+    private final AtomicLongArray words;
+    private final AtomicLong elements = new AtomicLong();
+
+    /**
+     * Creates a filter sized for the given load.
+     *
+     * @param expectedElements The number of elements the filter should hold at the target rate
+     * @param falsePositiveRate The target false positive rate, e.g. 0.001
+     */
+    public BloomFilter(long expectedElements, double falsePositiveRate) {
+        if (expectedElements < 1) {
+            throw new IllegalArgumentException("Expected elements must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        // m = -n ln p / (ln 2)^2 bits and k = m / n ln 2 hashes minimize the rate for n elements
+        long bits = (long) Math.ceil(-expectedElements * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (bits + 63) / 64 * 64);
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedElements * Math.log(2)));
+        this.words = new AtomicLongArray((int) (bitCount / 64));
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    public long getElements() {
+        return elements.get();
+    }
+
+    /**
+     * Adds a hashed element.
+     *
+     * @param hash A well-mixed 64-bit hash of the element
+     */
+    public void add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+        elements.incrementAndGet();
+    }
+
+    /**
+     * Checks whether an element may have been added.
+     *
+     * @param hash A well-mixed 64-bit hash of the element
+     * @return false if the element was certainly never added
+     */
+    public boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimates the current false positive rate from the fraction of set bits.
+     *
+     * @return The probability that a lookup of an element never added answers true
+     */
+    public double expectedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / bitCount, hashFunctions);
+    }
+}
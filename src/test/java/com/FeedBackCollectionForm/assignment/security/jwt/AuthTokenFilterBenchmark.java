@@ -0,0 +1,138 @@
+package com.FeedBackCollectionForm.assignment.security.jwt;
+
+import ch.qos.logback.classic.Level;
+import com.FeedBackCollectionForm.assignment.security.services.TokenRevocationService;
+import com.FeedBackCollectionForm.assignment.security.services.UserDetailsImpl;
+import com.FeedBackCollectionForm.assignment.security.services.UserDetailsServiceImpl;
+import com.FeedBackCollectionForm.assignment.util.BloomFilter;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of authenticating a bearer token in
+ * {@link AuthTokenFilter}: the full filter, including the revocation check,
+ * with a token it has seen before, verifying tokens it has not seen, and the
+ * previous approach of rebuilding the key and parser and parsing each token
+ * twice.
+ *
+ * <p>Run with {@code mvn test-compile dependency:build-classpath
+ * -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test}, then
+ * {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt)
+ * com.FeedBackCollectionForm.assignment.security.jwt.AuthTokenFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+	private static final String SECRET = "feedbackAppSecretKey123456789012345678901234567890";
+	private static final int DISTINCT_TOKENS = 50_000;
+	private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+	private AuthTokenFilter filter;
+	private JwtUtils jwtUtils;
+	private MockHttpServletRequest request;
+	private MockHttpServletResponse response;
+	private String token;
+	private String[] distinctTokens;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		// The filter logs every request at INFO; measure the authentication work, not the console
+		((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+		jwtUtils = new JwtUtils();
+		ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+		ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+		ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", 1_000L);
+		ReflectionTestUtils.setField(jwtUtils, "verifiedCacheTtlMs", 300_000L);
+		jwtUtils.init();
+
+		// A loaded revocation filter without revoked tokens: every check is answered in memory
+		TokenRevocationService revocations = new TokenRevocationService();
+		ReflectionTestUtils.setField(revocations, "rebuildIntervalMs", 300_000L);
+		ReflectionTestUtils.invokeMethod(revocations, "init");
+		ReflectionTestUtils.setField(revocations, "filter", new BloomFilter(100_000, 0.001));
+
+		filter = new AuthTokenFilter();
+		ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+		ReflectionTestUtils.setField(filter, "userDetailsService", new UserDetailsServiceImpl());
+		ReflectionTestUtils.setField(filter, "tokenRevocationService", revocations);
+		ReflectionTestUtils.setField(filter, "headerName", "Authorization");
+		ReflectionTestUtils.setField(filter, "headerPrefix", "Bearer ");
+
+		token = issue(1L, "alice");
+		request = new MockHttpServletRequest("GET", "/api/forms/1/analytics");
+		request.addHeader("Authorization", "Bearer " + token);
+		response = new MockHttpServletResponse();
+
+		distinctTokens = new String[DISTINCT_TOKENS];
+		for (int i = 0; i < DISTINCT_TOKENS; i++) {
+			distinctTokens[i] = issue((long) i, "user" + i);
+		}
+	}
+
+	@Benchmark
+	public Object filterWithKnownToken() throws Exception {
+		filter.doFilterInternal(request, response, NO_OP_CHAIN);
+		Object authentication = SecurityContextHolder.getContext().getAuthentication();
+		SecurityContextHolder.clearContext();
+		return authentication;
+	}
+
+	@Benchmark
+	public Object verifyUnseenToken() {
+		// Far more tokens than the cache holds, so nearly every call verifies the signature
+		next = (next + 1) % DISTINCT_TOKENS;
+		return jwtUtils.getVerifiedClaims(distinctTokens[next]);
+	}
+
+	@Benchmark
+	public void verifyPerCallKeyAndDoubleParse(Blackhole blackhole) {
+		blackhole.consume(Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+				.build().parseClaimsJws(token));
+		blackhole.consume(Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+				.build().parseClaimsJws(token).getBody().getSubject());
+	}
+
+	private String issue(Long id, String username) {
+		UserDetailsImpl user = new UserDetailsImpl(id, username, username + "@example.com", null,
+				List.of(new SimpleGrantedAuthority("ROLE_USER")), 0);
+		return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(AuthTokenFilterBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,162 @@
+package com.FeedBackCollectionForm.assignment.security.jwt;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.FeedBackCollectionForm.assignment.config.logging.SamplingTurboFilter;
+import com.FeedBackCollectionForm.assignment.security.services.TokenRevocationService;
+import com.FeedBackCollectionForm.assignment.security.services.UserDetailsImpl;
+import com.FeedBackCollectionForm.assignment.security.services.UserDetailsServiceImpl;
+import com.FeedBackCollectionForm.assignment.util.BloomFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures authenticated requests per second through {@link AuthTokenFilter}
+ * on several threads, under each logging setup: logging off (WARN), every
+ * line written synchronously to a file as the previous console setup did,
+ * the async appender of logback-spring.xml, and the async appender with the
+ * production sampling of the filter's per-request lines.
+ *
+ * <p>Run with {@code mvn test-compile dependency:build-classpath
+ * -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test}, then
+ * {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt)
+ * com.FeedBackCollectionForm.assignment.security.jwt.RequestLoggingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(4)
+@Fork(1)
+public class RequestLoggingBenchmark {
+	private static final String SECRET = "feedbackAppSecretKey123456789012345678901234567890";
+	private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+	@Param({"off", "sync", "async", "async-sampled"})
+	private String logging;
+
+	private AuthTokenFilter filter;
+	private String token;
+	private File logFile;
+
+	@Setup
+	public void setUp() throws IOException {
+		logFile = File.createTempFile("request-logging-benchmark", ".log");
+		configureLogging();
+
+		JwtUtils jwtUtils = new JwtUtils();
+		ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+		ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+		ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", 1_000L);
+		ReflectionTestUtils.setField(jwtUtils, "verifiedCacheTtlMs", 300_000L);
+		jwtUtils.init();
+
+		TokenRevocationService revocations = new TokenRevocationService();
+		ReflectionTestUtils.setField(revocations, "rebuildIntervalMs", 300_000L);
+		ReflectionTestUtils.invokeMethod(revocations, "init");
+		ReflectionTestUtils.setField(revocations, "filter", new BloomFilter(100_000, 0.001));
+
+		filter = new AuthTokenFilter();
+		ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+		ReflectionTestUtils.setField(filter, "userDetailsService", new UserDetailsServiceImpl());
+		ReflectionTestUtils.setField(filter, "tokenRevocationService", revocations);
+		ReflectionTestUtils.setField(filter, "headerName", "Authorization");
+		ReflectionTestUtils.setField(filter, "headerPrefix", "Bearer ");
+
+		UserDetailsImpl user = new UserDetailsImpl(1L, "alice", "alice@example.com", null,
+				List.of(new SimpleGrantedAuthority("ROLE_USER")), 0);
+		token = jwtUtils.generateJwtToken(user);
+	}
+
+	private void configureLogging() {
+		LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+		context.reset();
+
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n");
+		encoder.start();
+
+		FileAppender<ILoggingEvent> file = new FileAppender<>();
+		file.setContext(context);
+		file.setFile(logFile.getAbsolutePath());
+		file.setEncoder(encoder);
+		file.start();
+
+		Appender<ILoggingEvent> appender = file;
+		if (logging.startsWith("async")) {
+			AsyncAppender async = new AsyncAppender();
+			async.setContext(context);
+			async.setQueueSize(8192);
+			async.setNeverBlock(true);
+			async.addAppender(file);
+			async.start();
+			appender = async;
+		}
+		if (logging.equals("async-sampled")) {
+			SamplingTurboFilter sampling = new SamplingTurboFilter();
+			sampling.setContext(context);
+			sampling.addCategory(AuthTokenFilter.class.getName() + "=100");
+			sampling.start();
+			context.addTurboFilter(sampling);
+		}
+
+		ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+		root.setLevel(logging.equals("off") ? Level.WARN : Level.INFO);
+		root.addAppender(appender);
+	}
+
+	@TearDown
+	public void tearDown() {
+		((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+		logFile.delete();
+	}
+
+	@Benchmark
+	public Object request() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/forms/1/analytics");
+		request.addHeader("Authorization", "Bearer " + token);
+		filter.doFilterInternal(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+		Object authentication = SecurityContextHolder.getContext().getAuthentication();
+		SecurityContextHolder.clearContext();
+		return authentication;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(RequestLoggingBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
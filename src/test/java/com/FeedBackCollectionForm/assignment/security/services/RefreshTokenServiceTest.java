@@ -0,0 +1,126 @@
+package com.FeedBackCollectionForm.assignment.security.services;
+
+import com.FeedBackCollectionForm.assignment.exception.TokenRefreshException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshTokenServiceTest extends SecurityServiceTestSupport {
+	// Users need not exist; every test takes its own ID so families never mix
+	private static final AtomicLong userIds = new AtomicLong(1_000_000);
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Test
+	void rotationIssuesANewTokenForTheSameUser() {
+		long userId = userIds.incrementAndGet();
+		String token = refreshTokenService.issue(userId, "alice");
+
+		RefreshTokenService.Rotation first = refreshTokenService.rotate(token);
+		RefreshTokenService.Rotation second = refreshTokenService.rotate(first.getRefreshToken());
+
+		assertNotEquals(token, first.getRefreshToken());
+		assertNotEquals(first.getRefreshToken(), second.getRefreshToken());
+		assertEquals(userId, second.getUserId());
+		assertEquals("alice", second.getUsername());
+	}
+
+	@Test
+	void unknownTokenIsRejected() {
+		TokenRefreshException e = assertThrows(TokenRefreshException.class,
+				() -> refreshTokenService.rotate("not-a-token"));
+
+		assertTrue(e.getMessage().contains("not valid"), e.getMessage());
+	}
+
+	@Test
+	void reusingARotatedTokenRevokesTheFamily() {
+		String token = refreshTokenService.issue(userIds.incrementAndGet(), "alice");
+		String next = refreshTokenService.rotate(token).getRefreshToken();
+
+		TokenRefreshException reuse = assertThrows(TokenRefreshException.class,
+				() -> refreshTokenService.rotate(token));
+		TokenRefreshException revoked = assertThrows(TokenRefreshException.class,
+				() -> refreshTokenService.rotate(next));
+
+		assertTrue(reuse.getMessage().contains("already been used"), reuse.getMessage());
+		assertTrue(revoked.getMessage().contains("revoked"), revoked.getMessage());
+	}
+
+	@Test
+	void revokingATokenRevokesItsFamilyOnly() {
+		long userId = userIds.incrementAndGet();
+		String signedOut = refreshTokenService.rotate(refreshTokenService.issue(userId, "alice")).getRefreshToken();
+		String otherSession = refreshTokenService.issue(userId, "alice");
+
+		refreshTokenService.revoke(signedOut);
+
+		assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotate(signedOut));
+		refreshTokenService.rotate(otherSession);
+	}
+
+	@Test
+	void revokingAllTokensOfAUserRevokesEveryFamily() {
+		long userId = userIds.incrementAndGet();
+		String first = refreshTokenService.issue(userId, "alice");
+		String second = refreshTokenService.issue(userId, "alice");
+		String otherUser = refreshTokenService.issue(userIds.incrementAndGet(), "bob");
+
+		refreshTokenService.revokeAllForUser(userId);
+
+		assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotate(first));
+		assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotate(second));
+		refreshTokenService.rotate(otherUser);
+	}
+
+	@Test
+	void ofTwoRacingRefreshesOneFailsAndTheFamilyIsRevoked() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			for (int round = 0; round < 20; round++) {
+				String token = refreshTokenService.issue(userIds.incrementAndGet(), "alice");
+				CyclicBarrier start = new CyclicBarrier(2);
+				Callable<RefreshTokenService.Rotation> refresh = () -> {
+					start.await();
+					return refreshTokenService.rotate(token);
+				};
+
+				List<Future<RefreshTokenService.Rotation>> futures = List.of(executor.submit(refresh), executor.submit(refresh));
+				List<String> issued = new ArrayList<>();
+				int failed = 0;
+				for (Future<RefreshTokenService.Rotation> future : futures) {
+					try {
+						issued.add(future.get().getRefreshToken());
+					} catch (ExecutionException e) {
+						assertInstanceOf(TokenRefreshException.class, e.getCause());
+						failed++;
+					}
+				}
+
+				assertEquals(1, failed, "Round " + round);
+				// The token that won the race belongs to the revoked family as well
+				for (String next : issued) {
+					assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotate(next));
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package com.FeedBackCollectionForm.assignment.security.services;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Base class for tests of the token services. Subclasses share one
+ * application context and one in-memory database, so give every test its
+ * own users and tokens.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:security-service-tests;DB_CLOSE_DELAY=-1",
+		"spring.jpa.show-sql=false",
+		"app.search.index-dir=target/security-service-tests-index",
+		// The JCache manager is shared by the JVM; separate regions keep these entities
+		// from being served to contexts on another database
+		"spring.jpa.properties.hibernate.cache.region_prefix=security-service-tests",
+		"spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create"
+})
+abstract class SecurityServiceTestSupport {
+}
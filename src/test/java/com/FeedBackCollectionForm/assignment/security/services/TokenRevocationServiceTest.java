@@ -0,0 +1,82 @@
+package com.FeedBackCollectionForm.assignment.security.services;
+
+import com.FeedBackCollectionForm.assignment.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationServiceTest extends SecurityServiceTestSupport {
+
+	@Autowired
+	private TokenRevocationService tokenRevocationService;
+
+	@Autowired
+	private RevokedTokenRepository revokedTokenRepository;
+
+	@Test
+	void revokedTokenIsRejectedByItsId() {
+		Claims revoked = claims(UUID.randomUUID().toString(), 60_000);
+		Claims other = claims(UUID.randomUUID().toString(), 60_000);
+
+		assertTrue(tokenRevocationService.revoke(revoked));
+
+		assertTrue(tokenRevocationService.isRevoked(revoked));
+		assertTrue(tokenRevocationService.isRevoked(claims(revoked.getId(), 60_000)));
+		assertFalse(tokenRevocationService.isRevoked(other));
+		assertTrue(revokedTokenRepository.existsByTokenId(revoked.getId()));
+	}
+
+	@Test
+	void tokensWithoutAnIdCannotBeRevoked() {
+		Claims claims = claims(null, 60_000);
+
+		assertFalse(tokenRevocationService.revoke(claims));
+		assertFalse(tokenRevocationService.isRevoked(claims));
+	}
+
+	@Test
+	void revokingTwiceKeepsTheTokenRevoked() {
+		Claims claims = claims(UUID.randomUUID().toString(), 60_000);
+
+		tokenRevocationService.revoke(claims);
+		tokenRevocationService.revoke(claims);
+
+		assertTrue(tokenRevocationService.isRevoked(claims));
+	}
+
+	@Test
+	void revocationsSurviveARebuild() {
+		Claims claims = claims(UUID.randomUUID().toString(), 60_000);
+		tokenRevocationService.revoke(claims);
+
+		tokenRevocationService.rebuild();
+
+		assertTrue(tokenRevocationService.isRevoked(claims));
+	}
+
+	@Test
+	void rebuildPurgesRevocationsOfExpiredTokens() {
+		Claims expired = claims(UUID.randomUUID().toString(), -60_000);
+		Claims active = claims(UUID.randomUUID().toString(), 60_000);
+		tokenRevocationService.revoke(expired);
+		tokenRevocationService.revoke(active);
+
+		tokenRevocationService.rebuild();
+
+		assertFalse(revokedTokenRepository.existsByTokenId(expired.getId()));
+		assertTrue(revokedTokenRepository.existsByTokenId(active.getId()));
+	}
+
+	private static Claims claims(String tokenId, long expiresInMs) {
+		Claims claims = Jwts.claims().setSubject("alice").setExpiration(new Date(System.currentTimeMillis() + expiresInMs));
+		claims.setId(tokenId);
+		return claims;
+	}
+}
@@ -0,0 +1,117 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.Option;
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.model.User;
+import com.FeedBackCollectionForm.assignment.payload.request.AnswerRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.FormPatchRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.FormRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.QuestionRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.ResponseRequest;
+import com.FeedBackCollectionForm.assignment.payload.response.FormResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.QuestionResponse;
+import com.FeedBackCollectionForm.assignment.repository.AnswerRepository;
+import com.FeedBackCollectionForm.assignment.repository.FormRepository;
+import com.FeedBackCollectionForm.assignment.repository.OptionRepository;
+import com.FeedBackCollectionForm.assignment.repository.QuestionRepository;
+import com.FeedBackCollectionForm.assignment.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that deleting a form also deletes the questions and options an
+ * earlier edit removed, along with the answers that refer to them.
+ */
+class FormDeletionTest extends FormServiceTestSupport {
+	@Autowired
+	private FormService formService;
+
+	@Autowired
+	private ResponseService responseService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private FormRepository formRepository;
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private OptionRepository optionRepository;
+
+	@Autowired
+	private AnswerRepository answerRepository;
+
+	@Test
+	void deletingFormAfterRemovingQuestionsAndOptions() {
+		userRepository.save(new User("deletion-owner", "deletion-owner@example.com", "Deletion Owner", "5550102", "unused"));
+		long questions = questionRepository.count();
+		long options = optionRepository.count();
+		long answers = answerRepository.count();
+
+		FormResponse form = formService.createForm(formRequest(), "deletion-owner");
+		List<Long> singleOptions = optionIds(form.getQuestions().get(0));
+		List<Long> multiOptions = optionIds(form.getQuestions().get(1));
+		responseService.submitResponse(form.getPublicUrl(), responseRequest(form, singleOptions, multiOptions));
+
+		// Remove the selected options of both choice questions and the whole rating question
+		FormPatchRequest patch = new FormPatchRequest();
+		patch.getRemoveOptionIds().add(singleOptions.get(0));
+		patch.getRemoveOptionIds().add(multiOptions.get(1));
+		patch.getRemoveQuestionIds().add(form.getQuestions().get(2).getId());
+		assertEquals(2, formService.updateForm(form.getId(), patch, "deletion-owner").getQuestions().size());
+
+		formService.deleteForm(form.getId(), "deletion-owner");
+
+		assertTrue(formRepository.findById(form.getId()).isEmpty());
+		assertEquals(questions, questionRepository.count());
+		assertEquals(options, optionRepository.count());
+		assertEquals(answers, answerRepository.count());
+	}
+
+	private static FormRequest formRequest() {
+		FormRequest request = new FormRequest();
+		request.setTitle("Edited form");
+		request.setDescription("Edited after a submission, then deleted");
+		QuestionRequest rating = question("Rate us", QuestionType.RATING_SCALE);
+		rating.setMinRating(1);
+		rating.setMaxRating(5);
+		request.setQuestions(List.of(
+				question("Pick one", QuestionType.SINGLE_SELECT, "Red", "Green", "Blue"),
+				question("Pick some", QuestionType.MULTI_SELECT, "Tea", "Coffee", "Juice"),
+				rating));
+		return request;
+	}
+
+	private List<Long> optionIds(QuestionResponse question) {
+		return optionRepository.findByQuestionOrderByDisplayOrderAsc(questionRepository.getReferenceById(question.getId()))
+				.stream()
+				.map(Option::getId)
+				.toList();
+	}
+
+	private static ResponseRequest responseRequest(FormResponse form, List<Long> singleOptions, List<Long> multiOptions) {
+		ResponseRequest request = new ResponseRequest();
+		request.setRespondentName("Respondent");
+		request.setRespondentEmail("respondent@example.com");
+		for (QuestionResponse question : form.getQuestions()) {
+			AnswerRequest answer = new AnswerRequest();
+			answer.setQuestionId(question.getId());
+			switch (question.getType()) {
+				case SINGLE_SELECT -> answer.setSelectedOptionId(singleOptions.get(0));
+				case MULTI_SELECT -> answer.setSelectedOptionIds(multiOptions.subList(0, 2));
+				case RATING_SCALE -> answer.setRatingValue(4);
+				default -> { }
+			}
+			request.getAnswers().add(answer);
+		}
+		return request;
+	}
+}
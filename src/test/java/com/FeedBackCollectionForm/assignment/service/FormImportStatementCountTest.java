@@ -0,0 +1,117 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.QuestionStat;
+import com.FeedBackCollectionForm.assignment.model.QuestionStatKind;
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.model.User;
+import com.FeedBackCollectionForm.assignment.payload.request.FormRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.QuestionRequest;
+import com.FeedBackCollectionForm.assignment.payload.response.FormResponse;
+import com.FeedBackCollectionForm.assignment.repository.QuestionStatRepository;
+import com.FeedBackCollectionForm.assignment.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that importing a large form template inserts the form, its
+ * questions and its options in batches, so the number of statements grows
+ * with the number of ID blocks rather than with the number of rows.
+ */
+class FormImportStatementCountTest extends FormServiceTestSupport {
+	private static final int QUESTIONS = 500;
+	private static final int OPTIONS_PER_CHOICE_QUESTION = 4;
+	// The allocationSize of the ID sequences
+	private static final int ID_BLOCK_SIZE = 50;
+
+	@Autowired
+	private FormService formService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private QuestionStatRepository questionStatRepository;
+
+	@Test
+	void importingLargeTemplateInsertsInBatches() {
+		userRepository.save(new User("template-owner", "template-owner@example.com", "Template Owner", "5550101", "unused"));
+		FormRequest template = template();
+
+		clearStatements();
+		FormResponse form = formService.createForm(template, "template-owner");
+		List<String> recorded = recordedStatements();
+
+		assertEquals(QUESTIONS, form.getQuestions().size());
+		assertEquals(QUESTIONS, questionStatRepository.findByFormId(form.getId()).stream()
+				.filter(stat -> stat.getKind() == QuestionStatKind.TOTAL)
+				.count());
+		assertEquals(QuestionStat.RESPONSE_STRIPES, questionStatRepository.findByFormId(form.getId()).stream()
+				.filter(stat -> stat.getKind() == QuestionStatKind.RESPONSES)
+				.count());
+
+		// Each insert statement is prepared once and reused for all its batches
+		Map<String, Long> byStatement = recorded.stream()
+				.collect(Collectors.groupingBy(FormImportStatementCountTest::statement, Collectors.counting()));
+		assertEquals(1, byStatement.get("insert into forms"));
+		assertEquals(1, byStatement.get("insert into questions"));
+		assertEquals(1, byStatement.get("insert into options"));
+		assertEquals(1, byStatement.get("insert into form_versions"));
+		// The TOTAL rows of all questions, and the response count rows of the form
+		assertEquals(2, byStatement.get("insert into question_stats"));
+		// Pointing the form at its first version, which needs the IDs of the questions
+		assertEquals(1, byStatement.get("update forms"));
+
+		// One sequence call per block of IDs, plus the first call of each sequence
+		int options = QUESTIONS / 2 * OPTIONS_PER_CHOICE_QUESTION;
+		long sequenceCalls = recorded.stream().filter(sql -> statement(sql).startsWith("select next value")).count();
+		assertTrue(sequenceCalls <= blocks(1) + blocks(1) + blocks(QUESTIONS) + blocks(options),
+				sequenceCalls + " sequence calls");
+
+		// The owner and their roles, the sequence calls, six inserts and the update
+		assertEquals(2 + sequenceCalls + 6 + 1, recorded.size(), () -> String.join("\n", recorded));
+	}
+
+	private static long blocks(int ids) {
+		return (ids + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE + 1;
+	}
+
+	private static String statement(String sql) {
+		List<String> words = List.of(sql.trim().toLowerCase().split("[\\s(]+"));
+		return switch (words.get(0)) {
+			case "insert" -> String.join(" ", words.subList(0, 3));
+			case "update" -> String.join(" ", words.subList(0, 2));
+			case "select" -> words.size() > 3 && words.get(1).equals("next") ? String.join(" ", words.subList(0, 4)) : "select";
+			default -> words.get(0);
+		};
+	}
+
+	private static FormRequest template() {
+		FormRequest request = new FormRequest();
+		request.setTitle("Imported template");
+		request.setDescription("A large survey template");
+		List<QuestionRequest> questions = new ArrayList<>();
+		String[] options = new String[OPTIONS_PER_CHOICE_QUESTION];
+		Arrays.setAll(options, j -> "Option " + j);
+		for (int i = 0; i < QUESTIONS; i++) {
+			if (i % 2 == 0) {
+				questions.add(question("Question " + i, QuestionType.SINGLE_SELECT, options));
+			} else {
+				QuestionRequest question = question("Question " + i, QuestionType.RATING_SCALE);
+				question.setMinRating(1);
+				question.setMaxRating(5);
+				questions.add(question);
+			}
+		}
+		request.setQuestions(questions);
+		return request;
+	}
+}
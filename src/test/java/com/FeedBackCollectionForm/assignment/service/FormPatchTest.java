@@ -0,0 +1,178 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.Question;
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.model.User;
+import com.FeedBackCollectionForm.assignment.payload.request.FormPatchRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.FormRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.OptionPatchRequest;
+import com.FeedBackCollectionForm.assignment.payload.response.FormResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.OptionResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.QuestionResponse;
+import com.FeedBackCollectionForm.assignment.repository.FormVersionRepository;
+import com.FeedBackCollectionForm.assignment.repository.QuestionRepository;
+import com.FeedBackCollectionForm.assignment.repository.UserRepository;
+import com.FeedBackCollectionForm.assignment.service.version.FormSnapshot;
+import com.FeedBackCollectionForm.assignment.service.version.OptionSnapshot;
+import com.FeedBackCollectionForm.assignment.service.version.QuestionSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a structural diff changes only what it names, that the
+ * version it publishes holds the edited structure, and that a diff naming
+ * something outside the form changes nothing.
+ */
+class FormPatchTest extends FormServiceTestSupport {
+	@Autowired
+	private FormService formService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private FormVersionRepository formVersionRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void reorderingQuestionsPublishesTheNewOrder() throws Exception {
+		FormResponse form = createForm("patch-reorder-owner");
+		List<Long> ids = questionIds(form);
+
+		FormPatchRequest patch = new FormPatchRequest();
+		patch.setQuestionOrder(List.of(ids.get(2), ids.get(0), ids.get(1)));
+		FormResponse edited = formService.updateForm(form.getId(), patch, "patch-reorder-owner");
+
+		assertEquals(List.of(ids.get(2), ids.get(0), ids.get(1)), questionIds(edited));
+		FormSnapshot published = publishedVersion(form.getId(), 2);
+		assertEquals(List.of(ids.get(2), ids.get(0), ids.get(1)),
+				published.getQuestions().stream().map(QuestionSnapshot::getId).toList());
+		assertEquals(List.of(0, 1, 2),
+				published.getQuestions().stream().map(QuestionSnapshot::getDisplayOrder).toList());
+		// The first version keeps the order it was published with
+		assertEquals(ids, publishedVersion(form.getId(), 1).getQuestions().stream()
+				.map(QuestionSnapshot::getId).toList());
+	}
+
+	@Test
+	void removedQuestionsAreListedAfterCurrentOnesInDisplayOrder() {
+		FormResponse form = createForm("patch-removal-owner");
+		List<Long> ids = questionIds(form);
+
+		FormPatchRequest patch = new FormPatchRequest();
+		patch.getRemoveQuestionIds().add(ids.get(0));
+		patch.setQuestionOrder(List.of(ids.get(2), ids.get(1)));
+		formService.updateForm(form.getId(), patch, "patch-removal-owner");
+
+		assertEquals(List.of(ids.get(2), ids.get(1), ids.get(0)),
+				questionRepository.findAllByFormIdIncludingRemoved(form.getId()).stream().map(Question::getId).toList());
+	}
+
+	@Test
+	void addingAndRemovingOptionsPublishesTheNewOptions() throws Exception {
+		FormResponse form = createForm("patch-options-owner");
+		QuestionResponse single = form.getQuestions().get(0);
+		List<Long> optionIds = single.getOptions().stream().map(OptionResponse::getId).toList();
+
+		FormPatchRequest patch = new FormPatchRequest();
+		patch.getRemoveOptionIds().add(optionIds.get(1));
+		OptionPatchRequest added = new OptionPatchRequest();
+		added.setQuestionId(single.getId());
+		added.setText("Yellow");
+		patch.getAddOptions().add(added);
+		OptionPatchRequest renamed = new OptionPatchRequest();
+		renamed.setId(optionIds.get(0));
+		renamed.setText("Crimson");
+		patch.getUpdateOptions().add(renamed);
+		FormResponse edited = formService.updateForm(form.getId(), patch, "patch-options-owner");
+
+		assertEquals(List.of("Crimson", "Blue", "Yellow"), optionTexts(edited.getQuestions().get(0)));
+		QuestionSnapshot published = question(publishedVersion(form.getId(), 2), single.getId());
+		assertEquals(List.of("Crimson", "Blue", "Yellow"),
+				published.getOptions().stream().map(OptionSnapshot::getText).toList());
+		assertFalse(published.getOptions().stream().anyMatch(option -> option.getId().equals(optionIds.get(1))));
+		// Answers to the first version still resolve the removed option
+		assertEquals(List.of("Red", "Green", "Blue"), question(publishedVersion(form.getId(), 1), single.getId())
+				.getOptions().stream().map(OptionSnapshot::getText).toList());
+	}
+
+	@Test
+	void unknownIdsAreRejectedWithoutPublishing() {
+		FormResponse form = createForm("patch-unknown-owner");
+		FormResponse other = createForm("patch-unknown-owner");
+
+		FormPatchRequest unknownQuestion = new FormPatchRequest();
+		unknownQuestion.getRemoveQuestionIds().add(other.getQuestions().get(0).getId());
+		RuntimeException error = assertThrows(RuntimeException.class,
+				() -> formService.updateForm(form.getId(), unknownQuestion, "patch-unknown-owner"));
+		assertEquals("Question does not belong to this form", error.getMessage());
+
+		FormPatchRequest unknownOption = new FormPatchRequest();
+		unknownOption.setTitle("Renamed");
+		unknownOption.getRemoveOptionIds().add(Long.MAX_VALUE);
+		error = assertThrows(RuntimeException.class,
+				() -> formService.updateForm(form.getId(), unknownOption, "patch-unknown-owner"));
+		assertEquals("Option not found", error.getMessage());
+
+		FormPatchRequest incompleteOrder = new FormPatchRequest();
+		incompleteOrder.setQuestionOrder(questionIds(form).subList(0, 2));
+		error = assertThrows(RuntimeException.class,
+				() -> formService.updateForm(form.getId(), incompleteOrder, "patch-unknown-owner"));
+		assertEquals("Question order must list every remaining question once", error.getMessage());
+
+		assertNotNull(formVersionRepository.findByFormIdAndVersion(form.getId(), 1).orElse(null));
+		assertNull(formVersionRepository.findByFormIdAndVersion(form.getId(), 2).orElse(null));
+		assertEquals(questionIds(form), questionIds(formService.getFormById(form.getId(), "patch-unknown-owner")));
+	}
+
+	private FormResponse createForm(String owner) {
+		if (!userRepository.existsByUsername(owner)) {
+			userRepository.save(new User(owner, owner + "@example.com", "Patch Owner", "5550103", "unused"));
+		}
+		FormRequest request = new FormRequest();
+		request.setTitle("Patched form");
+		request.setDescription("Edited with structural diffs");
+		request.setQuestions(List.of(
+				question("Pick one", QuestionType.MULTIPLE_CHOICE, "Red", "Green", "Blue"),
+				question("Tell us more", QuestionType.TEXT),
+				question("When", QuestionType.DATE)));
+		return formService.createForm(request, owner);
+	}
+
+	/** Reads a published version from the table rather than from the snapshot cache. */
+	private FormSnapshot publishedVersion(Long formId, int version) throws Exception {
+		String content = formVersionRepository.findByFormIdAndVersion(formId, version)
+				.orElseThrow()
+				.getContent();
+		return objectMapper.readValue(content, FormSnapshot.class);
+	}
+
+	private static QuestionSnapshot question(FormSnapshot snapshot, Long questionId) {
+		return snapshot.getQuestions().stream()
+				.filter(question -> question.getId().equals(questionId))
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private static List<Long> questionIds(FormResponse form) {
+		return form.getQuestions().stream().map(QuestionResponse::getId).toList();
+	}
+
+	private static List<String> optionTexts(QuestionResponse question) {
+		return question.getOptions().stream().map(OptionResponse::getText).toList();
+	}
+}
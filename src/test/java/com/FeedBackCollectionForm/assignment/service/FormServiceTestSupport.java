@@ -0,0 +1,68 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.payload.request.OptionRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.QuestionRequest;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Base class for tests of the form services. Subclasses share one
+ * application context and one in-memory database, so give every test its
+ * own form owner. Each statement Hibernate prepares is recorded, which lets
+ * a test count what an operation sends to the database.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:form-service-tests;DB_CLOSE_DELAY=-1",
+		"spring.jpa.show-sql=false",
+		"app.search.index-dir=target/form-service-tests-index",
+		// The JCache manager is shared by the JVM; separate regions keep these entities
+		// from being served to contexts on another database
+		"spring.jpa.properties.hibernate.cache.region_prefix=form-service-tests",
+		"spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create"
+})
+@Import(FormServiceTestSupport.StatementRecorder.class)
+abstract class FormServiceTestSupport {
+	private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+	@TestConfiguration
+	static class StatementRecorder {
+		@Bean
+		HibernatePropertiesCustomizer statementRecorderCustomizer() {
+			return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+				statements.add(sql);
+				return sql;
+			});
+		}
+	}
+
+	/** Forgets the statements recorded so far. */
+	static void clearStatements() {
+		statements.clear();
+	}
+
+	/** The statements prepared since the last {@link #clearStatements()}, in order. */
+	static List<String> recordedStatements() {
+		return List.copyOf(statements);
+	}
+
+	static QuestionRequest question(String text, QuestionType type, String... options) {
+		QuestionRequest question = new QuestionRequest();
+		question.setText(text);
+		question.setType(type);
+		for (String option : options) {
+			OptionRequest optionRequest = new OptionRequest();
+			optionRequest.setText(option);
+			question.getOptions().add(optionRequest);
+		}
+		return question;
+	}
+}
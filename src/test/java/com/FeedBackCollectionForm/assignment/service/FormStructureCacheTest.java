@@ -0,0 +1,86 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.model.User;
+import com.FeedBackCollectionForm.assignment.payload.request.AnswerRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.FormRequest;
+import com.FeedBackCollectionForm.assignment.payload.request.ResponseRequest;
+import com.FeedBackCollectionForm.assignment.payload.response.FormResponse;
+import com.FeedBackCollectionForm.assignment.payload.response.QuestionResponse;
+import com.FeedBackCollectionForm.assignment.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that once a form has been submitted to, further submissions read the
+ * form, its questions and its options from the second-level cache only.
+ */
+class FormStructureCacheTest extends FormServiceTestSupport {
+	private static final Pattern STRUCTURE_SELECT =
+			Pattern.compile("(?is)^\\s*select\\b.*\\b(from|join)\\s+(forms|questions|options)\\b.*");
+
+	@Autowired
+	private FormService formService;
+
+	@Autowired
+	private ResponseService responseService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void warmSubmissionIssuesNoSelectsForFormStructure() {
+		userRepository.save(new User("cache-owner", "cache-owner@example.com", "Cache Owner", "5550100", "unused"));
+		String publicUrl = formService.createForm(formRequest(), "cache-owner").getPublicUrl();
+		FormResponse form = formService.getFormByPublicUrl(publicUrl);
+
+		// The first submission loads the structure into the cache
+		responseService.submitResponse(publicUrl, responseRequest(form));
+
+		clearStatements();
+		responseService.submitResponse(publicUrl, responseRequest(form));
+		List<String> statements = recordedStatements();
+
+		List<String> structureSelects = statements.stream()
+				.filter(sql -> STRUCTURE_SELECT.matcher(sql).matches())
+				.toList();
+		assertTrue(statements.stream().anyMatch(sql -> sql.toLowerCase().startsWith("insert into answers")),
+				"the statement inspector did not see the submission");
+		assertEquals(List.of(), structureSelects);
+	}
+
+	private static FormRequest formRequest() {
+		FormRequest request = new FormRequest();
+		request.setTitle("Cached form");
+		request.setDescription("Submitted to twice");
+		request.setQuestions(List.of(
+				question("Comments", QuestionType.TEXT),
+				question("Pick one", QuestionType.MULTIPLE_CHOICE, "Red", "Green", "Blue"),
+				question("Rate us", QuestionType.RATING_SCALE)));
+		return request;
+	}
+
+	private static ResponseRequest responseRequest(FormResponse form) {
+		ResponseRequest request = new ResponseRequest();
+		request.setRespondentName("Respondent");
+		request.setRespondentEmail("respondent@example.com");
+		for (QuestionResponse question : form.getQuestions()) {
+			AnswerRequest answer = new AnswerRequest();
+			answer.setQuestionId(question.getId());
+			switch (question.getType()) {
+				case TEXT -> answer.setTextAnswer("Quick and painless");
+				case MULTIPLE_CHOICE -> answer.setSelectedOptionId(question.getOptions().get(1).getId());
+				case RATING_SCALE -> answer.setRatingValue(4);
+				default -> { }
+			}
+			request.getAnswers().add(answer);
+		}
+		return request;
+	}
+}
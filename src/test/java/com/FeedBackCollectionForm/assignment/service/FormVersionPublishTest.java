@@ -0,0 +1,80 @@
+package com.FeedBackCollectionForm.assignment.service;
+
+import com.FeedBackCollectionForm.assignment.model.Form;
+import com.FeedBackCollectionForm.assignment.model.QuestionType;
+import com.FeedBackCollectionForm.assignment.model.User;
+import com.FeedBackCollectionForm.assignment.payload.request.FormRequest;
+import com.FeedBackCollectionForm.assignment.payload.response.FormResponse;
+import com.FeedBackCollectionForm.assignment.repository.FormRepository;
+import com.FeedBackCollectionForm.assignment.repository.UserRepository;
+import com.FeedBackCollectionForm.assignment.service.version.FormSnapshot;
+import com.FeedBackCollectionForm.assignment.service.version.FormVersionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that publishing an unchanged structure keeps the current version,
+ * and that a version whose transaction rolls back is never served.
+ */
+class FormVersionPublishTest extends FormServiceTestSupport {
+	@Autowired
+	private FormService formService;
+
+	@Autowired
+	private FormVersionService formVersionService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private FormRepository formRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void publishingAnUnchangedStructureKeepsTheVersion() {
+		FormResponse created = createForm("publish-unchanged-owner");
+
+		FormSnapshot republished = transactionTemplate.execute(status ->
+				formVersionService.publish(formRepository.findById(created.getId()).orElseThrow()));
+
+		assertEquals(1, republished.getVersion());
+		assertEquals(created.getVersionId(), formRepository.findById(created.getId()).orElseThrow().getCurrentVersionId());
+	}
+
+	@Test
+	void rolledBackVersionIsNotCached() {
+		FormResponse created = createForm("publish-rollback-owner");
+
+		Long versionId = transactionTemplate.execute(status -> {
+			Form form = formRepository.findById(created.getId()).orElseThrow();
+			form.setTitle("Renamed, then rolled back");
+			FormSnapshot snapshot = formVersionService.publish(form);
+			assertEquals(2, snapshot.getVersion());
+			status.setRollbackOnly();
+			return form.getCurrentVersionId();
+		});
+
+		RuntimeException error = assertThrows(RuntimeException.class, () -> formVersionService.getSnapshot(versionId));
+		assertEquals("Form version not found", error.getMessage());
+		assertEquals("Published form", formVersionService.getSnapshot(created.getVersionId()).getTitle());
+	}
+
+	private FormResponse createForm(String owner) {
+		userRepository.save(new User(owner, owner + "@example.com", "Publish Owner", "5550104", "unused"));
+		FormRequest request = new FormRequest();
+		request.setTitle("Published form");
+		request.setDescription("Published once");
+		request.setQuestions(List.of(
+				question("Pick one", QuestionType.MULTIPLE_CHOICE, "Red", "Green"),
+				question("When", QuestionType.DATE)));
+		return formService.createForm(request, owner);
+	}
+}
@@ -0,0 +1,68 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BucketRingTest {
+
+	@Test
+	void countsAddUpPerBucket() {
+		BucketRing ring = new BucketRing(60);
+
+		ring.add(100, 1);
+		ring.add(100, 1);
+		ring.add(100, 1);
+		ring.add(101, 2);
+
+		assertEquals(3, ring.get(100));
+		assertEquals(2, ring.get(101));
+		assertEquals(0, ring.get(102));
+	}
+
+	@Test
+	void newerBucketReplacesTheSlotItWrapsOnto() {
+		BucketRing ring = new BucketRing(60);
+		ring.add(5, 4);
+
+		ring.add(65, 1);
+
+		assertEquals(0, ring.get(5));
+		assertEquals(1, ring.get(65));
+	}
+
+	@Test
+	void incrementsForOverwrittenBucketsAreDropped() {
+		BucketRing ring = new BucketRing(60);
+		ring.add(65, 1);
+
+		ring.add(5, 3);
+
+		assertEquals(1, ring.get(65));
+		assertEquals(0, ring.get(5));
+	}
+
+	@Test
+	void concurrentAddsAreNotLost() throws InterruptedException {
+		BucketRing ring = new BucketRing(60);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int thread = 0; thread < 8; thread++) {
+			executor.execute(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					ring.add(1_000 + i % 10, 1);
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+		for (long epoch = 1_000; epoch < 1_010; epoch++) {
+			assertEquals(8_000, ring.get(epoch), "Bucket " + epoch);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import com.FeedBackCollectionForm.assignment.util.Murmur3;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+	@Test
+	void estimatesNeverUndercountAndStayWithinTheErrorBound() {
+		CountMinSketch sketch = new CountMinSketch();
+		// Term frequencies fall off like natural language: term i occurs about 1000 / (i + 1) times
+		int terms = 2_000;
+		for (int i = 0; i < terms; i++) {
+			for (int n = 0; n < occurrences(i); n++) {
+				sketch.add(Murmur3.hash64("term" + i));
+			}
+		}
+
+		long bound = sketch.errorBound();
+		for (int i = 0; i < terms; i++) {
+			int estimate = sketch.estimate(Murmur3.hash64("term" + i));
+			assertTrue(estimate >= occurrences(i), "term" + i + " undercounted: " + estimate);
+			assertTrue(estimate - occurrences(i) <= bound, "term" + i + " overcounted: " + estimate);
+		}
+	}
+
+	@Test
+	void addReturnsTheNewEstimate() {
+		CountMinSketch sketch = new CountMinSketch();
+		long hash = Murmur3.hash64("refund");
+
+		assertEquals(1, sketch.add(hash));
+		assertEquals(2, sketch.add(hash));
+		assertEquals(2, sketch.estimate(hash));
+		assertEquals(0, sketch.estimate(Murmur3.hash64("delivery")));
+		assertEquals(2, sketch.getTotal());
+	}
+
+	@Test
+	void serializationRoundTrips() {
+		CountMinSketch sketch = new CountMinSketch(256, 4);
+		for (int i = 0; i < 5_000; i++) {
+			sketch.add(Murmur3.hash64("term" + i % 300));
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		sketch.writeTo(out);
+
+		CountMinSketch restored = CountMinSketch.readFrom(ByteBuffer.wrap(out.toByteArray()));
+
+		assertEquals(sketch.getTotal(), restored.getTotal());
+		for (int i = 0; i < 300; i++) {
+			long hash = Murmur3.hash64("term" + i);
+			assertEquals(sketch.estimate(hash), restored.estimate(hash));
+		}
+	}
+
+	@Test
+	void rejectsInvalidDimensions() {
+		assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 5));
+		assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(2048, 0));
+	}
+
+	private static int occurrences(int term) {
+		return 1_000 / (term + 1) + 1;
+	}
+}
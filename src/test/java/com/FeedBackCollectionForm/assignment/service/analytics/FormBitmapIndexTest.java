@@ -0,0 +1,83 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import com.FeedBackCollectionForm.assignment.service.analytics.FormBitmapIndex.IndexedAnswer;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FormBitmapIndexTest {
+	private static final long CHOICE = 1;
+	private static final long RATING = 2;
+	private static final long TEXT = 3;
+	private static final long YES = 100;
+	private static final long NO = 101;
+
+	@Test
+	void optionsSelectTheResponsesThatChoseThem() {
+		FormBitmapIndex index = sampleIndex();
+
+		assertEquals(List.of(10L, 30L), responseIds(index, index.option(YES)));
+		assertEquals(List.of(20L), responseIds(index, index.option(NO)));
+		assertEquals(List.of(), responseIds(index, index.option(999)));
+	}
+
+	@Test
+	void ratingRangesIncludeTheirBounds() {
+		FormBitmapIndex index = sampleIndex();
+
+		assertEquals(List.of(20L, 30L), responseIds(index, index.ratingRange(RATING, 3, 4)));
+		assertEquals(List.of(30L, 40L), responseIds(index, index.ratingRange(RATING, 4, null)));
+		assertEquals(List.of(10L, 20L), responseIds(index, index.ratingRange(RATING, null, 3)));
+		assertEquals(List.of(10L, 20L, 30L, 40L), responseIds(index, index.ratingRange(RATING, null, null)));
+		assertEquals(List.of(), responseIds(index, index.ratingRange(RATING, 4, 3)));
+	}
+
+	@Test
+	void filtersCombineAsBitmapOperations() {
+		FormBitmapIndex index = sampleIndex();
+
+		// Chose yes and rated 4 or more
+		assertEquals(List.of(30L), responseIds(index,
+				RoaringBitmap.and(index.option(YES), index.ratingRange(RATING, 4, null))));
+		// Did not answer the text question
+		assertEquals(List.of(20L, 40L), responseIds(index,
+				RoaringBitmap.andNot(index.all(), index.answered(TEXT))));
+	}
+
+	@Test
+	void addingAResponseAgainHasNoEffect() {
+		FormBitmapIndex index = sampleIndex();
+
+		index.add(20, List.of(new IndexedAnswer(CHOICE, List.of(YES), null)));
+
+		assertEquals(4, index.all().getCardinality());
+		assertEquals(List.of(10L, 30L), responseIds(index, index.option(YES)));
+	}
+
+	// Four responses: 10 and 30 chose yes, 20 chose no, 40 skipped the choice; ratings 2 to 5
+	private static FormBitmapIndex sampleIndex() {
+		FormBitmapIndex index = new FormBitmapIndex();
+		index.add(10, List.of(new IndexedAnswer(CHOICE, List.of(YES), null),
+				new IndexedAnswer(RATING, List.of(), 2),
+				new IndexedAnswer(TEXT, List.of(), null)));
+		index.add(20, List.of(new IndexedAnswer(CHOICE, List.of(NO), null),
+				new IndexedAnswer(RATING, List.of(), 3)));
+		index.add(30, List.of(new IndexedAnswer(CHOICE, List.of(YES), null),
+				new IndexedAnswer(RATING, List.of(), 4),
+				new IndexedAnswer(TEXT, List.of(), null)));
+		index.add(40, List.of(new IndexedAnswer(RATING, List.of(), 5)));
+		return index;
+	}
+
+	private static List<Long> responseIds(FormBitmapIndex index, RoaringBitmap ordinals) {
+		return index.query(view -> {
+			List<Long> ids = new ArrayList<>();
+			ordinals.forEach((int ordinal) -> ids.add(view.responseId(ordinal)));
+			return ids;
+		});
+	}
+}
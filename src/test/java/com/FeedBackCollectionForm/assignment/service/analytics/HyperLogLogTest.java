@@ -0,0 +1,70 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import com.FeedBackCollectionForm.assignment.util.Murmur3;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+	@Test
+	void estimatesStayWithinThreeStandardErrorsOfExactCounts() {
+		HyperLogLog sketch = new HyperLogLog();
+		Set<String> exact = new HashSet<>();
+		double tolerance = 3 * sketch.relativeStandardError();
+
+		int[] checkpoints = {10, 100, 1_000, 10_000, 40_000, 100_000, 500_000};
+		int next = 0;
+		for (int i = 1; next < checkpoints.length; i++) {
+			// Every value is added twice; duplicates must not change the estimate
+			String email = "respondent" + (i % checkpoints[checkpoints.length - 1]) + "@example.com";
+			sketch.add(Murmur3.hash64(email));
+			sketch.add(Murmur3.hash64(email));
+			exact.add(email);
+			if (exact.size() == checkpoints[next]) {
+				double error = Math.abs(sketch.estimate() - exact.size()) / (double) exact.size();
+				assertTrue(error <= tolerance,
+						"Estimate " + sketch.estimate() + " for " + exact.size() + " values is off by " + error);
+				next++;
+			}
+		}
+	}
+
+	@Test
+	void mergeCountsOverlappingValuesOnce() {
+		HyperLogLog first = new HyperLogLog();
+		HyperLogLog second = new HyperLogLog();
+		for (int i = 0; i < 30_000; i++) {
+			first.add(Murmur3.hash64("user" + i));
+			second.add(Murmur3.hash64("user" + (i + 20_000)));
+		}
+
+		first.merge(second);
+
+		double error = Math.abs(first.estimate() - 50_000) / 50_000.0;
+		assertTrue(error <= 3 * first.relativeStandardError(), "Merged estimate " + first.estimate());
+	}
+
+	@Test
+	void serializationRoundTrips() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int i = 0; i < 5_000; i++) {
+			sketch.add(Murmur3.hash64("user" + i));
+		}
+
+		HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+		assertEquals(sketch.estimate(), restored.estimate());
+		assertArrayEquals(sketch.toBytes(), restored.toBytes());
+	}
+
+	@Test
+	void emptySketchEstimatesZero() {
+		assertEquals(0, new HyperLogLog().estimate());
+	}
+}
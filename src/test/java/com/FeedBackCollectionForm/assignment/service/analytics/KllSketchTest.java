@@ -0,0 +1,106 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KllSketchTest {
+	private static final double[] FRACTIONS = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99};
+
+	@Test
+	void quantilesOfShortStreamsAreExact() {
+		KllSketch sketch = new KllSketch();
+		for (int value = 1; value <= 100; value++) {
+			sketch.add(value);
+		}
+
+		assertEquals(1, sketch.quantile(0.0));
+		assertEquals(50, sketch.quantile(0.5));
+		assertEquals(90, sketch.quantile(0.9));
+		assertEquals(100, sketch.quantile(1.0));
+	}
+
+	@Test
+	void quantilesOfALongStreamStayWithinTheRankError() {
+		int n = 100_000;
+		KllSketch sketch = new KllSketch();
+		for (int value : shuffled(n)) {
+			sketch.add(value);
+		}
+
+		assertEquals(n, sketch.getCount());
+		assertWithinRankError(sketch, n);
+	}
+
+	@Test
+	void mergeMatchesOneSketchOfBothStreams() {
+		int n = 50_000;
+		KllSketch first = new KllSketch();
+		KllSketch second = new KllSketch();
+		List<Integer> values = shuffled(n);
+		for (int i = 0; i < n; i++) {
+			(i % 2 == 0 ? first : second).add(values.get(i));
+		}
+
+		first.merge(second);
+
+		assertEquals(n, first.getCount());
+		assertWithinRankError(first, n);
+	}
+
+	@Test
+	void serializationRoundTrips() {
+		KllSketch sketch = new KllSketch();
+		for (int value : shuffled(10_000)) {
+			sketch.add(value);
+		}
+
+		KllSketch restored = KllSketch.fromBytes(sketch.toBytes());
+
+		assertEquals(sketch.getCount(), restored.getCount());
+		for (double fraction : FRACTIONS) {
+			assertEquals(sketch.quantile(fraction), restored.quantile(fraction));
+		}
+		assertArrayEquals(sketch.toBytes(), restored.toBytes());
+	}
+
+	@Test
+	void emptySketchHasNoQuantiles() {
+		assertNull(new KllSketch().quantile(0.5));
+	}
+
+	@Test
+	void rejectsInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new KllSketch(4));
+		assertThrows(IllegalArgumentException.class, () -> new KllSketch().quantile(1.5));
+	}
+
+	// The values 0..n-1 make the true rank of a value the value itself
+	private static void assertWithinRankError(KllSketch sketch, int n) {
+		// Twice the 99% bound keeps the check far from flaky
+		double tolerance = 2 * sketch.normalizedRankError();
+		for (double fraction : FRACTIONS) {
+			double rank = (double) sketch.quantile(fraction) / n;
+			assertTrue(Math.abs(rank - fraction) <= tolerance,
+					"p" + fraction + " estimated at rank " + rank);
+		}
+	}
+
+	private static List<Integer> shuffled(int n) {
+		List<Integer> values = new ArrayList<>(n);
+		for (int value = 0; value < n; value++) {
+			values.add(value);
+		}
+		Collections.shuffle(values, new Random(42));
+		return values;
+	}
+}
@@ -0,0 +1,78 @@
+package com.FeedBackCollectionForm.assignment.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservoirSampleTest {
+
+	@Test
+	void fillsTheSlotsInOrderUntilFull() {
+		ReservoirSample sample = new ReservoirSample(10);
+
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i, sample.offer());
+		}
+		for (int i = 0; i < 1_000; i++) {
+			int slot = sample.offer();
+			assertTrue(slot >= -1 && slot < 10, "Slot " + slot);
+		}
+		assertEquals(1_010, sample.getSeen());
+	}
+
+	@Test
+	void everyItemIsKeptWithTheSameProbability() {
+		int capacity = 100;
+		int streamLength = 1_000;
+		int trials = 2_000;
+		// How often an item from each tenth of the stream ended up in the sample
+		long[] keptByTenth = new long[10];
+		for (int trial = 0; trial < trials; trial++) {
+			ReservoirSample sample = new ReservoirSample(capacity);
+			int[] slots = new int[capacity];
+			for (int item = 0; item < streamLength; item++) {
+				int slot = sample.offer();
+				if (slot >= 0) {
+					slots[slot] = item;
+				}
+			}
+			for (int item : slots) {
+				keptByTenth[item * 10 / streamLength]++;
+			}
+		}
+
+		// Each tenth should hold a tenth of the sample; the tolerance is many standard deviations wide
+		double expected = (double) trials * capacity / 10;
+		for (int tenth = 0; tenth < 10; tenth++) {
+			assertTrue(Math.abs(keptByTenth[tenth] - expected) < 0.1 * expected,
+					"Tenth " + tenth + " was kept " + keptByTenth[tenth] + " times, expected " + expected);
+		}
+	}
+
+	@Test
+	void sampleOfTheWholePopulationIsExact() {
+		assertArrayEquals(new double[]{0.3, 0.3}, ReservoirSample.proportionInterval(30, 100, 100));
+		assertArrayEquals(new long[]{30, 30, 30}, ReservoirSample.estimateCount(30, 100, 100));
+	}
+
+	@Test
+	void intervalContainsTheEstimateAndNarrowsWithTheSample() {
+		long[] small = ReservoirSample.estimateCount(5, 40, 10_000);
+		long[] large = ReservoirSample.estimateCount(500, 4_000, 10_000);
+
+		assertEquals(1_250, small[0]);
+		assertEquals(1_250, large[0]);
+		assertTrue(small[1] <= small[0] && small[0] <= small[2]);
+		assertTrue(large[1] <= large[0] && large[0] <= large[2]);
+		assertTrue(large[2] - large[1] < small[2] - small[1]);
+	}
+
+	@Test
+	void emptySampleSaysNothing() {
+		assertArrayEquals(new long[]{0, 0, 500}, ReservoirSample.estimateCount(0, 0, 500));
+		assertThrows(IllegalArgumentException.class, () -> new ReservoirSample(0));
+	}
+}
@@ -0,0 +1,85 @@
+package com.FeedBackCollectionForm.assignment.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+	@Test
+	void addedElementsAreAlwaysFound() {
+		BloomFilter filter = new BloomFilter(10_000, 0.001);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add(Murmur3.hash64("token" + i));
+		}
+
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain(Murmur3.hash64("token" + i)), "token" + i);
+		}
+		assertEquals(10_000, filter.getElements());
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheTargetAtExpectedLoad() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add(Murmur3.hash64("token" + i));
+		}
+
+		int falsePositives = 0;
+		int lookups = 100_000;
+		for (int i = 0; i < lookups; i++) {
+			if (filter.mightContain(Murmur3.hash64("other" + i))) {
+				falsePositives++;
+			}
+		}
+
+		double rate = (double) falsePositives / lookups;
+		assertTrue(rate < 0.02, "False positive rate " + rate);
+		assertTrue(Math.abs(filter.expectedFalsePositiveRate() - 0.01) < 0.005,
+				"Expected rate " + filter.expectedFalsePositiveRate());
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		BloomFilter filter = new BloomFilter(100, 0.001);
+
+		assertFalse(filter.mightContain(Murmur3.hash64("token")));
+		assertEquals(0, filter.expectedFalsePositiveRate());
+	}
+
+	@Test
+	void concurrentAddsAreNotLost() throws InterruptedException {
+		BloomFilter filter = new BloomFilter(40_000, 0.001);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int thread = 0; thread < 4; thread++) {
+			int offset = thread * 10_000;
+			executor.execute(() -> {
+				for (int i = offset; i < offset + 10_000; i++) {
+					filter.add(Murmur3.hash64("token" + i));
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+		for (int i = 0; i < 40_000; i++) {
+			assertTrue(filter.mightContain(Murmur3.hash64("token" + i)), "token" + i);
+		}
+		assertEquals(40_000, filter.getElements());
+	}
+
+	@Test
+	void rejectsInvalidSizing() {
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+	}
+}